@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.examples.with.different.packagename.benchmarks;
+
+/**
+ * Class under test of the benchmarks, with a few branches on primitive
+ * values and on the state of the object
+ */
+public class BoundedStack {
+
+    private final int[] values;
+
+    private int size = 0;
+
+    public BoundedStack(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity");
+        }
+        values = new int[Math.min(capacity, 100)];
+    }
+
+    public void push(int value) {
+        if (size == values.length) {
+            throw new IllegalStateException("Stack is full");
+        }
+        values[size++] = value;
+    }
+
+    public int pop() {
+        if (size == 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return values[--size];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int max() {
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (values[i] > max) {
+                max = values[i];
+            }
+        }
+        return max;
+    }
+
+    public void pushAll(BoundedStack other) {
+        while (!other.isEmpty()) {
+            push(other.pop());
+        }
+    }
+
+    public static String classify(int a, int b, int c) {
+        if (a <= 0 || b <= 0 || c <= 0) {
+            return "invalid";
+        }
+        if (a + b <= c || a + c <= b || b + c <= a) {
+            return "not a triangle";
+        }
+        if (a == b && b == c) {
+            return "equilateral";
+        }
+        if (a == b || b == c || a == c) {
+            return "isosceles";
+        }
+        return "scalene";
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the results of a JMH run (written with
+ * <code>-rf csv -rff result.csv</code>) to the checked-in baseline, and
+ * exits with status 1 if any benchmark got slower than the given
+ * tolerance.
+ * <p>
+ * The tolerance is relative to the baseline score, and is widened by the
+ * score errors (the 99.9% confidence intervals) recorded for the baseline
+ * and the new result, so that a benchmark only counts as a regression if
+ * it got slower by more than the tolerance plus its measurement noise.
+ * <p>
+ * Rows are matched by benchmark name and parameters. Benchmarks missing
+ * from either file are reported, but are not considered regressions.
+ */
+public class BaselineComparison {
+
+    private static final double DEFAULT_TOLERANCE = 10.0;
+
+    private static final class Result {
+        final String mode;
+        final double score;
+        final double error;
+        final String unit;
+
+        Result(String mode, double score, double error, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+
+    /**
+     * @param file a CSV file written by JMH
+     * @return the results by benchmark name and parameters
+     */
+    static Map<String, Result> read(String file) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+        List<String> header = parseLine(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int mode = header.indexOf("Mode");
+        int score = header.indexOf("Score");
+        int error = header.indexOf("Score Error (99.9%)");
+        int unit = header.indexOf("Unit");
+        if (benchmark < 0 || mode < 0 || score < 0 || unit < 0) {
+            throw new IOException("Not a JMH result file: " + file);
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            List<String> values = parseLine(line);
+            StringBuilder key = new StringBuilder(values.get(benchmark));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && !values.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(values.get(i));
+                }
+            }
+            results.put(key.toString(), new Result(values.get(mode), Double.parseDouble(values.get(score)),
+                    error < 0 ? 0.0 : parseError(values.get(error)), values.get(unit)));
+        }
+        return results;
+    }
+
+    /**
+     * JMH writes NaN as the error of benchmarks with a single measurement
+     */
+    private static double parseError(String value) {
+        double error = Double.parseDouble(value);
+        return Double.isNaN(error) ? 0.0 : error;
+    }
+
+    private static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * @return the relative slowdown of the result in percent, negative if it got faster
+     */
+    static double slowdown(Result baseline, Result result) {
+        if ("thrpt".equals(baseline.mode)) {
+            return (baseline.score - result.score) / baseline.score * 100.0;
+        } else {
+            return (result.score - baseline.score) / baseline.score * 100.0;
+        }
+    }
+
+    /**
+     * @return the combined score error of both results in percent of the baseline score
+     */
+    static double noise(Result baseline, Result result) {
+        return Math.sqrt(baseline.error * baseline.error + result.error * result.error) / baseline.score * 100.0;
+    }
+
+    /**
+     * @return the number of regressions
+     */
+    static int compare(Map<String, Result> baseline, Map<String, Result> results, double tolerance) {
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Result reference = baseline.get(entry.getKey());
+            Result result = entry.getValue();
+            if (reference == null) {
+                System.out.println("NEW        " + entry.getKey());
+                continue;
+            }
+            if (!reference.mode.equals(result.mode) || !reference.unit.equals(result.unit)) {
+                System.out.println("CHANGED    " + entry.getKey() + ": " + reference.mode + " " + reference.unit
+                        + " -> " + result.mode + " " + result.unit);
+                continue;
+            }
+            double slowdown = slowdown(reference, result);
+            double noise = noise(reference, result);
+            boolean regression = slowdown > tolerance + noise;
+            if (regression) {
+                regressions++;
+            }
+            System.out.println(String.format("%s %s: %.3f +- %.3f -> %.3f +- %.3f %s (%+.1f%%, noise %.1f%%)",
+                    regression ? "REGRESSION" : "OK        ", entry.getKey(), reference.score, reference.error,
+                    result.score, result.error, result.unit, slowdown, noise));
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.println("MISSING    " + key);
+            }
+        }
+        return regressions;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: " + BaselineComparison.class.getName()
+                    + " <baseline.csv> <result.csv> [tolerance in percent, default " + DEFAULT_TOLERANCE + "]");
+            System.exit(2);
+        }
+        double tolerance = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        int regressions = compare(read(args[0]), read(args[1]), tolerance);
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) slower than the baseline by more than "
+                    + tolerance + "% plus the score error");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import com.examples.with.different.packagename.benchmarks.BoundedStack;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFactory;
+import org.evosuite.utils.Randomness;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed corpus of tests for {@link BoundedStack}, generated with the test
+ * factory from a fixed seed, such that all the benchmarks using it measure
+ * the same tests on every run.
+ */
+public class Corpus {
+
+    public static final String TARGET_CLASS = BoundedStack.class.getName();
+
+    private static final long SEED = 42L;
+
+    private static boolean initialized = false;
+
+    /**
+     * Analyzes and instruments the class under test, as done before the
+     * search, with branch coverage as criterion
+     */
+    public static synchronized void setUp() throws ClassNotFoundException {
+        if (initialized) {
+            return;
+        }
+        Properties.TARGET_CLASS = TARGET_CLASS;
+        Properties.CRITERION = new Properties.Criterion[]{Properties.Criterion.BRANCH};
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
+        DependencyAnalysis.analyzeClass(TARGET_CLASS, Arrays.asList(cp.split(File.pathSeparator)));
+        TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(TARGET_CLASS);
+        initialized = true;
+    }
+
+    /**
+     * @param numTests      the number of tests
+     * @param numStatements the number of random insertions in each test
+     * @return the same tests for the same arguments
+     */
+    public static List<TestChromosome> createTests(int numTests, int numStatements) {
+        Randomness.setSeed(SEED);
+        List<TestChromosome> tests = new ArrayList<>();
+        for (int i = 0; i < numTests; i++) {
+            TestCase test = new DefaultTestCase();
+            for (int j = 0; j < numStatements; j++) {
+                TestFactory.getInstance().insertRandomStatement(test, test.size() - 1);
+            }
+            TestChromosome chromosome = new TestChromosome();
+            chromosome.setTestCase(test);
+            tests.add(chromosome);
+        }
+        return tests;
+    }
+}
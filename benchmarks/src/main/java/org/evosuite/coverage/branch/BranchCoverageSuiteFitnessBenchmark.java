@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.coverage.branch;
+
+import org.evosuite.benchmarks.Corpus;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the branch coverage fitness of a suite of the fixed corpus. The
+ * "cached" variant reuses the execution results of the tests, and hence
+ * only measures the fitness computation over the traces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class BranchCoverageSuiteFitnessBenchmark {
+
+    @Param({"20"})
+    public int numTests;
+
+    @Param({"10"})
+    public int numStatements;
+
+    private BranchCoverageSuiteFitness fitness;
+
+    private TestSuiteChromosome suite;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ClassNotFoundException {
+        Corpus.setUp();
+        fitness = new BranchCoverageSuiteFitness();
+        suite = new TestSuiteChromosome();
+        suite.addFitness(fitness);
+        for (TestChromosome test : Corpus.createTests(numTests, numStatements)) {
+            suite.addTest(test);
+        }
+        fitness.getFitness(suite);
+    }
+
+    @Benchmark
+    public double getFitnessCached() {
+        suite.setChanged(true);
+        return fitness.getFitness(suite);
+    }
+
+    @Benchmark
+    public double getFitness() {
+        for (TestChromosome test : suite.getTestChromosomes()) {
+            test.clearCachedResults();
+            test.setChanged(true);
+        }
+        suite.setChanged(true);
+        return fitness.getFitness(suite);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.TestChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-dominated sorting of the union of parents and offspring, as done by
+ * MOSA in each generation, with the fast non-dominated sort and with the
+ * efficient non-dominated sort, from scratch and incrementally (i.e., with
+ * the parents ranked by the previous generation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class RankingBenchmark {
+
+    private static final class Goal extends FitnessFunction<TestChromosome> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public double getFitness(TestChromosome individual) {
+            return Double.MAX_VALUE;
+        }
+
+        @Override
+        public boolean isMaximizationFunction() {
+            return false;
+        }
+    }
+
+    @Param({"50"})
+    private int populationSize;
+
+    @Param({"10", "3000"})
+    private int numGoals;
+
+    private Set<FitnessFunction<TestChromosome>> goals;
+
+    /**
+     * Parents and offspring of the previous generation
+     */
+    private List<TestChromosome> previousUnion;
+
+    /**
+     * The parents selected from the previous generation, and new offspring
+     */
+    private List<TestChromosome> union;
+
+    private EfficientNonDominatedSorting<TestChromosome> incremental;
+
+    private List<TestChromosome> createSolutions(Random random, int size) {
+        List<TestChromosome> solutions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TestChromosome solution = new TestChromosome();
+            for (FitnessFunction<TestChromosome> goal : goals) {
+                // most goals are not reached by most tests
+                double fitness = random.nextInt(4) == 0 ? random.nextInt(3) + random.nextDouble() : 10.0;
+                solution.setFitness(goal, fitness);
+            }
+            solutions.add(solution);
+        }
+        return solutions;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        goals = new LinkedHashSet<>();
+        for (int i = 0; i < numGoals; i++) {
+            goals.add(new Goal());
+        }
+        previousUnion = createSolutions(random, 2 * populationSize);
+
+        EfficientNonDominatedSorting<TestChromosome> ranking = new EfficientNonDominatedSorting<>(false);
+        ranking.computeRankingAssignment(previousUnion, goals);
+        union = new ArrayList<>();
+        for (int i = 0; union.size() < populationSize; i++) {
+            List<TestChromosome> front = ranking.getSubfront(i);
+            union.addAll(front.subList(0, Math.min(front.size(), populationSize - union.size())));
+        }
+        union.addAll(createSolutions(random, populationSize));
+    }
+
+    /**
+     * Ranks the previous generation, which is not measured, as an invocation takes milliseconds
+     */
+    @Setup(Level.Invocation)
+    public void rankPreviousGeneration() {
+        incremental = new EfficientNonDominatedSorting<>(true);
+        incremental.computeRankingAssignment(previousUnion, goals);
+    }
+
+    @Benchmark
+    public int fastNonDominatedSorting() {
+        FastNonDominatedSorting<TestChromosome> ranking = new FastNonDominatedSorting<>();
+        ranking.computeRankingAssignment(union, goals);
+        return ranking.getNumberOfSubfronts();
+    }
+
+    @Benchmark
+    public int efficientNonDominatedSorting() {
+        EfficientNonDominatedSorting<TestChromosome> ranking = new EfficientNonDominatedSorting<>(false);
+        ranking.computeRankingAssignment(union, goals);
+        return ranking.getNumberOfSubfronts();
+    }
+
+    @Benchmark
+    public int incrementalNonDominatedSorting() {
+        incremental.computeRankingAssignment(union, goals);
+        return incremental.getNumberOfSubfronts();
+    }
+}
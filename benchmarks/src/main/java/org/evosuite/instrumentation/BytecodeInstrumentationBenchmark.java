@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.branch.BranchPool;
+import org.evosuite.coverage.dataflow.DefUsePool;
+import org.evosuite.coverage.mutation.MutationPool;
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cfg.BytecodeInstructionPool;
+import org.evosuite.graphs.cfg.CFGMethodAdapter;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.util.ComputeClassWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of instrumenting a class under test, with and without
+ * {@link InstrumentationCache}, and cost of the frame computation alone,
+ * which is what the cache saves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class BytecodeInstrumentationBenchmark {
+
+    @Param({"org.apache.commons.lang3.StringUtils", "org.apache.commons.lang3.math.NumberUtils"})
+    public String className;
+
+    private BytecodeInstrumentation instrumentation;
+
+    private InstrumentingClassLoader loader;
+
+    private String internalName;
+
+    private byte[] original;
+
+    private byte[] withoutFrames;
+
+    private File cacheDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Properties.TARGET_CLASS = className;
+        internalName = className.replace('.', '/');
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(internalName + ".class")) {
+            original = new ClassReader(in).b;
+        }
+        instrumentation = new BytecodeInstrumentation();
+        loader = new InstrumentingClassLoader(instrumentation);
+
+        ClassWriter writer = new ClassWriter(0);
+        new ClassReader(instrument()).accept(writer, ClassReader.SKIP_FRAMES);
+        withoutFrames = writer.toByteArray();
+
+        cacheDirectory = Files.createTempDirectory("instrumentation-cache").toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Properties.getInstance().resetToDefaults();
+        InstrumentationCache.resetSingleton();
+        try (Stream<java.nio.file.Path> files = Files.walk(cacheDirectory.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * The identifiers assigned by the coverage pools and the loop counter are
+     * part of the instrumented code, so they are cleared before each
+     * instrumentation, as if the class was loaded by a new client. The cache
+     * is recreated as well, so that it validates its entries from scratch
+     */
+    @Setup(Level.Invocation)
+    public void clearPools() {
+        InstrumentationCache.resetSingleton();
+        BranchPool.getInstance(loader).reset();
+        MutationPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).clear();
+        GraphPool.clearAll();
+        DefUsePool.clear();
+        BytecodeInstructionPool.clearAll();
+        LinePool.reset();
+        LoopCounter.getInstance().reset();
+        for (ClassLoader cl : CFGMethodAdapter.methods.keySet()) {
+            CFGMethodAdapter.methods.get(cl).clear();
+        }
+    }
+
+    private byte[] instrument() {
+        return instrumentation.transformBytes(loader, internalName, new ClassReader(original));
+    }
+
+    @Benchmark
+    public byte[] instrumentWithoutCache() {
+        Properties.INSTRUMENTATION_CACHE_DIR = null;
+        return instrument();
+    }
+
+    @Benchmark
+    public byte[] instrumentWithCache() {
+        // all but the first instrumentation hit the cache
+        Properties.INSTRUMENTATION_CACHE_DIR = cacheDirectory.getAbsolutePath();
+        return instrument();
+    }
+
+    @Benchmark
+    public byte[] computeFrames() {
+        ClassWriter writer = new ComputeClassWriter(ClassWriter.COMPUTE_FRAMES);
+        new ClassReader(withoutFrames).accept(writer, ClassReader.SKIP_FRAMES);
+        return writer.toByteArray();
+    }
+}
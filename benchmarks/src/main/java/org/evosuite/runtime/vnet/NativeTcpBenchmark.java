@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vnet;
+
+import org.evosuite.runtime.mock.java.net.SocketIn;
+import org.evosuite.runtime.mock.java.net.SocketOut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a virtual TCP connection: the SUT sends a message through
+ * the stream of its socket, and the test reads it, in chunks of the given
+ * size (1 is byte by byte).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class NativeTcpBenchmark {
+
+    @Param({"65536"})
+    public int messageSize;
+
+    @Param({"1", "4096"})
+    public int chunkSize;
+
+    private OutputStream sutOut;
+
+    private InputStream testIn;
+
+    private byte[] message;
+
+    private byte[] chunk;
+
+    @Setup
+    public void setUp() {
+        NativeTcp tcp = new NativeTcp(new EndPointInfo("127.0.0.1", 8080, VirtualNetwork.ConnectionType.TCP),
+                new EndPointInfo("127.0.0.2", 42, VirtualNetwork.ConnectionType.TCP));
+        sutOut = new SocketOut(tcp, true);
+        testIn = new SocketIn(tcp, false);
+        message = new byte[messageSize];
+        for (int i = 0; i < messageSize; i++) {
+            message[i] = (byte) i;
+        }
+        chunk = new byte[chunkSize];
+    }
+
+    @Benchmark
+    public int transfer() throws IOException {
+        int sum = 0;
+        if (chunkSize == 1) {
+            for (byte b : message) {
+                sutOut.write(b);
+            }
+            for (int i = 0; i < messageSize; i++) {
+                sum += testIn.read();
+            }
+        } else {
+            for (int i = 0; i < messageSize; i += chunkSize) {
+                sutOut.write(message, i, Math.min(chunkSize, messageSize - i));
+            }
+            int n;
+            while ((n = testIn.read(chunk, 0, chunkSize)) > 0) {
+                sum += n;
+            }
+        }
+        return sum;
+    }
+}
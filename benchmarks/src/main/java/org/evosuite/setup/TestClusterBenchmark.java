@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.ConstructionFailedException;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericClassFactory;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the generator lookups that {@code TestFactory} performs when it
+ * inserts statements. The "cold" variant forgets the instantiated generators
+ * before each lookup, and hence measures the matching of the target type
+ * against the types with generators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class TestClusterBenchmark {
+
+    private static final Class<?>[] GENERATED_CLASSES = {
+            String.class, StringBuilder.class, StringBuffer.class, Object.class, Thread.class,
+            java.io.File.class, java.io.StringReader.class, java.io.StringWriter.class,
+            java.io.ByteArrayInputStream.class, java.io.ByteArrayOutputStream.class,
+            java.io.PrintWriter.class, java.io.BufferedReader.class, java.net.URI.class,
+            java.util.Random.class, java.util.Date.class, java.util.Locale.class,
+            java.util.StringTokenizer.class, java.util.Scanner.class, java.util.Formatter.class,
+            java.util.BitSet.class, java.util.Timer.class, java.text.SimpleDateFormat.class,
+            java.text.DecimalFormat.class, java.util.regex.Pattern.class,
+            java.util.concurrent.atomic.AtomicBoolean.class, java.util.concurrent.locks.ReentrantLock.class,
+            Exception.class, RuntimeException.class, IllegalArgumentException.class,
+            IllegalStateException.class, UnsupportedOperationException.class
+    };
+
+    private static final Class<?>[] TARGET_CLASSES = {
+            CharSequence.class, Appendable.class, java.io.Reader.class, java.io.Writer.class,
+            java.io.InputStream.class, Runnable.class, Throwable.class, StringBuilder.class,
+            java.util.Random.class, java.io.Serializable.class
+    };
+
+    private TestCluster cluster;
+
+    private GenericClass<?>[] targets;
+
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Properties.TARGET_CLASS = Object.class.getName();
+        TestCluster.reset();
+        cluster = TestCluster.getInstance();
+
+        for (Class<?> clazz : GENERATED_CLASSES) {
+            GenericClass<?> type = GenericClassFactory.get(clazz);
+            for (Constructor<?> constructor : clazz.getConstructors()) {
+                if (Modifier.isPublic(constructor.getModifiers())) {
+                    cluster.addGenerator(type, new GenericConstructor(constructor, clazz));
+                }
+            }
+        }
+
+        List<GenericClass<?>> types = new ArrayList<>();
+        for (Class<?> clazz : TARGET_CLASSES) {
+            types.add(GenericClassFactory.get(clazz));
+        }
+        targets = types.toArray(new GenericClass<?>[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TestCluster.reset();
+    }
+
+    private GenericClass<?> nextTarget() {
+        return targets[(counter++ & Integer.MAX_VALUE) % targets.length];
+    }
+
+    @Benchmark
+    public boolean hasGenerator() {
+        return cluster.hasGenerator(nextTarget());
+    }
+
+    @Benchmark
+    public GenericAccessibleObject<?> getRandomGenerator() throws ConstructionFailedException {
+        return cluster.getRandomGenerator(nextTarget());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean hasGeneratorContended() {
+        return cluster.hasGenerator(targets[(int) (Thread.currentThread().getId() % targets.length)]);
+    }
+
+    @Benchmark
+    public boolean hasGeneratorCold() {
+        cluster.clearGeneratorCache(null);
+        return cluster.hasGenerator(nextTarget());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver.smt;
+
+import org.evosuite.symbolic.solver.SmtExprBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of printing an SMT-LIB query, as sent to the external solvers, for a
+ * path condition over integer and string variables.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class SmtQueryPrinterBenchmark {
+
+    @Param({"200"})
+    public int numAssertions;
+
+    private SmtQuery query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        query = new SmtQuery();
+        query.addOption(":produce-models", "true");
+        int numVariables = Math.max(1, numAssertions / 10);
+        for (int i = 0; i < numVariables; i++) {
+            query.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration("x" + i));
+            query.addConstantDeclaration(SmtExprBuilder.mkStringConstantDeclaration("s" + i));
+        }
+        for (int i = 0; i < numAssertions; i++) {
+            SmtExpr x = SmtExprBuilder.mkIntVariable("x" + (i % numVariables));
+            SmtExpr y = SmtExprBuilder.mkIntVariable("x" + ((i + 1) % numVariables));
+            SmtExpr s = SmtExprBuilder.mkStringVariable("s" + (i % numVariables));
+            SmtExpr sum = SmtExprBuilder.mkAdd(SmtExprBuilder.mkMul(x, SmtExprBuilder.mkIntConstant(i)), y);
+            SmtExpr formula;
+            if (i % 2 == 0) {
+                formula = SmtExprBuilder.mkGt(sum, SmtExprBuilder.mkStrLen(s));
+            } else {
+                formula = SmtExprBuilder.mkNot(SmtExprBuilder.mkEq(
+                        SmtExprBuilder.mkStrConcat(s, SmtExprBuilder.mkStringConstant("value" + i)),
+                        SmtExprBuilder.mkStringConstant("")));
+            }
+            query.addAssertion(new SmtAssertion(formula));
+        }
+    }
+
+    @Benchmark
+    public String print() {
+        return new SmtQueryPrinter().print(query);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the callbacks that the instrumentation inserts for each executed
+ * line and branch. The "InClassInit" variants run with the kill switch set
+ * inside a class initializer, where the tracer must not abort the execution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class ExecutionTracerBenchmark {
+
+    private static final String CLASS_NAME = "com.example.Foo";
+
+    private static final String METHOD_NAME = "bar(I)V";
+
+    private static final int NUM_BRANCHES = 512;
+
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExecutionTracer.setThread(Thread.currentThread());
+        ExecutionTracer.enable();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTrace() {
+        ExecutionTracer.getExecutionTracer().clear();
+        ExecutionTracer.setKillSwitch(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ExecutionTracer.setKillSwitch(false);
+        ExecutionTracer.disable();
+    }
+
+    @Benchmark
+    public void passedLine() {
+        ExecutionTracer.passedLine(CLASS_NAME, METHOD_NAME, counter++ & 1023);
+    }
+
+    @Benchmark
+    public void passedBranch() {
+        int value = counter++;
+        ExecutionTracer.passedBranch(value & 7, Opcodes.IFEQ, 1 + (value % NUM_BRANCHES), value % NUM_BRANCHES);
+    }
+
+    @Benchmark
+    public void passedBranchIntInt() {
+        int value = counter++;
+        ExecutionTracer.passedBranch(value & 7, 3, Opcodes.IF_ICMPLT, 1 + (value % NUM_BRANCHES),
+                value % NUM_BRANCHES);
+    }
+
+    @Benchmark
+    public void passedLineInClassInit() {
+        ExecutionTracer.enterClassInit(CLASS_NAME);
+        ExecutionTracer.setKillSwitch(true);
+        try {
+            ExecutionTracer.passedLine(CLASS_NAME, METHOD_NAME, counter++ & 1023);
+        } finally {
+            ExecutionTracer.setKillSwitch(false);
+            ExecutionTracer.exitClassInit(CLASS_NAME);
+        }
+    }
+}
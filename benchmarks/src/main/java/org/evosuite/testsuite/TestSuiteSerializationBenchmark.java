@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of saving and loading tests with the binary format of
+ * {@link BinaryTestWriter}, compared to the Java serialization used before.
+ * The sizes of the serialized tests in both formats are printed on setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class TestSuiteSerializationBenchmark {
+
+    @Param({"100"})
+    public int numTests;
+
+    @Param({"20"})
+    public int numStatements;
+
+    private List<TestChromosome> tests;
+
+    private byte[] javaBytes;
+
+    private byte[] binaryBytes;
+
+    private final ClassLoader loader = TestSuiteSerializationBenchmark.class.getClassLoader();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        tests = new ArrayList<>();
+        for (int i = 0; i < numTests; i++) {
+            tests.add(createTest(i));
+        }
+        javaBytes = writeJava();
+        binaryBytes = writeBinary();
+        System.out.println("\nJava serialization: " + javaBytes.length + " bytes, binary format: "
+                + binaryBytes.length + " bytes");
+    }
+
+    /**
+     * A test building strings and lists, with calls to a few different
+     * methods, as in the tests generated for a class
+     */
+    private TestChromosome createTest(int seed) throws ReflectiveOperationException {
+        DefaultTestCase test = new DefaultTestCase();
+        Type listType = new ParameterizedTypeImpl(ArrayList.class, new Type[]{String.class}, null);
+        VariableReference list = test.addStatement(new ConstructorStatement(test,
+                new GenericConstructor(ArrayList.class.getConstructor(), listType), Collections.emptyList()));
+        VariableReference builder = test.addStatement(new ConstructorStatement(test,
+                new GenericConstructor(StringBuilder.class.getConstructor(), StringBuilder.class),
+                Collections.emptyList()));
+        GenericMethod add = new GenericMethod(ArrayList.class.getMethod("add", Object.class), listType);
+        GenericMethod append = new GenericMethod(StringBuilder.class.getMethod("append", String.class),
+                StringBuilder.class);
+        GenericMethod insert = new GenericMethod(StringBuilder.class.getMethod("insert", int.class, String.class),
+                StringBuilder.class);
+        while (test.size() < numStatements) {
+            VariableReference string = test.addStatement(new StringPrimitiveStatement(test,
+                    "value" + seed + "_" + test.size()));
+            switch (test.size() % 3) {
+                case 0:
+                    test.addStatement(new MethodStatement(test, add, list, Collections.singletonList(string)));
+                    break;
+                case 1:
+                    test.addStatement(new MethodStatement(test, append, builder,
+                            Collections.singletonList(string)));
+                    break;
+                default:
+                    VariableReference index = test.addStatement(new IntPrimitiveStatement(test, 0));
+                    List<VariableReference> parameters = new ArrayList<>();
+                    parameters.add(index);
+                    parameters.add(string);
+                    test.addStatement(new MethodStatement(test, insert, builder, parameters));
+                    break;
+            }
+        }
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(test);
+        return chromosome;
+    }
+
+    @Benchmark
+    public byte[] writeJava() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (TestChromosome test : tests) {
+                out.writeObject(test);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeBinary() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryTestWriter out = new BinaryTestWriter(bytes)) {
+            for (TestChromosome test : tests) {
+                out.write(test);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<TestChromosome> readJava() throws IOException, ClassNotFoundException {
+        List<TestChromosome> result = new ArrayList<>();
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(javaBytes))) {
+            while (true) {
+                TestChromosome test = (TestChromosome) in.readObject();
+                for (Statement statement : test.getTestCase()) {
+                    statement.changeClassLoader(loader);
+                }
+                result.add(test);
+            }
+        } catch (EOFException e) {
+            // end of the tests
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<TestChromosome> readBinary() throws IOException {
+        List<TestChromosome> result = new ArrayList<>();
+        try (BinaryTestReader in = new BinaryTestReader(new ByteArrayInputStream(binaryBytes), loader)) {
+            in.forEachRemaining(result::add);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the assignability checks between raw, parameterized and
+ * wildcard types that the test factory performs when looking for
+ * generators and for variables to reuse.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class GenericClassBenchmark {
+
+    private GenericClass<?>[] types;
+
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<GenericClass<?>> list = new ArrayList<>();
+        for (Class<?> clazz : new Class<?>[]{Object.class, String.class, Integer.class, Number.class,
+                CharSequence.class, List.class, ArrayList.class, Collection.class, Map.class}) {
+            list.add(GenericClassFactory.get(clazz));
+        }
+        for (Type type : new Type[]{
+                new ParameterizedTypeImpl(List.class, new Type[]{String.class}, null),
+                new ParameterizedTypeImpl(ArrayList.class, new Type[]{String.class}, null),
+                new ParameterizedTypeImpl(LinkedList.class, new Type[]{Integer.class}, null),
+                new ParameterizedTypeImpl(Collection.class, new Type[]{Number.class}, null),
+                new ParameterizedTypeImpl(Map.class, new Type[]{String.class, Integer.class}, null),
+                new ParameterizedTypeImpl(HashMap.class, new Type[]{String.class, Integer.class}, null)}) {
+            list.add(GenericClassFactory.get(type));
+        }
+        list.add(GenericClassFactory.get(List.class).getWithWildcardTypes());
+        list.add(GenericClassFactory.get(Map.class).getWithWildcardTypes());
+        types = list.toArray(new GenericClass<?>[0]);
+    }
+
+    @Benchmark
+    public boolean isAssignableFrom() {
+        int i = counter++;
+        int n = types.length;
+        return types[i % n].isAssignableFrom(types[(i / n) % n]);
+    }
+
+    @Benchmark
+    public boolean isAssignableTo() {
+        int i = counter++;
+        int n = types.length;
+        return types[i % n].isAssignableTo(types[(i / n) % n].getType());
+    }
+}
@@ -154,6 +154,36 @@ public class ClientProcess {
         return identifier;
     }
 
+    /**
+     * Returns the index of this client among the clients running in parallel,
+     * as encoded in its identifier.
+     */
+    public static int getClientIndex() {
+        if (identifier == null || !identifier.startsWith(CLIENT_PREFIX)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(identifier.substring(CLIENT_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * All parallel clients are started with the same command line, and thus
+     * with the same seed (or with the same time stamp if no seed was given).
+     * Each client derives its own seed from it, so that the clients explore
+     * different parts of the search space, and a client can be reproduced
+     * with the seed it reports.
+     */
+    private static void setupClientSeed() {
+        long baseSeed = Properties.RANDOM_SEED != null ? Properties.RANDOM_SEED : Randomness.getSeed();
+        long clientSeed = Randomness.getSeedForClient(baseSeed, getClientIndex());
+        Properties.RANDOM_SEED = clientSeed;
+        Randomness.setSeed(clientSeed);
+        LoggingUtils.getEvoLogger().info("* " + getPrettyPrintIdentifier() + "Using random seed " + clientSeed);
+    }
+
     public static String getPrettyPrintIdentifier() {
         if (Properties.NUM_PARALLEL_CLIENTS == 1) {
             return "";
@@ -183,6 +213,10 @@ public class ClientProcess {
             identifier = DEFAULT_CLIENT_NAME;
         }
 
+        if (Properties.NUM_PARALLEL_CLIENTS > 1) {
+            setupClientSeed();
+        }
+
         try {
             LoggingUtils.getEvoLogger().info("* Starting " + getIdentifier());
             ClientProcess process = new ClientProcess();
@@ -122,6 +122,9 @@ public class Properties {
     @Parameter(key = "reset_static_field_gets", group = "Test Creation", description = "Call static constructors also after each static field was read")
     public static boolean RESET_STATIC_FIELD_GETS = false;
 
+    @Parameter(key = "reset_static_fields_from_snapshot", group = "Test Creation", description = "Restore the static fields written by a test from a snapshot of their initial values, rather than calling the static constructors again")
+    public static boolean RESET_STATIC_FIELDS_FROM_SNAPSHOT = false;
+
     @Parameter(key = "reset_all_classes_during_test_generation", group = "Test Creation", description = "Test Generation does not apply the selective method of selection of class re-initalization")
     public static boolean RESET_ALL_CLASSES_DURING_TEST_GENERATION = false;
 
@@ -142,6 +145,9 @@ public class Properties {
     @Parameter(key = "chop_carved_exceptions", group = "Test Creation", description = "If a carved test throws an exception, either chop it off, or drop it")
     public static boolean CHOP_CARVED_EXCEPTIONS = true;
 
+    @Parameter(key = "carving_spill_dir", group = "Test Creation", description = "Directory where long values captured while carving tests are spilled to, to bound memory on large test suites (kept in memory if not set)")
+    public static String CARVING_SPILL_DIR = null;
+
     @Parameter(key = "null_probability", group = "Test Creation", description = "Probability to use null instead of constructing an object")
     @DoubleValue(min = 0.0, max = 1.0)
     public static double NULL_PROBABILITY = 0.1;
@@ -326,12 +332,17 @@ public class Properties {
     public enum RankingType {
         // Preference sorting is the ranking strategy proposed in
         PREFERENCE_SORTING,
-        FAST_NON_DOMINATED_SORTING
+        FAST_NON_DOMINATED_SORTING,
+        // Same fronts as FAST_NON_DOMINATED_SORTING, with fewer dominance comparisons
+        EFFICIENT_NON_DOMINATED_SORTING
     }
 
     @Parameter(key = "ranking_type", group = "Runtime", description = "type of ranking to use in MOSA")
     public static RankingType RANKING_TYPE = RankingType.PREFERENCE_SORTING;
 
+    @Parameter(key = "incremental_ranking", group = "Runtime", description = "With efficient non-dominated sorting, only rank new solutions against the fronts of the previous generation, if possible")
+    public static boolean INCREMENTAL_RANKING = false;
+
     public enum MapElitesChoice {
         ALL,
         SINGLE,
@@ -502,6 +513,18 @@ public class Properties {
     @Parameter(key = "cvc4_path", group = "DSE", description = "Indicates the path to the CVC4 solver")
     public static String CVC4_PATH = null;
 
+    @Parameter(key = "dse_solver_cache_dir", group = "DSE", description = "Directory where solver results are persisted across runs, keyed by target class and solver configuration. Persistence is disabled if not set")
+    public static String DSE_SOLVER_CACHE_DIR = null;
+
+    @Parameter(key = "dse_solver_pool_size", group = "DSE", description = "Number of long-lived SMT solver processes that are reused across queries with push/pop. If 0, a new solver process is launched for each query")
+    public static int DSE_SOLVER_POOL_SIZE = 0;
+
+    @Parameter(key = "prespawned_processes", group = "DSE", description = "Number of processes started in advance for each external command launched repeatedly (e.g., SMT solvers without solver pool), such that launching them does not wait for their startup")
+    public static int PRESPAWNED_PROCESSES = 1;
+
+    @Parameter(key = "dse_solver_threads", group = "DSE", description = "Number of queries of sibling path conditions that are solved concurrently. Only used with external SMT solvers")
+    public static int DSE_SOLVER_THREADS = 1;
+
     public enum DSEStoppingConditionCriterion {
         TARGETCOVERAGE,
         MAXTIME,
@@ -1078,6 +1101,9 @@ public class Properties {
     @Deprecated
     public static boolean MINIMIZE_OLD = false;
 
+    @Parameter(key = "minimize_ddmin", group = "Output", description = "Before removing single statements, try to remove chunks of statements together with their dependencies (delta debugging)")
+    public static boolean MINIMIZE_DDMIN = true;
+
     @Parameter(key = "minimize_values", group = "Output", description = "Minimize constants and method calls")
     public static boolean MINIMIZE_VALUES = false;
 
@@ -1163,6 +1189,9 @@ public class Properties {
     @Parameter(key = "max_mutants_per_test", group = "Output", description = "How many mutants to use when trying to find assertions for a test")
     public static int MAX_MUTANTS_PER_TEST = 100;
 
+    @Parameter(key = "skip_uninfected_mutants", group = "Output", description = "Do not run tests on mutants that are reached but never infect the state, as their execution is the same as the original one")
+    public static boolean SKIP_UNINFECTED_MUTANTS = true;
+
     @Parameter(key = "max_mutants_per_method", group = "Output", description = "How many mutants can be inserted into a single method")
     public static int MAX_MUTANTS_PER_METHOD = 700;
 
@@ -1212,12 +1241,15 @@ public class Properties {
     public static boolean SERIALIZE_DSE = false;
 
     public enum StatisticsBackend {
-        NONE, CONSOLE, CSV, HTML, DEBUG
+        NONE, CONSOLE, CSV, HTML, DEBUG, STREAMING
     }
 
     @Parameter(key = "statistics_backend", group = "Output", description = "Which backend to use to collect data")
     public static StatisticsBackend STATISTICS_BACKEND = StatisticsBackend.CSV;
 
+    @Parameter(key = "statistics_sync_interval", group = "Output", description = "Time interval in milliseconds after which the streaming statistics backend forces the written rows to disk")
+    public static long STATISTICS_SYNC_INTERVAL = 10 * 1000;
+
     @Parameter(key = "timeline_interval", group = "Output", description = "Time interval in milliseconds for timeline statistics")
     public static long TIMELINE_INTERVAL = 60 * 1000;
 
@@ -1325,6 +1357,16 @@ public class Properties {
     @Parameter(key = "instrumentation_skip_debug", description = "Skip debug information in bytecode instrumentation (needed for compatibility with classes transformed by Emma code instrumentation due to an ASM bug)")
     public static boolean INSTRUMENTATION_SKIP_DEBUG = false;
 
+    @Parameter(key = "instrumentation_cache_dir", description = "Directory where instrumented classes are cached across client runs. No cache if null")
+    public static String INSTRUMENTATION_CACHE_DIR = null;
+
+    @Parameter(key = "instrumentation_cache_size", description = "Maximum number of classes kept in the instrumentation cache directory. The least recently used ones are removed")
+    @IntValue(min = 1)
+    public static int INSTRUMENTATION_CACHE_SIZE = 20000;
+
+    @Parameter(key = "classpath_index_file", description = "File where the classes of the jars on the classpath are indexed across client runs. No index if null")
+    public static String CLASSPATH_INDEX_FILE = null;
+
     @Parameter(key = "instrument_parent", description = "Also count coverage goals in superclasses")
     public static boolean INSTRUMENT_PARENT = false;
 
@@ -1455,6 +1497,9 @@ public class Properties {
     public static int TIMEOUT_RESET = 2000;
 
 
+    @Parameter(key = "execution_result_cache_size", group = "Test Execution", description = "Maximum number of deterministic test executions whose results are reused by the search. 0 disables the cache")
+    public static int EXECUTION_RESULT_CACHE_SIZE = 0;
+
     @Parameter(key = "concolic_timeout", group = "Test Execution", description = "Milliseconds allowed per test during concolic execution")
     public static int CONCOLIC_TIMEOUT = 15000;
 
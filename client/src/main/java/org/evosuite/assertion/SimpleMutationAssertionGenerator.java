@@ -28,6 +28,7 @@ import org.evosuite.rmi.service.ClientState;
 import org.evosuite.rmi.service.ClientStateInformation;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTrace;
 import org.evosuite.testcase.statements.MethodStatement;
 import org.evosuite.testcase.variable.VariableReference;
 import org.evosuite.testsuite.TestSuiteChromosome;
@@ -106,6 +107,39 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
         filterRedundantNonnullAssertions(test);
     }
 
+    private static boolean isNeverInfected(Map<Integer, Double> infectionDistances, Integer mutationId) {
+        Double distance = infectionDistances.get(mutationId);
+        // any distance that is not positive, including -0.0, means infected
+        return distance != null && !(distance <= 0.0);
+    }
+
+    /**
+     * Determine the mutants touched by the original execution that need to be
+     * run to generate assertions
+     *
+     * @param trace   the trace of the execution of the original test
+     * @param mutants the known mutants, by id
+     * @return the mutants to execute
+     */
+    static List<Mutation> getMutantsToExecute(ExecutionTrace trace, Map<Integer, Mutation> mutants) {
+        List<Mutation> executedMutants = new ArrayList<>();
+        Map<Integer, Double> infectionDistances = trace.getMutationDistances();
+        int numUninfected = 0;
+        for (Integer mutationId : trace.getTouchedMutants()) {
+            if (!mutants.containsKey(mutationId)) {
+                //logger.warn("Mutation ID unknown: " + mutationId);
+                //logger.warn(mutants.keySet().toString());
+            } else if (Properties.SKIP_UNINFECTED_MUTANTS && isNeverInfected(infectionDistances, mutationId)) {
+                // The mutant computes the same values as the original every time
+                // it is reached, so running it would reproduce the original traces
+                numUninfected++;
+            } else
+                executedMutants.add(mutants.get(mutationId));
+        }
+        logger.debug("Skipping {} touched but uninfected mutants", numUninfected);
+        return executedMutants;
+    }
+
     /**
      * Add assertions to current test set for given set of mutants
      *
@@ -132,15 +166,7 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
         }
 
         Map<Mutation, List<OutputTrace<?>>> mutationTraces = new HashMap<>();
-        List<Mutation> executedMutants = new ArrayList<>();
-
-        for (Integer mutationId : origResult.getTrace().getTouchedMutants()) {
-            if (!mutants.containsKey(mutationId)) {
-                //logger.warn("Mutation ID unknown: " + mutationId);
-                //logger.warn(mutants.keySet().toString());
-            } else
-                executedMutants.add(mutants.get(mutationId));
-        }
+        List<Mutation> executedMutants = getMutantsToExecute(origResult.getTrace(), mutants);
 
         Randomness.shuffle(executedMutants);
         logger.debug("Executed mutants: " + origResult.getTrace().getTouchedMutants());
@@ -0,0 +1,327 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.classpath;
+
+import org.evosuite.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * On-disk index of the classes contained in the jar files of the classpath.
+ * <p>
+ * Listing the classes of a jar requires opening it and reading its central
+ * directory, which dominates the start of a client with a large classpath.
+ * The index stores, for each jar, the names of its class entries together
+ * with the size and last modification time of the jar. The index file is
+ * memory-mapped and only its jar headers are read when opened: the names of
+ * the classes of a jar are decoded directly from the mapping when they are
+ * requested, after checking that the size and last modification time of the
+ * jar still match. Jars that are not indexed or have changed are scanned,
+ * and the index is rewritten with them by {@link #save()}.
+ * <p>
+ * The file is replaced atomically, so that concurrent clients always see a
+ * complete index.
+ */
+public final class ClassPathIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassPathIndex.class);
+
+    /**
+     * Header of the index file: "EVCI" and the version of the format
+     */
+    static final int MAGIC = 0x45564349;
+    static final int VERSION = 1;
+
+    private static ClassPathIndex instance = null;
+
+    private final File file;
+
+    /**
+     * Key -> absolute path of an indexed jar
+     * <p>
+     * Value -> position in {@link #mapping} of the header of its entry
+     */
+    private final Map<String, Integer> positions = new LinkedHashMap<>();
+
+    /**
+     * Jars scanned in this run, which are not yet or no longer correctly
+     * indexed in {@link #mapping}
+     */
+    private final Map<String, Entry> scanned = new LinkedHashMap<>();
+
+    private MappedByteBuffer mapping = null;
+
+    private boolean modified = false;
+
+    private int hits = 0;
+    private int misses = 0;
+
+    /**
+     * @return the index, or <code>null</code> if
+     * {@link Properties#CLASSPATH_INDEX_FILE} is not set
+     */
+    public static synchronized ClassPathIndex getInstance() {
+        if (Properties.CLASSPATH_INDEX_FILE == null) {
+            return null;
+        }
+        if (instance == null || !instance.file.equals(new File(Properties.CLASSPATH_INDEX_FILE))) {
+            instance = new ClassPathIndex(new File(Properties.CLASSPATH_INDEX_FILE));
+        }
+        return instance;
+    }
+
+    public static synchronized void resetSingleton() {
+        instance = null;
+    }
+
+    ClassPathIndex(File file) {
+        this.file = file;
+        if (file.isFile()) {
+            try {
+                open();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Ignoring unreadable classpath index " + file + ": " + e);
+                positions.clear();
+                mapping = null;
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapping.getInt() != MAGIC || mapping.getInt() != VERSION) {
+            throw new IOException("not a classpath index of version " + VERSION);
+        }
+        int numJars = mapping.getInt();
+        for (int i = 0; i < numJars; i++) {
+            int position = mapping.position();
+            String jar = readString(mapping, mapping.getInt());
+            positions.put(jar, position);
+            // skip the size, the last modification time and the classes
+            mapping.position(mapping.position() + 16);
+            int length = mapping.getInt();
+            mapping.position(mapping.position() + length);
+        }
+    }
+
+    /**
+     * Returns the names of the class entries of the given jar (e.g.,
+     * <code>org/some/Foo.class</code>), in the order of the jar, either from
+     * the index or by scanning the jar if it is not indexed or has changed.
+     *
+     * @param jarPath the absolute path of a jar file
+     * @return the class entries of the jar
+     * @throws IOException if the jar needs to be scanned and cannot be read
+     */
+    public synchronized List<String> getClassEntries(String jarPath) throws IOException {
+        File jar = new File(jarPath);
+        long size = jar.length();
+        long lastModified = jar.lastModified();
+
+        Entry entry = scanned.get(jarPath);
+        if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+            hits++;
+            return entry.classes;
+        }
+        Integer position = positions.get(jarPath);
+        if (entry == null && position != null) {
+            List<String> classes = readClasses(position, size, lastModified);
+            if (classes != null) {
+                hits++;
+                return classes;
+            }
+        }
+
+        misses++;
+        entry = new Entry(size, lastModified, scan(jar));
+        scanned.put(jarPath, entry);
+        modified = true;
+        return entry.classes;
+    }
+
+    /**
+     * @return the classes of the jar at the given position of the mapping,
+     * or <code>null</code> if the jar has changed since it was indexed
+     */
+    private List<String> readClasses(int position, long size, long lastModified) {
+        ByteBuffer buffer = mapping.duplicate();
+        buffer.position(position);
+        buffer.position(buffer.position() + 4 + buffer.getInt());
+        if (buffer.getLong() != size || buffer.getLong() != lastModified) {
+            return null;
+        }
+        buffer.getInt();
+        int numClasses = buffer.getInt();
+        List<String> classes = new ArrayList<>(numClasses);
+        for (int i = 0; i < numClasses; i++) {
+            classes.add(readString(buffer, buffer.getShort() & 0xFFFF));
+        }
+        return classes;
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        ByteBuffer bytes = buffer.slice();
+        bytes.limit(length);
+        buffer.position(buffer.position() + length);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    private static List<String> scan(File jar) throws IOException {
+        List<String> classes = new ArrayList<>();
+        try (JarFile zf = new JarFile(jar)) {
+            Enumeration<JarEntry> e = zf.entries();
+            while (e.hasMoreElements()) {
+                String entryName = e.nextElement().getName();
+                if (entryName.endsWith(".class")) {
+                    classes.add(entryName);
+                }
+            }
+        }
+        return Collections.unmodifiableList(classes);
+    }
+
+    /**
+     * Writes the index with the jars scanned since it was opened, if any.
+     * The jars indexed by other runs are kept.
+     */
+    public synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        File tmp = null;
+        try {
+            Files.createDirectories(parent.toPath());
+            tmp = File.createTempFile(file.getName(), ".tmp", parent);
+            write(tmp);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            modified = false;
+        } catch (IOException e) {
+            logger.warn("Cannot write classpath index " + file + ": " + e);
+            if (tmp != null && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    private void write(File target) throws IOException {
+        List<Integer> kept = new ArrayList<>();
+        for (Map.Entry<String, Integer> position : positions.entrySet()) {
+            if (!scanned.containsKey(position.getKey())) {
+                kept.add(position.getValue());
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(target.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(kept.size() + scanned.size());
+            // entries of jars that were not scanned again are copied as they are
+            for (int position : kept) {
+                ByteBuffer buffer = mapping.duplicate();
+                buffer.position(position);
+                buffer.position(buffer.position() + 4 + buffer.getInt() + 16);
+                int end = buffer.getInt() + buffer.position();
+                byte[] bytes = new byte[end - position];
+                buffer.position(position);
+                buffer.get(bytes);
+                out.write(bytes);
+            }
+            for (Map.Entry<String, Entry> jar : scanned.entrySet()) {
+                jar.getValue().write(jar.getKey(), out);
+            }
+        }
+    }
+
+    /**
+     * @return the number of jars whose classes were served by the index
+     */
+    public synchronized int getNumberOfHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of jars that had to be scanned
+     */
+    public synchronized int getNumberOfMisses() {
+        return misses;
+    }
+
+    private static final class Entry {
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final List<String> classes;
+
+        Entry(long size, long lastModified, List<String> classes) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.classes = classes;
+        }
+
+        void write(String jar, DataOutputStream out) throws IOException {
+            byte[] path = jar.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(path.length);
+            out.write(path);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+
+            List<byte[]> names = new ArrayList<>(classes.size());
+            int length = 4;
+            for (String className : classes) {
+                byte[] name = className.getBytes(StandardCharsets.UTF_8);
+                names.add(name);
+                length += 2 + name.length;
+            }
+            out.writeInt(length);
+            out.writeInt(names.size());
+            for (byte[] name : names) {
+                out.writeShort(name.length);
+                out.write(name);
+            }
+        }
+    }
+}
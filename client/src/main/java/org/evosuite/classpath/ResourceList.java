@@ -476,6 +476,11 @@ public class ResourceList {
         for (String entry : cp.split(File.pathSeparator)) {
             addEntry(entry);
         }
+
+        ClassPathIndex index = ClassPathIndex.getInstance();
+        if (index != null) {
+            index.save();
+        }
     }
 
     private void addEntry(String classPathElement) throws IllegalArgumentException {
@@ -560,18 +565,38 @@ public class ResourceList {
         }
     }
 
-    private void scanJar(String jarEntry) {
-        JarFile zf = getCache().getJar(jarEntry);
+    /**
+     * @return the names of the class entries of the jar, from the classpath
+     * index if there is one, as the jar itself is only needed when one of its
+     * classes is read
+     */
+    private List<String> getClassEntries(String jarEntry) {
+        ClassPathIndex index = ClassPathIndex.getInstance();
+        if (index != null) {
+            try {
+                return index.getClassEntries(jarEntry);
+            } catch (IOException e) {
+                logger.error("Error while reading jar file " + jarEntry + ": " + e.getMessage(), e);
+                return Collections.emptyList();
+            }
+        }
 
+        List<String> entries = new ArrayList<>();
+        JarFile zf = getCache().getJar(jarEntry);
         Enumeration<?> e = zf.entries();
         while (e.hasMoreElements()) {
             JarEntry ze = (JarEntry) e.nextElement();
             String entryName = ze.getName();
 
-            if (!entryName.endsWith(".class")) {
-                continue;
+            if (entryName.endsWith(".class")) {
+                entries.add(entryName);
             }
+        }
+        return entries;
+    }
 
+    private void scanJar(String jarEntry) {
+        for (String entryName : getClassEntries(jarEntry)) {
             String className = getClassNameFromResourcePath(entryName);
 
             // The same class may exist in different classpath entries
@@ -26,8 +26,12 @@ import org.evosuite.graphs.cfg.CFGMethodAdapter;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceSummary;
+import org.evosuite.testcase.execution.IntDoubleArrayMap;
+import org.evosuite.testcase.execution.IntIntArrayMap;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testsuite.SuiteTraceSummary;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.objectweb.asm.Type;
@@ -38,7 +42,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.*;
-import java.util.Map.Entry;
 
 /**
  * Fitness function for a whole test suite for all branches
@@ -142,16 +145,41 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
         }
     }
 
+    /**
+     * Whether calling the methods of the target class is part of the
+     * fitness, and branchless methods are goals
+     */
+    protected boolean includesMethodGoals() {
+        return true;
+    }
+
+    /**
+     * Whether the method counts as called by the suite
+     *
+     * @param method             the name of the method
+     * @param summary            the trace data of the suite
+     * @param constructorCalls   constructors counted as called because of exceptions
+     */
+    private boolean isCalled(String method, SuiteTraceSummary summary, Set<String> constructorCalls) {
+        if (constructorCalls.contains(method)) {
+            return true;
+        }
+        return includesMethodGoals() && methods.contains(method) && !removedRootBranches.contains(method)
+                && summary.getMethodExecutionCount().containsKey(method);
+    }
+
     /**
      * If there is an exception in a superconstructor, then the corresponding
      * constructor might not be included in the execution trace
      *
-     * @param result
-     * @param callCount
+     * @param test             the test, null if its trace was already analyzed
+     * @param results          the results of the suite
+     * @param position         the position of the result of the test
+     * @param constructorCalls constructors counted as called because of exceptions
      */
-    private void handleConstructorExceptions(TestChromosome test, ExecutionResult result,
-                                             Map<String, Integer> callCount) {
-
+    private void handleConstructorExceptions(TestChromosome test, List<ExecutionResult> results, int position,
+                                             Set<String> constructorCalls) {
+        ExecutionResult result = results.get(position);
         if (result.hasTimeout() || result.hasTestException() || result.noThrownExceptions()) {
             return;
         }
@@ -171,9 +199,9 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
             String className = c.getConstructor().getName();
             String methodName = "<init>" + Type.getConstructorDescriptor(c.getConstructor().getConstructor());
             String name = className + "." + methodName;
-            if (!callCount.containsKey(name)) {
-                callCount.put(name, 1);
-                if (branchlessMethodCoverageMap.containsKey(name)) {
+            if (!constructorCalls.contains(name) && !isCalledUpTo(name, results, position)) {
+                constructorCalls.add(name);
+                if (test != null && branchlessMethodCoverageMap.containsKey(name)) {
                     TestFitnessFunction goal = branchlessMethodCoverageMap.get(name);
                     test.getTestCase().addCoveredGoal(goal);
                     toRemoveRootBranches.add(name);
@@ -186,23 +214,33 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
         }
     }
 
-    protected void handleBranchlessMethods(TestChromosome test, ExecutionResult result, Map<String, Integer> callCount) {
-        for (Entry<String, Integer> entry : result.getTrace().getMethodExecutionCount().entrySet()) {
+    /**
+     * Whether one of the tests up to the given position called the method
+     */
+    private boolean isCalledUpTo(String method, List<ExecutionResult> results, int position) {
+        if (!includesMethodGoals() || !methods.contains(method) || removedRootBranches.contains(method)) {
+            return false;
+        }
+        for (int i = 0; i <= position; i++) {
+            ExecutionTraceSummary trace = results.get(i).getTraceSummary();
+            if (!trace.isTimeoutOrTestException() && trace.hasExecuted(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-            if (entry.getKey() == null || !methods.contains(entry.getKey()) || removedRootBranches.contains(entry.getKey()))
+    private void handleBranchlessMethods(TestChromosome test, ExecutionTraceSummary trace) {
+        for (int i = 0; i < trace.getNumMethods(); i++) {
+            String method = trace.getMethod(i);
+            if (method == null || !methods.contains(method) || removedRootBranches.contains(method))
                 continue;
-            if (!callCount.containsKey(entry.getKey()))
-                callCount.put(entry.getKey(), entry.getValue());
-            else {
-                callCount.put(entry.getKey(),
-                        callCount.get(entry.getKey()) + entry.getValue());
-            }
             // If a specific target method is set we need to check
             // if this is a target branch or not
-            if (branchlessMethodCoverageMap.containsKey(entry.getKey())) {
-                TestFitnessFunction goal = branchlessMethodCoverageMap.get(entry.getKey());
+            if (branchlessMethodCoverageMap.containsKey(method)) {
+                TestFitnessFunction goal = branchlessMethodCoverageMap.get(method);
                 test.getTestCase().addCoveredGoal(goal);
-                toRemoveRootBranches.add(entry.getKey());
+                toRemoveRootBranches.add(method);
                 if (Properties.TEST_ARCHIVE) {
                     Archive.getArchiveInstance().updateArchive(goal, test, 0.0);
                 }
@@ -210,105 +248,74 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
         }
     }
 
-    protected void handlePredicateCount(ExecutionResult result, Map<Integer, Integer> predicateCount) {
-        for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
-            if (!branchesId.contains(entry.getKey())
-                    || (removedBranchesT.contains(entry.getKey())
-                    && removedBranchesF.contains(entry.getKey())))
+    /**
+     * Mark the branches covered by the test, and update the archive with
+     * the distances of all branches it executed
+     */
+    private void handleBranchDistances(TestChromosome test, ExecutionTraceSummary trace) {
+        for (int i = 0; i < trace.getNumBranches(); i++) {
+            int branchId = trace.getBranchId(i);
+            if (!branchesId.contains(branchId))
                 continue;
-            if (!predicateCount.containsKey(entry.getKey()))
-                predicateCount.put(entry.getKey(), entry.getValue());
-            else {
-                predicateCount.put(entry.getKey(),
-                        predicateCount.get(entry.getKey())
-                                + entry.getValue());
-            }
-        }
-    }
-
 
-    protected void handleTrueDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> trueDistance) {
-        for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
-            if (!branchesId.contains(entry.getKey()) || removedBranchesT.contains(entry.getKey())) continue;
-            if (!trueDistance.containsKey(entry.getKey()))
-                trueDistance.put(entry.getKey(), entry.getValue());
-            else {
-                trueDistance.put(entry.getKey(),
-                        Math.min(trueDistance.get(entry.getKey()),
-                                entry.getValue()));
-            }
-            BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageTrueMap.get(entry.getKey());
-            assert goal != null;
-            if ((Double.compare(entry.getValue(), 0.0) == 0)) {
-                test.getTestCase().addCoveredGoal(goal);
-                toRemoveBranchesT.add(entry.getKey());
-            }
-            if (Properties.TEST_ARCHIVE) {
-                Archive.getArchiveInstance().updateArchive(goal, test, entry.getValue());
+            double trueDistance = trace.getTrueDistance(i);
+            if (!Double.isNaN(trueDistance) && !removedBranchesT.contains(branchId)) {
+                BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageTrueMap.get(branchId);
+                assert goal != null;
+                if ((Double.compare(trueDistance, 0.0) == 0)) {
+                    test.getTestCase().addCoveredGoal(goal);
+                    toRemoveBranchesT.add(branchId);
+                }
+                if (Properties.TEST_ARCHIVE) {
+                    Archive.getArchiveInstance().updateArchive(goal, test, trueDistance);
+                }
             }
-        }
-
-    }
 
-    protected void handleFalseDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> falseDistance) {
-        for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
-            if (!branchesId.contains(entry.getKey()) || !branchCoverageFalseMap.containsKey(entry.getKey()) || removedBranchesF.contains(entry.getKey()))
-                continue;
-            if (!falseDistance.containsKey(entry.getKey()))
-                falseDistance.put(entry.getKey(), entry.getValue());
-            else {
-                falseDistance.put(entry.getKey(),
-                        Math.min(falseDistance.get(entry.getKey()),
-                                entry.getValue()));
-            }
-            BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageFalseMap.get(entry.getKey());
-            assert goal != null;
-            if ((Double.compare(entry.getValue(), 0.0) == 0)) {
-                test.getTestCase().addCoveredGoal(goal);
-                toRemoveBranchesF.add(entry.getKey());
-            }
-            if (Properties.TEST_ARCHIVE) {
-                Archive.getArchiveInstance().updateArchive(goal, test, entry.getValue());
+            double falseDistance = trace.getFalseDistance(i);
+            if (!Double.isNaN(falseDistance) && branchCoverageFalseMap.containsKey(branchId)
+                    && !removedBranchesF.contains(branchId)) {
+                BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageFalseMap.get(branchId);
+                if ((Double.compare(falseDistance, 0.0) == 0)) {
+                    test.getTestCase().addCoveredGoal(goal);
+                    toRemoveBranchesF.add(branchId);
+                }
+                if (Properties.TEST_ARCHIVE) {
+                    Archive.getArchiveInstance().updateArchive(goal, test, falseDistance);
+                }
             }
         }
-
     }
 
     /**
-     * Iterate over all execution results and summarize statistics
+     * Mark the goals covered by the tests whose traces were not analyzed
+     * yet, and collect the constructors that threw exceptions
      *
-     * @param results
-     * @param predicateCount
-     * @param callCount
-     * @param trueDistance
-     * @param falseDistance
-     * @return
+     * @param results          the results of the suite
+     * @param constructorCalls constructors counted as called because of exceptions
      */
-    private boolean analyzeTraces(TestSuiteChromosome suite,
-                                  List<ExecutionResult> results,
-                                  Map<Integer, Integer> predicateCount, Map<String, Integer> callCount,
-                                  Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
-        boolean hasTimeoutOrTestException = false;
-        for (ExecutionResult result : results) {
+    private void analyzeTraces(List<ExecutionResult> results, Set<String> constructorCalls) {
+        for (int i = 0; i < results.size(); i++) {
+            ExecutionResult result = results.get(i);
             if (result.hasTimeout() || result.hasTestException()) {
-                hasTimeoutOrTestException = true;
                 continue;
             }
 
-            TestChromosome test = new TestChromosome();
-            test.setTestCase(result.test);
-            test.setLastExecutionResult(result);
-            test.setChanged(false);
+            TestChromosome test = null;
+            if (isNewTrace(result)) {
+                test = new TestChromosome();
+                test.setTestCase(result.test);
+                test.setLastExecutionResult(result);
+                test.setChanged(false);
 
-            handleBranchlessMethods(test, result, callCount);
-            handlePredicateCount(result, predicateCount);
-            handleTrueDistances(test, result, trueDistance);
-            handleFalseDistances(test, result, falseDistance);
+                if (includesMethodGoals()) {
+                    handleBranchlessMethods(test, result.getTraceSummary());
+                }
+                handleBranchDistances(test, result.getTraceSummary());
+            }
 
             // In case there were exceptions in a constructor
-            handleConstructorExceptions(test, result, callCount);
+            handleConstructorExceptions(test, results, i, constructorCalls);
         }
-        return hasTimeoutOrTestException;
     }
 
     @Override
@@ -378,35 +385,44 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
         double fitness = 0.0;
 
         List<ExecutionResult> results = runTestSuite(suite);
-        Map<Integer, Double> trueDistance = new LinkedHashMap<>();
-        Map<Integer, Double> falseDistance = new LinkedHashMap<>();
-        Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
-        Map<String, Integer> callCount = new LinkedHashMap<>();
+        SuiteTraceSummary summary = SuiteTraceSummary.of(suite, results);
+        IntIntArrayMap predicateCount = summary.getPredicateExecutionCount();
+        IntDoubleArrayMap trueDistance = summary.getTrueDistances();
+        IntDoubleArrayMap falseDistance = summary.getFalseDistances();
+        Set<String> constructorCalls = new LinkedHashSet<>();
 
         // Collect stats in the traces
-        boolean hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
-                callCount, trueDistance,
-                falseDistance);
+        analyzeTraces(results, constructorCalls);
+        boolean hasTimeoutOrTestException = summary.hasTimeoutOrTestException();
 
         // Collect branch distances of covered branches
         int numCoveredBranches = 0;
+        int numExecutedBranches = 0;
 
-        for (Integer key : predicateCount.keySet()) {
+        for (int key = predicateCount.nextKey(0); key >= 0; key = predicateCount.nextKey(key + 1)) {
+            if (!branchesId.contains(key)
+                    || (removedBranchesT.contains(key)
+                    && removedBranchesF.contains(key)))
+                continue;
+            numExecutedBranches++;
 
             double df = 0.0;
             double dt = 0.0;
-            int numExecuted = predicateCount.get(key);
+            int numExecuted = predicateCount.getInt(key, 0);
 
             if (removedBranchesT.contains(key))
                 numExecuted++;
             if (removedBranchesF.contains(key))
                 numExecuted++;
 
-            if (trueDistance.containsKey(key)) {
-                dt = trueDistance.get(key);
+            boolean hasTrueDistance = !removedBranchesT.contains(key) && trueDistance.contains(key);
+            boolean hasFalseDistance = branchCoverageFalseMap.containsKey(key) && !removedBranchesF.contains(key)
+                    && falseDistance.contains(key);
+            if (hasTrueDistance) {
+                dt = trueDistance.getDouble(key, 0.0);
             }
-            if (falseDistance.containsKey(key)) {
-                df = falseDistance.get(key);
+            if (hasFalseDistance) {
+                df = falseDistance.getDouble(key, 0.0);
             }
             // If the branch predicate was only executed once, then add 1
             if (numExecuted == 1) {
@@ -415,20 +431,20 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
                 fitness += normalize(df) + normalize(dt);
             }
 
-            if (falseDistance.containsKey(key) && (Double.compare(df, 0.0) == 0))
+            if (hasFalseDistance && (Double.compare(df, 0.0) == 0))
                 numCoveredBranches++;
 
-            if (trueDistance.containsKey(key) && (Double.compare(dt, 0.0) == 0))
+            if (hasTrueDistance && (Double.compare(dt, 0.0) == 0))
                 numCoveredBranches++;
         }
 
         // +1 for every branch that was not executed
-        fitness += 2 * (totalBranches - predicateCount.size());
+        fitness += 2 * (totalBranches - numExecutedBranches);
 
         // Ensure all methods are called
         int missingMethods = 0;
         for (String e : methods) {
-            if (!callCount.containsKey(e)) {
+            if (!isCalled(e, summary, constructorCalls)) {
                 fitness += 1.0;
                 missingMethods += 1;
             }
@@ -439,7 +455,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
         // Calculate coverage
         int coverage = numCoveredBranches;
         for (String e : branchlessMethodCoverageMap.keySet()) {
-            if (callCount.containsKey(e)) {
+            if (isCalled(e, summary, constructorCalls)) {
                 coverage++;
             }
 
@@ -22,11 +22,8 @@ package org.evosuite.coverage.exception;
 import org.evosuite.Properties;
 import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
 import org.evosuite.ga.archive.Archive;
-import org.evosuite.testcase.TestChromosome;
-import org.evosuite.testcase.execution.ExecutionResult;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Created by gordon on 03/04/2016.
@@ -54,8 +51,8 @@ public class TryCatchCoverageSuiteFitness extends BranchCoverageSuiteFitness {
     }
 
     @Override
-    protected void handleBranchlessMethods(TestChromosome test, ExecutionResult result, Map<String, Integer> callCount) {
-        // no-op
+    protected boolean includesMethodGoals() {
+        return false;
     }
 
 //    @Override
@@ -28,13 +28,15 @@ import org.evosuite.graphs.cfg.ControlDependency;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.IntDoubleArrayMap;
+import org.evosuite.testcase.execution.IntIntArrayMap;
+import org.evosuite.testsuite.SuiteTraceSummary;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.Map.Entry;
 
 /**
  * Fitness function for a whole test suite for all branches
@@ -107,18 +109,14 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
     }
 
     /**
-     * Iterate over all execution results and summarize statistics
+     * Iterate over the execution results whose traces were not analyzed yet,
+     * to mark the covered goals of the tests and update the archive
      *
      * @param results
-     * @param coveredLines
-     * @return
      */
-    private boolean analyzeTraces(List<ExecutionResult> results, Set<Integer> coveredLines) {
-        boolean hasTimeoutOrTestException = false;
-
+    private void analyzeTraces(List<ExecutionResult> results) {
         for (ExecutionResult result : results) {
-            if (result.hasTimeout() || result.hasTestException()) {
-                hasTimeoutOrTestException = true;
+            if (result.hasTimeout() || result.hasTestException() || !isNewTrace(result)) {
                 continue;
             }
 
@@ -133,13 +131,10 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
                 double fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
 
                 if (fit == 0.0) {
-                    coveredLines.add(goalID); // helper to count the number of covered goals
                     this.toRemoveLines.add(goalID); // goal to not be considered by the next iteration of the evolutionary algorithm
                 }
             }
         }
-
-        return hasTimeoutOrTestException;
     }
 
     /**
@@ -153,14 +148,23 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
         double fitness = 0.0;
 
         List<ExecutionResult> results = runTestSuite(suite);
-        fitness += getControlDependencyGuidance(results);
+        SuiteTraceSummary summary = SuiteTraceSummary.of(suite, results);
+        fitness += getControlDependencyGuidance(summary);
         logger.info("Branch distances: " + fitness);
 
-        Set<Integer> coveredLines = new LinkedHashSet<>();
-        boolean hasTimeoutOrTestException = analyzeTraces(results, coveredLines);
+        analyzeTraces(results);
+        boolean hasTimeoutOrTestException = summary.hasTimeoutOrTestException();
+
+        int numCoveredGoals = 0;
+        IntIntArrayMap coveredLines = summary.getCoveredLines();
+        for (Integer goalID : this.lineGoals.keySet()) {
+            if (coveredLines.contains(goalID)) {
+                numCoveredGoals++;
+            }
+        }
 
         int totalLines = this.numLines;
-        int numCoveredLines = coveredLines.size() + this.removedLines.size();
+        int numCoveredLines = numCoveredGoals + this.removedLines.size();
 
         logger.debug("Covered " + numCoveredLines + " out of " + totalLines + " lines, " + removedLines.size() + " in archive");
         fitness += normalize(totalLines - numCoveredLines);
@@ -265,70 +269,37 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
         logger.info("Covering branches both: " + branchesToCoverBoth);
     }
 
-    private double getControlDependencyGuidance(List<ExecutionResult> results) {
-        Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
-        Map<Integer, Double> trueDistance = new LinkedHashMap<>();
-        Map<Integer, Double> falseDistance = new LinkedHashMap<>();
-
-        for (ExecutionResult result : results) {
-            if (result.hasTimeout() || result.hasTestException()) {
-                continue;
-            }
-            for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
-                if (!predicateCount.containsKey(entry.getKey()))
-                    predicateCount.put(entry.getKey(), entry.getValue());
-                else {
-                    predicateCount.put(entry.getKey(),
-                            predicateCount.get(entry.getKey())
-                                    + entry.getValue());
-                }
-            }
-            for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
-                if (!trueDistance.containsKey(entry.getKey()))
-                    trueDistance.put(entry.getKey(), entry.getValue());
-                else {
-                    trueDistance.put(entry.getKey(),
-                            Math.min(trueDistance.get(entry.getKey()),
-                                    entry.getValue()));
-                }
-            }
-            for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
-                if (!falseDistance.containsKey(entry.getKey()))
-                    falseDistance.put(entry.getKey(), entry.getValue());
-                else {
-                    falseDistance.put(entry.getKey(),
-                            Math.min(falseDistance.get(entry.getKey()),
-                                    entry.getValue()));
-                }
-            }
-        }
+    private double getControlDependencyGuidance(SuiteTraceSummary summary) {
+        IntIntArrayMap predicateCount = summary.getPredicateExecutionCount();
+        IntDoubleArrayMap trueDistance = summary.getTrueDistances();
+        IntDoubleArrayMap falseDistance = summary.getFalseDistances();
 
         double distance = 0.0;
 
         for (Integer branchId : branchesToCoverBoth) {
-            if (!predicateCount.containsKey(branchId)) {
+            if (!predicateCount.contains(branchId)) {
                 distance += 2.0;
-            } else if (predicateCount.get(branchId) == 1) {
+            } else if (predicateCount.getInt(branchId, 0) == 1) {
                 distance += 1.0;
             } else {
-                distance += normalize(trueDistance.get(branchId));
-                distance += normalize(falseDistance.get(branchId));
+                distance += normalize(trueDistance.getDouble(branchId, 0.0));
+                distance += normalize(falseDistance.getDouble(branchId, 0.0));
             }
         }
 
         for (Integer branchId : branchesToCoverTrue) {
-            if (!trueDistance.containsKey(branchId)) {
+            if (!trueDistance.contains(branchId)) {
                 distance += 1;
             } else {
-                distance += normalize(trueDistance.get(branchId));
+                distance += normalize(trueDistance.getDouble(branchId, 0.0));
             }
         }
 
         for (Integer branchId : branchesToCoverFalse) {
-            if (!falseDistance.containsKey(branchId)) {
+            if (!falseDistance.contains(branchId)) {
                 distance += 1;
             } else {
-                distance += normalize(falseDistance.get(branchId));
+                distance += normalize(falseDistance.getDouble(branchId, 0.0));
             }
         }
 
@@ -28,7 +28,11 @@ package org.evosuite.coverage.mutation;
 public class MutationObserver {
 
     /**
-     * Constant <code>activeMutation=-1</code>
+     * The mutation enabled in the instrumented code, or -1 if none is.
+     * <p>
+     * This is one value for the whole process on purpose: mutants are executed
+     * one at a time, as the execution trace, the runtime mocks and the static
+     * state of the classes under test are shared by all threads.
      */
     public static int activeMutation = -1;
 
@@ -26,7 +26,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -61,14 +60,14 @@ public abstract class Chromosome<T extends Chromosome<T>>
     }
 
     /**
-     * Last recorded fitness value
+     * Last recorded fitness value, by index in the {@link ObjectiveRegistry}
      */
-    private final LinkedHashMap<FitnessFunction<T>, Double> fitnessValues = new LinkedHashMap<>();
+    private final ObjectiveMap<T, Double> fitnessValues = ObjectiveMap.ofDoubles();
 
     /**
      * Previous fitness, to see if there was an improvement
      */
-    private final LinkedHashMap<FitnessFunction<T>, Double> previousFitnessValues = new LinkedHashMap<>();
+    private final ObjectiveMap<T, Double> previousFitnessValues = ObjectiveMap.ofDoubles();
 
     /**
      * Has this chromosome changed since its fitness was last evaluated?
@@ -80,17 +79,17 @@ public abstract class Chromosome<T extends Chromosome<T>>
      */
     private boolean localSearchApplied = false;
 
-    private final LinkedHashMap<FitnessFunction<T>, Double> coverageValues = new LinkedHashMap<>();
+    private final ObjectiveMap<T, Double> coverageValues = ObjectiveMap.ofDoubles();
 
     /**
      * The number of uncovered goals with regard to the fitness function given as key
      */
-    private final LinkedHashMap<FitnessFunction<T>, Integer> numsNotCoveredGoals = new LinkedHashMap<>();
+    private final ObjectiveMap<T, Integer> numsNotCoveredGoals = ObjectiveMap.ofIntegers();
 
     /**
      * The number of covered goals with regard to the fitness function given as key
      */
-    private final LinkedHashMap<FitnessFunction<T>, Integer> numsCoveredGoals = new LinkedHashMap<>();
+    private final ObjectiveMap<T, Integer> numsCoveredGoals = ObjectiveMap.ofIntegers();
 
     // protected double coverage = 0.0;
 
@@ -137,9 +136,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return a double.
      */
     public double getFitness() {
-        return fitnessValues.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
+        return fitnessValues.sum();
     }
 
     /**
@@ -149,11 +146,53 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return the fitness of this chromosome
      */
     public double getFitness(FitnessFunction<T> ff) {
-        return fitnessValues.containsKey(ff)
-                ? fitnessValues.get(ff)
+        int index = fitnessValues.indexOf(ff);
+        return index >= 0
+                ? fitnessValues.getValue(index)
                 : ff.getFitness(self()); // Calculate new value if non is cached
     }
 
+    /**
+     * Returns the fitness of this chromosome for the objective at position {@code i} of the given
+     * objectives.
+     *
+     * @param objectives the objectives
+     * @param i          a position in {@code objectives}
+     * @return the fitness of this chromosome
+     */
+    public double getFitness(Objectives<T> objectives, int i) {
+        if (objectives.getRegistry() == fitnessValues.getRegistry()) {
+            int index = objectives.getIndex(i);
+            if (fitnessValues.contains(index)) {
+                return fitnessValues.getValue(index);
+            }
+        }
+        return getFitness(objectives.get(i));
+    }
+
+    /**
+     * Returns the fitness values of this chromosome for the given objectives, in the same order.
+     *
+     * @param objectives the objectives
+     * @return a new array with the fitness values
+     */
+    public double[] getFitnessVector(Objectives<T> objectives) {
+        double[] vector = new double[objectives.size()];
+        if (objectives.getRegistry() != fitnessValues.getRegistry()) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = getFitness(objectives.get(i));
+            }
+            return vector;
+        }
+        final int[] indices = objectives.getIndices();
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = fitnessValues.contains(indices[i])
+                    ? fitnessValues.getValue(indices[i])
+                    : getFitness(objectives.get(i));
+        }
+        return vector;
+    }
+
     public Map<FitnessFunction<T>, Double> getFitnessValues() {
         return this.fitnessValues;
     }
@@ -170,7 +209,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return
      */
     public boolean hasExecutedFitness(FitnessFunction<T> ff) {
-        return this.previousFitnessValues.containsKey(ff);
+        return this.previousFitnessValues.indexOf(ff) >= 0;
     }
 
     public void setFitnessValues(Map<? extends FitnessFunction<T>, Double> fits) {
@@ -228,11 +267,12 @@ public abstract class Chromosome<T extends Chromosome<T>>
      */
     public void addFitness(FitnessFunction<T> ff, double fitnessValue, double coverage,
                            int numCoveredGoals) {
-        this.fitnessValues.put(ff, fitnessValue);
-        this.previousFitnessValues.put(ff, fitnessValue);
-        this.coverageValues.put(ff, coverage);
-        this.numsCoveredGoals.put(ff, numCoveredGoals);
-        this.numsNotCoveredGoals.put(ff, -1);
+        final int index = this.fitnessValues.register(ff);
+        this.fitnessValues.putValue(index, fitnessValue);
+        this.previousFitnessValues.putValue(index, fitnessValue);
+        this.coverageValues.putValue(index, coverage);
+        this.numsCoveredGoals.putValue(index, numCoveredGoals);
+        this.numsNotCoveredGoals.putValue(index, -1);
     }
 
     /**
@@ -247,8 +287,9 @@ public abstract class Chromosome<T extends Chromosome<T>>
                     + ff.getClass().getName());
         }
 
-        previousFitnessValues.put(ff, fitnessValues.getOrDefault(ff, value));
-        fitnessValues.put(ff, value);
+        final int index = fitnessValues.register(ff);
+        previousFitnessValues.putValue(index, fitnessValues.contains(index) ? fitnessValues.getValue(index) : value);
+        fitnessValues.putValue(index, value);
     }
 
     /**
@@ -258,12 +299,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return
      */
     public boolean hasFitnessChanged() {
-        return fitnessValues.keySet().stream()
-                .anyMatch(ff -> {
-                    final double currentValue = fitnessValues.get(ff);
-                    final double previousValue = previousFitnessValues.get(ff);
-                    return currentValue != previousValue;
-                });
+        return fitnessValues.differsFrom(previousFitnessValues);
     }
 
     /**
@@ -451,14 +487,14 @@ public abstract class Chromosome<T extends Chromosome<T>>
     }
 
     public void setNumOfNotCoveredGoals(FitnessFunction<T> ff, int numCoveredGoals) {
-        this.numsNotCoveredGoals.put(ff, numCoveredGoals);
+        this.numsNotCoveredGoals.putValue(ff, numCoveredGoals);
     }
 
     public Map<FitnessFunction<T>, Integer> getNumsOfCoveredGoals() {
         return this.numsCoveredGoals;
     }
 
-    public LinkedHashMap<FitnessFunction<T>, Integer> getNumsNotCoveredGoals() {
+    public Map<FitnessFunction<T>, Integer> getNumsNotCoveredGoals() {
         return numsNotCoveredGoals;
     }
 
@@ -482,7 +518,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return the number of covered goals for {@code ff}
      */
     public double getCoverage(FitnessFunction<T> ff) {
-        return coverageValues.getOrDefault(ff, 0.0);
+        return coverageValues.getValue(ff, 0.0);
     }
 
     /**
@@ -492,7 +528,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @param coverage the coverage value
      */
     public void setCoverage(FitnessFunction<T> ff, double coverage) {
-        this.coverageValues.put(ff, coverage);
+        this.coverageValues.putValue(ff, coverage);
     }
 
     /**
@@ -502,7 +538,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return the number of covered goals for {@code ff}
      */
     public int getNumOfCoveredGoals(FitnessFunction<?> ff) {
-        return numsCoveredGoals.getOrDefault(ff, 0);
+        return (int) numsCoveredGoals.getValue(ff, 0);
     }
 
     /**
@@ -512,7 +548,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return the number of covered goals for {@code ff}
      */
     public int getNumOfNotCoveredGoals(FitnessFunction<?> ff) {
-        return numsNotCoveredGoals.getOrDefault(ff, 0);
+        return (int) numsNotCoveredGoals.getValue(ff, 0);
     }
 
     /**
@@ -522,7 +558,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @param numCoveredGoals the number of covered goals
      */
     public void setNumOfCoveredGoals(FitnessFunction<T> ff, int numCoveredGoals) {
-        this.numsCoveredGoals.put(ff, numCoveredGoals);
+        this.numsCoveredGoals.putValue(ff, numCoveredGoals);
     }
 
     public void updateAge(int generation) {
@@ -0,0 +1,385 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map from fitness functions to numbers, which keeps the values in a dense
+ * array indexed by the {@link ObjectiveRegistry}. Lookups by index are
+ * plain array accesses, and copying a map created with the same registry
+ * is an array copy. Iteration follows insertion order, as for
+ * {@link java.util.LinkedHashMap}.
+ * <p>
+ * The arrays are allocated on the first insertion, and grow up to the
+ * largest index inserted. When serialized, the values are written by
+ * fitness function, and indexed with the current registry on
+ * deserialization.
+ *
+ * @param <T> the type of chromosome
+ * @param <V> either {@link Double} or {@link Integer}
+ */
+public class ObjectiveMap<T extends Chromosome<T>, V extends Number> extends AbstractMap<FitnessFunction<T>, V>
+        implements Serializable {
+
+    private static final long serialVersionUID = 3151227345006262436L;
+
+    private static final double[] NO_VALUES = new double[0];
+
+    private static final int[] NO_INDICES = new int[0];
+
+    private final boolean integral;
+
+    private transient ObjectiveRegistry registry;
+
+    /**
+     * Values by index
+     */
+    private transient double[] values;
+
+    /**
+     * 1-based position of each index in {@link #order}, 0 if there is no value for the index
+     */
+    private transient int[] positions;
+
+    /**
+     * Indices with a value, in insertion order
+     */
+    private transient int[] order;
+
+    private transient int size;
+
+    private transient int modCount;
+
+    private ObjectiveMap(boolean integral) {
+        this.integral = integral;
+        init();
+    }
+
+    private void init() {
+        registry = ObjectiveRegistry.getInstance();
+        values = NO_VALUES;
+        positions = NO_INDICES;
+        order = NO_INDICES;
+        size = 0;
+    }
+
+    public static <T extends Chromosome<T>> ObjectiveMap<T, Double> ofDoubles() {
+        return new ObjectiveMap<>(false);
+    }
+
+    public static <T extends Chromosome<T>> ObjectiveMap<T, Integer> ofIntegers() {
+        return new ObjectiveMap<>(true);
+    }
+
+    /**
+     * @return the registry assigning the indices of this map
+     */
+    public ObjectiveRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @param ff a fitness function
+     * @return the index of {@code ff} in this map, which is registered if necessary
+     */
+    public int register(FitnessFunction<T> ff) {
+        return registry.register(ff);
+    }
+
+    /**
+     * @param ff a fitness function
+     * @return the index of {@code ff} if there is a value for it, -1 otherwise
+     */
+    public int indexOf(Object ff) {
+        int index = registry.indexOf(ff);
+        return contains(index) ? index : -1;
+    }
+
+    /**
+     * @param index an index of the registry
+     * @return whether there is a value for the given index
+     */
+    public boolean contains(int index) {
+        return index >= 0 && index < positions.length && positions[index] != 0;
+    }
+
+    /**
+     * @param index an index for which {@link #contains(int)} holds
+     * @return the value for the given index
+     */
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    public double getValue(Object ff, double defaultValue) {
+        int index = indexOf(ff);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    public void putValue(FitnessFunction<T> ff, double value) {
+        putValue(register(ff), value);
+    }
+
+    /**
+     * @param index an index of the registry of this map
+     * @param value the new value for the given index
+     */
+    public void putValue(int index, double value) {
+        if (index >= values.length) {
+            int length = Math.max(index + 1, Math.max(8, values.length * 2));
+            values = Arrays.copyOf(values, length);
+            positions = Arrays.copyOf(positions, length);
+        }
+        values[index] = integral ? (int) value : value;
+        if (positions[index] == 0) {
+            if (size == order.length) {
+                order = Arrays.copyOf(order, Math.max(8, size * 2));
+            }
+            order[size++] = index;
+            positions[index] = size;
+            modCount++;
+        }
+    }
+
+    /**
+     * @return the sum of all values, in insertion order
+     */
+    public double sum() {
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            sum += values[order[i]];
+        }
+        return sum;
+    }
+
+    /**
+     * @param other a map
+     * @return whether some value of this map differs from the value of {@code other} for the same
+     * fitness function, or {@code other} has no value for it
+     */
+    public boolean differsFrom(ObjectiveMap<T, ?> other) {
+        for (int i = 0; i < size; i++) {
+            int index = order[i];
+            int otherIndex = other.registry == registry ? index : other.registry.indexOf(registry.getObjective(index));
+            if (!other.contains(otherIndex) || other.values[otherIndex] != values[index]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeAt(int position) {
+        int index = order[position];
+        positions[index] = 0;
+        System.arraycopy(order, position + 1, order, position, size - position - 1);
+        size--;
+        for (int i = position; i < size; i++) {
+            positions[order[i]] = i + 1;
+        }
+        modCount++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V box(double value) {
+        Number boxed = integral ? Integer.valueOf((int) value) : (Number) Double.valueOf(value);
+        return (V) boxed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private FitnessFunction<T> objective(int index) {
+        return (FitnessFunction<T>) registry.getObjective(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : box(values[index]);
+    }
+
+    @Override
+    public V put(FitnessFunction<T> key, V value) {
+        int index = register(key);
+        V previous = contains(index) ? box(values[index]) : null;
+        putValue(index, value.doubleValue());
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V previous = box(values[index]);
+        removeAt(positions[index] - 1);
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends FitnessFunction<T>, ? extends V> map) {
+        if (map instanceof ObjectiveMap && ((ObjectiveMap<?, ?>) map).registry == registry) {
+            ObjectiveMap<?, ?> other = (ObjectiveMap<?, ?>) map;
+            if (size == 0) {
+                copyFrom(other);
+            } else {
+                for (int i = 0; i < other.size; i++) {
+                    putValue(other.order[i], other.values[other.order[i]]);
+                }
+            }
+        } else {
+            super.putAll(map);
+        }
+    }
+
+    private void copyFrom(ObjectiveMap<?, ?> other) {
+        if (values.length < other.values.length) {
+            values = other.values.clone();
+            positions = other.positions.clone();
+        } else {
+            System.arraycopy(other.values, 0, values, 0, other.values.length);
+            System.arraycopy(other.positions, 0, positions, 0, other.positions.length);
+        }
+        order = Arrays.copyOf(other.order, other.order.length);
+        size = other.size;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[order[i]] = 0;
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<FitnessFunction<T>, V>> entrySet() {
+        return new AbstractSet<Entry<FitnessFunction<T>, V>>() {
+            @Override
+            public Iterator<Entry<FitnessFunction<T>, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                ObjectiveMap.this.clear();
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<FitnessFunction<T>, V>> {
+
+        private int next = 0;
+
+        private int last = -1;
+
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<FitnessFunction<T>, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            final int index = order[last];
+            return new SimpleEntry<FitnessFunction<T>, V>(objective(index), box(values[index])) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public V setValue(V value) {
+                    super.setValue(value);
+                    V previous = box(values[index]);
+                    values[index] = integral ? value.intValue() : value.doubleValue();
+                    return previous;
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeObject(registry.getObjective(order[i]));
+            out.writeDouble(values[order[i]]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            FitnessFunction<T> ff = (FitnessFunction<T>) in.readObject();
+            putValue(ff, in.readDouble());
+        }
+    }
+}
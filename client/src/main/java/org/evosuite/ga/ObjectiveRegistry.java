@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each fitness function (i.e., each objective or goal) a dense
+ * index, such that the fitness values of chromosomes can be kept in
+ * arrays (see {@link ObjectiveMap}) rather than in hash maps.
+ * <p>
+ * Indices are never reused. The registry is replaced on
+ * {@link #resetSingleton()}; maps created before keep using the registry
+ * they were created with.
+ */
+public class ObjectiveRegistry {
+
+    private static ObjectiveRegistry instance = new ObjectiveRegistry();
+
+    /**
+     * Stands for the null fitness function, which is a valid key of fitness values
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private final Map<Object, Integer> indices = new ConcurrentHashMap<>();
+
+    private volatile FitnessFunction<?>[] objectives = new FitnessFunction<?>[64];
+
+    private int size = 0;
+
+    public static ObjectiveRegistry getInstance() {
+        return instance;
+    }
+
+    public static synchronized void resetSingleton() {
+        instance = new ObjectiveRegistry();
+    }
+
+    /**
+     * @param ff a fitness function
+     * @return the index of {@code ff}, which is registered if necessary
+     */
+    public int register(FitnessFunction<?> ff) {
+        Integer index = indices.get(key(ff));
+        return index != null ? index : add(ff);
+    }
+
+    private synchronized int add(FitnessFunction<?> ff) {
+        Integer index = indices.get(key(ff));
+        if (index != null) {
+            return index;
+        }
+        if (size == objectives.length) {
+            objectives = Arrays.copyOf(objectives, size * 2);
+        }
+        objectives[size] = ff;
+        indices.put(key(ff), size);
+        return size++;
+    }
+
+    /**
+     * @param ff a fitness function
+     * @return the index of {@code ff}, or -1 if it was never registered
+     */
+    public int indexOf(Object ff) {
+        Integer index = indices.get(key(ff));
+        return index == null ? -1 : index;
+    }
+
+    private static Object key(Object ff) {
+        return ff == null ? NULL_KEY : ff;
+    }
+
+    /**
+     * @param goals a collection of fitness functions
+     * @return the indices of {@code goals}, in iteration order, which are registered if necessary
+     */
+    public int[] register(Collection<? extends FitnessFunction<?>> goals) {
+        int[] result = new int[goals.size()];
+        int i = 0;
+        for (FitnessFunction<?> ff : goals) {
+            result[i++] = register(ff);
+        }
+        return result;
+    }
+
+    /**
+     * @param index an index returned by {@link #register(FitnessFunction)}
+     * @return the fitness function with the given index
+     */
+    public FitnessFunction<?> getObjective(int index) {
+        return objectives[index];
+    }
+
+    /**
+     * @return the number of registered fitness functions
+     */
+    public int size() {
+        return indices.size();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A fixed list of objectives (e.g., the uncovered goals when ranking a
+ * population), resolved once to their indices in the
+ * {@link ObjectiveRegistry}. Comparing chromosomes on the objectives then
+ * reads their fitness values by index, see
+ * {@link Chromosome#getFitness(Objectives, int)} and
+ * {@link Chromosome#getFitnessVector(Objectives)}.
+ *
+ * @param <T> the type of chromosome
+ */
+public class Objectives<T extends Chromosome<T>> implements Serializable {
+
+    private static final long serialVersionUID = -4305473815412003286L;
+
+    private final List<FitnessFunction<T>> goals;
+
+    private transient ObjectiveRegistry registry;
+
+    private transient int[] indices;
+
+    public Objectives(Collection<? extends FitnessFunction<T>> goals) {
+        this.goals = new ArrayList<>(goals);
+    }
+
+    private void resolve() {
+        ObjectiveRegistry current = ObjectiveRegistry.getInstance();
+        if (registry != current) {
+            indices = current.register(goals);
+            registry = current;
+        }
+    }
+
+    /**
+     * @return the registry the indices belong to
+     */
+    public ObjectiveRegistry getRegistry() {
+        resolve();
+        return registry;
+    }
+
+    public int size() {
+        return goals.size();
+    }
+
+    /**
+     * @param i a position in this list
+     * @return the objective at the given position
+     */
+    public FitnessFunction<T> get(int i) {
+        return goals.get(i);
+    }
+
+    /**
+     * @param i a position in this list
+     * @return the index in {@link #getRegistry()} of the objective at the given position
+     */
+    public int getIndex(int i) {
+        resolve();
+        return indices[i];
+    }
+
+    /**
+     * @return the indices in {@link #getRegistry()} of all objectives, which must not be modified
+     */
+    public int[] getIndices() {
+        resolve();
+        return indices;
+    }
+
+    public List<FitnessFunction<T>> getGoals() {
+        return goals;
+    }
+}
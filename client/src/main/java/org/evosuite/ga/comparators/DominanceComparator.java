@@ -21,10 +21,11 @@ package org.evosuite.ga.comparators;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.Objectives;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -37,7 +38,7 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
 
     private static final long serialVersionUID = -2154238776555768364L;
 
-    private Set<FitnessFunction<T>> objectives;
+    private Objectives<T> objectives;
 
 
     public DominanceComparator() {
@@ -48,15 +49,14 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
      * @param goals set of target goals to consider when computing the dominance relationship
      */
     public DominanceComparator(Set<? extends FitnessFunction<T>> goals) {
-        this.objectives = new LinkedHashSet<>(goals);
+        this.objectives = new Objectives<>(goals);
     }
 
     /**
      * @param goal to consider when computing the dominance relationship
      */
     public DominanceComparator(FitnessFunction<T> goal) {
-        this.objectives = new LinkedHashSet<>();
-        this.objectives.add(goal);
+        this.objectives = new Objectives<>(Collections.singleton(goal));
     }
 
     /**
@@ -81,11 +81,11 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
         boolean dominate2 = false;
 
         if (this.objectives == null) {
-            this.objectives = new LinkedHashSet<>(c1.getFitnessValues().keySet());
+            this.objectives = new Objectives<>(c1.getFitnessValues().keySet());
         }
 
-        for (FitnessFunction<T> ff : this.objectives) {
-            int flag = Double.compare(c1.getFitness(ff), c2.getFitness(ff));
+        for (int i = 0; i < this.objectives.size(); i++) {
+            int flag = Double.compare(c1.getFitness(this.objectives, i), c2.getFitness(this.objectives, i));
 
             if (flag < 0) {
                 dominate1 = true;
@@ -110,4 +110,43 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
             return 1; // c2 dominates
         }
     }
+
+    /**
+     * Compares two vectors of fitness values (e.g., as returned by
+     * {@link Chromosome#getFitnessVector(Objectives)}) in terms of dominance.
+     *
+     * @param v1 the fitness values of the first chromosome
+     * @param v2 the fitness values of the second chromosome, for the same objectives
+     * @return -1 if v1 dominates v2, +1 if v2 dominates v1, 0 if both are non-dominated
+     */
+    public static int compare(double[] v1, double[] v2) {
+        boolean dominate1 = false;
+        boolean dominate2 = false;
+
+        for (int i = 0; i < v1.length; i++) {
+            int flag = Double.compare(v1[i], v2[i]);
+
+            if (flag < 0) {
+                dominate1 = true;
+
+                if (dominate2) {
+                    return 0;
+                }
+            } else if (flag > 0) {
+                dominate2 = true;
+
+                if (dominate1) {
+                    return 0;
+                }
+            }
+        }
+
+        if (dominate1 == dominate2) {
+            return 0; // no one dominate the other
+        } else if (dominate1) {
+            return -1; // v1 dominates
+        } else {
+            return 1; // v2 dominates
+        }
+    }
 }
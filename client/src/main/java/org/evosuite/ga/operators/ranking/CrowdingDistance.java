@@ -38,10 +38,12 @@ package org.evosuite.ga.operators.ranking;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.SortByFitness;
+import org.evosuite.ga.Objectives;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -54,6 +56,18 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 
     private static final long serialVersionUID = 5700682318003298299L;
 
+    /**
+     * @return the fitness values of each member of the front for the given goals
+     */
+    private double[][] getFitnessVectors(List<T> front, Collection<? extends FitnessFunction<T>> set) {
+        Objectives<T> objectives = new Objectives<>(set);
+        double[][] vectors = new double[front.size()][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = front.get(i).getFitnessVector(objectives);
+        }
+        return vectors;
+    }
+
     /**
      * Method used to assign the 'traditional' Crowding Distance.
      *
@@ -75,30 +89,49 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
             return;
         }
 
-        front.forEach(t -> t.setDistance(0.0));
+        double[][] vectors = getFitnessVectors(front, set);
+        double[] distances = new double[size];
+
+        // positions in the front, sorted by each objective in turn
+        Integer[] order = new Integer[size];
+        for (int j = 0; j < size; j++) {
+            order[j] = j;
+        }
 
         double objetiveMaxn;
         double objetiveMinn;
         double distance;
 
-        for (final FitnessFunction<T> ff : set) {
+        for (int n = 0; n < set.size(); n++) {
             // Sort the population by Fit n
-            front.sort(new SortByFitness<>(ff, false));
+            final int objective = n;
+            Arrays.sort(order, (a, b) -> Double.compare(vectors[a][objective], vectors[b][objective]));
 
-            objetiveMinn = front.get(0).getFitness(ff);
-            objetiveMaxn = front.get(front.size() - 1).getFitness(ff);
+            objetiveMinn = vectors[order[0]][n];
+            objetiveMaxn = vectors[order[size - 1]][n];
 
             // set crowding distance
-            front.get(0).setDistance(Double.POSITIVE_INFINITY);
-            front.get(size - 1).setDistance(Double.POSITIVE_INFINITY);
+            distances[order[0]] = Double.POSITIVE_INFINITY;
+            distances[order[size - 1]] = Double.POSITIVE_INFINITY;
 
             for (int j = 1; j < size - 1; j++) {
-                distance = front.get(j + 1).getFitness(ff) - front.get(j - 1).getFitness(ff);
+                distance = vectors[order[j + 1]][n] - vectors[order[j - 1]][n];
                 distance = distance / (objetiveMaxn - objetiveMinn);
-                distance += front.get(j).getDistance();
-                front.get(j).setDistance(distance);
+                distance += distances[order[j]];
+                distances[order[j]] = distance;
             }
         }
+
+        // leave the front sorted by the last objective
+        List<T> sorted = new ArrayList<>(size);
+        for (int j = 0; j < size; j++) {
+            T t = front.get(order[j]);
+            t.setDistance(distances[order[j]]);
+            sorted.add(t);
+        }
+        for (int j = 0; j < size; j++) {
+            front.set(j, sorted.get(j));
+        }
     }
 
     /**
@@ -120,6 +153,7 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 
         front.forEach(t -> t.setDistance(Double.MAX_VALUE));
 
+        double[][] vectors = getFitnessVectors(front, set);
         int dominate1, dominate2;
         for (int i = 0; i < front.size() - 1; i++) {
             T p1 = front.get(i);
@@ -127,9 +161,9 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
                 T p2 = front.get(j);
                 dominate1 = 0;
                 dominate2 = 0;
-                for (final FitnessFunction<T> ff : set) {
-                    double value1 = p1.getFitness(ff);
-                    double value2 = p2.getFitness(ff);
+                for (int n = 0; n < set.size(); n++) {
+                    double value1 = vectors[i][n];
+                    double value2 = vectors[j][n];
                     if (value1 < value2)
                         dominate1++;
                     else if (value1 > value2)
@@ -155,12 +189,14 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
         double value;
         front.forEach(test -> test.setDistance(0));
 
-        for (final FitnessFunction<T> ff : set) {
+        double[][] vectors = getFitnessVectors(front, set);
+        for (int n = 0; n < set.size(); n++) {
             double min = Double.POSITIVE_INFINITY;
             List<T> minSet = new ArrayList<>(front.size());
             double max = 0;
-            for (T test : front) {
-                value = test.getFitness(ff);
+            for (int i = 0; i < front.size(); i++) {
+                T test = front.get(i);
+                value = vectors[i][n];
                 if (value < min) {
                     min = value;
                     minSet.clear();
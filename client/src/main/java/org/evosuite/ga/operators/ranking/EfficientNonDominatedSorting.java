@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.Objectives;
+import org.evosuite.ga.comparators.DominanceComparator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranks the solutions with the efficient non-dominated sort (ENS) with
+ * sequential search:
+ * <p>
+ * [1] Xingyi Zhang, Ye Tian, Ran Cheng, and Yaochu Jin, "An Efficient
+ * Approach to Nondominated Sorting for Evolutionary Multiobjective
+ * Optimization", IEEE Transactions on Evolutionary Computation 19(2),
+ * 2015.
+ * <p>
+ * Solutions are sorted lexicographically by their fitness vectors, such
+ * that a solution can only be dominated by the ones before it. Each
+ * solution is then put in the first front none of whose members
+ * dominates it. This gives the same fronts as
+ * {@link FastNonDominatedSorting}, with far fewer dominance comparisons.
+ * Within each front, solutions keep the order they were given in.
+ * <p>
+ * In the incremental mode, the ranking of the previous call is reused
+ * if the goals are the same, and the solutions ranked before kept their
+ * fitness values and form a dominance-closed subset of the previous
+ * ranking (as after elitist selection from the first fronts). Their
+ * previous fronts are then a lower bound of their new fronts, and their
+ * unchanged neighbours in a front do not need to be compared with them,
+ * so mostly the offspring are compared with the existing fronts.
+ *
+ * @param <T> the type of chromosomes
+ */
+public class EfficientNonDominatedSorting<T extends Chromosome<T>> implements RankingFunction<T> {
+
+    private static final long serialVersionUID = 2896573733071431327L;
+
+    private static final Comparator<double[]> LEXICOGRAPHIC = (v1, v2) -> {
+        for (int i = 0; i < v1.length; i++) {
+            int flag = Double.compare(v1[i], v2[i]);
+            if (flag != 0) {
+                return flag;
+            }
+        }
+        return 0;
+    };
+
+    private final boolean incremental;
+
+    private List<List<T>> fronts = new ArrayList<>();
+
+    /**
+     * The goals of the previous ranking
+     */
+    private transient List<FitnessFunction<T>> lastGoals;
+
+    /**
+     * The solutions of the previous ranking, in lexicographic order of their fitness vectors
+     */
+    private transient List<T> lastOrder;
+
+    /**
+     * The fitness vectors and fronts of the solutions of the previous ranking
+     */
+    private transient Map<T, Ranked> lastRanking;
+
+    private static final class Ranked {
+        final double[] vector;
+        final int front;
+
+        Ranked(double[] vector, int front) {
+            this.vector = vector;
+            this.front = front;
+        }
+    }
+
+    public EfficientNonDominatedSorting() {
+        this(Properties.INCREMENTAL_RANKING);
+    }
+
+    /**
+     * @param incremental whether to reuse the previous ranking where possible
+     */
+    public EfficientNonDominatedSorting(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void computeRankingAssignment(List<T> solutions,
+                                         Set<? extends FitnessFunction<T>> uncovered_goals) {
+        Objectives<T> objectives = new Objectives<>(uncovered_goals);
+        int size = solutions.size();
+        double[][] vectors = new double[size][];
+        for (int i = 0; i < size; i++) {
+            vectors[i] = solutions.get(i).getFitnessVector(objectives);
+        }
+
+        int[] lowerBounds = new int[size];
+        Integer[] order = incremental ? getIncrementalOrder(solutions, objectives.getGoals(), vectors, lowerBounds)
+                : null;
+        if (order == null) {
+            Arrays.fill(lowerBounds, -1);
+            order = getOrder(vectors);
+        }
+        int[] ranks = rank(vectors, order, lowerBounds);
+
+        int numFronts = 0;
+        for (int rank : ranks) {
+            numFronts = Math.max(numFronts, rank + 1);
+        }
+        fronts = new ArrayList<>(numFronts);
+        for (int i = 0; i < numFronts; i++) {
+            fronts.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            T solution = solutions.get(i);
+            solution.setDistance(Double.MAX_VALUE);
+            // ranks as assigned by FastNonDominatedSorting
+            solution.setRank(ranks[i] + 1);
+            fronts.get(ranks[i]).add(solution);
+        }
+
+        if (incremental) {
+            lastGoals = objectives.getGoals();
+            lastOrder = new ArrayList<>(size);
+            lastRanking = new IdentityHashMap<>(size);
+            for (int i : order) {
+                lastOrder.add(solutions.get(i));
+                lastRanking.put(solutions.get(i), new Ranked(vectors[i], ranks[i]));
+            }
+        }
+    }
+
+    /**
+     * @return the positions of the vectors, in lexicographic order of the vectors
+     */
+    private static Integer[] getOrder(double[][] vectors) {
+        Integer[] order = new Integer[vectors.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> LEXICOGRAPHIC.compare(vectors[i], vectors[j]));
+        return order;
+    }
+
+    /**
+     * Computes the lexicographic order of the solutions by merging the order of the solutions
+     * ranked by the previous call with the order of the new solutions, and sets the previous
+     * fronts as lower bounds.
+     *
+     * @return the lexicographic order, or null if the previous ranking cannot be reused
+     */
+    private Integer[] getIncrementalOrder(List<T> solutions, List<FitnessFunction<T>> goals,
+                                          double[][] vectors, int[] lowerBounds) {
+        if (lastRanking == null || !goals.equals(lastGoals)) {
+            return null;
+        }
+
+        Map<T, Integer> positions = new IdentityHashMap<>(solutions.size());
+        List<Integer> offspring = new ArrayList<>();
+        int maxFront = -1;
+        for (int i = 0; i < solutions.size(); i++) {
+            T solution = solutions.get(i);
+            Ranked ranked = lastRanking.get(solution);
+            if (ranked == null) {
+                offspring.add(i);
+                lowerBounds[i] = -1;
+            } else {
+                if (!Arrays.equals(ranked.vector, vectors[i]) || positions.put(solution, i) != null) {
+                    return null;
+                }
+                lowerBounds[i] = ranked.front;
+                maxFront = Math.max(maxFront, ranked.front);
+            }
+        }
+
+        // solutions not ranked again must not dominate any solution ranked again
+        for (Map.Entry<T, Ranked> entry : lastRanking.entrySet()) {
+            if (!positions.containsKey(entry.getKey()) && entry.getValue().front < maxFront) {
+                return null;
+            }
+        }
+
+        offspring.sort((i, j) -> LEXICOGRAPHIC.compare(vectors[i], vectors[j]));
+        Integer[] order = new Integer[solutions.size()];
+        int next = 0;
+        int o = 0;
+        for (T solution : lastOrder) {
+            Integer parent = positions.get(solution);
+            if (parent == null) {
+                continue;
+            }
+            while (o < offspring.size() && LEXICOGRAPHIC.compare(vectors[offspring.get(o)], vectors[parent]) < 0) {
+                order[next++] = offspring.get(o++);
+            }
+            order[next++] = parent;
+        }
+        while (o < offspring.size()) {
+            order[next++] = offspring.get(o++);
+        }
+        return order;
+    }
+
+    /**
+     * Assigns each vector to the first front (not lower than its lower bound) that contains no
+     * vector dominating it, in lexicographic order.
+     *
+     * @param vectors     the fitness vectors
+     * @param order       the positions of the vectors in lexicographic order
+     * @param lowerBounds for each vector, either -1 or its front in a previous ranking of a
+     *                    dominance-closed subset of the vectors (with -1 for all others)
+     * @return the front of each vector, starting from 0
+     */
+    static int[] rank(double[][] vectors, Integer[] order, int[] lowerBounds) {
+        int[] ranks = new int[vectors.length];
+        List<int[]> fronts = new ArrayList<>();
+        int[] frontSizes = new int[Math.max(1, vectors.length)];
+
+        for (int s : order) {
+            int bound = lowerBounds[s];
+            int front = Math.max(bound, 0);
+            while (front < fronts.size() && isDominated(s, fronts.get(front), frontSizes[front], front, bound,
+                    vectors, lowerBounds, ranks)) {
+                front++;
+            }
+            if (front == fronts.size()) {
+                fronts.add(new int[8]);
+            }
+            int[] members = fronts.get(front);
+            if (frontSizes[front] == members.length) {
+                members = Arrays.copyOf(members, members.length * 2);
+                fronts.set(front, members);
+            }
+            members[frontSizes[front]++] = s;
+            ranks[s] = front;
+        }
+        return ranks;
+    }
+
+    private static boolean isDominated(int s, int[] members, int size, int front, int bound,
+                                       double[][] vectors, int[] lowerBounds, int[] ranks) {
+        // members added last are closer in the order, and more likely to dominate
+        for (int i = size - 1; i >= 0; i--) {
+            int m = members[i];
+            if (bound >= 0 && lowerBounds[m] == front && ranks[m] == front) {
+                // both were ranked before, and m kept its front: if m dominated s, then s would
+                // have been in a later front before
+                continue;
+            }
+            if (DominanceComparator.compare(vectors[m], vectors[s]) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the non-dominated fronts of the given vectors.
+     *
+     * @param vectors the fitness vectors
+     * @return the front of each vector, starting from 0
+     */
+    static int[] rank(double[][] vectors) {
+        int[] lowerBounds = new int[vectors.length];
+        Arrays.fill(lowerBounds, -1);
+        return rank(vectors, getOrder(vectors), lowerBounds);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getSubfront(int rank) {
+        return fronts.get(rank);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfSubfronts() {
+        return fronts.size();
+    }
+}
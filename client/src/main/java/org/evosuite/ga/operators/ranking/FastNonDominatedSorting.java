@@ -37,6 +37,7 @@ package org.evosuite.ga.operators.ranking;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.Objectives;
 import org.evosuite.ga.comparators.DominanceComparator;
 
 import java.util.*;
@@ -82,7 +83,12 @@ public class FastNonDominatedSorting<T extends Chromosome<T>> implements Ranking
     @SuppressWarnings("unchecked")
     private List<T>[] getNextNonDominatedFronts(List<T> solutionSet,
                                                 Set<? extends FitnessFunction<T>> uncovered_goals) {
-        DominanceComparator<T> criterion_ = new DominanceComparator<>(uncovered_goals);
+        // the fitness values of each solution for the uncovered goals, compared pairwise below
+        Objectives<T> objectives = new Objectives<>(uncovered_goals);
+        double[][] vectors = new double[solutionSet.size()][];
+        for (int p = 0; p < solutionSet.size(); p++) {
+            vectors[p] = solutionSet.get(p).getFitnessVector(objectives);
+        }
 
         // dominateMe[i] contains the number of solutions dominating i
         int[] dominateMe = new int[solutionSet.size()];
@@ -116,7 +122,7 @@ public class FastNonDominatedSorting<T extends Chromosome<T>> implements Ranking
         for (int p = 0; p < (solutionSet.size() - 1); p++) {
             // For all q individuals , calculate if p dominates q or vice versa
             for (int q = p + 1; q < solutionSet.size(); q++) {
-                flagDominate = criterion_.compare(solutionSet.get(p), solutionSet.get(q));
+                flagDominate = DominanceComparator.compare(vectors[p], vectors[q]);
 
                 if (flagDominate == -1) {
                     iDominate[p].add(q);
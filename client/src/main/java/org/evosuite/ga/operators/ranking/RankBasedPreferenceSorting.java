@@ -38,7 +38,7 @@ package org.evosuite.ga.operators.ranking;
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.DominanceComparator;
+import org.evosuite.ga.Objectives;
 import org.evosuite.ga.comparators.PreferenceSortingComparator;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
@@ -87,15 +87,18 @@ public class RankBasedPreferenceSorting<T extends Chromosome<T>> implements Rank
 
         if (zero_front.size() < Properties.POPULATION) {
             int rankedSolutions = zero_front.size();
-            DominanceComparator<T> comparator = new DominanceComparator<>(uncovered_goals);
 
             List<T> remaining = new ArrayList<>(solutions.size());
             remaining.addAll(solutions);
             remaining.removeAll(zero_front);
-            while (rankedSolutions < Properties.POPULATION && remaining.size() > 0) {
-                List<T> new_front = this.getNonDominatedSolutions(remaining, comparator, frontIndex);
+            for (List<T> new_front : this.getNonDominatedFronts(remaining, uncovered_goals)) {
+                if (rankedSolutions >= Properties.POPULATION) {
+                    break;
+                }
+                for (T t : new_front) {
+                    t.setRank(frontIndex);
+                }
                 this.fronts.add(new_front);
-                remaining.removeAll(new_front);
                 rankedSolutions += new_front.size();
                 frontIndex++;
             }
@@ -140,30 +143,30 @@ public class RankBasedPreferenceSorting<T extends Chromosome<T>> implements Rank
         return new ArrayList<>(zero_front);
     }
 
-    private List<T> getNonDominatedSolutions(List<T> solutions, DominanceComparator<T> comparator, int frontIndex) {
-        List<T> front = new ArrayList<>(solutions.size());
-        for (T p : solutions) {
-            boolean isDominated = false;
-            List<T> dominatedSolutions = new ArrayList<>(solutions.size());
-            for (T best : front) {
-                int flag = comparator.compare(p, best);
-                if (flag < 0) {
-                    dominatedSolutions.add(best);
-                }
-                if (flag > 0) {
-                    isDominated = true;
-                    break;
-                }
-            }
-            if (isDominated) {
-                continue;
-            }
+    /**
+     * Splits the given solutions into non-dominated fronts, as obtained by repeatedly removing the
+     * non-dominated solutions. Solutions keep their order within each front.
+     *
+     * @param solutions       the solutions to rank
+     * @param uncovered_goals the goals used for ranking
+     * @return the fronts, the non-dominated one first
+     */
+    private List<List<T>> getNonDominatedFronts(List<T> solutions, Set<? extends FitnessFunction<T>> uncovered_goals) {
+        Objectives<T> objectives = new Objectives<>(uncovered_goals);
+        double[][] vectors = new double[solutions.size()][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = solutions.get(i).getFitnessVector(objectives);
+        }
+        int[] ranks = EfficientNonDominatedSorting.rank(vectors);
 
-            p.setRank(frontIndex);
-            front.add(p);
-            front.removeAll(dominatedSolutions);
+        List<List<T>> result = new ArrayList<>();
+        for (int i = 0; i < ranks.length; i++) {
+            while (result.size() <= ranks[i]) {
+                result.add(new ArrayList<>());
+            }
+            result.get(ranks[i]).add(solutions.get(i));
         }
-        return front;
+        return result;
     }
 
     /**
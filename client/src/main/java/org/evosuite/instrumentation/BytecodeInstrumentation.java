@@ -159,13 +159,22 @@ public class BytecodeInstrumentation {
 
         TransformationStatistics.reset();
 
+        /*
+         * The whole transformation always has to be applied, as it registers
+         * the class in the coverage pools. Only the computation of the frames
+         * can be looked up in the cache. Test carving is not cached, as the
+         * carving instrumentation (see handleCarving) re-reads the output of
+         * the writer and keeps its frames, so the writer has to compute them
+         */
+        InstrumentationCache cache = Properties.TEST_CARVING ? null : InstrumentationCache.getInstance();
+
         /*
          * To use COMPUTE_FRAMES we need to remove JSR commands. Therefore, we
          * have a JSRInlinerAdapter in NonTargetClassAdapter as well as
          * CFGAdapter.
          */
         int asmFlags = ClassWriter.COMPUTE_FRAMES;
-        ClassWriter writer = new ComputeClassWriter(asmFlags);
+        ClassWriter writer = cache == null ? new ComputeClassWriter(asmFlags) : new ClassWriter(0);
 
         ClassVisitor cv = writer;
         if (logger.isDebugEnabled()) {
@@ -226,6 +235,12 @@ public class BytecodeInstrumentation {
 
         if (Properties.RESET_STATIC_FIELDS) {
             cv = handleStaticReset(className, cv);
+        } else {
+            // The callbacks around <clinit> are still needed to know
+            // when the kill switch may abort the execution. A class without
+            // <clinit> is left unchanged, so that its default
+            // serialVersionUID does not change
+            cv = new EndOfClassInitializerVisitor(cv, className, false);
         }
 
         // Mock instrumentation (eg File and TCP).
@@ -289,6 +304,9 @@ public class BytecodeInstrumentation {
             reader.accept(cv, readFlags);
         }
 
+        if (cache != null) {
+            return cache.computeFrames(writer.toByteArray());
+        }
         return writer.toByteArray();
     }
 
@@ -31,8 +31,10 @@ import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 
 /**
  * This visitor inserts a callback to at the exit of each <clinit>() method
- * (i.e. after class initialization has ended). If the class has no static
- * fields, no callback is inserted.
+ * (i.e. after class initialization has ended), and one at its beginning. If
+ * the class has static fields but no <clinit>(), an empty one with the
+ * callbacks is created, unless the visitor only instruments existing
+ * initializers (which leaves the bytecode of such classes unchanged).
  *
  * @author galeotti
  */
@@ -90,6 +92,14 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
                 startingTryLabel = new Label();
                 endingTryLabel = new Label();
                 super.visitLabel(startingTryLabel);
+
+                String executionTracerClassName = ExecutionTracer.class.getName().replace('.', '/');
+                String executionTracerDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(String.class));
+
+                String classNameWithDots = className.replace('/', '.');
+                super.visitLdcInsn(classNameWithDots);
+                super.visitMethodInsn(INVOKESTATIC, executionTracerClassName, ENTER_CLASS_INIT,
+                        executionTracerDescriptor, false);
             }
         }
 
@@ -148,9 +158,20 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 
     private final String className;
 
+    private final boolean createClassInit;
+
     public EndOfClassInitializerVisitor(ClassVisitor visitor, String className) {
+        this(visitor, className, true);
+    }
+
+    /**
+     * @param createClassInit whether to create a <clinit>() for classes with
+     *                        static fields that do not have one
+     */
+    public EndOfClassInitializerVisitor(ClassVisitor visitor, String className, boolean createClassInit) {
         super(Opcodes.ASM9, visitor);
         this.className = className;
+        this.createClassInit = createClassInit;
     }
 
     @Override
@@ -175,6 +196,8 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
     private boolean clinitFound = false;
     private boolean hasStaticFields = false;
 
+    private static final String ENTER_CLASS_INIT = "enterClassInit";
+
     private static final String EXIT_CLASS_INIT = "exitClassInit";
 
     @Override
@@ -185,7 +208,7 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 
     @Override
     public void visitEnd() {
-        if (!clinitFound && !isInterface && hasStaticFields) {
+        if (createClassInit && !clinitFound && !isInterface && hasStaticFields) {
             // create brand empty <clinit>()
             createEmptyClassInit();
         }
@@ -216,6 +239,8 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 
         String classNameWithDots = className.replace('/', '.');
         mv.visitLdcInsn(classNameWithDots);
+        mv.visitMethodInsn(INVOKESTATIC, executionTracerClassName, ENTER_CLASS_INIT, executionTracerDescriptor, false);
+        mv.visitLdcInsn(classNameWithDots);
         mv.visitMethodInsn(INVOKESTATIC, executionTracerClassName, EXIT_CLASS_INIT, executionTracerDescriptor, false);
 
         mv.visitInsn(Opcodes.RETURN);
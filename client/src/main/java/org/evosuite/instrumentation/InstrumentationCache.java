@@ -0,0 +1,408 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import org.evosuite.Properties;
+import org.evosuite.runtime.util.ComputeClassWriter;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk cache of the stack map frames computed for instrumented classes.
+ * <p>
+ * Computing the frames of an instrumented class (see
+ * {@link ClassWriter#COMPUTE_FRAMES}) is the most expensive part of the
+ * instrumentation, as it requires a data-flow analysis of each method and
+ * loading the hierarchy of the classes it uses. With the cache, the
+ * instrumentation is written without frames, and the cache maps these bytes
+ * to the final bytes with frames.
+ * <p>
+ * The key of an entry is the digest of the instrumented bytes without
+ * frames and of the EvoSuite version. As the instrumented bytes reflect the
+ * original class, the instrumentation-relevant properties and the
+ * identifiers assigned by the coverage pools in the current run, an entry is
+ * only reused if the instrumentation produced exactly the same code.
+ * <p>
+ * The frames also depend on the hierarchy of the classes that are merged
+ * while computing them (see {@link ComputeClassWriter#getCommonSuperClass}).
+ * Each entry therefore records the digests of these classes and of all their
+ * supertypes, as loaded when the frames were computed, and is only reused if
+ * the classes currently on the classpath still have the same digests.
+ * <p>
+ * At most {@link Properties#INSTRUMENTATION_CACHE_SIZE} classes are kept, and
+ * the least recently used ones are removed when the cache grows beyond it.
+ */
+public final class InstrumentationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentationCache.class);
+
+    private static final String FILE_SUFFIX = ".class";
+
+    private static InstrumentationCache instance = null;
+
+    private final File directory;
+
+    private final byte[] environmentDigest;
+
+    /**
+     * Digests of the classes on the classpath, which does not change during a
+     * run. Classes that cannot be found are not cached
+     */
+    private final Map<String, byte[]> classDigests = new ConcurrentHashMap<>();
+
+    private int hits = 0;
+    private int misses = 0;
+
+    /**
+     * Number of entries in the directory, counted when the first entry is
+     * stored, or -1 before that
+     */
+    private int numberOfEntries = -1;
+
+    /**
+     * @return the cache, or <code>null</code> if
+     * {@link Properties#INSTRUMENTATION_CACHE_DIR} is not set
+     */
+    public static synchronized InstrumentationCache getInstance() {
+        if (Properties.INSTRUMENTATION_CACHE_DIR == null) {
+            return null;
+        }
+        if (instance == null || !instance.directory.equals(new File(Properties.INSTRUMENTATION_CACHE_DIR))) {
+            instance = new InstrumentationCache(new File(Properties.INSTRUMENTATION_CACHE_DIR),
+                    String.valueOf(BytecodeInstrumentation.class.getPackage().getImplementationVersion()));
+        }
+        return instance;
+    }
+
+    public static synchronized void resetSingleton() {
+        instance = null;
+    }
+
+    /**
+     * @param directory   the cache directory
+     * @param environment what the frames depend on besides the classes, i.e.
+     *                    the EvoSuite version
+     */
+    InstrumentationCache(File directory, String environment) {
+        this.directory = directory;
+        this.environmentDigest = digest(environment.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the given instrumented class with its stack map frames, either
+     * from the cache, or by computing them and storing them in the cache.
+     *
+     * @param bytesWithoutFrames the instrumented class, without frames
+     * @return the instrumented class with frames
+     */
+    public byte[] computeFrames(byte[] bytesWithoutFrames) {
+        File file = getFile(bytesWithoutFrames);
+        if (file.exists()) {
+            byte[] cached = load(file);
+            if (cached != null) {
+                synchronized (this) {
+                    hits++;
+                }
+                // the modification time orders the entries for the eviction
+                if (!file.setLastModified(System.currentTimeMillis())) {
+                    logger.debug("Cannot update the modification time of " + file);
+                }
+                return cached;
+            }
+        }
+
+        synchronized (this) {
+            misses++;
+        }
+        ClassReader reader = new ClassReader(bytesWithoutFrames);
+        RecordingClassWriter writer = new RecordingClassWriter();
+        reader.accept(writer, ClassReader.SKIP_FRAMES);
+        byte[] bytes = writer.toByteArray();
+        store(file, writer.mergedTypes, bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads an entry, which starts with the digests of the classes the frames
+     * depend on, followed by the class with frames.
+     *
+     * @return the class with frames, or <code>null</code> if the entry cannot
+     * be read or any of the classes it depends on changed
+     */
+    private byte[] load(File file) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            int dependencies = in.readInt();
+            for (int i = 0; i < dependencies; i++) {
+                String type = in.readUTF();
+                byte[] expected = new byte[in.readUnsignedByte()];
+                in.readFully(expected);
+                if (!MessageDigest.isEqual(expected, getClassDigest(type))) {
+                    logger.debug("Class " + type + " changed since " + file + " was cached");
+                    return null;
+                }
+            }
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return bytes;
+        } catch (IOException e) {
+            logger.debug("Cannot read cached class " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(File file, Set<String> mergedTypes, byte[] bytes) {
+        try {
+            Map<String, byte[]> dependencies = getHierarchyDigests(mergedTypes);
+            ByteArrayOutputStream entry = new ByteArrayOutputStream(bytes.length + 64 * dependencies.size());
+            try (DataOutputStream out = new DataOutputStream(entry)) {
+                out.writeInt(dependencies.size());
+                for (Map.Entry<String, byte[]> dependency : dependencies.entrySet()) {
+                    out.writeUTF(dependency.getKey());
+                    out.writeByte(dependency.getValue().length);
+                    out.write(dependency.getValue());
+                }
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            File parent = file.getParentFile();
+            if (!parent.exists() && !parent.mkdirs() && !parent.exists()) {
+                logger.warn("Cannot create instrumentation cache directory " + parent);
+                return;
+            }
+            // write to a temporary file first, as other clients might be
+            // reading the same entry concurrently
+            File tmp = File.createTempFile(file.getName(), ".tmp", parent);
+            Files.write(tmp.toPath(), entry.toByteArray());
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp.toPath());
+                throw e;
+            }
+        } catch (IOException e) {
+            logger.debug("Cannot store instrumented class in " + file + ": " + e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            if (numberOfEntries < 0) {
+                numberOfEntries = listEntries().size();
+            } else {
+                numberOfEntries++;
+            }
+            if (numberOfEntries > Properties.INSTRUMENTATION_CACHE_SIZE) {
+                evict();
+            }
+        }
+    }
+
+    private List<File> listEntries() {
+        List<File> entries = new ArrayList<>();
+        File[] subdirectories = directory.listFiles(File::isDirectory);
+        if (subdirectories == null) {
+            return entries;
+        }
+        for (File subdirectory : subdirectories) {
+            File[] files = subdirectory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+            if (files != null) {
+                entries.addAll(Arrays.asList(files));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Removes the least recently used entries, down to three quarters of the
+     * maximum size, so that the directory is not scanned on every store.
+     * Other clients sharing the directory may add entries concurrently, so
+     * the size is only approximately bounded.
+     */
+    private void evict() {
+        List<File> entries = listEntries();
+        Map<File, Long> lastModified = new HashMap<>();
+        for (File entry : entries) {
+            lastModified.put(entry, entry.lastModified());
+        }
+        entries.sort(Comparator.comparing(lastModified::get));
+
+        int target = Properties.INSTRUMENTATION_CACHE_SIZE * 3 / 4;
+        int remaining = entries.size();
+        for (File entry : entries) {
+            if (remaining <= target) {
+                break;
+            }
+            if (entry.delete() || !entry.exists()) {
+                remaining--;
+            }
+        }
+        logger.debug("Evicted " + (entries.size() - remaining) + " classes from the instrumentation cache");
+        numberOfEntries = remaining;
+    }
+
+    /**
+     * Computes the digests of the given classes and of all their supertypes,
+     * which is everything the {@link ComputeClassWriter} may have looked at.
+     *
+     * @throws IOException if a class cannot be found
+     */
+    private Map<String, byte[]> getHierarchyDigests(Set<String> types) throws IOException {
+        Map<String, byte[]> digests = new LinkedHashMap<>();
+        Deque<String> pending = new ArrayDeque<>(types);
+        while (!pending.isEmpty()) {
+            String type = pending.poll();
+            if (digests.containsKey(type)) {
+                continue;
+            }
+            byte[] bytes = readClass(type);
+            if (bytes == null) {
+                throw new IOException("Class not found: " + type);
+            }
+            byte[] digest = digest(bytes);
+            classDigests.put(type, digest);
+            digests.put(type, digest);
+            ClassReader reader = new ClassReader(bytes);
+            if (reader.getSuperName() != null) {
+                pending.add(reader.getSuperName());
+            }
+            pending.addAll(Arrays.asList(reader.getInterfaces()));
+        }
+        return digests;
+    }
+
+    /**
+     * @return the digest of the class as currently found on the classpath,
+     * or an empty array if it cannot be found
+     */
+    private byte[] getClassDigest(String type) throws IOException {
+        byte[] digest = classDigests.get(type);
+        if (digest == null) {
+            byte[] bytes = readClass(type);
+            if (bytes == null) {
+                return new byte[0];
+            }
+            digest = digest(bytes);
+            classDigests.put(type, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Reads a class the same way as {@link ComputeClassWriter} does
+     */
+    private static byte[] readClass(String type) throws IOException {
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(type + ".class")) {
+            if (in == null) {
+                return null;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    private File getFile(byte[] bytesWithoutFrames) {
+        MessageDigest digest = newDigest();
+        digest.update(environmentDigest);
+        digest.update(bytesWithoutFrames);
+        String name = toHex(digest.digest());
+        return new File(new File(directory, name.substring(0, 2)), name.substring(2) + FILE_SUFFIX);
+    }
+
+    public synchronized int getNumberOfHits() {
+        return hits;
+    }
+
+    public synchronized int getNumberOfMisses() {
+        return misses;
+    }
+
+    /**
+     * Computes frames like {@link ComputeClassWriter}, and records the types
+     * whose common super class was looked up
+     */
+    private static final class RecordingClassWriter extends ComputeClassWriter {
+
+        private final Set<String> mergedTypes = new TreeSet<>();
+
+        RecordingClassWriter() {
+            super(ClassWriter.COMPUTE_FRAMES);
+        }
+
+        @Override
+        protected String getCommonSuperClass(String type1, String type2) {
+            mergedTypes.add(type1);
+            mergedTypes.add(type2);
+            return super.getCommonSuperClass(type1, type2);
+        }
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        return newDigest().digest(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+}
@@ -20,7 +20,6 @@
 package org.evosuite.seeding;
 
 import org.evosuite.Properties;
-import org.evosuite.utils.DefaultRandomAccessQueue;
 import org.evosuite.utils.RandomAccessQueue;
 import org.objectweb.asm.Type;
 
@@ -29,17 +28,17 @@ import org.objectweb.asm.Type;
  */
 public class DynamicConstantPool implements ConstantPool {
 
-    private final RandomAccessQueue<String> stringPool = new DefaultRandomAccessQueue<>();
+    private final RandomAccessQueue<String> stringPool = new TopKRandomAccessQueue<>(false);
 
-    private final RandomAccessQueue<Type> typePool = new DefaultRandomAccessQueue<>();
+    private final RandomAccessQueue<Type> typePool = new TopKRandomAccessQueue<>(false);
 
-    private final RandomAccessQueue<Integer> intPool = new DefaultRandomAccessQueue<>();
+    private final RandomAccessQueue<Integer> intPool = new TopKRandomAccessQueue<>(false);
 
-    private final RandomAccessQueue<Double> doublePool = new DefaultRandomAccessQueue<>();
+    private final RandomAccessQueue<Double> doublePool = new TopKRandomAccessQueue<>(false);
 
-    private final RandomAccessQueue<Long> longPool = new DefaultRandomAccessQueue<>();
+    private final RandomAccessQueue<Long> longPool = new TopKRandomAccessQueue<>(false);
 
-    private final RandomAccessQueue<Float> floatPool = new DefaultRandomAccessQueue<>();
+    private final RandomAccessQueue<Float> floatPool = new TopKRandomAccessQueue<>(false);
 
     public DynamicConstantPool() {
         /*
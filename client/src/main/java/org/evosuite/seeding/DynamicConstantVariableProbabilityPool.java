@@ -28,17 +28,17 @@ import org.objectweb.asm.Type;
  */
 public class DynamicConstantVariableProbabilityPool implements ConstantPool {
 
-    private final RandomAccessQueue<String> stringPool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<String> stringPool = new TopKRandomAccessQueue<>(true);
 
-    private final RandomAccessQueue<Type> typePool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Type> typePool = new TopKRandomAccessQueue<>(true);
 
-    private final RandomAccessQueue<Integer> intPool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Integer> intPool = new TopKRandomAccessQueue<>(true);
 
-    private final RandomAccessQueue<Double> doublePool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Double> doublePool = new TopKRandomAccessQueue<>(true);
 
-    private final RandomAccessQueue<Long> longPool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Long> longPool = new TopKRandomAccessQueue<>(true);
 
-    private final RandomAccessQueue<Float> floatPool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Float> floatPool = new TopKRandomAccessQueue<>(true);
 
     public DynamicConstantVariableProbabilityPool() {
         /*
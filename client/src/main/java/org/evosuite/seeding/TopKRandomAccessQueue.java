@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding;
+
+import org.evosuite.Properties;
+import org.evosuite.utils.RandomAccessQueue;
+import org.evosuite.utils.Randomness;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded pool of the most frequent values added to it, for constants
+ * observed at runtime, where the number of distinct values is unbounded.
+ * <p>
+ * At most {@link Properties#DYNAMIC_POOL_SIZE} values are kept, chosen
+ * with the Space-Saving algorithm: a new value replaces the value with the
+ * lowest count (the least recently seen among equal counts), and inherits
+ * its count. All counts are halved periodically, so that values which are
+ * no longer observed are eventually replaced.
+ * <p>
+ * Values are added by the threads executing the tests, and are sampled by
+ * the search without taking any lock. If the pool is weighted, a value is
+ * sampled with a probability proportional to its number of occurrences
+ * among the last additions, otherwise all values kept have the same
+ * probability. Both take constant time.
+ */
+public class TopKRandomAccessQueue<T> implements RandomAccessQueue<T> {
+
+    /**
+     * Number of last additions kept for weighted sampling, relative to the
+     * capacity
+     */
+    private static final int RECENT_FACTOR = 4;
+
+    /**
+     * Number of additions after which the counts are halved, relative to
+     * the capacity
+     */
+    private static final int AGING_FACTOR = 16;
+
+    /**
+     * Number of attempts at sampling a recent addition which has not been
+     * replaced in the meantime
+     */
+    private static final int MAX_ATTEMPTS = 4;
+
+    private final boolean weighted;
+
+    private final int capacity;
+
+    private final long agingPeriod;
+
+    /**
+     * Values kept, by value. Only accessed while holding the lock.
+     */
+    private final Map<T, Entry<T>> index = new HashMap<>();
+
+    /**
+     * Min-heap of the values kept, by count and last addition. Only
+     * accessed while holding the lock.
+     */
+    private final Entry<T>[] heap;
+
+    /**
+     * Values kept, in no particular order, for sampling. The first
+     * <code>size</code> slots are never null.
+     */
+    private final AtomicReferenceArray<Entry<T>> slots;
+
+    /**
+     * Last additions, in a ring buffer, for weighted sampling
+     */
+    private final AtomicReferenceArray<Entry<T>> recent;
+
+    private volatile int size = 0;
+
+    private volatile long numAdditions = 0L;
+
+    public TopKRandomAccessQueue(boolean weighted) {
+        this(Properties.DYNAMIC_POOL_SIZE, weighted);
+    }
+
+    @SuppressWarnings("unchecked")
+    public TopKRandomAccessQueue(int capacity, boolean weighted) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.weighted = weighted;
+        this.capacity = capacity;
+        this.agingPeriod = (long) capacity * AGING_FACTOR;
+        this.heap = new Entry[capacity];
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.recent = new AtomicReferenceArray<>(weighted ? capacity * RECENT_FACTOR : 1);
+    }
+
+    /* (non-Javadoc)
+     * @see org.evosuite.utils.RandomAccessQueue#restrictedAdd(java.lang.Object)
+     */
+    @Override
+    public synchronized void restrictedAdd(T value) {
+        long addition = numAdditions;
+        Entry<T> entry = index.get(value);
+        if (entry != null) {
+            entry.count++;
+            entry.lastAddition = addition;
+            siftDown(entry.heapIndex);
+        } else if (size < capacity) {
+            entry = new Entry<>(value, 1, addition, size);
+            index.put(value, entry);
+            heap[size] = entry;
+            entry.heapIndex = size;
+            slots.set(size, entry);
+            siftUp(size);
+            size = size + 1;
+        } else {
+            Entry<T> min = heap[0];
+            min.replaced = true;
+            index.remove(min.value);
+            entry = new Entry<>(value, min.count + 1, addition, min.slot);
+            index.put(value, entry);
+            heap[0] = entry;
+            entry.heapIndex = 0;
+            slots.set(entry.slot, entry);
+            siftDown(0);
+        }
+
+        if (weighted) {
+            recent.set((int) (addition % recent.length()), entry);
+        }
+        numAdditions = addition + 1;
+        if ((addition + 1) % agingPeriod == 0) {
+            age();
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.evosuite.utils.RandomAccessQueue#getRandomValue()
+     */
+    @Override
+    public T getRandomValue() {
+        int currentSize = size;
+        if (currentSize == 0) {
+            return null;
+        }
+        if (weighted) {
+            int window = (int) Math.min(numAdditions, recent.length());
+            for (int i = 0; i < MAX_ATTEMPTS; i++) {
+                Entry<T> entry = recent.get(Randomness.nextInt(window));
+                if (entry != null && !entry.replaced) {
+                    return entry.value;
+                }
+            }
+        }
+        return slots.get(Randomness.nextInt(currentSize)).value;
+    }
+
+    /**
+     * @return the number of distinct values kept
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Halves all counts, and restores the heap as ties might have changed
+     */
+    private void age() {
+        for (int i = 0; i < size; i++) {
+            heap[i].count >>>= 1;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    private void siftUp(int i) {
+        Entry<T> entry = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!entry.isLessThan(heap[parent])) {
+                break;
+            }
+            move(heap[parent], i);
+            i = parent;
+        }
+        move(entry, i);
+    }
+
+    private void siftDown(int i) {
+        int n = size;
+        Entry<T> entry = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && heap[child + 1].isLessThan(heap[child])) {
+                child++;
+            }
+            if (!heap[child].isLessThan(entry)) {
+                break;
+            }
+            move(heap[child], i);
+            i = child;
+        }
+        move(entry, i);
+    }
+
+    private void move(Entry<T> entry, int i) {
+        heap[i] = entry;
+        entry.heapIndex = i;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder("[ ");
+        int currentSize = size;
+        for (int i = 0; i < currentSize; i++) {
+            res.append(slots.get(i).value).append(" ");
+        }
+        res.append("]");
+        return res.toString();
+    }
+
+    private static final class Entry<T> {
+
+        final T value;
+
+        final int slot;
+
+        int count;
+
+        long lastAddition;
+
+        int heapIndex;
+
+        /**
+         * Set once the value has been replaced by another one
+         */
+        volatile boolean replaced = false;
+
+        Entry(T value, int count, long lastAddition, int slot) {
+            this.value = value;
+            this.count = count;
+            this.lastAddition = lastAddition;
+            this.slot = slot;
+        }
+
+        boolean isLessThan(Entry<T> other) {
+            if (count != other.count) {
+                return count < other.count;
+            }
+            return lastAddition < other.lastAddition;
+        }
+    }
+}
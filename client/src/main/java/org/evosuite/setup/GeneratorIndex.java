@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericClass;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe index of the generators of the {@link TestCluster}.
+ * <p>
+ * The generators instantiated for a type are cached by raw class when the
+ * type is a plain class, and by generic type otherwise, so that the common
+ * lookups do not need to compute the name of the type to hash it.
+ * <p>
+ * In addition, the index keeps for each raw class the closure of the
+ * generator types whose raw class is assignable to it (including boxing and
+ * primitive widening). When generators have to be instantiated for a type,
+ * only these candidates are matched against it, rather than all the types
+ * with generators. Generator types that are not classes or parameterized
+ * types (e.g., type variables) are always candidates.
+ */
+final class GeneratorIndex {
+
+    /**
+     * Instantiated generators of plain classes
+     */
+    private final ConcurrentMap<Class<?>, Entry> classGenerators = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiated generators of generic types
+     */
+    private final ConcurrentMap<GenericClass<?>, Entry> genericGenerators = new ConcurrentHashMap<>();
+
+    /**
+     * Generator types that might produce instances of a raw class, in the
+     * order in which they were added to the test cluster
+     */
+    private final ConcurrentMap<Class<?>, List<GenericClass<?>>> candidateTypes = new ConcurrentHashMap<>();
+
+    private static boolean isPlainClass(GenericClass<?> clazz) {
+        return clazz.getType() instanceof Class;
+    }
+
+    private static boolean isIndexable(GenericClass<?> clazz) {
+        Type type = clazz.getType();
+        return clazz.getRawClass() != null && (type instanceof Class || type instanceof ParameterizedType);
+    }
+
+    public boolean containsKey(GenericClass<?> clazz) {
+        return getEntry(clazz) != null;
+    }
+
+    public Set<GenericAccessibleObject<?>> get(GenericClass<?> clazz) {
+        Entry entry = getEntry(clazz);
+        return entry == null ? null : entry.generators;
+    }
+
+    private Entry getEntry(GenericClass<?> clazz) {
+        if (isPlainClass(clazz)) {
+            return classGenerators.get(clazz.getRawClass());
+        }
+        return genericGenerators.get(clazz);
+    }
+
+    public void put(GenericClass<?> clazz, Set<GenericAccessibleObject<?>> generators) {
+        Entry entry = new Entry(clazz, generators);
+        if (isPlainClass(clazz)) {
+            classGenerators.put(clazz.getRawClass(), entry);
+        } else {
+            genericGenerators.put(clazz, entry);
+        }
+    }
+
+    /**
+     * Forgets the generators cached for the types matching the predicate
+     *
+     * @param filter
+     */
+    public void removeIf(Predicate<GenericClass<?>> filter) {
+        classGenerators.values().removeIf(entry -> filter.test(entry.type));
+        genericGenerators.values().removeIf(entry -> filter.test(entry.type));
+    }
+
+    /**
+     * Forgets all the cached generators, but keeps the candidate types
+     */
+    public void clear() {
+        classGenerators.clear();
+        genericGenerators.clear();
+    }
+
+    /**
+     * Has to be called whenever a new type with generators is added
+     */
+    public void generatorTypesChanged() {
+        candidateTypes.clear();
+    }
+
+    /**
+     * Returns the types with generators that might produce an instance of the
+     * given type.
+     *
+     * @param clazz          the type to produce
+     * @param generatorTypes all the types with generators
+     * @return a subset of <code>generatorTypes</code>, in the same order
+     */
+    public Collection<GenericClass<?>> getCandidateTypes(GenericClass<?> clazz,
+                                                         Collection<GenericClass<?>> generatorTypes) {
+        if (!isIndexable(clazz)) {
+            return generatorTypes;
+        }
+        return candidateTypes.computeIfAbsent(clazz.getRawClass(), raw -> computeCandidates(raw, generatorTypes));
+    }
+
+    private static List<GenericClass<?>> computeCandidates(Class<?> rawClass,
+                                                           Collection<GenericClass<?>> generatorTypes) {
+        List<GenericClass<?>> candidates = new ArrayList<>();
+        for (GenericClass<?> generatorType : generatorTypes) {
+            if (!isIndexable(generatorType) || ClassUtils.isAssignable(generatorType.getRawClass(), rawClass, true)) {
+                candidates.add(generatorType);
+            }
+        }
+        return Collections.unmodifiableList(candidates);
+    }
+
+    private static final class Entry {
+        private final GenericClass<?> type;
+        private final Set<GenericAccessibleObject<?>> generators;
+
+        Entry(GenericClass<?> type, Set<GenericAccessibleObject<?>> generators) {
+            this.type = type;
+            this.generators = generators;
+        }
+    }
+}
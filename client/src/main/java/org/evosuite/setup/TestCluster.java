@@ -56,7 +56,7 @@ public class TestCluster {
     /**
      * Singleton instance
      */
-    private static TestCluster instance = null;
+    private static volatile TestCluster instance = null;
 
     /**
      * Set of all classes already analyzed
@@ -75,14 +75,17 @@ public class TestCluster {
     private final Set<GenericAccessibleObject<?>> environmentMethods;
 
     /**
-     * Static information about how to generate types
+     * Static information about how to generate types. All accesses are
+     * synchronized on the map, as generators can be added and looked up by
+     * several threads (e.g., DSE solver threads). Lookups of types whose
+     * generators are already cached only use {@link #generatorCache}
      */
     private final static Map<GenericClass<?>, Set<GenericAccessibleObject<?>>> generators = new LinkedHashMap<>();
 
     /**
      * Cached information about how to generate types
      */
-    private final static Map<GenericClass<?>, Set<GenericAccessibleObject<?>>> generatorCache = new LinkedHashMap<>();
+    private final static GeneratorIndex generatorCache = new GeneratorIndex();
 
     /**
      * Static information about how to modify types
@@ -105,21 +108,31 @@ public class TestCluster {
      *
      * @return
      */
-    public static synchronized TestCluster getInstance() {
-        if (instance == null) {
-            instance = new TestCluster();
+    public static TestCluster getInstance() {
+        TestCluster cluster = instance;
+        if (cluster == null) {
+            synchronized (TestCluster.class) {
+                cluster = instance;
+                if (cluster == null) {
+                    cluster = new TestCluster();
+                    instance = cluster;
+                }
+            }
         }
 
         // TODO: Need property to switch between test clusters
 
-        return instance;
+        return cluster;
     }
 
     public static void reset() {
         analyzedClasses.clear();
         testMethods.clear();
-        generators.clear();
-        generatorCache.clear();
+        synchronized (generators) {
+            generators.clear();
+            generatorCache.clear();
+            generatorCache.generatorTypesChanged();
+        }
         modifiers.clear();
         CastClassManager.getInstance().clear();
 
@@ -131,45 +144,47 @@ public class TestCluster {
      * In that case, M should not be a generator for X, as it is impossible to instantiate Y
      */
     public void removeUnusableGenerators() {
+        synchronized (generators) {
 
-        generatorCache.clear();
-        Set<GenericClass<?>> removed = new LinkedHashSet<>();
+            generatorCache.clear();
+            Set<GenericClass<?>> removed = new LinkedHashSet<>();
 
 
-        for (Map.Entry<GenericClass<?>, Set<GenericAccessibleObject<?>>> entry : generators.entrySet()) {
-            if (entry.getValue().isEmpty()) {
-                recursiveRemoveGenerators(entry.getKey());
-            }
+            for (Map.Entry<GenericClass<?>, Set<GenericAccessibleObject<?>>> entry : generators.entrySet()) {
+                if (entry.getValue().isEmpty()) {
+                    recursiveRemoveGenerators(entry.getKey());
+                }
 
 
-            Set<GenericClass<?>> toRemove = new LinkedHashSet<>();
+                Set<GenericClass<?>> toRemove = new LinkedHashSet<>();
 
-            for (GenericAccessibleObject<?> gao : entry.getValue()) {
-                GenericClass<?> owner = gao.getOwnerClass();
-                if (removed.contains(owner)) {
-                    continue;
-                }
-                try {
-                    cacheGenerators(owner);
-                } catch (ConstructionFailedException e) {
-                    continue;
-                }
-                if (generatorCache.get(owner).isEmpty()) {
-                    toRemove.add(owner);
+                for (GenericAccessibleObject<?> gao : entry.getValue()) {
+                    GenericClass<?> owner = gao.getOwnerClass();
+                    if (removed.contains(owner)) {
+                        continue;
+                    }
+                    try {
+                        cacheGenerators(owner);
+                    } catch (ConstructionFailedException e) {
+                        continue;
+                    }
+                    if (generatorCache.get(owner).isEmpty()) {
+                        toRemove.add(owner);
+                    }
                 }
-            }
 
-            for (GenericClass<?> tr : toRemove) {
-                recursiveRemoveGenerators(tr);
-                removed.add(tr);
+                for (GenericClass<?> tr : toRemove) {
+                    recursiveRemoveGenerators(tr);
+                    removed.add(tr);
+                }
             }
-        }
 
-        removeOnlySelfGenerator();
+            removeOnlySelfGenerator();
 
-        removeDirectCycle();
+            removeDirectCycle();
 
-        generatorCache.clear();
+            generatorCache.clear();
+        }
     }
 
 
@@ -276,7 +291,7 @@ public class TestCluster {
     }
 
     public void invalidateGeneratorCache(GenericClass<?> klass) {
-        generatorCache.keySet().removeIf(clazz -> clazz.isAssignableFrom(klass));
+        generatorCache.removeIf(clazz -> clazz.isAssignableFrom(klass));
     }
 
     public void handleRuntimeAccesses(TestCase test) {
@@ -330,13 +345,17 @@ public class TestCluster {
      * @param call
      */
     public void addGenerator(GenericClass<?> target, GenericAccessibleObject<?> call) {
-        if (!generators.containsKey(target))
-            generators.put(target, new LinkedHashSet<>());
+        synchronized (generators) {
+            if (!generators.containsKey(target)) {
+                generators.put(target, new LinkedHashSet<>());
+                generatorCache.generatorTypesChanged();
+            }
 
-        logger.debug("Adding generator for class " + target + ": " + call);
-        generators.get(target).add(call);
-        // Make sure cache is up to date
-        generatorCache.entrySet().removeIf(entry -> entry.getKey().isAssignableFrom(target));
+            logger.debug("Adding generator for class " + target + ": " + call);
+            generators.get(target).add(call);
+            // Make sure cache is up to date
+            generatorCache.removeIf(clazz -> clazz.isAssignableFrom(target));
+        }
     }
 
     /**
@@ -397,6 +416,15 @@ public class TestCluster {
             return;
         }
 
+        synchronized (generators) {
+            // another thread might have cached them in the meantime
+            if (!generatorCache.containsKey(clazz)) {
+                cacheGeneratorsLocked(clazz);
+            }
+        }
+    }
+
+    private void cacheGeneratorsLocked(GenericClass<?> clazz) throws ConstructionFailedException {
         logger.debug("1. Caching generators for {}", clazz);
 
         Set<GenericAccessibleObject<?>> targetGenerators = new LinkedHashSet<>();
@@ -409,7 +437,7 @@ public class TestCluster {
             }
         } else {
             logger.debug("2. Target class is not object: {}", clazz);
-            for (GenericClass<?> generatorClazz : generators.keySet()) {
+            for (GenericClass<?> generatorClazz : generatorCache.getCandidateTypes(clazz, generators.keySet())) {
                 // logger.debug("3. Considering original generator: " + generatorClazz + " for " + clazz);
 
                 if (generatorClazz.canBeInstantiatedTo(clazz)) {
@@ -777,9 +805,11 @@ public class TestCluster {
      * @return
      */
     public Set<GenericAccessibleObject<?>> getGenerators() {
-        return generators.values().stream()
-                .flatMap(Set::stream)
-                .collect(toCollection(LinkedHashSet::new));
+        synchronized (generators) {
+            return generators.values().stream()
+                    .flatMap(Set::stream)
+                    .collect(toCollection(LinkedHashSet::new));
+        }
     }
 
     /**
@@ -893,27 +923,30 @@ public class TestCluster {
      * @param clazz
      */
     private void addNumericConstructor(GenericClass<?> clazz) {
-        if (!generatorCache.containsKey(clazz)) {
-            generatorCache.put(clazz, new LinkedHashSet<>());
-        }
-        if (!generators.containsKey(clazz)) {
-            generators.put(clazz, new LinkedHashSet<>());
-        }
-        logger.info("addNumericConstructor for class " + clazz);
-        for (Constructor<?> constructor : clazz.getRawClass().getConstructors()) {
-            if (constructor.getParameterTypes().length == 1) {
-                Class<?> parameterClass = constructor.getParameterTypes()[0];
-                if (!parameterClass.equals(String.class)) {
-                    GenericConstructor genericConstructor = new GenericConstructor(
-                            constructor, clazz);
-                    generatorCache.get(clazz).add(genericConstructor);
-                    generators.get(clazz).add(genericConstructor);
+        synchronized (generators) {
+            // cached sets are read without lock, so they are replaced rather than modified
+            Set<GenericAccessibleObject<?>> cachedGenerators = generatorCache.containsKey(clazz)
+                    ? new LinkedHashSet<>(generatorCache.get(clazz)) : new LinkedHashSet<>();
+            if (!generators.containsKey(clazz)) {
+                generators.put(clazz, new LinkedHashSet<>());
+                generatorCache.generatorTypesChanged();
+            }
+            logger.info("addNumericConstructor for class " + clazz);
+            for (Constructor<?> constructor : clazz.getRawClass().getConstructors()) {
+                if (constructor.getParameterTypes().length == 1) {
+                    Class<?> parameterClass = constructor.getParameterTypes()[0];
+                    if (!parameterClass.equals(String.class)) {
+                        GenericConstructor genericConstructor = new GenericConstructor(
+                                constructor, clazz);
+                        cachedGenerators.add(genericConstructor);
+                        generators.get(clazz).add(genericConstructor);
+                    }
                 }
             }
+            generatorCache.put(clazz, cachedGenerators);
+            logger.info("Constructors for class " + clazz + ": "
+                    + generators.get(clazz).size());
         }
-        logger.info("Constructors for class " + clazz + ": "
-                + generators.get(clazz).size());
-
     }
 
     /**
@@ -1312,10 +1345,8 @@ public class TestCluster {
         } catch (ConstructionFailedException e) {
             AtMostOnceLogger.warn(logger, "Failed to check cache for " + clazz + " : " + e.getMessage());
         }
-        if (!generatorCache.containsKey(clazz))
-            return false;
-
-        return !generatorCache.get(clazz).isEmpty();
+        Set<GenericAccessibleObject<?>> cachedGenerators = generatorCache.get(clazz);
+        return cachedGenerators != null && !cachedGenerators.isEmpty();
     }
 
     /**
@@ -1373,11 +1404,13 @@ public class TestCluster {
             result.append("\n");
         }
         result.append("Generators:\n");
-        for (GenericClass<?> clazz : generators.keySet()) {
-            result.append(" Generators for " + clazz.getTypeName() + ": "
-                    + generators.get(clazz).size() + "\n");
-            for (GenericAccessibleObject<?> o : generators.get(clazz)) {
-                result.append("  " + clazz.getTypeName() + " <- " + o + " " + "\n");
+        synchronized (generators) {
+            for (GenericClass<?> clazz : generators.keySet()) {
+                result.append(" Generators for " + clazz.getTypeName() + ": "
+                        + generators.get(clazz).size() + "\n");
+                for (GenericAccessibleObject<?> o : generators.get(clazz)) {
+                    result.append("  " + clazz.getTypeName() + " <- " + o + " " + "\n");
+                }
             }
         }
         result.append("Modifiers:\n");
@@ -130,6 +130,14 @@ public enum RuntimeVariable {
      * The total number of tests executed during the search
      */
     Tests_Executed,
+    /**
+     * Number of test executions whose result was reused from the execution result cache
+     */
+    Execution_Result_Cache_Hits,
+    /**
+     * Number of test executions that were not found in the execution result cache
+     */
+    Execution_Result_Cache_Misses,
     /**
      * The total number of fitness evaluations during the search
      */
@@ -321,6 +329,14 @@ public enum RuntimeVariable {
      */
     @Deprecated
     Minimized_Length,
+    /**
+     * Number of test executions needed to minimize the tests with respect to single goals
+     */
+    Minimization_Test_Executions,
+    /**
+     * Number of statements in the tests executed to minimize the tests with respect to single goals
+     */
+    Minimization_Executed_Statements,
     /**
      * The random seed used during the search. A random one was used if none was specified at the beginning
      */
@@ -586,6 +602,18 @@ public enum RuntimeVariable {
      * How many SAT queries led to Unuseful (i.e. no better fitness) new tests
      */
     NumberOfUnusefulNewTests,
+    /**
+     * How many SMT solver processes were launched, and how many of them were
+     * started in advance
+     */
+    SolverProcessLaunches,
+    SolverPrespawnedProcessLaunches,
+    /**
+     * Average and maximum time in milliseconds until a launched SMT solver
+     * process was ready to receive its input
+     */
+    SolverAverageLaunchLatency,
+    SolverMaxLaunchLatency,
     /**
      * How much time was spent solving constraints on the SMT solver
      */
@@ -626,7 +654,10 @@ public enum RuntimeVariable {
      */
     QueryCacheSize,
     QueryCacheCalls,
-    QueryCacheHitRate;
+    QueryCacheHitRate,
+    SolverCacheHits,
+    SolverCacheMisses,
+    SolverCacheSubsumptionHits;
 
     /* -------------------------------------------------- */
 
@@ -28,6 +28,7 @@ import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
 import org.evosuite.rmi.ClientServices;
 import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.testcase.execution.ExecutionResultCache;
 import org.evosuite.testsuite.TestSuiteChromosome;
 
 import java.util.concurrent.BlockingQueue;
@@ -123,6 +124,8 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
         individuals.offer(algorithm.getBestIndividual());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Statements_Executed, MaxStatementsStoppingCondition.getNumExecutedStatements());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Tests_Executed, MaxTestsStoppingCondition.getNumExecutedTests());
+        ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Execution_Result_Cache_Hits, ExecutionResultCache.getInstance().getNumberOfHits());
+        ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Execution_Result_Cache_Misses, ExecutionResultCache.getInstance().getNumberOfMisses());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Generations, algorithm.getAge());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Fitness_Evaluations, numFitnessEvaluations);
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.TotalExceptionsTimeline, ExceptionCoverageSuiteFitness.getMaxExceptionsCovered());
@@ -29,6 +29,7 @@ import org.evosuite.symbolic.expr.constraint.RealConstraint;
 import org.evosuite.symbolic.expr.constraint.ReferenceConstraint;
 import org.evosuite.symbolic.expr.constraint.StringConstraint;
 import org.evosuite.symbolic.solver.SolverCache;
+import org.evosuite.utils.PooledProcessLauncher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,11 +64,18 @@ public class DSEStatistics {
             RuntimeVariable.NumberOfTimeoutQueries.name(),
             RuntimeVariable.NumberOfUsefulNewTests.name(),
             RuntimeVariable.NumberOfUnusefulNewTests.name(),
+            RuntimeVariable.SolverProcessLaunches.name(),
+            RuntimeVariable.SolverPrespawnedProcessLaunches.name(),
+            RuntimeVariable.SolverAverageLaunchLatency.name(),
+            RuntimeVariable.SolverMaxLaunchLatency.name(),
 
             // Query Cache
             RuntimeVariable.QueryCacheSize.name(),
             RuntimeVariable.QueryCacheCalls.name(),
             RuntimeVariable.QueryCacheHitRate.name(),
+            RuntimeVariable.SolverCacheHits.name(),
+            RuntimeVariable.SolverCacheMisses.name(),
+            RuntimeVariable.SolverCacheSubsumptionHits.name(),
 
             // Execution Times
             RuntimeVariable.TotalTimeSpentSolvingConstraints.name(),
@@ -119,6 +127,9 @@ public class DSEStatistics {
     private long queryCacheHits = 0;
     private long querycacheSize = 0;
     private long queryCacheCalls = 0;
+    private long solverCacheHits = 0;
+    private long solverCacheMisses = 0;
+    private long solverCacheSubsumptionHits = 0;
 
     // New solutions found metrics
     private long nrOfSolutionWithNoImprovement = 0;
@@ -265,6 +276,9 @@ public class DSEStatistics {
         logger.info(String.format("  - Query Cache size: %s", querycacheSize));
         logger.info(String.format("  - Query Cache calls: %s", queryCacheCalls));
         logger.info(String.format("  - Query Cache hitRare: %s", getQueryCacheHitRate(queryCacheHits, queryCacheCalls)));
+        logger.info(String.format("  - Solver Cache hits: %s", solverCacheHits));
+        logger.info(String.format("  - Solver Cache subsumption hits: %s", solverCacheSubsumptionHits));
+        logger.info(String.format("  - Solver Cache misses: %s", solverCacheMisses));
     }
 
     private void logPathsExploredStatistics() {
@@ -626,6 +640,21 @@ public class DSEStatistics {
         querycacheSize++;
     }
 
+    /**
+     * Solver Cache related reports
+     */
+    public void reportNewSolverCacheHit() {
+        solverCacheHits++;
+    }
+
+    public void reportNewSolverCacheMiss() {
+        solverCacheMisses++;
+    }
+
+    public void reportNewSolverCacheSubsumptionHit() {
+        solverCacheSubsumptionHits++;
+    }
+
     /**
      * Entry point for statistics tracking on output variables
      */
@@ -688,6 +717,9 @@ public class DSEStatistics {
         trackOutputVariable(RuntimeVariable.QueryCacheSize, querycacheSize);
         trackOutputVariable(RuntimeVariable.QueryCacheCalls, queryCacheCalls);
         trackOutputVariable(RuntimeVariable.QueryCacheHitRate, getQueryCacheHitRate(queryCacheHits, queryCacheCalls));
+        trackOutputVariable(RuntimeVariable.SolverCacheHits, solverCacheHits);
+        trackOutputVariable(RuntimeVariable.SolverCacheMisses, solverCacheMisses);
+        trackOutputVariable(RuntimeVariable.SolverCacheSubsumptionHits, solverCacheSubsumptionHits);
     }
 
     /**
@@ -727,6 +759,11 @@ public class DSEStatistics {
         trackOutputVariable(RuntimeVariable.NumberOfUsefulNewTests, getUsefulTests());
         trackOutputVariable(RuntimeVariable.NumberOfUnusefulNewTests, getUnusefulTests());
 
+        PooledProcessLauncher launcher = PooledProcessLauncher.getInstance();
+        trackOutputVariable(RuntimeVariable.SolverProcessLaunches, launcher.getNumberOfLaunches());
+        trackOutputVariable(RuntimeVariable.SolverPrespawnedProcessLaunches, launcher.getNumberOfPrespawnedLaunches());
+        trackOutputVariable(RuntimeVariable.SolverAverageLaunchLatency, launcher.getAverageLaunchLatency());
+        trackOutputVariable(RuntimeVariable.SolverMaxLaunchLatency, launcher.getMaxLaunchLatency());
     }
 
     private void trackOutputVariable(RuntimeVariable var, Object value) {
@@ -44,6 +44,14 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Structure of a DSE Exploration algorithm,
@@ -121,6 +129,18 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
     private final transient ConcolicExecutor engine;
     private final transient Solver solver;
 
+    /**
+     * Fixed pool of threads for concurrent solver calls, created on demand.
+     * Solver calls block on the solver process, so they are not run on a
+     * work-stealing pool
+     **/
+    private transient ExecutorService solverExecutor;
+
+    /**
+     * How often the stopping condition is checked while waiting for a solver
+     **/
+    private static final long SOLVER_RESULT_POLL_MILLIS = 100;
+
     public ExplorationAlgorithm() {
         this(
                 SHOW_PROGRESS_DEFAULT_VALUE,
@@ -216,6 +236,8 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
             LoggingUtils.getEvoLogger().info("* " + TESTS_WERE_GENERATED_FOR_ENTRY_METHOD_DEBUG_MESSAGE, numOfGeneratedTestCases, entryMethod.getName());
         }
 
+        shutdownSolverExecutor();
+
         // Run this before finish
         notifyGenerationFinished();
         statisticsLogger.reportTotalTestExecutionTime(TestCaseExecutor.timeExecuted);
@@ -275,7 +297,11 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
                 // Generates the children
                 List<GenerationalSearchPathCondition> children = pathsExpansionStrategy.generateChildren(currentExecutedPathCondition);
 
-                processChildren(testCasesWorkList, seenChildren, currentTestCase, children, hasPathConditionDiverged);
+                if (isParallelSolvingEnabled()) {
+                    processChildrenInParallel(testCasesWorkList, seenChildren, currentTestCase, children, hasPathConditionDiverged);
+                } else {
+                    processChildren(testCasesWorkList, seenChildren, currentTestCase, children, hasPathConditionDiverged);
+                }
             }
 
         }
@@ -352,6 +378,98 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
         }
     }
 
+    /**
+     * Same as {@link #processChildren}, but the queries of the children that
+     * miss the cache are solved concurrently, up to
+     * {@link Properties#DSE_SOLVER_THREADS} at a time.
+     * <p>
+     * Cache checks, test case generation and statistics are still done on the
+     * current thread, in the order given by the path extension strategy, so
+     * the exploration heuristics are unchanged. Concolic execution of the
+     * generated test cases stays sequential, as the instrumented runtime is
+     * shared.
+     *
+     * @param testCasesWorkList
+     * @param seenChildren
+     * @param currentTestCase
+     * @param children
+     * @param hasPathConditionDiverged
+     */
+    private void processChildrenInParallel(Queue<DSETestCase> testCasesWorkList, HashSet<Set<Constraint<?>>> seenChildren, DSETestCase currentTestCase, List<GenerationalSearchPathCondition> children, boolean hasPathConditionDiverged) {
+        List<GenerationalSearchPathCondition> pendingChildren = new ArrayList<>();
+        List<Set<Constraint<?>>> pendingQueries = new ArrayList<>();
+        List<Future<TimedSolverResult>> pendingResults = new ArrayList<>();
+        List<Map<String, Object>> cachedSolutions = new ArrayList<>();
+        Set<Set<Constraint<?>>> batchQueries = new HashSet<>();
+
+        // Cache checks and solver submissions
+        for (GenerationalSearchPathCondition child : children) {
+            List<Constraint<?>> childQuery = SolverUtils.buildQuery(child.getPathCondition());
+            Set<Constraint<?>> normalizedChildQuery = normalize(childQuery);
+
+            if (shouldSkipChild(seenChildren, normalizedChildQuery)) continue;
+            if (!batchQueries.add(normalizedChildQuery)) continue;
+            if (this.isFinished()) break;
+
+            CacheQueryResult cacheQueryResult = cachingStrategy.checkCache(normalizedChildQuery, queryCache);
+            if (cacheQueryResult.hitUnSat()) continue;
+
+            logger.debug(CACHE_CALL_HIT_UNSAT);
+            statisticsLogger.reportNewConstraints(childQuery);
+
+            pendingChildren.add(child);
+            pendingQueries.add(normalizedChildQuery);
+            if (cacheQueryResult.hitSat()) {
+                logger.debug(CACHE_CALL_HIT_SAT);
+                cachedSolutions.add(cacheQueryResult.getSmtSolution());
+                pendingResults.add(null);
+            } else {
+                assert (cacheQueryResult.missed());
+                logger.debug(CACHE_CALL_MISSED);
+                logger.debug(SOLVING_QUERY_WITH_CONSTRAINTS, childQuery.size());
+
+                childQuery.addAll(
+                        SolverUtils.createBoundsForQueryVariables(childQuery)
+                );
+
+                logger.debug(SOLVER_QUERY_STARTED_MESSAGE, childQuery.size());
+                cachedSolutions.add(null);
+                pendingResults.add(getSolverExecutor().submit(() -> solveQueryTimed(childQuery)));
+            }
+        }
+
+        // Results are processed in the children order
+        for (int i = 0; i < pendingChildren.size(); i++) {
+            if (this.isFinished()) {
+                // the remaining queries are not needed anymore
+                cancelSolverCalls(pendingResults.subList(i, pendingResults.size()));
+                break;
+            }
+
+            Map<String, Object> smtSolution = cachedSolutions.get(i);
+            Future<TimedSolverResult> pendingResult = pendingResults.get(i);
+            if (pendingResult != null) {
+                TimedSolverResult timedResult = getSolverResult(pendingResult);
+                statisticsLogger.reportNewSolvingTime(timedResult.solvingTimeMillis);
+                smtSolution = getQuerySolution(pendingQueries.get(i), timedResult.result);
+            }
+
+            if (smtSolution != null && !this.isFinished()) {
+                DSETestCase newTestCase = generateNewTestCase(
+                        currentTestCase,
+                        pendingChildren.get(i),
+                        smtSolution,
+                        hasPathConditionDiverged);
+
+                testCasesWorkList.offer(newTestCase);
+                addNewTestCaseToTestSuite(newTestCase);
+
+                // NOTE: We consider adding a test case an iteration
+                notifyIteration();
+            }
+        }
+    }
+
     /**
      * Child PC is not processed if it was already explored, this is:
      * - Their constraints were already solved by a previous SMT query
@@ -519,6 +637,106 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
         return new GenerationalSearchPathCondition(result, currentGeneratedFromIndex);
     }
 
+    /**
+     * Parallel solving is only used if requested and if the solver can be
+     * called concurrently.
+     *
+     * @return
+     */
+    private boolean isParallelSolvingEnabled() {
+        return Properties.DSE_SOLVER_THREADS > 1 && solver.isThreadSafe();
+    }
+
+    private ExecutorService getSolverExecutor() {
+        if (solverExecutor == null) {
+            solverExecutor = new ThreadPoolExecutor(Properties.DSE_SOLVER_THREADS,
+                    Properties.DSE_SOLVER_THREADS, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "DSE-solver");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        return solverExecutor;
+    }
+
+    /**
+     * Cancels the given solver calls that have not completed yet, and
+     * interrupts the ones that are running.
+     *
+     * @param pendingResults
+     */
+    private static void cancelSolverCalls(List<Future<TimedSolverResult>> pendingResults) {
+        for (Future<TimedSolverResult> pendingResult : pendingResults) {
+            if (pendingResult != null) {
+                pendingResult.cancel(true);
+            }
+        }
+    }
+
+    private void shutdownSolverExecutor() {
+        if (solverExecutor != null) {
+            solverExecutor.shutdownNow();
+            solverExecutor = null;
+        }
+    }
+
+    /**
+     * Solves an SMT query on a solver thread. The solving time is reported
+     * later on by the exploration thread.
+     *
+     * @param SMTQuery
+     * @return
+     */
+    private TimedSolverResult solveQueryTimed(List<Constraint<?>> SMTQuery) {
+        long startSolvingTime = System.currentTimeMillis();
+        SolverResult smtQueryResult = doSolveQuery(SMTQuery);
+        return new TimedSolverResult(smtQueryResult, System.currentTimeMillis() - startSolvingTime);
+    }
+
+    /**
+     * Waits for the result of a solver call, which is cancelled if the
+     * stopping condition is reached in the meantime.
+     *
+     * @param pendingResult
+     * @return
+     */
+    private TimedSolverResult getSolverResult(Future<TimedSolverResult> pendingResult) {
+        try {
+            while (true) {
+                try {
+                    return pendingResult.get(SOLVER_RESULT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (this.isFinished()) {
+                        pendingResult.cancel(true);
+                        return new TimedSolverResult(null, 0);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TimedSolverResult(null, 0);
+        } catch (ExecutionException e) {
+            logger.debug(SOLVER_ERROR_DEBUG_MESSAGE, e.getCause().getMessage());
+            return new TimedSolverResult(null, 0);
+        } catch (CancellationException e) {
+            return new TimedSolverResult(null, 0);
+        }
+    }
+
+    /**
+     * Outcome of a solver call together with its duration
+     */
+    private static final class TimedSolverResult {
+        private final SolverResult result;
+        private final long solvingTimeMillis;
+
+        TimedSolverResult(SolverResult result, long solvingTimeMillis) {
+            this.result = result;
+            this.solvingTimeMillis = solvingTimeMillis;
+        }
+    }
+
     private SolverResult doSolveQuery(List<Constraint<?>> SMTQuery) {
         SolverResult smtQueryResult = null;
 
@@ -0,0 +1,443 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.ExpressionVisitor;
+import org.evosuite.symbolic.expr.MultipleExpression;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerComparison;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerUnaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.bv.RealComparison;
+import org.evosuite.symbolic.expr.bv.RealToIntegerCast;
+import org.evosuite.symbolic.expr.bv.RealUnaryToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
+import org.evosuite.symbolic.expr.bv.StringBinaryToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringMultipleComparison;
+import org.evosuite.symbolic.expr.bv.StringMultipleToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringToIntegerCast;
+import org.evosuite.symbolic.expr.bv.StringUnaryToIntegerExpression;
+import org.evosuite.symbolic.expr.fp.IntegerToRealCast;
+import org.evosuite.symbolic.expr.fp.RealBinaryExpression;
+import org.evosuite.symbolic.expr.fp.RealConstant;
+import org.evosuite.symbolic.expr.fp.RealUnaryExpression;
+import org.evosuite.symbolic.expr.fp.RealVariable;
+import org.evosuite.symbolic.expr.reader.StringReaderExpr;
+import org.evosuite.symbolic.expr.ref.ClassReferenceConstant;
+import org.evosuite.symbolic.expr.ref.ClassReferenceVariable;
+import org.evosuite.symbolic.expr.ref.GetFieldExpression;
+import org.evosuite.symbolic.expr.ref.NullReferenceConstant;
+import org.evosuite.symbolic.expr.ref.array.ArrayConstant;
+import org.evosuite.symbolic.expr.ref.array.ArraySelect;
+import org.evosuite.symbolic.expr.ref.array.ArrayStore;
+import org.evosuite.symbolic.expr.ref.array.ArrayVariable;
+import org.evosuite.symbolic.expr.reftype.ArrayTypeConstant;
+import org.evosuite.symbolic.expr.reftype.ClassTypeConstant;
+import org.evosuite.symbolic.expr.reftype.LambdaSyntheticTypeConstant;
+import org.evosuite.symbolic.expr.reftype.NullTypeConstant;
+import org.evosuite.symbolic.expr.str.IntegerToStringCast;
+import org.evosuite.symbolic.expr.str.RealToStringCast;
+import org.evosuite.symbolic.expr.str.StringBinaryExpression;
+import org.evosuite.symbolic.expr.str.StringConstant;
+import org.evosuite.symbolic.expr.str.StringMultipleExpression;
+import org.evosuite.symbolic.expr.str.StringUnaryExpression;
+import org.evosuite.symbolic.expr.str.StringVariable;
+import org.evosuite.symbolic.expr.token.HasMoreTokensExpr;
+import org.evosuite.symbolic.expr.token.NewTokenizerExpr;
+import org.evosuite.symbolic.expr.token.NextTokenizerExpr;
+import org.evosuite.symbolic.expr.token.StringNextTokenExpr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the conjuncts of a {@link CanonicalQuery} as s-expressions.
+ * <p>
+ * Every node is printed with its kind and operator, and constants are printed
+ * with their kind, string constants quoted and escaped. Two conjuncts are
+ * printed the same if and only if they are structurally equal up to the names
+ * and concrete values of their variables. Variables are printed with the
+ * canonical name they are mapped to, or only with their kind if no canonical
+ * names are given (the "shape" of the conjunct).
+ * <p>
+ * Reference and array expressions are not supported.
+ */
+final class CanonicalExpressionPrinter implements ExpressionVisitor<Void, StringBuilder> {
+
+    private final Map<String, String> canonicalNames;
+
+    /**
+     * The variables in order of their occurrence in the printed conjuncts
+     */
+    private final List<Variable<?>> variables = new ArrayList<>();
+
+    /**
+     * @param canonicalNames maps variable names to canonical names, or
+     *                       <code>null</code> to print the shape only
+     */
+    CanonicalExpressionPrinter(Map<String, String> canonicalNames) {
+        this.canonicalNames = canonicalNames;
+    }
+
+    /**
+     * @param constraint
+     * @return the constraint as s-expression
+     * @throws UnsupportedOperationException if the constraint contains
+     *                                       reference or array expressions
+     */
+    String print(Constraint<?> constraint) {
+        StringBuilder out = new StringBuilder();
+        out.append('(').append(constraint.getClass().getSimpleName())
+                .append(' ').append(constraint.getComparator().name());
+        operand(constraint.getLeftOperand(), out);
+        operand(constraint.getRightOperand(), out);
+        out.append(')');
+        return out.toString();
+    }
+
+    List<Variable<?>> getVariables() {
+        return variables;
+    }
+
+    private void operand(Expression<?> operand, StringBuilder out) {
+        out.append(' ');
+        operand.accept(this, out);
+    }
+
+    private Void node(Expression<?> n, StringBuilder out, Object operator, Expression<?>... operands) {
+        out.append('(').append(n.getClass().getSimpleName());
+        if (operator != null) {
+            out.append(' ').append(operator);
+        }
+        for (Expression<?> operand : operands) {
+            operand(operand, out);
+        }
+        out.append(')');
+        return null;
+    }
+
+    private <T> Void multiple(Expression<?> n, MultipleExpression<T> e, StringBuilder out) {
+        out.append('(').append(n.getClass().getSimpleName()).append(' ').append(e.getOperator().name());
+        operand(e.getLeftOperand(), out);
+        operand(e.getRightOperand(), out);
+        for (Expression<?> other : e.getOther()) {
+            operand(other, out);
+        }
+        out.append(')');
+        return null;
+    }
+
+    private Void variable(Variable<?> n, StringBuilder out) {
+        variables.add(n);
+        out.append('(').append(n.getClass().getSimpleName());
+        if (canonicalNames != null) {
+            out.append(' ').append(canonicalNames.get(n.getName()));
+        }
+        out.append(')');
+        return null;
+    }
+
+    private static Void unsupported(Expression<?> n) {
+        throw new UnsupportedOperationException("No canonical form for " + n.getClass().getSimpleName());
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2);
+        quoted.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\');
+            }
+            quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+
+    @Override
+    public Void visit(IntegerBinaryExpression n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public Void visit(IntegerComparison n, StringBuilder out) {
+        return node(n, out, null, n.getLeftOperant(), n.getRightOperant());
+    }
+
+    @Override
+    public Void visit(IntegerConstant n, StringBuilder out) {
+        return node(n, out, n.getConcreteValue());
+    }
+
+    @Override
+    public Void visit(IntegerUnaryExpression n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getOperand());
+    }
+
+    @Override
+    public Void visit(IntegerVariable n, StringBuilder out) {
+        return variable(n, out);
+    }
+
+    @Override
+    public Void visit(RealComparison n, StringBuilder out) {
+        return node(n, out, null, n.getLeftOperant(), n.getRightOperant());
+    }
+
+    @Override
+    public Void visit(RealToIntegerCast n, StringBuilder out) {
+        return node(n, out, null, n.getArgument());
+    }
+
+    @Override
+    public Void visit(RealUnaryToIntegerExpression n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getOperand());
+    }
+
+    @Override
+    public Void visit(StringBinaryComparison n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public Void visit(StringBinaryToIntegerExpression n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public Void visit(StringMultipleComparison n, StringBuilder out) {
+        return multiple(n, n, out);
+    }
+
+    @Override
+    public Void visit(StringMultipleToIntegerExpression n, StringBuilder out) {
+        return multiple(n, n, out);
+    }
+
+    @Override
+    public Void visit(StringToIntegerCast n, StringBuilder out) {
+        return node(n, out, null, n.getArgument());
+    }
+
+    @Override
+    public Void visit(StringUnaryToIntegerExpression n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getOperand());
+    }
+
+    @Override
+    public Void visit(IntegerToRealCast n, StringBuilder out) {
+        return node(n, out, null, n.getArgument());
+    }
+
+    @Override
+    public Void visit(RealBinaryExpression n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public Void visit(RealConstant n, StringBuilder out) {
+        return node(n, out, n.getConcreteValue());
+    }
+
+    @Override
+    public Void visit(RealUnaryExpression n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getOperand());
+    }
+
+    @Override
+    public Void visit(RealVariable n, StringBuilder out) {
+        return variable(n, out);
+    }
+
+    @Override
+    public Void visit(StringReaderExpr n, StringBuilder out) {
+        return node(n, out, n.getReaderPosition(), n.getString());
+    }
+
+    @Override
+    public Void visit(IntegerToStringCast n, StringBuilder out) {
+        return node(n, out, null, n.getArgument());
+    }
+
+    @Override
+    public Void visit(RealToStringCast n, StringBuilder out) {
+        return node(n, out, null, n.getArgument());
+    }
+
+    @Override
+    public Void visit(StringBinaryExpression n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public Void visit(StringConstant n, StringBuilder out) {
+        return node(n, out, quote(n.getConcreteValue()));
+    }
+
+    @Override
+    public Void visit(StringMultipleExpression n, StringBuilder out) {
+        return multiple(n, n, out);
+    }
+
+    @Override
+    public Void visit(StringUnaryExpression n, StringBuilder out) {
+        return node(n, out, n.getOperator().name(), n.getOperand());
+    }
+
+    @Override
+    public Void visit(StringVariable n, StringBuilder out) {
+        return variable(n, out);
+    }
+
+    @Override
+    public Void visit(HasMoreTokensExpr n, StringBuilder out) {
+        return node(n, out, null, n.getTokenizerExpr());
+    }
+
+    @Override
+    public Void visit(NewTokenizerExpr n, StringBuilder out) {
+        return node(n, out, null, n.getString(), n.getDelimiter());
+    }
+
+    @Override
+    public Void visit(NextTokenizerExpr n, StringBuilder out) {
+        return node(n, out, null, n.getTokenizerExpr());
+    }
+
+    @Override
+    public Void visit(StringNextTokenExpr n, StringBuilder out) {
+        return node(n, out, null, n.getTokenizerExpr());
+    }
+
+    @Override
+    public Void visit(ArrayStore.IntegerArrayStore r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayStore.RealArrayStore r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayStore.StringArrayStore r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArraySelect.IntegerArraySelect r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArraySelect.RealArraySelect r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArraySelect.StringArraySelect r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayConstant.IntegerArrayConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayConstant.RealArrayConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayConstant.StringArrayConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayConstant.ReferenceArrayConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayVariable.IntegerArrayVariable r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayVariable.RealArrayVariable r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayVariable.StringArrayVariable r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayVariable.ReferenceArrayVariable r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(LambdaSyntheticTypeConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(NullTypeConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ClassTypeConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ArrayTypeConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ClassReferenceVariable r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(GetFieldExpression r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(NullReferenceConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+
+    @Override
+    public Void visit(ClassReferenceConstant r, StringBuilder out) {
+        return unsupported(r);
+    }
+}
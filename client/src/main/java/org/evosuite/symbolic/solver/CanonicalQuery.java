@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.constraint.ConstraintEvaluator;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.evosuite.symbolic.expr.constraint.RealConstraint;
+import org.evosuite.symbolic.expr.constraint.StringConstraint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Canonical form of a constraint system, used as a key for the solver cache.
+ * <p>
+ * Two constraint systems that only differ in the names (or current concrete
+ * values) of their symbolic variables, in the order of their conjuncts, or in
+ * ground conjuncts that evaluate to true share the same canonical key.
+ * Symbolic variables are alpha-renamed in order of first occurrence, ground
+ * conjuncts are folded through the {@link ConstraintEvaluator}, and the
+ * remaining conjuncts are printed structurally by the
+ * {@link CanonicalExpressionPrinter}, sorted and deduplicated.
+ * <p>
+ * Only integer, real and string constraints without reference and array
+ * expressions are canonicalized. Other systems have no canonical form.
+ */
+final class CanonicalQuery {
+
+    private static final String CONJUNCT_SEPARATOR = " && ";
+    private static final String FALSE_KEY = "false";
+    private static final String CANONICAL_VARIABLE_PREFIX = "_v";
+
+    private final String key;
+    private final boolean triviallyUnsat;
+
+    /**
+     * Maps original variable names to canonical names
+     */
+    private final Map<String, String> canonicalNames;
+
+    /**
+     * Maps canonical names back to original variable names
+     */
+    private final Map<String, String> originalNames;
+
+    private CanonicalQuery(String key, boolean triviallyUnsat, Map<String, String> canonicalNames) {
+        this.key = key;
+        this.triviallyUnsat = triviallyUnsat;
+        this.canonicalNames = canonicalNames;
+        this.originalNames = new HashMap<>();
+        for (Map.Entry<String, String> entry : canonicalNames.entrySet()) {
+            originalNames.put(entry.getValue(), entry.getKey());
+        }
+    }
+
+    /**
+     * Computes the canonical form of a constraint system.
+     *
+     * @param constraints a constraint system
+     * @return the canonical form, or <code>null</code> if the constraint system
+     * contains constraints or variables that cannot be canonicalized
+     */
+    public static CanonicalQuery of(Collection<Constraint<?>> constraints) {
+        List<Conjunct> conjuncts = new ArrayList<>(constraints.size());
+        ConstraintEvaluator evaluator = new ConstraintEvaluator();
+
+        for (Constraint<?> constraint : constraints) {
+            if (!isSupported(constraint)) {
+                return null;
+            }
+
+            Set<Variable<?>> variables = constraint.getVariables();
+            if (variables.isEmpty()) {
+                // constant folding of ground conjuncts
+                Object value;
+                try {
+                    value = constraint.accept(evaluator, null);
+                } catch (RuntimeException e) {
+                    return null;
+                }
+                if (Boolean.FALSE.equals(value)) {
+                    return new CanonicalQuery(FALSE_KEY, true, new HashMap<>());
+                }
+                if (Boolean.TRUE.equals(value)) {
+                    continue;
+                }
+                return null;
+            }
+
+            try {
+                conjuncts.add(new Conjunct(constraint));
+            } catch (UnsupportedOperationException e) {
+                return null;
+            }
+        }
+
+        // sort conjuncts by their shape, so that renaming does not depend on
+        // the original variable names
+        conjuncts.sort(Comparator.comparing((Conjunct c) -> c.shape).thenComparing(c -> c.text));
+
+        Map<String, String> canonicalNames = new LinkedHashMap<>();
+        for (Conjunct conjunct : conjuncts) {
+            for (Variable<?> variable : conjunct.variables) {
+                if (!canonicalNames.containsKey(variable.getName())) {
+                    canonicalNames.put(variable.getName(), CANONICAL_VARIABLE_PREFIX + canonicalNames.size());
+                }
+            }
+        }
+
+        TreeSet<String> canonicalConjuncts = new TreeSet<>();
+        for (Conjunct conjunct : conjuncts) {
+            canonicalConjuncts.add(conjunct.rename(canonicalNames));
+        }
+
+        String key = String.join(CONJUNCT_SEPARATOR, canonicalConjuncts);
+        return new CanonicalQuery(key, false, canonicalNames);
+    }
+
+    private static boolean isSupported(Constraint<?> constraint) {
+        return constraint instanceof IntegerConstraint
+                || constraint instanceof RealConstraint
+                || constraint instanceof StringConstraint;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns true if constant folding showed that the constraint system
+     * contains a ground conjunct that is false.
+     *
+     * @return
+     */
+    public boolean isTriviallyUnsat() {
+        return triviallyUnsat;
+    }
+
+    /**
+     * Translates a model over the original variable names into a model over
+     * the canonical variable names. Values of variables that do not occur in
+     * the constraint system are dropped.
+     *
+     * @param model
+     * @return
+     */
+    public Map<String, Object> toCanonicalModel(Map<String, Object> model) {
+        Map<String, Object> canonicalModel = new HashMap<>();
+        for (Map.Entry<String, Object> entry : model.entrySet()) {
+            String canonicalName = canonicalNames.get(entry.getKey());
+            if (canonicalName != null) {
+                canonicalModel.put(canonicalName, entry.getValue());
+            }
+        }
+        return canonicalModel;
+    }
+
+    /**
+     * Translates a model over the canonical variable names into a model over
+     * the original variable names.
+     *
+     * @param canonicalModel
+     * @return
+     */
+    public Map<String, Object> fromCanonicalModel(Map<String, Object> canonicalModel) {
+        Map<String, Object> model = new HashMap<>();
+        for (Map.Entry<String, Object> entry : canonicalModel.entrySet()) {
+            String originalName = originalNames.get(entry.getKey());
+            if (originalName != null) {
+                model.put(originalName, entry.getValue());
+            }
+        }
+        return model;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    /**
+     * A single conjunct together with its shape and its variables in order of
+     * occurrence
+     */
+    private static final class Conjunct {
+
+        private final Constraint<?> constraint;
+        private final String text;
+        private final String shape;
+        private final List<Variable<?>> variables;
+
+        Conjunct(Constraint<?> constraint) {
+            CanonicalExpressionPrinter printer = new CanonicalExpressionPrinter(null);
+            this.constraint = constraint;
+            this.text = constraint.toString();
+            this.shape = printer.print(constraint);
+            this.variables = printer.getVariables();
+        }
+
+        String rename(Map<String, String> canonicalNames) {
+            return new CanonicalExpressionPrinter(canonicalNames).print(constraint);
+        }
+    }
+}
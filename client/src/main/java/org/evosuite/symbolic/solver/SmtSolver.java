@@ -19,11 +19,12 @@
  */
 package org.evosuite.symbolic.solver;
 
-import org.apache.commons.exec.ExecuteException;
-import org.evosuite.utils.ProcessLauncher;
+import org.evosuite.Properties;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
+import org.evosuite.utils.PooledProcessLauncher;
 import org.evosuite.utils.ProcessTimeoutException;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -37,6 +38,48 @@ public abstract class SmtSolver extends Solver {
         super();
     }
 
+    /**
+     * SMT solvers run in their own processes, and only change the concrete
+     * values of the variables when checking a solution.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Returns true if queries are sent to long-lived solver processes (see
+     * {@link SmtSolverPool}) instead of launching a new process per query.
+     *
+     * @return
+     */
+    protected static boolean isSolverPoolEnabled() {
+        return Properties.DSE_SOLVER_POOL_SIZE > 0;
+    }
+
+    /**
+     * Solves the query either on a pooled solver process or on a new one.
+     * The command line must be the one of an incremental solver if the
+     * solver pool is enabled.
+     *
+     * @param solverCmd
+     * @param query
+     * @param hardTimeout
+     * @param stdout
+     * @throws IOException
+     * @throws SolverTimeoutException
+     * @throws SolverErrorException
+     */
+    protected static void solveQuery(String solverCmd, SmtQuery query, int hardTimeout, OutputStream stdout)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+        if (isSolverPoolEnabled()) {
+            SmtSolverPool.getInstance().solve(solverCmd, query, hardTimeout, stdout);
+        } else {
+            SmtQueryPrinter printer = new SmtQueryPrinter();
+            launchNewSolvingProcess(solverCmd, printer.print(query), hardTimeout, stdout);
+        }
+    }
+
     /**
      * @param solverCmd
      * @param smtQueryStr
@@ -49,13 +92,11 @@ public abstract class SmtSolver extends Solver {
     protected static void launchNewSolvingProcess(String solverCmd, String smtQueryStr, int hardTimeout, OutputStream stdout)
             throws IOException, SolverTimeoutException, SolverErrorException {
 
-        ByteArrayInputStream input = new ByteArrayInputStream(smtQueryStr.getBytes());
-
-        ProcessLauncher launcher = new ProcessLauncher(stdout, input);
+        byte[] input = smtQueryStr.getBytes();
 
         long solver_start_time_millis = System.currentTimeMillis();
         try {
-            int exit_code = launcher.launchNewProcess(solverCmd, hardTimeout);
+            int exit_code = PooledProcessLauncher.getInstance().launch(solverCmd, input, stdout, hardTimeout);
 
             if (exit_code == 0) {
                 logger.debug("Solver execution finished normally");
@@ -65,10 +106,6 @@ public abstract class SmtSolver extends Solver {
                 logger.debug(errMsg);
                 throw new SolverErrorException(errMsg);
             }
-        } catch (ExecuteException ex) {
-            logger.debug("Solver subprocesses failed");
-            throw new SolverErrorException("Solver subprocesses failed");
-
         } catch (ProcessTimeoutException ex) {
             logger.debug("Solver stopped due to solver timeout");
             throw new SolverTimeoutException();
@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtConstantDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDefinition;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
+import org.evosuite.symbolic.solver.smt.SmtVariable;
+import org.evosuite.symbolic.solver.smt.SmtVariableCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Pool of long-lived SMT solver processes (see {@link SmtSolverProcess}).
+ * <p>
+ * At most {@link Properties#DSE_SOLVER_POOL_SIZE} processes are kept alive.
+ * Queries are sent to the idle process, launched with the same command line
+ * and prelude, that shares the longest prefix of asserted commands with the
+ * query. Sibling path conditions, that only differ in their last conditions,
+ * hence only pay for the assertions they do not share.
+ * <p>
+ * A process that times out, fails, or reports an error is killed and
+ * replaced on demand.
+ */
+public final class SmtSolverPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtSolverPool.class);
+
+    private static SmtSolverPool instance = null;
+
+    private final List<SmtSolverProcess> idleProcesses = new ArrayList<>();
+    private int liveProcesses = 0;
+
+    private long launchedProcesses = 0;
+    private long reusedCommands = 0;
+    private long sentCommands = 0;
+
+    public static synchronized SmtSolverPool getInstance() {
+        if (instance == null) {
+            instance = new SmtSolverPool();
+            Runtime.getRuntime().addShutdownHook(new Thread(SmtSolverPool::resetSingleton));
+        }
+        return instance;
+    }
+
+    /**
+     * Kills all the solver processes of the pool.
+     */
+    public static synchronized void resetSingleton() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    private SmtSolverPool() {
+        /* empty constructor */
+    }
+
+    /**
+     * Solves the query on a pooled solver process, and writes the output of
+     * the solver to <code>stdout</code>.
+     *
+     * @param solverCmd     the command line of an incremental solver reading
+     *                      SMT-LIB from its standard input
+     * @param query         the query to solve
+     * @param timeoutMillis maximum time to wait for the solver
+     * @param stdout        where the solver output is written
+     * @throws IOException
+     * @throws SolverTimeoutException
+     * @throws SolverErrorException
+     */
+    public void solve(String solverCmd, SmtQuery query, long timeoutMillis, OutputStream stdout)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+
+        SmtQueryPrinter printer = new SmtQueryPrinter();
+        String prelude = printer.printPrelude(query);
+        String key = solverCmd + "\n" + prelude;
+        List<String> commands = buildCommands(query);
+
+        SmtSolverProcess process = acquire(key, solverCmd, prelude, commands);
+        boolean healthy = false;
+        try {
+            String output = process.solve(commands, timeoutMillis);
+            stdout.write(output.getBytes(StandardCharsets.UTF_8));
+            healthy = !output.contains("(error");
+        } finally {
+            release(process, healthy);
+        }
+    }
+
+    /**
+     * Orders the declarations, definitions and assertions of the query so that
+     * each constant is declared right before the first assertion using it.
+     * Hence, queries sharing their first assertions also share the commands
+     * that declare them.
+     *
+     * @param query
+     * @return
+     */
+    static List<String> buildCommands(SmtQuery query) {
+        SmtQueryPrinter printer = new SmtQueryPrinter();
+        List<String> commands = new ArrayList<>();
+
+        Map<String, String> pendingDeclarations = new LinkedHashMap<>();
+        for (SmtConstantDeclaration declaration : query.getConstantDeclarations()) {
+            pendingDeclarations.put(declaration.getConstantName(), printer.print(declaration));
+        }
+        for (SmtFunctionDeclaration declaration : query.getFunctionDeclarations()) {
+            pendingDeclarations.put(declaration.getFunctionName(), printer.print(declaration));
+        }
+        for (SmtFunctionDefinition definition : query.getFunctionDefinitions()) {
+            commands.add(printer.print(definition));
+        }
+
+        for (SmtAssertion assertion : query.getAssertions()) {
+            SmtVariableCollector collector = new SmtVariableCollector();
+            assertion.getFormula().accept(collector, null);
+            TreeSet<String> names = new TreeSet<>();
+            for (SmtVariable variable : collector.getSmtVariables()) {
+                names.add(variable.getName());
+            }
+            for (String name : names) {
+                String declaration = pendingDeclarations.remove(name);
+                if (declaration != null) {
+                    commands.add(declaration);
+                }
+            }
+            commands.add(printer.print(assertion));
+        }
+
+        // declarations that are not used in any assertion
+        commands.addAll(pendingDeclarations.values());
+        return commands;
+    }
+
+    /**
+     * Returns the idle process sharing the longest prefix with the commands,
+     * or launches a new one. The pool's monitor is not held while a process
+     * is launched or destroyed, so that other queries are not blocked by the
+     * startup of a solver.
+     */
+    private SmtSolverProcess acquire(String key, String solverCmd, String prelude, List<String> commands)
+            throws IOException {
+        SmtSolverProcess evicted = null;
+        synchronized (this) {
+            int poolSize = Math.max(1, Properties.DSE_SOLVER_POOL_SIZE);
+            while (true) {
+                SmtSolverProcess best = null;
+                int bestPrefix = -1;
+                for (SmtSolverProcess process : idleProcesses) {
+                    if (process.getKey().equals(key)) {
+                        int prefix = process.getCommonPrefixLength(commands);
+                        if (prefix > bestPrefix) {
+                            best = process;
+                            bestPrefix = prefix;
+                        }
+                    }
+                }
+                if (best != null) {
+                    idleProcesses.remove(best);
+                    if (best.isAlive()) {
+                        reusedCommands += bestPrefix;
+                        sentCommands += commands.size() - bestPrefix;
+                        return best;
+                    }
+                    liveProcesses--;
+                    continue;
+                }
+
+                if (liveProcesses >= poolSize && !idleProcesses.isEmpty()) {
+                    // make room for a process with a different configuration
+                    evicted = idleProcesses.remove(0);
+                    liveProcesses--;
+                }
+
+                if (liveProcesses < poolSize) {
+                    // reserve the slot, the process is launched outside the lock
+                    liveProcesses++;
+                    launchedProcesses++;
+                    sentCommands += commands.size();
+                    break;
+                }
+
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for a solver process");
+                }
+            }
+        }
+
+        if (evicted != null) {
+            evicted.destroy();
+        }
+        boolean launched = false;
+        try {
+            SmtSolverProcess process = new SmtSolverProcess(key, solverCmd, prelude);
+            launched = true;
+            return process;
+        } finally {
+            if (!launched) {
+                synchronized (this) {
+                    liveProcesses--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private synchronized void release(SmtSolverProcess process, boolean healthy) {
+        if (healthy && process.isAlive() && instance == this) {
+            idleProcesses.add(process);
+        } else {
+            logger.debug("Discarding long-lived solver process");
+            process.destroy();
+            liveProcesses--;
+        }
+        notifyAll();
+    }
+
+    private synchronized void shutdown() {
+        for (SmtSolverProcess process : idleProcesses) {
+            process.destroy();
+        }
+        liveProcesses -= idleProcesses.size();
+        idleProcesses.clear();
+    }
+
+    /**
+     * @return the number of solver processes launched by the pool
+     */
+    public synchronized long getNumberOfLaunchedProcesses() {
+        return launchedProcesses;
+    }
+
+    /**
+     * @return the number of commands that were already asserted by the
+     * process a query was sent to
+     */
+    public synchronized long getNumberOfReusedCommands() {
+        return reusedCommands;
+    }
+
+    /**
+     * @return the number of commands that had to be sent to a solver process
+     */
+    public synchronized long getNumberOfSentCommands() {
+        return sentCommands;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.apache.commons.exec.CommandLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long-lived SMT solver process that reads SMT-LIB commands from its
+ * standard input.
+ * <p>
+ * The process keeps track of the commands currently asserted, one
+ * <code>(push 1)</code> scope per command. A new query only pops the scopes
+ * that are not a prefix of it, and pushes the remaining commands. The end of
+ * each response is detected with an <code>(echo)</code> marker.
+ */
+final class SmtSolverProcess {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtSolverProcess.class);
+
+    private static final String END_MARKER = "evosuite-end-of-response";
+
+    /**
+     * Put in the line queue when the solver closes its output
+     */
+    private static final String END_OF_STREAM = new String("<eos>");
+
+    private final String key;
+    private final Process process;
+    private final Writer stdin;
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+    /**
+     * The commands currently asserted, one scope each
+     */
+    private final List<String> frames = new ArrayList<>();
+
+    private boolean alive = true;
+
+    /**
+     * Launches a new solver process and sends it the prelude.
+     *
+     * @param key     identifies processes that can be shared
+     * @param command the command line of the solver
+     * @param prelude the logic and options of the queries
+     * @throws IOException
+     */
+    SmtSolverProcess(String key, String command, String prelude) throws IOException {
+        this.key = key;
+
+        logger.debug("About to launch long-lived solver " + command);
+        ProcessBuilder builder = new ProcessBuilder(CommandLine.parse(command).toStrings());
+        builder.redirectErrorStream(true);
+        this.process = builder.start();
+        this.stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+
+        Thread reader = new Thread(this::readOutput, "SmtSolverProcess-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        stdin.write(prelude);
+        stdin.flush();
+    }
+
+    private void readOutput() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            logger.debug("Solver output closed: " + e.getMessage());
+        } finally {
+            lines.add(END_OF_STREAM);
+        }
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    boolean isAlive() {
+        return alive && process.isAlive();
+    }
+
+    /**
+     * Returns the number of leading commands shared with the currently
+     * asserted ones.
+     *
+     * @param commands
+     * @return
+     */
+    int getCommonPrefixLength(List<String> commands) {
+        int length = 0;
+        int max = Math.min(commands.size(), frames.size());
+        while (length < max && frames.get(length).equals(commands.get(length))) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Asserts the commands (reusing the common prefix), checks satisfiability
+     * and, if the outcome is SAT, retrieves the model.
+     *
+     * @param commands      declarations, definitions and assertions, in order
+     * @param timeoutMillis maximum time to wait for the solver
+     * @return the solver output, as it would have been printed by a solver
+     * process reading the whole query
+     * @throws IOException
+     * @throws SolverTimeoutException
+     * @throws SolverErrorException
+     */
+    String solve(List<String> commands, long timeoutMillis)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        int prefixLength = getCommonPrefixLength(commands);
+        StringBuilder batch = new StringBuilder();
+        int scopesToPop = frames.size() - prefixLength;
+        if (scopesToPop > 0) {
+            batch.append("(pop ").append(scopesToPop).append(")\n");
+            frames.subList(prefixLength, frames.size()).clear();
+        }
+        for (String command : commands.subList(prefixLength, commands.size())) {
+            batch.append("(push 1)\n");
+            batch.append(command).append("\n");
+            frames.add(command);
+        }
+        batch.append("(check-sat)\n");
+
+        String outcome = send(batch, deadline);
+        if (!outcome.startsWith("sat")) {
+            return outcome;
+        }
+
+        String model = send(new StringBuilder("(get-model)\n"), deadline);
+        return outcome + model;
+    }
+
+    private String send(StringBuilder batch, long deadline)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+        batch.append("(echo \"" + END_MARKER + "\")\n");
+        stdin.write(batch.toString());
+        stdin.flush();
+
+        StringBuilder output = new StringBuilder();
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            String line;
+            try {
+                line = remaining > 0 ? lines.poll(remaining, TimeUnit.MILLISECONDS) : null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SolverTimeoutException();
+            }
+            if (line == null) {
+                logger.debug("Long-lived solver stopped due to solver timeout");
+                throw new SolverTimeoutException();
+            }
+            if (line == END_OF_STREAM) {
+                throw new SolverErrorException("Long-lived solver process terminated unexpectedly");
+            }
+            String trimmed = line.trim();
+            if (trimmed.equals(END_MARKER) || trimmed.equals("\"" + END_MARKER + "\"")) {
+                return output.toString();
+            }
+            output.append(line).append("\n");
+        }
+    }
+
+    void destroy() {
+        alive = false;
+        try {
+            stdin.close();
+        } catch (IOException e) {
+            // the process is being killed anyway
+        }
+        process.destroyForcibly();
+    }
+}
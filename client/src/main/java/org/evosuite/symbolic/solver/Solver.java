@@ -60,6 +60,14 @@ public abstract class Solver {
 
     static Logger logger = LoggerFactory.getLogger(Solver.class);
 
+    /**
+     * Guards the concrete values of the symbolic variables, that are
+     * temporarily overwritten when checking a solution. Variables are shared
+     * among the queries of sibling path conditions, which may be solved
+     * concurrently.
+     */
+    static final Object CONCRETE_VALUES_LOCK = new Object();
+
     /**
      * @param constraints a constraint system to be solved
      * @return a non-null result that is SAT or UNSAT
@@ -70,8 +78,10 @@ public abstract class Solver {
      * @throws SolverErrorException      the solver reported an error after its execution
      */
     public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverTimeoutException, SolverParseException, SolverEmptyQueryException, SolverErrorException, IOException {
-        if (solverCache.hasCachedResult(constraints)) {
-            return solverCache.getCachedResult();
+        synchronized (solverCache) {
+            if (solverCache.hasCachedResult(constraints)) {
+                return solverCache.getCachedResult();
+            }
         }
 
         SolverResult solverResult;
@@ -79,7 +89,9 @@ public abstract class Solver {
             solverResult = executeSolver(constraints);
 
             if (solverResult != null && !solverResult.isUnknown()) {
-                solverCache.saveSolverResult(constraints, solverResult);
+                synchronized (solverCache) {
+                    solverCache.saveSolverResult(constraints, solverResult);
+                }
             }
         } catch (IllegalArgumentException | IOException e) {
             solverResult = null;
@@ -104,6 +116,17 @@ public abstract class Solver {
         return addMissingVariables;
     }
 
+    /**
+     * Returns true if {@link #solve} can be called concurrently from several
+     * threads. Solvers that search for a solution by changing the concrete
+     * values of the variables cannot.
+     *
+     * @return
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Returns a mapping from variables to their current concrete values.
      *
@@ -113,10 +136,12 @@ public abstract class Solver {
     protected static Map<String, Object> getConcreteValues(Set<Variable<?>> variables) {
 
         Map<String, Object> concrete_values = new HashMap<>();
-        for (Variable<?> v : variables) {
-            String var_name = v.getName();
-            Object concrete_value = v.getConcreteValue();
-            concrete_values.put(var_name, concrete_value);
+        synchronized (CONCRETE_VALUES_LOCK) {
+            for (Variable<?> v : variables) {
+                String var_name = v.getName();
+                Object concrete_value = v.getConcreteValue();
+                concrete_values.put(var_name, concrete_value);
+            }
         }
         return concrete_values;
     }
@@ -193,29 +218,31 @@ public abstract class Solver {
             throw new IllegalArgumentException("satResult should be SAT");
         }
 
-        // back-up values
-        Set<Variable<?>> variables = getVariables(constraints);
-        Map<String, Object> initialValues = getConcreteValues(variables);
-        // set new values
-        Map<String, Object> newValues = satResult.getModel();
-        setConcreteValues(variables, newValues);
-
-        try {
-            // check SAT with new values
-            ConstraintEvaluator evaluator = new ConstraintEvaluator();
-            for (Constraint<?> constraint : constraints) {
-                Boolean evaluation = (Boolean) constraint.accept(evaluator, null);
-                if (evaluation == null) {
-                    throw new NullPointerException();
-                }
-                if (evaluation == false) {
-                    return false;
+        synchronized (CONCRETE_VALUES_LOCK) {
+            // back-up values
+            Set<Variable<?>> variables = getVariables(constraints);
+            Map<String, Object> initialValues = getConcreteValues(variables);
+            // set new values
+            Map<String, Object> newValues = satResult.getModel();
+            setConcreteValues(variables, newValues);
+
+            try {
+                // check SAT with new values
+                ConstraintEvaluator evaluator = new ConstraintEvaluator();
+                for (Constraint<?> constraint : constraints) {
+                    Boolean evaluation = (Boolean) constraint.accept(evaluator, null);
+                    if (evaluation == null) {
+                        throw new NullPointerException();
+                    }
+                    if (evaluation == false) {
+                        return false;
+                    }
                 }
+                return true;
+            } finally {
+                // restore values
+                setConcreteValues(variables, initialValues);
             }
-            return true;
-        } finally {
-            // restore values
-            setConcreteValues(variables, initialValues);
         }
     }
 
@@ -19,17 +19,46 @@
  */
 package org.evosuite.symbolic.solver;
 
+import org.evosuite.Properties;
+import org.evosuite.symbolic.dse.DSEStatistics;
 import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Variable;
 
+import java.io.File;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Cache of solver results.
+ * <p>
+ * A constraint system is looked up in three steps:
+ * <ol>
+ * <li>by exact equality with a previously solved constraint system,</li>
+ * <li>by its canonical form (see {@link CanonicalQuery}), which is also
+ * persisted to disk per class under test and solver configuration if
+ * {@link Properties#DSE_SOLVER_CACHE_DIR} is set,</li>
+ * <li>by subsumption: a system containing a known UNSAT system is UNSAT, and a
+ * system satisfied by a recently found model is SAT.</li>
+ * </ol>
+ * SAT results found through the canonical form or through subsumption are
+ * always checked against the constraint system before being returned.
+ */
 public final class SolverCache {
 
     private static final SolverCache instance = new SolverCache();
     private static final String CONTRAINT_NOT_CACHED_EXCEPTION_MESSAGE = "The constraint is not cached!";
     private static final String SOLVER_RESULT_CANNOT_BE_NULL_EXCEPTION_MESSAGE = "Unable to save solver result as its null.";
 
+    /**
+     * Maximum number of recent results considered for subsumption checks
+     */
+    private static final int MAX_SUBSUMPTION_CANDIDATES = 128;
+
     private int number_of_hits = 0;
     private int number_of_accesses = 0;
     private int cached_sat_result_count = 0;
@@ -39,6 +68,17 @@ public final class SolverCache {
     private final HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<>();
     private SolverResult cached_solution = null;
 
+    /**
+     * Results indexed by canonical key, with SAT models over canonical variable names
+     */
+    private final HashMap<String, SolverResult> canonical_solver_results = new HashMap<>();
+
+    private final Deque<Set<Constraint<?>>> recent_unsat_constraints = new ArrayDeque<>();
+    private final Deque<SolverResult> recent_sat_results = new ArrayDeque<>();
+
+    private SolverCacheStore store = null;
+    private String storeConfiguration = null;
+
     public int getNumberOfUNSATs() {
         return cached_unsat_result_count;
     }
@@ -47,7 +87,7 @@ public final class SolverCache {
         return cached_sat_result_count;
     }
 
-    private SolverCache() {
+    SolverCache() {
         /* empty constructor */
     }
 
@@ -58,27 +98,118 @@ public final class SolverCache {
     private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
         cached_solver_results.put(unsat_constraints, unsatResult);
         cached_unsat_result_count++;
+
+        addRecent(recent_unsat_constraints, new HashSet<>(unsat_constraints));
     }
 
     private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
         cached_solver_results.put(sat_constraints, satResult);
         cached_sat_result_count++;
+
+        addRecent(recent_sat_results, satResult);
+    }
+
+    private static <T> void addRecent(Deque<T> recent, T element) {
+        recent.addFirst(element);
+        if (recent.size() > MAX_SUBSUMPTION_CANDIDATES) {
+            recent.removeLast();
+        }
     }
 
     public boolean hasCachedResult(Collection<Constraint<?>> constraints) {
         number_of_accesses++;
 
-        if (this.cached_solver_results.containsKey(constraints)) {
+        SolverResult result = this.cached_solver_results.get(constraints);
+        if (result == null) {
+            result = getCanonicalResult(constraints);
+        }
+        if (result != null) {
+            DSEStatistics.getInstance().reportNewSolverCacheHit();
+        } else {
+            result = getSubsumingResult(constraints);
+            if (result != null) {
+                DSEStatistics.getInstance().reportNewSolverCacheSubsumptionHit();
+            }
+        }
+
+        if (result != null) {
             valid_cached_solution = true;
-            cached_solution = this.cached_solver_results.get(constraints);
+            cached_solution = result;
             number_of_hits++;
             return true;
         } else {
+            DSEStatistics.getInstance().reportNewSolverCacheMiss();
             valid_cached_solution = false;
             return false;
         }
     }
 
+    private SolverResult getCanonicalResult(Collection<Constraint<?>> constraints) {
+        CanonicalQuery query = CanonicalQuery.of(constraints);
+        if (query == null) {
+            return null;
+        }
+        if (query.isTriviallyUnsat()) {
+            return SolverResult.newUNSAT();
+        }
+
+        SolverResult canonicalResult = canonical_solver_results.get(query.getKey());
+        SolverCacheStore currentStore = getStore();
+        if (canonicalResult == null && currentStore != null) {
+            canonicalResult = currentStore.get(query.getKey());
+        }
+        if (canonicalResult == null) {
+            return null;
+        }
+        if (canonicalResult.isUNSAT()) {
+            return canonicalResult;
+        }
+
+        SolverResult satResult = SolverResult.newSAT(query.fromCanonicalModel(canonicalResult.getModel()));
+        return isModel(constraints, satResult) ? satResult : null;
+    }
+
+    private SolverResult getSubsumingResult(Collection<Constraint<?>> constraints) {
+        Set<Constraint<?>> constraintSet = new HashSet<>(constraints);
+        for (Set<Constraint<?>> unsatConstraints : recent_unsat_constraints) {
+            if (constraintSet.containsAll(unsatConstraints)) {
+                return SolverResult.newUNSAT();
+            }
+        }
+
+        for (SolverResult satResult : recent_sat_results) {
+            if (isModel(constraints, satResult)) {
+                // complete the model with the current values of the missing variables
+                Map<String, Object> model = Solver.getConcreteValues(Solver.getVariables(constraints));
+                model.putAll(satResult.getModel());
+                return SolverResult.newSAT(model);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the SAT result is a model of the constraint system. The
+     * concrete values of the variables are restored even if the model does not
+     * fit the variables (e.g. a value of a different type).
+     *
+     * @param constraints
+     * @param satResult
+     * @return
+     */
+    private static boolean isModel(Collection<Constraint<?>> constraints, SolverResult satResult) {
+        Set<Variable<?>> variables = Solver.getVariables(constraints);
+        synchronized (Solver.CONCRETE_VALUES_LOCK) {
+            Map<String, Object> initialValues = Solver.getConcreteValues(variables);
+            try {
+                return Solver.checkSAT(constraints, satResult);
+            } catch (RuntimeException e) {
+                Solver.setConcreteValues(variables, initialValues);
+                return false;
+            }
+        }
+    }
+
     public double getHitRate() {
         return (double) this.number_of_hits / (double) this.number_of_accesses;
     }
@@ -114,6 +245,52 @@ public final class SolverCache {
         } else {
             addSAT(constraints, solverResult);
         }
+
+        saveCanonicalResult(constraints, solverResult);
+    }
+
+    private void saveCanonicalResult(Collection<Constraint<?>> constraints, SolverResult solverResult) {
+        if (solverResult.isUnknown()) {
+            return;
+        }
+        CanonicalQuery query = CanonicalQuery.of(constraints);
+        if (query == null || query.isTriviallyUnsat()) {
+            return;
+        }
+
+        SolverResult canonicalResult = solverResult.isUNSAT()
+                ? solverResult
+                : SolverResult.newSAT(query.toCanonicalModel(solverResult.getModel()));
+        canonical_solver_results.put(query.getKey(), canonicalResult);
+
+        SolverCacheStore currentStore = getStore();
+        if (currentStore != null) {
+            currentStore.put(query.getKey(), canonicalResult);
+        }
+    }
+
+    /**
+     * Returns the persistent store for the current class under test and
+     * solver configuration, or <code>null</code> if persistence is disabled.
+     *
+     * @return
+     */
+    private SolverCacheStore getStore() {
+        if (Properties.DSE_SOLVER_CACHE_DIR == null || Properties.TARGET_CLASS == null
+                || Properties.TARGET_CLASS.isEmpty()) {
+            return null;
+        }
+
+        String solverConfiguration = Properties.DSE_SOLVER + "_" + Properties.DSE_CONSTRAINT_SOLVER_TIMEOUT_MILLIS;
+        String configuration = Properties.DSE_SOLVER_CACHE_DIR + File.pathSeparator + Properties.TARGET_CLASS
+                + File.pathSeparator + solverConfiguration;
+        if (!configuration.equals(storeConfiguration)) {
+            File file = SolverCacheStore.getStoreFile(new File(Properties.DSE_SOLVER_CACHE_DIR),
+                    Properties.TARGET_CLASS, solverConfiguration);
+            store = new SolverCacheStore(file);
+            storeConfiguration = configuration;
+        }
+        return store;
     }
 
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only on-disk store of solver results, indexed by the canonical key
+ * of the solved constraint system (see {@link CanonicalQuery}).
+ * <p>
+ * Each record is a length-prefixed serialized pair of canonical key and
+ * {@link SolverResult}, where SAT models are expressed over the canonical
+ * variable names. All records are read into memory when the store is
+ * opened, and new results are appended as they are computed, so that
+ * concurrent clients working on the same class only lose each other's latest
+ * entries. Truncated or corrupted trailing records are ignored.
+ */
+final class SolverCacheStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolverCacheStore.class);
+
+    private static final String FILE_SUFFIX = ".solvercache";
+
+    private final File file;
+
+    private final Map<String, SolverResult> results = new HashMap<>();
+
+    SolverCacheStore(File file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * Returns the store file for the given class under test and solver
+     * configuration.
+     *
+     * @param directory
+     * @param targetClass
+     * @param solverConfiguration
+     * @return
+     */
+    static File getStoreFile(File directory, String targetClass, String solverConfiguration) {
+        String name = (targetClass + "_" + solverConfiguration).replaceAll("[^A-Za-z0-9_.$-]", "_");
+        return new File(directory, name + FILE_SUFFIX);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    public SolverResult get(String canonicalKey) {
+        return results.get(canonicalKey);
+    }
+
+    /**
+     * Stores the result in memory and appends it to the store file.
+     *
+     * @param canonicalKey
+     * @param canonicalResult
+     */
+    public void put(String canonicalKey, SolverResult canonicalResult) {
+        if (results.put(canonicalKey, canonicalResult) != null) {
+            return;
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(canonicalKey);
+                out.writeObject(canonicalResult);
+            }
+
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                logger.warn("Cannot create solver cache directory " + parent);
+                return;
+            }
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file, true))) {
+                out.writeInt(bytes.size());
+                bytes.writeTo(out);
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot persist solver result to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            long remaining = file.length();
+            while (remaining >= Integer.BYTES) {
+                int length = input.readInt();
+                remaining -= Integer.BYTES;
+                if (length <= 0 || length > remaining) {
+                    logger.debug("Ignoring truncated record in solver cache " + file);
+                    break;
+                }
+                byte[] record = new byte[length];
+                input.readFully(record);
+                remaining -= length;
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record))) {
+                    String canonicalKey = (String) in.readObject();
+                    SolverResult result = (SolverResult) in.readObject();
+                    results.put(canonicalKey, result);
+                } catch (ClassNotFoundException | ClassCastException | IOException e) {
+                    logger.debug("Ignoring corrupted record in solver cache " + file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot load solver cache from " + file + ": " + e.getMessage());
+        }
+
+        logger.debug("Loaded " + results.size() + " solver results from " + file);
+    }
+}
@@ -109,7 +109,7 @@ public final class CVC4Solver extends SmtSolver {
 
         ByteArrayOutputStream stdout = new ByteArrayOutputStream();
         try {
-            launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+            solveQuery(cmd, query, (int) cvcTimeout, stdout);
             String output = stdout.toString("UTF-8");
 
             if (output.startsWith("unknown")) {
@@ -263,7 +263,15 @@ public final class CVC4Solver extends SmtSolver {
          * More details on both of these points can be found in Sections 5.2 - 5.4 of
          * http://homepage.cs.uiowa.edu/~ajreynol/thesis.pdf.
          */
-        cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+        if (isSolverPoolEnabled()) {
+            // long-lived process: the time limit applies to each query, and
+            // commands are read and answered one by one
+            cmd += " --incremental";
+            cmd += " --interactive --no-interactive-prompt";
+            cmd += " --tlimit-per=" + cvcTimeout;
+        } else {
+            cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+        }
         return cmd;
     }
 
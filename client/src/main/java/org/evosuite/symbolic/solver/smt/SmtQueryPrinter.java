@@ -32,16 +32,7 @@ public class SmtQueryPrinter {
         StringBuffer buff = new StringBuffer();
         buff.append("\n");
 
-        if (query.hasLogic()) {
-            buff.append("(set-logic " + query.getLogic() + ")");
-            buff.append("\n");
-        }
-
-        for (String optionName : query.getOptions()) {
-            String optionValue = query.getOptionValue(optionName);
-            buff.append(String.format("(set-option %s %s)%n", optionName, optionValue));
-            buff.append("\n");
-        }
+        buff.append(printPrelude(query));
         buff.append("\n");
 
         for (SmtConstantDeclaration constantDeclaration : query.getConstantDeclarations()) {
@@ -81,6 +72,28 @@ public class SmtQueryPrinter {
 
     }
 
+    /**
+     * Prints the logic and the options of the query, that is, the commands
+     * that have to be issued before any declaration.
+     *
+     * @param query
+     * @return
+     */
+    public String printPrelude(SmtQuery query) {
+        StringBuffer buff = new StringBuffer();
+        if (query.hasLogic()) {
+            buff.append("(set-logic " + query.getLogic() + ")");
+            buff.append("\n");
+        }
+
+        for (String optionName : query.getOptions()) {
+            String optionValue = query.getOptionValue(optionName);
+            buff.append(String.format("(set-option %s %s)%n", optionName, optionValue));
+            buff.append("\n");
+        }
+        return buff.toString();
+    }
+
     public String print(SmtAssertion smtAssertion) {
         SmtExprPrinter printer = new SmtExprPrinter();
         SmtExpr expr = smtAssertion.getFormula();
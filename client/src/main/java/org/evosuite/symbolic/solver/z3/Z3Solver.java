@@ -86,7 +86,7 @@ public class Z3Solver extends SmtSolver {
         ByteArrayOutputStream stdout = new ByteArrayOutputStream();
         String output;
         try {
-            launchNewSolvingProcess(z3Cmd, queryStr, (int) hard_timeout, stdout);
+            solveQuery(z3Cmd, query, (int) hard_timeout, stdout);
             output = stdout.toString("UTF-8");
         } catch (SolverErrorException ex) {
             output = stdout.toString("UTF-8");
@@ -21,11 +21,19 @@ package org.evosuite.testcarver.capture;
 
 import com.thoughtworks.xstream.XStream;
 import org.evosuite.PackageInfo;
+import org.evosuite.Properties;
+import org.evosuite.testcarver.capture.CaptureLogColumns.BooleanColumn;
+import org.evosuite.testcarver.capture.CaptureLogColumns.IntColumn;
+import org.evosuite.testcarver.capture.CaptureLogColumns.IntMap;
+import org.evosuite.testcarver.capture.CaptureLogColumns.ParamsColumn;
+import org.evosuite.testcarver.capture.CaptureLogColumns.ReturnValueColumn;
+import org.evosuite.testcarver.capture.CaptureLogColumns.StringColumn;
 import org.evosuite.testcarver.instrument.TransformerUtil;
 import org.objectweb.asm.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
@@ -91,17 +99,17 @@ public final class CaptureLog implements Cloneable {
      */
 
     // rec_no is implied by index
-    public final List<Integer> objectIds;
-    public final List<Integer> captureIds;
-    public final List<String> methodNames;
+    public final IntColumn objectIds;
+    public final IntColumn captureIds;
+    public final StringColumn methodNames;
     /**
      * FIXME: this seems always containing Integer objects, representing either
      * null or an object identifier (oid). should it be <Integer[]> ?
      */
-    public final List<Object[]> params;
-    public final List<Object> returnValues;
-    public final List<Boolean> isStaticCallList;
-    public final List<String> descList;
+    public final ParamsColumn params;
+    public final ReturnValueColumn returnValues;
+    public final BooleanColumn isStaticCallList;
+    public final StringColumn descList;
 
     //--- OID Info Table
     // OID | INIT_REC_NO | CLASS
@@ -111,11 +119,11 @@ public final class CaptureLog implements Cloneable {
      * Would be better to have a single list, with object
      * containing the different fields
      */
-    private final List<Integer> oids;
-    private final List<Integer> oidInitRecNo;
-    private final List<String> oidClassNames;
-    private final List<Integer> oidFirstInits;
-    private final List<Integer> oidDependencies;
+    private final IntColumn oids;
+    private final IntColumn oidInitRecNo;
+    private final StringColumn oidClassNames;
+    private final IntColumn oidFirstInits;
+    private final IntColumn oidDependencies;
 
     /**
      * captureId -> field name
@@ -125,29 +133,43 @@ public final class CaptureLog implements Cloneable {
     /**
      * oid -> index ==> oidInitReco.get(index) + oidClassNames.get(index)
      */
-    private final Map<Integer, Integer> oidRecMapping;
+    private final IntMap oidRecMapping;
+
+    private final File spillDirectory;
 
     private final XStream xstream;
 
     /**
-     * Main constructor
+     * Main constructor, which spills long parameter values to
+     * {@link Properties#CARVING_SPILL_DIR} if it is set
      */
     public CaptureLog() {
-        this.objectIds = new ArrayList<>();
-        this.methodNames = new ArrayList<>();
-        this.params = new ArrayList<>();
-        this.captureIds = new ArrayList<>();
-        this.returnValues = new ArrayList<>();
-        this.descList = new ArrayList<>();
-
-        this.oidRecMapping = new LinkedHashMap<>();
-        this.oidInitRecNo = new ArrayList<>();
-        this.oidClassNames = new ArrayList<>();
-        this.oids = new ArrayList<>();
-        this.oidFirstInits = new ArrayList<>();
-        this.oidDependencies = new ArrayList<>();
-
-        this.isStaticCallList = new ArrayList<>();
+        this(Properties.CARVING_SPILL_DIR == null ? null : new File(Properties.CARVING_SPILL_DIR));
+    }
+
+    /**
+     * @param spillDirectory the directory to spill long parameter values
+     *                       (e.g., the XML of objects whose construction was
+     *                       not observed) to, or null to keep them in memory
+     */
+    public CaptureLog(File spillDirectory) {
+        this.spillDirectory = spillDirectory;
+
+        this.objectIds = new IntColumn();
+        this.methodNames = new StringColumn();
+        this.params = new ParamsColumn(spillDirectory);
+        this.captureIds = new IntColumn();
+        this.returnValues = new ReturnValueColumn();
+        this.descList = new StringColumn();
+
+        this.oidRecMapping = new IntMap();
+        this.oidInitRecNo = new IntColumn();
+        this.oidClassNames = new StringColumn();
+        this.oids = new IntColumn();
+        this.oidFirstInits = new IntColumn();
+        this.oidDependencies = new IntColumn();
+
+        this.isStaticCallList = new BooleanColumn();
 
         this.oidNamesOfAccessedFields = new LinkedHashMap<>();
 
@@ -249,11 +271,11 @@ public final class CaptureLog implements Cloneable {
 
     @Override
     public CaptureLog clone() {
-        final CaptureLog log = new CaptureLog();
+        final CaptureLog log = new CaptureLog(spillDirectory);
 
         log.objectIds.addAll(this.objectIds);
         log.methodNames.addAll(this.methodNames);
-        log.params.addAll(this.params);
+        log.params.copyFrom(this.params);
         log.captureIds.addAll(this.captureIds);
         log.returnValues.addAll(this.returnValues);
         log.descList.addAll(this.descList);
@@ -270,6 +292,9 @@ public final class CaptureLog implements Cloneable {
         return log;
     }
 
+    /**
+     * Removes all the records, and deletes the spilled values
+     */
     public void clear() {
         this.objectIds.clear();
         this.methodNames.clear();
@@ -405,8 +430,8 @@ public final class CaptureLog implements Cloneable {
 
         int nestedCalls = 0;
         while (true) {
-            if (this.captureIds.get(currentRecord) == captureId
-                    && this.objectIds.get(currentRecord) == oid) {
+            if (this.captureIds.getInt(currentRecord) == captureId
+                    && this.objectIds.getInt(currentRecord) == oid) {
                 if (this.methodNames.get(currentRecord).equals(END_CAPTURE_PSEUDO_METHOD)) {
                     nestedCalls++;
                 } else {
@@ -0,0 +1,676 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import org.evosuite.testcarver.exception.CapturerException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Columns of a {@link CaptureLog}, which store its records in arrays of
+ * primitives rather than in lists of boxed values. Each column is also a
+ * {@link List} view of its values, so code reading the log does not depend
+ * on how the records are stored.
+ */
+public final class CaptureLogColumns {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private CaptureLogColumns() {
+    }
+
+    private static int grow(int capacity, int required) {
+        return Math.max(required, capacity + (capacity >> 1) + 1);
+    }
+
+    /**
+     * A growable column of ints
+     */
+    public static final class IntColumn extends AbstractList<Integer> implements RandomAccess {
+
+        private int[] values = new int[INITIAL_CAPACITY];
+        private int size = 0;
+
+        public int getInt(int index) {
+            checkIndex(index, size);
+            return values[index];
+        }
+
+        public void addInt(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, size + 1));
+            }
+            values[size++] = value;
+        }
+
+        public int setInt(int index, int value) {
+            checkIndex(index, size);
+            int previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return getInt(index);
+        }
+
+        @Override
+        public boolean add(Integer value) {
+            addInt(value);
+            return true;
+        }
+
+        @Override
+        public Integer set(int index, Integer value) {
+            return setInt(index, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            values = new int[INITIAL_CAPACITY];
+            size = 0;
+        }
+    }
+
+    /**
+     * A growable column of booleans, stored as bits
+     */
+    public static final class BooleanColumn extends AbstractList<Boolean> implements RandomAccess {
+
+        private long[] bits = new long[1];
+        private int size = 0;
+
+        public boolean getBoolean(int index) {
+            checkIndex(index, size);
+            return (bits[index >>> 6] & (1L << index)) != 0;
+        }
+
+        public void addBoolean(boolean value) {
+            if (size == bits.length * 64) {
+                bits = Arrays.copyOf(bits, bits.length * 2);
+            }
+            size++;
+            setBoolean(size - 1, value);
+        }
+
+        public boolean setBoolean(int index, boolean value) {
+            boolean previous = getBoolean(index);
+            if (value) {
+                bits[index >>> 6] |= 1L << index;
+            } else {
+                bits[index >>> 6] &= ~(1L << index);
+            }
+            return previous;
+        }
+
+        @Override
+        public Boolean get(int index) {
+            return getBoolean(index);
+        }
+
+        @Override
+        public boolean add(Boolean value) {
+            addBoolean(value);
+            return true;
+        }
+
+        @Override
+        public Boolean set(int index, Boolean value) {
+            return setBoolean(index, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            bits = new long[1];
+            size = 0;
+        }
+    }
+
+    /**
+     * A column of strings, such as method names and descriptors, which are
+     * interned: each record only holds the index of its string in the table
+     * of the distinct strings of the column
+     */
+    public static final class StringColumn extends AbstractList<String> implements RandomAccess {
+
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final IntColumn column = new IntColumn();
+
+        /**
+         * @return the index of the given string in the table of this
+         * column, which is the same for all records with equal strings
+         */
+        public int getStringIndex(int index) {
+            return column.getInt(index);
+        }
+
+        private int intern(String value) {
+            Integer index = indices.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.add(value);
+                indices.put(value, index);
+            }
+            return index;
+        }
+
+        @Override
+        public String get(int index) {
+            return strings.get(column.getInt(index));
+        }
+
+        @Override
+        public boolean add(String value) {
+            column.addInt(intern(value));
+            return true;
+        }
+
+        @Override
+        public String set(int index, String value) {
+            return strings.get(column.setInt(index, intern(value)));
+        }
+
+        @Override
+        public int size() {
+            return column.size();
+        }
+
+        @Override
+        public void clear() {
+            strings.clear();
+            indices.clear();
+            column.clear();
+        }
+    }
+
+    /**
+     * The return values of a log, which are either
+     * {@link CaptureLog#RETURN_TYPE_VOID}, or the identifier of the returned
+     * object
+     */
+    public static final class ReturnValueColumn extends AbstractList<Object> implements RandomAccess {
+
+        private static final long VOID = Long.MIN_VALUE;
+
+        private long[] values = new long[INITIAL_CAPACITY];
+        private int size = 0;
+
+        private static long encode(Object value) {
+            if (value == CaptureLog.RETURN_TYPE_VOID) {
+                return VOID;
+            } else if (value instanceof Integer) {
+                return (Integer) value;
+            }
+            throw new IllegalArgumentException("Return values have to be object identifiers: " + value);
+        }
+
+        private static Object decode(long value) {
+            return value == VOID ? CaptureLog.RETURN_TYPE_VOID : (Object) (int) value;
+        }
+
+        @Override
+        public Object get(int index) {
+            checkIndex(index, size);
+            return decode(values[index]);
+        }
+
+        @Override
+        public boolean add(Object value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, size + 1));
+            }
+            values[size++] = encode(value);
+            return true;
+        }
+
+        @Override
+        public Object set(int index, Object value) {
+            checkIndex(index, size);
+            long previous = values[index];
+            values[index] = encode(value);
+            return decode(previous);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            values = new long[INITIAL_CAPACITY];
+            size = 0;
+        }
+    }
+
+    /**
+     * The parameters of the records of a log. Most parameters are null or
+     * object identifiers, which are stored as ints; the other values (e.g.,
+     * the strings of plain values and the XML of objects whose construction
+     * was not observed) are kept aside, and long strings can be spilled to
+     * a file.
+     * <p>
+     * {@link #get(int)} returns a new array, so changes to the parameters of
+     * a record have to go through {@link #set(int, Object[])}.
+     * <p>
+     * The copies made with {@link #copyFrom(ParamsColumn)} share the spill
+     * file, which is deleted once all of them are cleared.
+     */
+    public static final class ParamsColumn extends AbstractList<Object[]> implements RandomAccess {
+
+        private static final byte NULL = 0;
+        private static final byte INT = 1;
+        private static final byte OBJECT = 2;
+        private static final byte SPILLED = 3;
+
+        /**
+         * Strings shorter than this are not worth spilling
+         */
+        static final int MIN_SPILLED_LENGTH = 256;
+
+        /**
+         * The parameters of record i are the slots from starts[i] to
+         * starts[i + 1] (excluded)
+         */
+        private int[] starts = new int[INITIAL_CAPACITY + 1];
+        private int size = 0;
+
+        private byte[] kinds = new byte[INITIAL_CAPACITY];
+
+        /**
+         * The value of a slot: an int, the index of an object, or the
+         * position of a spilled string
+         */
+        private long[] slots = new long[INITIAL_CAPACITY];
+        private int numSlots = 0;
+
+        private final List<Object> objects = new ArrayList<>();
+
+        private final File spillDirectory;
+
+        private transient SpillFile spillFile = null;
+
+        /**
+         * @param spillDirectory the directory to spill long strings to, or
+         *                       null to keep all the values in memory
+         */
+        public ParamsColumn(File spillDirectory) {
+            this.spillDirectory = spillDirectory;
+        }
+
+        public int getNumParams(int index) {
+            checkIndex(index, size);
+            return starts[index + 1] - starts[index];
+        }
+
+        @Override
+        public Object[] get(int index) {
+            checkIndex(index, size);
+            int start = starts[index];
+            int end = starts[index + 1];
+            if (start == end) {
+                return CaptureLog.NO_ARGS;
+            }
+            Object[] params = new Object[end - start];
+            for (int i = start; i < end; i++) {
+                params[i - start] = decode(i);
+            }
+            return params;
+        }
+
+        private Object decode(int slot) {
+            switch (kinds[slot]) {
+                case INT:
+                    return (int) slots[slot];
+                case OBJECT:
+                    return objects.get((int) slots[slot]);
+                case SPILLED:
+                    return spillFile.read(slots[slot]);
+                default:
+                    return null;
+            }
+        }
+
+        private void encode(int slot, Object value) {
+            if (value == null) {
+                kinds[slot] = NULL;
+            } else if (value instanceof Integer) {
+                kinds[slot] = INT;
+                slots[slot] = (Integer) value;
+            } else if (spillDirectory != null && value instanceof String
+                    && ((String) value).length() >= MIN_SPILLED_LENGTH) {
+                if (spillFile == null) {
+                    spillFile = new SpillFile(spillDirectory);
+                }
+                kinds[slot] = SPILLED;
+                slots[slot] = spillFile.write((String) value);
+            } else {
+                kinds[slot] = OBJECT;
+                slots[slot] = objects.size();
+                objects.add(value);
+            }
+        }
+
+        @Override
+        public boolean add(Object[] params) {
+            if (size + 1 == starts.length) {
+                starts = Arrays.copyOf(starts, grow(starts.length, size + 2));
+            }
+            if (numSlots + params.length > slots.length) {
+                int capacity = grow(slots.length, numSlots + params.length);
+                slots = Arrays.copyOf(slots, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+            }
+            for (Object param : params) {
+                encode(numSlots++, param);
+            }
+            starts[++size] = numSlots;
+            return true;
+        }
+
+        /**
+         * Replaces the parameters of a record by the same number of
+         * parameters
+         */
+        @Override
+        public Object[] set(int index, Object[] params) {
+            Object[] previous = get(index);
+            if (params.length != previous.length) {
+                throw new IllegalArgumentException("Expected " + previous.length + " parameters, got "
+                        + params.length);
+            }
+            for (int i = 0; i < params.length; i++) {
+                encode(starts[index] + i, params[i]);
+            }
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Copies the records of the other column into this empty column,
+         * without reading the spilled strings. Strings are only ever appended
+         * to the spill file, so both columns can keep spilling to it.
+         *
+         * @param other the column to copy, with the same spill directory
+         */
+        public void copyFrom(ParamsColumn other) {
+            if (size != 0) {
+                throw new IllegalStateException("Column is not empty");
+            }
+            starts = Arrays.copyOf(other.starts, other.starts.length);
+            kinds = Arrays.copyOf(other.kinds, other.kinds.length);
+            slots = Arrays.copyOf(other.slots, other.slots.length);
+            size = other.size;
+            numSlots = other.numSlots;
+            objects.addAll(other.objects);
+            if (other.spillFile != null) {
+                spillFile = other.spillFile.retain();
+            }
+        }
+
+        /**
+         * Removes all the records, and deletes the spill file unless it is
+         * still used by a copy of this column
+         */
+        @Override
+        public void clear() {
+            starts = new int[INITIAL_CAPACITY + 1];
+            kinds = new byte[INITIAL_CAPACITY];
+            slots = new long[INITIAL_CAPACITY];
+            size = 0;
+            numSlots = 0;
+            objects.clear();
+            if (spillFile != null) {
+                spillFile.release();
+                spillFile = null;
+            }
+        }
+    }
+
+    /**
+     * A map from ints to non-negative ints, with open addressing
+     */
+    public static final class IntMap {
+
+        private static final int ABSENT = -1;
+
+        private int[] keys = new int[INITIAL_CAPACITY];
+        private int[] values = newValues(INITIAL_CAPACITY);
+        private int size = 0;
+
+        private static int[] newValues(int capacity) {
+            int[] values = new int[capacity];
+            Arrays.fill(values, ABSENT);
+            return values;
+        }
+
+        private int indexOf(int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int index = (hash ^ (hash >>> 16)) & mask;
+            while (values[index] != ABSENT && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        public boolean containsKey(int key) {
+            return values[indexOf(key)] != ABSENT;
+        }
+
+        /**
+         * @return the value of the key, or -1 if there is none
+         */
+        public int get(int key) {
+            return values[indexOf(key)];
+        }
+
+        public void put(int key, int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative value: " + value);
+            }
+            int index = indexOf(key);
+            if (values[index] == ABSENT) {
+                if (2 * (size + 1) > keys.length) {
+                    resize();
+                    index = indexOf(key);
+                }
+                keys[index] = key;
+                size++;
+            }
+            values[index] = value;
+        }
+
+        public void putAll(IntMap other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.values[i] != ABSENT) {
+                    put(other.keys[i], other.values[i]);
+                }
+            }
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = newValues(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != ABSENT) {
+                    int index = indexOf(oldKeys[i]);
+                    keys[index] = oldKeys[i];
+                    values[index] = oldValues[i];
+                }
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void clear() {
+            keys = new int[INITIAL_CAPACITY];
+            values = newValues(INITIAL_CAPACITY);
+            size = 0;
+        }
+    }
+
+    /**
+     * Temporary file the strings of a column are appended to. Writes are
+     * buffered, and the buffer is written before the file is read. The file
+     * is deleted when the last column using it releases it.
+     */
+    private static final class SpillFile {
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private long position = 0;
+
+        /**
+         * Number of columns using this file
+         */
+        private int references = 1;
+
+        SpillFile(File directory) {
+            try {
+                if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+                    throw new IOException("Cannot create " + directory);
+                }
+                File file = File.createTempFile("capture", ".log", directory);
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+            } catch (IOException e) {
+                throw new CapturerException("Cannot create spill file for capture log: " + e.getMessage());
+            }
+        }
+
+        long write(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            long start = position;
+            try {
+                if (4 + bytes.length > buffer.remaining()) {
+                    flush();
+                }
+                if (4 + bytes.length > buffer.capacity()) {
+                    ByteBuffer record = ByteBuffer.allocate(4 + bytes.length);
+                    record.putInt(bytes.length).put(bytes).flip();
+                    while (record.hasRemaining()) {
+                        channel.write(record, position + record.position());
+                    }
+                } else {
+                    buffer.putInt(bytes.length).put(bytes);
+                }
+            } catch (IOException e) {
+                throw new CapturerException("Cannot write to spill file of capture log: " + e.getMessage());
+            }
+            position += 4 + bytes.length;
+            return start;
+        }
+
+        String read(long start) {
+            try {
+                flush();
+                ByteBuffer length = ByteBuffer.allocate(4);
+                readFully(length, start);
+                ByteBuffer bytes = ByteBuffer.allocate(length.getInt(0));
+                readFully(bytes, start + 4);
+                return new String(bytes.array(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new CapturerException("Cannot read from spill file of capture log: " + e.getMessage());
+            }
+        }
+
+        private void readFully(ByteBuffer target, long start) throws IOException {
+            while (target.hasRemaining()) {
+                if (channel.read(target, start + target.position()) < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+        }
+
+        /**
+         * Writes the buffered strings, which end at the current position
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            long bufferStart = position - buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, bufferStart + buffer.position());
+            }
+            buffer.clear();
+        }
+
+        SpillFile retain() {
+            references++;
+            return this;
+        }
+
+        void release() {
+            if (--references == 0) {
+                close();
+            }
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // nothing else can be done, and the file is only temporary
+            }
+        }
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -57,21 +57,25 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer {
             throw new IllegalArgumentException("array of observed classes must not be empty");
 
         final CaptureLog log = originalLog.clone();
+        try {
+            final HashSet<String> observedClassNames = extractObservedClassNames(observedClasses);
+            CaptureLogAnalyzerException.check(!CollectionUtil.isNullOrEmpty(observedClassNames), "could not extract class names for ", Arrays.toString(observedClasses));
 
-        final HashSet<String> observedClassNames = extractObservedClassNames(observedClasses);
-        CaptureLogAnalyzerException.check(!CollectionUtil.isNullOrEmpty(observedClassNames), "could not extract class names for ", Arrays.toString(observedClasses));
+            final List<Integer> targetOIDs = log.getTargetOIDs(observedClassNames);
+            if (targetOIDs.isEmpty()) {
+                logger.info("could not find any oids for {} -> {} ==> no code is generated\n", observedClassNames, Arrays.toString(observedClasses));
+                return;
+            } else {
+                logger.debug("Target oids: {}", targetOIDs);
+            }
 
-        final List<Integer> targetOIDs = log.getTargetOIDs(observedClassNames);
-        if (targetOIDs.isEmpty()) {
-            logger.info("could not find any oids for {} -> {} ==> no code is generated\n", observedClassNames, Arrays.toString(observedClasses));
-            return;
-        } else {
-            logger.debug("Target oids: {}", targetOIDs);
+            final int[] oidExchange = analyzeLog(generator, blackList, log, targetOIDs);
+            logger.debug("Going to postprocess stage");
+            postProcessLog(originalLog, generator, blackList, log, oidExchange, observedClasses);
+        } finally {
+            // the clone shares the spill file of the original log
+            log.clear();
         }
-
-        final int[] oidExchange = analyzeLog(generator, blackList, log, targetOIDs);
-        logger.debug("Going to postprocess stage");
-        postProcessLog(originalLog, generator, blackList, log, oidExchange, observedClasses);
     }
 
     private void postProcessLog(final CaptureLog originalLog,
@@ -117,7 +121,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer {
         for (int currentRecord = Math.abs(log.getRecordIndexOfWhereObjectWasInitializedFirst(currentOID)); currentRecord < numLogRecords; currentRecord++)
         //for(int currentRecord = log.getRecordIndex(currentOID); currentRecord < numLogRecords; currentRecord++)
         {
-            currentOID = log.objectIds.get(currentRecord);
+            currentOID = log.objectIds.getInt(currentRecord);
             logger.debug("Current record {}, current oid {} type {}", currentRecord, currentOID, log.getTypeName(currentOID));
             if (generator.isMaximumLengthReached()) {
                 logger.debug("Max length reached, stopping carving");
@@ -233,7 +237,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer {
         int record = currentRecord;
         logger.debug("Starting with {}", record);
         do {
-            record = this.findEndOfMethod(log, record, log.objectIds.get(record));
+            record = this.findEndOfMethod(log, record, log.objectIds.getInt(record));
             record++;
             logger.debug("Now is {}", record);
         }
@@ -248,7 +252,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer {
         } else {
             logger.debug("Found caller {}: {}", record, log.objectIds.size());
             // found caller
-            return log.objectIds.get(record);
+            return log.objectIds.getInt(record);
         }
     }
 
@@ -266,10 +270,10 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer {
 //
 //		int record = currentRecord;
 //
-//		final int captureId = log.captureIds.get(currentRecord);
+//		final int captureId = log.captureIds.getInt(currentRecord);
 //		while(   record < numRecords &&
-//				! ( log.objectIds.get(record) == currentOID &&
-//				    log.captureIds.get(record) == captureId && 
+//				! ( log.objectIds.getInt(record) == currentOID &&
+//				    log.captureIds.getInt(record) == captureId && 
 //				    log.methodNames.get(record).equals(CaptureLog.END_CAPTURE_PSEUDO_METHOD)))
 //		{
 //			record++;
@@ -279,7 +283,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer {
 
         int record = currentRecord;
 
-        final int captureId = log.captureIds.get(record);
+        final int captureId = log.captureIds.getInt(record);
         logger.debug("captureId {}, record {}", captureId, record);
         int nestedCalls = 0;
         while (true) {
@@ -287,9 +291,9 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer {
                 logger.debug("Screw this: {}, {}, {}", log.captureIds.size(), log.objectIds.size(), record);
                 break;
             }
-            logger.debug("Current record: {}: {} <-> {}, {} <-> {}", record, captureId, log.captureIds.get(record), currentOID, log.objectIds.get(record));
-            if (log.captureIds.get(record) == captureId &&
-                    log.objectIds.get(record) == currentOID) {
+            logger.debug("Current record: {}: {} <-> {}, {} <-> {}", record, captureId, log.captureIds.getInt(record), currentOID, log.objectIds.getInt(record));
+            if (log.captureIds.getInt(record) == captureId &&
+                    log.objectIds.getInt(record) == currentOID) {
                 logger.debug(log.methodNames.get(record));
                 if (log.methodNames.get(record).equals(CaptureLog.END_CAPTURE_PSEUDO_METHOD)) {
                     nestedCalls--;
@@ -357,7 +361,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer {
                 break;
 
 //			for(; currentRecord <= end; currentRecord++) {
-            currentOID = log.objectIds.get(currentRecord);
+            currentOID = log.objectIds.getInt(currentRecord);
             returnValueObj = log.returnValues.get(currentRecord);
             returnValue = returnValueObj.equals(CaptureLog.RETURN_TYPE_VOID) ? -1 : (Integer) returnValueObj;
             logger.debug("Checking: " + currentRecord + ": " + log.getTypeName(currentOID) + " to generate " + log.getTypeName(oid));
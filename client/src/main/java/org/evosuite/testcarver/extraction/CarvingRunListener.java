@@ -68,6 +68,10 @@ public class CarvingRunListener extends RunListener {
             LoggingUtils.getEvoLogger().info(" - Carving test {}.{}", description.getClassName(), description.getMethodName());
             this.processLog(description, log);
         }
+        if (log != null) {
+            // the tests are carved, so the records and spilled values can go
+            log.clear();
+        }
         Capturer.clear();
     }
 
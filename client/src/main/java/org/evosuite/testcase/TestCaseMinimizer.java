@@ -32,6 +32,8 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * Remove all statements from a test case that do not contribute to the fitness
@@ -44,6 +46,12 @@ public class TestCaseMinimizer {
 
     private final TestFitnessFunction fitnessFunction;
 
+    /**
+     * Number of candidate tests executed, and their total number of statements
+     */
+    private int numExecutions = 0;
+    private long numExecutedStatements = 0;
+
     /**
      * Constructor
      *
@@ -103,6 +111,100 @@ public class TestCaseMinimizer {
         return !TimeController.getInstance().isThereStillTimeInThisPhase();
     }
 
+    /**
+     * @return the number of candidate tests executed by this minimizer
+     */
+    public int getNumExecutions() {
+        return numExecutions;
+    }
+
+    /**
+     * @return the total number of statements of the candidate tests executed by this minimizer
+     */
+    public long getNumExecutedStatements() {
+        return numExecutedStatements;
+    }
+
+    /**
+     * Check whether the modified test is worse than the original one, counting
+     * the execution needed to find out
+     */
+    private boolean isWorse(TestChromosome original, TestChromosome modified) {
+        if (modified.isChanged()) {
+            numExecutions++;
+            numExecutedStatements += modified.size();
+        }
+        return isWorse(fitnessFunction, original, modified);
+    }
+
+    /**
+     * Positions of the statements in the given range, and of all the
+     * statements that (transitively) depend on them
+     */
+    private static SortedSet<Integer> getPositionsToDelete(TestCase test, int from, int to) {
+        SortedSet<Integer> positions = new TreeSet<>(Collections.reverseOrder());
+        for (int i = from; i < to; i++) {
+            if (!positions.add(i))
+                continue;
+            for (VariableReference reference : test.getReferences(test.getReturnValue(i))) {
+                positions.add(reference.getStPosition());
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Delta debugging: try to remove chunks of statements, together with the
+     * statements depending on them, starting with halves of the test and
+     * refining the chunks while no chunk can be removed. Chunks of single
+     * statements are left to the removal of single statements, which can also
+     * replace the variables of the removed statement.
+     *
+     * @param c the test to minimize
+     * @return false if the timeout was reached
+     */
+    private boolean removeChunks(TestChromosome c) {
+        int numChunks = 2;
+        while (c.size() / numChunks >= 2) {
+            boolean removed = false;
+            int size = c.size();
+            for (int chunk = numChunks - 1; chunk >= 0; chunk--) {
+                if (isTimeoutReached()) {
+                    return false;
+                }
+                int from = chunk * size / numChunks;
+                int to = (chunk + 1) * size / numChunks;
+
+                TestChromosome copy = c.clone();
+                for (int position : getPositionsToDelete(c.test, from, to)) {
+                    c.test.remove(position);
+                }
+                c.setChanged(true);
+                logger.debug("Deleting statements {} to {}", from, to - 1);
+
+                if (isTimeoutReached()) {
+                    restoreTestCase(c, copy);
+                    return false;
+                }
+
+                if (!isWorse(copy, c)) {
+                    logger.debug("Keeping shorter version");
+                    removed = true;
+                    break;
+                } else {
+                    restoreTestCase(c, copy);
+                }
+            }
+
+            if (removed) {
+                numChunks = Math.max(numChunks - 1, 2);
+            } else {
+                numChunks *= 2;
+            }
+        }
+        return true;
+    }
+
     /**
      * Central minimization function. Loop and try to remove until all
      * statements have been checked.
@@ -128,6 +230,11 @@ public class TestCaseMinimizer {
             return;
         }
 
+        if (Properties.MINIMIZE_DDMIN && !removeChunks(c)) {
+            logger.debug("Timeout reached while removing chunks of statements");
+            return;
+        }
+
         boolean changed = true;
 
         while (changed) {
@@ -163,10 +270,11 @@ public class TestCaseMinimizer {
                     return;
                 }
 
-                if (!isWorse(fitnessFunction, copy, c)) {
+                if (!isWorse(copy, c)) {
                     logger.debug("Keeping shorter version");
                     changed = true;
-                    break;
+                    // statements before i are not affected, so the scan can go on
+                    // rather than start again from the end
                 } else {
                     logger.debug("Keeping original version");
                     restoreTestCase(c, copy);
@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Base class of the dense maps used by {@link ExecutionTraceImpl} to store
+ * per-branch data. Keys are non-negative ids (e.g., branch ids assigned by
+ * the BranchPool, which are small and consecutive), so the values can be kept
+ * in a primitive array indexed by id, and which ids are present is kept in a
+ * bit set. Iteration is in ascending key order.
+ * <p>
+ * Copies share the underlying arrays until either of them is modified
+ * (copy-on-write), as traces are cloned much more often than they are
+ * changed after the execution.
+ * <p>
+ * The trace is only written by the test execution thread, as
+ * {@link ExecutionTracer} ignores calls from other threads, so writes do not
+ * synchronize. Only if the caller thread is not checked (see
+ * {@link ExecutionTracer#setCheckCallerThread}), and threads started by the
+ * SUT may write concurrently, writes synchronize on the map. Copies are made
+ * while holding the monitor of the map, and readers on other threads should
+ * read a copy rather than a map that can still be written. Null values are
+ * not supported.
+ *
+ * @param <V> the boxed type of the values
+ */
+abstract class AbstractIntKeyArrayMap<V> extends AbstractMap<Integer, V> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Bit set of the keys that are in the map
+     */
+    private long[] present;
+
+    private int size;
+
+    /**
+     * Keys are in [0, bound)
+     */
+    private int bound;
+
+    /**
+     * Whether the arrays are shared with a copy, and need to be copied
+     * before the next modification
+     */
+    private boolean shared;
+
+    private int modCount;
+
+    protected AbstractIntKeyArrayMap() {
+        present = new long[words(INITIAL_CAPACITY)];
+    }
+
+    /**
+     * Must be called while holding the monitor of the other map, see
+     * {@link #isWriteConfined()}
+     */
+    protected AbstractIntKeyArrayMap(AbstractIntKeyArrayMap<V> other) {
+        other.shared = true;
+        this.shared = true;
+        this.present = other.present;
+        this.size = other.size;
+        this.bound = other.bound;
+    }
+
+    /**
+     * Whether writes come from the test execution thread only, and thus need
+     * not synchronize on the map
+     */
+    protected static boolean isWriteConfined() {
+        return ExecutionTracer.isCheckCallerThread();
+    }
+
+    private static int words(int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+
+    /**
+     * @return the length of the value array
+     */
+    protected abstract int capacity();
+
+    /**
+     * Replace the value array by a copy of the given length
+     */
+    protected abstract void resizeValues(int newCapacity);
+
+    /**
+     * Box the value stored for the given key
+     */
+    protected abstract V boxedValue(int key);
+
+    /**
+     * Store the unboxed value for the given key
+     */
+    protected abstract void setBoxedValue(int key, V value);
+
+    /**
+     * Whether the given key is in the map
+     *
+     * @param key a non-negative id
+     * @return a boolean
+     */
+    public final boolean contains(int key) {
+        return key >= 0 && key < bound && (present[key >>> 6] & (1L << key)) != 0;
+    }
+
+    /**
+     * Prepare the arrays to store a value for the given key, and mark the key
+     * as present.
+     *
+     * @param key a non-negative id
+     * @return true if the key was already in the map
+     */
+    protected final boolean prepareWrite(int key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+        if (key >= capacity() || shared) {
+            int newCapacity = capacity();
+            while (key >= newCapacity) {
+                newCapacity = Math.max(INITIAL_CAPACITY, newCapacity << 1);
+            }
+            resizeValues(newCapacity);
+            present = Arrays.copyOf(present, words(newCapacity));
+            shared = false;
+        }
+        if (key >= bound) {
+            bound = key + 1;
+        }
+        long mask = 1L << key;
+        if ((present[key >>> 6] & mask) != 0) {
+            return true;
+        }
+        present[key >>> 6] |= mask;
+        size++;
+        modCount++;
+        return false;
+    }
+
+    /**
+     * Remove the key from the map
+     *
+     * @param key an id
+     * @return true if the key was in the map
+     */
+    protected final boolean removeKey(int key) {
+        if (!contains(key)) {
+            return false;
+        }
+        if (shared) {
+            resizeValues(capacity());
+            present = present.clone();
+            shared = false;
+        }
+        present[key >>> 6] &= ~(1L << key);
+        size--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Return the smallest key in the map that is greater or equal to the
+     * given key, or -1 if there is none. This allows to iterate over the keys
+     * without boxing them:
+     * <code>for (int k = map.nextKey(0); k >= 0; k = map.nextKey(k + 1))</code>
+     *
+     * @param from a non-negative id
+     * @return a key of the map, or -1
+     */
+    public final int nextKey(int from) {
+        if (from >= bound) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = present[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                int key = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return key < bound ? key : -1;
+            }
+            if (++word >= words(bound)) {
+                return -1;
+            }
+            bits = present[word];
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && contains((Integer) key);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        return boxedValue((Integer) key);
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not supported");
+        }
+        if (isWriteConfined()) {
+            return putValue(key, value);
+        }
+        synchronized (this) {
+            return putValue(key, value);
+        }
+    }
+
+    private V putValue(Integer key, V value) {
+        V previous = get(key);
+        prepareWrite(key);
+        setBoxedValue(key, value);
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (isWriteConfined()) {
+            return removeValue(key);
+        }
+        synchronized (this) {
+            return removeValue(key);
+        }
+    }
+
+    private V removeValue(Object key) {
+        V previous = get(key);
+        if (previous != null) {
+            removeKey((Integer) key);
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (isWriteConfined()) {
+            clearValues();
+        } else {
+            synchronized (this) {
+                clearValues();
+            }
+        }
+    }
+
+    private void clearValues() {
+        if (size == 0) {
+            return;
+        }
+        present = new long[words(INITIAL_CAPACITY)];
+        resizeValues(INITIAL_CAPACITY);
+        shared = false;
+        size = 0;
+        bound = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<Entry<Integer, V>>() {
+            @Override
+            public Iterator<Entry<Integer, V>> iterator() {
+                return new Iterator<Entry<Integer, V>>() {
+                    private int next = nextKey(0);
+                    private int last = -1;
+                    private int expectedModCount = modCount;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public Entry<Integer, V> next() {
+                        if (next < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        if (modCount != expectedModCount) {
+                            throw new ConcurrentModificationException();
+                        }
+                        last = next;
+                        next = nextKey(next + 1);
+                        return new SimpleImmutableEntry<>(last, boxedValue(last));
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) {
+                            throw new IllegalStateException();
+                        }
+                        if (modCount != expectedModCount) {
+                            throw new ConcurrentModificationException();
+                        }
+                        removeKey(last);
+                        expectedModCount = modCount;
+                        last = -1;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
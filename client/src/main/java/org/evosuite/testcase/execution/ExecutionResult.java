@@ -62,6 +62,11 @@ public class ExecutionResult implements Cloneable {
      */
     protected ExecutionTrace trace;
 
+    /**
+     * Summary of the trace, created when first needed
+     */
+    private ExecutionTraceSummary traceSummary;
+
     /**
      * Duration of execution
      */
@@ -281,6 +286,21 @@ public class ExecutionResult implements Cloneable {
             throw new IllegalArgumentException("Trace cannot be null");
         }
         this.trace = trace;
+        this.traceSummary = null;
+    }
+
+    /**
+     * Accessor to the summary of the execution trace used by the suite
+     * fitness functions. It is computed on the first call, and shared with
+     * the clones of this result.
+     *
+     * @return a {@link org.evosuite.testcase.execution.ExecutionTraceSummary} object.
+     */
+    public ExecutionTraceSummary getTraceSummary() {
+        if (traceSummary == null) {
+            traceSummary = new ExecutionTraceSummary(this);
+        }
+        return traceSummary;
     }
 
     /**
@@ -410,6 +430,7 @@ public class ExecutionResult implements Cloneable {
         ExecutionResult copy = new ExecutionResult(test, mutation);
         copy.exceptions.putAll(exceptions);
         copy.trace = trace.lazyClone();
+        copy.traceSummary = traceSummary;
         copy.explicitExceptions.putAll(explicitExceptions);
         copy.executionTime = executionTime;
         copy.inputGoals = new LinkedHashMap<>(inputGoals);
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.mutation.MutationObserver;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.environment.AccessedEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memoizes the results of deterministic test executions.
+ * <p>
+ * Entries are keyed by a rolling hash over the statements of the executed
+ * test, and a hit is only reported if all the statements of the cached test
+ * are the same (see {@link Statement#same(Statement)}) as the ones of the
+ * test to execute. As test execution stops at the first exception (see
+ * {@link Properties#BREAK_ON_EXCEPTION}), the result of a test that threw an
+ * exception at position <code>p</code> is also reused for any test sharing
+ * its first <code>p+1</code> statements, whatever the statements that follow.
+ * This way, mutations that only change the tail of a test after a failing
+ * call do not need to execute the test again.
+ * <p>
+ * Only executions that cannot depend on previous executions or on the
+ * environment are cached: no static field was written (nor read, if static
+ * fields are not reset between tests), no file, network or system property
+ * was accessed, and neither a timeout nor a security exception occurred.
+ * Executions observed by {@link ExecutionObserver}s or run against a mutant
+ * are neither cached nor served from the cache.
+ */
+public class ExecutionResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionResultCache.class);
+
+    private static ExecutionResultCache instance = null;
+
+    /**
+     * Results of executions that did not throw any exception, keyed by the
+     * hash of the whole test
+     */
+    private final Map<Long, Entry> completedExecutions;
+
+    /**
+     * Results of executions that were stopped by an exception, keyed by the
+     * hash of the statements up to the one that threw the exception
+     */
+    private final Map<Long, Entry> stoppedExecutions;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public static synchronized ExecutionResultCache getInstance() {
+        if (instance == null) {
+            instance = new ExecutionResultCache(Properties.EXECUTION_RESULT_CACHE_SIZE);
+        }
+        return instance;
+    }
+
+    public static synchronized void resetSingleton() {
+        instance = null;
+    }
+
+    ExecutionResultCache(int capacity) {
+        this.completedExecutions = newLruMap(capacity);
+        this.stoppedExecutions = newLruMap(capacity);
+    }
+
+    private static Map<Long, Entry> newLruMap(final int capacity) {
+        return new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return true if the results of the executions can currently be cached
+     */
+    public static boolean isEnabled() {
+        return Properties.EXECUTION_RESULT_CACHE_SIZE > 0
+                && Properties.REPLACE_CALLS
+                && Properties.BREAK_ON_EXCEPTION
+                && MutationObserver.activeMutation == -1
+                && TestCaseExecutor.getInstance().getExecutionObservers().isEmpty();
+    }
+
+    /**
+     * Returns the cached result of the given test, if any.
+     *
+     * @param test the test to execute
+     * @return a copy of the cached result, or <code>null</code> if the test
+     * has to be executed
+     */
+    public synchronized ExecutionResult getCachedResult(TestCase test) {
+        long[] prefixHashes = getPrefixHashes(test);
+        if (prefixHashes.length == 0) {
+            return null;
+        }
+
+        Entry entry = completedExecutions.get(prefixHashes[prefixHashes.length - 1]);
+        if (entry == null || entry.test.size() != test.size() || !entry.isPrefixOf(test)) {
+            entry = null;
+            for (int position = 0; position < prefixHashes.length && entry == null; position++) {
+                Entry candidate = stoppedExecutions.get(prefixHashes[position]);
+                if (candidate != null && candidate.test.size() == position + 1 && candidate.isPrefixOf(test)) {
+                    entry = candidate;
+                }
+            }
+        }
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        logger.debug("Reusing cached execution result");
+        ExecutionResult result = entry.result.clone();
+        result.setTest(test);
+        result.setExecutedStatements(entry.result.getExecutedStatements());
+        return result;
+    }
+
+    /**
+     * Caches the result of the execution of a test, if the execution was
+     * deterministic.
+     *
+     * @param test   the executed test
+     * @param result the result of its execution
+     */
+    public synchronized void cacheResult(TestCase test, ExecutionResult result) {
+        if (!isDeterministic(test, result)) {
+            return;
+        }
+
+        long[] prefixHashes = getPrefixHashes(test);
+        if (prefixHashes.length == 0) {
+            return;
+        }
+
+        Integer position = result.getFirstPositionOfThrownException();
+        if (position == null) {
+            completedExecutions.put(prefixHashes[prefixHashes.length - 1], new Entry(test, result, test.size()));
+        } else if (position < test.size()) {
+            stoppedExecutions.put(prefixHashes[position], new Entry(test, result, position + 1));
+        }
+    }
+
+    private static boolean isDeterministic(TestCase test, ExecutionResult result) {
+        if (result.getTrace() == null || result.hasTimeout() || result.hasTestException()
+                || result.hasSecurityException()) {
+            return false;
+        }
+
+        if (!result.getTrace().getClassesWithStaticWrites().isEmpty()) {
+            return false;
+        }
+        if (!Properties.RESET_STATIC_FIELDS && !result.getTrace().getClassesWithStaticReads().isEmpty()) {
+            return false;
+        }
+
+        if (result.wasAnyPropertyWritten()
+                || (result.getReadProperties() != null && !result.getReadProperties().isEmpty())) {
+            return false;
+        }
+
+        AccessedEnvironment environment = test.getAccessedEnvironment();
+        return !environment.isFileSystemAccessed() && !environment.isNetworkAccessed();
+    }
+
+    /**
+     * Hashes every prefix of the test, from its first statement to the whole
+     * test.
+     */
+    private static long[] getPrefixHashes(TestCase test) {
+        long[] hashes = new long[test.size()];
+        long hash = 17;
+        for (int i = 0; i < hashes.length; i++) {
+            hash = 31 * hash + getStatementHash(test.getStatement(i));
+            hashes[i] = hash;
+        }
+        return hashes;
+    }
+
+    private static long getStatementHash(Statement statement) {
+        long hash = statement.getClass().getName().hashCode();
+        if (statement.getAccessibleObject() != null) {
+            hash = 31 * hash + statement.getAccessibleObject().toString().hashCode();
+        }
+        if (statement instanceof PrimitiveStatement<?>) {
+            Object value = ((PrimitiveStatement<?>) statement).getValue();
+            hash = 31 * hash + (value == null ? 0 : value.hashCode());
+        }
+        return 31 * hash + statement.getReturnValue().getStPosition();
+    }
+
+    public synchronized long getNumberOfHits() {
+        return hits;
+    }
+
+    public synchronized long getNumberOfMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return completedExecutions.size() + stoppedExecutions.size();
+    }
+
+    /**
+     * A cached execution, with copies of the relevant statements and of the
+     * execution result
+     */
+    private static final class Entry {
+
+        private final TestCase test;
+        private final ExecutionResult result;
+
+        Entry(TestCase test, ExecutionResult result, int length) {
+            TestCase copy = test.clone();
+            while (copy.size() > length) {
+                copy.remove(copy.size() - 1);
+            }
+            this.test = copy;
+            this.result = result.clone();
+            this.result.setTest(copy);
+            this.result.setExecutedStatements(result.getExecutedStatements());
+        }
+
+        boolean isPrefixOf(TestCase other) {
+            if (other.size() < test.size()) {
+                return false;
+            }
+            for (int i = 0; i < test.size(); i++) {
+                if (!test.getStatement(i).same(other.getStatement(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
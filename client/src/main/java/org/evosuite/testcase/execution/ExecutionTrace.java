@@ -569,6 +569,20 @@ public interface ExecutionTrace {
      */
     Set<String> getClassesWithStaticReads();
 
+    /**
+     * Retrieve the static fields affected by a PUTSTATIC, by class.
+     *
+     * @return
+     */
+    Map<String, Set<String>> getStaticFieldWrites();
+
+    /**
+     * Retrieve the static fields affected by a GETSTATIC, by class.
+     *
+     * @return
+     */
+    Map<String, Set<String>> getStaticFieldReads();
+
     /**
      * Logs that a <clinit> was completed during this test execution
      *
@@ -194,15 +194,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     public Map<String, Map<String, Map<Integer, Integer>>> coverage = Collections
             .synchronizedMap(new HashMap<>());
 
-    public Map<Integer, Integer> coveredFalse = Collections.synchronizedMap(new HashMap<>());
+    public IntIntArrayMap coveredFalse = new IntIntArrayMap();
 
     public Map<String, Integer> coveredMethods = Collections.synchronizedMap(new HashMap<>());
 
     public Map<String, Integer> coveredBranchlessMethods = Collections.synchronizedMap(new HashMap<>());
 
-    public Map<Integer, Integer> coveredPredicates = Collections.synchronizedMap(new HashMap<>());
+    public IntIntArrayMap coveredPredicates = new IntIntArrayMap();
 
-    public Map<Integer, Integer> coveredTrue = Collections.synchronizedMap(new HashMap<>());
+    public IntIntArrayMap coveredTrue = new IntIntArrayMap();
 
     public Map<Integer, Integer> coveredDefs = Collections.synchronizedMap(new HashMap<>());
 
@@ -223,8 +223,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     // The last explicitly thrown exception is kept here
     private Throwable explicitException = null;
 
-    public Map<Integer, Double> falseDistances = Collections.synchronizedMap(new HashMap<>());
-    private final Map<Integer, Double> falseDistancesSum = Collections.synchronizedMap(new HashMap<>());
+    public IntDoubleArrayMap falseDistances = new IntDoubleArrayMap();
+    private IntDoubleArrayMap falseDistancesSum = new IntDoubleArrayMap();
     // finished_calls;
     public List<MethodCall> finishedCalls = Collections.synchronizedList(new ArrayList<>());
     public Map<Integer, Object> knownCallerObjects = Collections.synchronizedMap(new HashMap<>());
@@ -256,9 +256,9 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 
     public Set<Integer> touchedMutants = Collections.synchronizedSet(new HashSet<>());
 
-    public Map<Integer, Double> trueDistances = Collections.synchronizedMap(new HashMap<>());
+    public IntDoubleArrayMap trueDistances = new IntDoubleArrayMap();
 
-    private final Map<Integer, Double> trueDistancesSum = Collections.synchronizedMap(new HashMap<>());
+    private IntDoubleArrayMap trueDistancesSum = new IntDoubleArrayMap();
 
     public static Set<Integer> gradientBranches = Collections.synchronizedSet(new HashSet<>());
 
@@ -321,32 +321,22 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         }
 
         if (traceCoverage) {
-            if (!coveredPredicates.containsKey(branch))
-                coveredPredicates.put(branch, 1);
-            else
-                coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
+            coveredPredicates.increment(branch);
 
             if (true_distance == 0.0) {
-                if (!coveredTrue.containsKey(branch))
-                    coveredTrue.put(branch, 1);
-                else
-                    coveredTrue.put(branch, coveredTrue.get(branch) + 1);
-
+                coveredTrue.increment(branch);
             }
 
             if (false_distance == 0.0) {
-                if (!coveredFalse.containsKey(branch))
-                    coveredFalse.put(branch, 1);
-                else
-                    coveredFalse.put(branch, coveredFalse.get(branch) + 1);
+                coveredFalse.increment(branch);
             }
         }
 
         if (Properties.TRACK_COVERED_GRADIENT_BRANCHES) {
             if (gradientBranches.contains(branch)) {
-                if ((coveredTrue.containsKey(branch)))
+                if (coveredTrue.contains(branch))
                     gradientBranchesCoveredTrue.add(branch);
-                if ((coveredFalse.containsKey(branch)))
+                if (coveredFalse.contains(branch))
                     gradientBranchesCoveredFalse.add(branch);
             }
         }
@@ -359,8 +349,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
                     .getInstruction().getASMNode().getPrevious() != null)
                 previousOpcode = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
                         .getBranch(branch).getInstruction().getASMNode().getPrevious().getOpcode();
-            boolean cTrue = coveredTrue.containsKey(branch);
-            boolean cFalse = coveredFalse.containsKey(branch);
+            boolean cTrue = coveredTrue.contains(branch);
+            boolean cFalse = coveredFalse.contains(branch);
             switch (previousOpcode) {
                 case Opcodes.LCMP:
                     trackBranchOpcode(bytecodeInstructionReached, RuntimeVariable.Reached_lcmp, branch);
@@ -447,25 +437,10 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
             }
         }
 
-        if (!trueDistances.containsKey(branch))
-            trueDistances.put(branch, true_distance);
-        else
-            trueDistances.put(branch, Math.min(trueDistances.get(branch), true_distance));
-
-        if (!falseDistances.containsKey(branch))
-            falseDistances.put(branch, false_distance);
-        else
-            falseDistances.put(branch, Math.min(falseDistances.get(branch), false_distance));
-
-        if (!trueDistancesSum.containsKey(branch))
-            trueDistancesSum.put(branch, true_distance);
-        else
-            trueDistancesSum.put(branch, trueDistancesSum.get(branch) + true_distance);
-
-        if (!falseDistancesSum.containsKey(branch))
-            falseDistancesSum.put(branch, false_distance);
-        else
-            falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+        trueDistances.putMin(branch, true_distance);
+        falseDistances.putMin(branch, false_distance);
+        trueDistancesSum.addTo(branch, true_distance);
+        falseDistancesSum.addTo(branch, false_distance);
 
         if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
                 || ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
@@ -543,15 +518,17 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         duCounter = 0;
         objectCounter = 0;
         knownCallerObjects = new HashMap<>();
-        trueDistances = new HashMap<>();
-        falseDistances = new HashMap<>();
+        trueDistances = new IntDoubleArrayMap();
+        falseDistances = new IntDoubleArrayMap();
+        trueDistancesSum = new IntDoubleArrayMap();
+        falseDistancesSum = new IntDoubleArrayMap();
         mutantDistances = new HashMap<>();
         touchedMutants = new HashSet<>();
         coveredMethods = new HashMap<>();
         coveredBranchlessMethods = new HashMap<>();
-        coveredPredicates = new HashMap<>();
-        coveredTrue = new HashMap<>();
-        coveredFalse = new HashMap<>();
+        coveredPredicates = new IntIntArrayMap();
+        coveredTrue = new IntIntArrayMap();
+        coveredFalse = new IntIntArrayMap();
         coveredDefs = new HashMap<>();
         passedDefinitions = new HashMap<>();
         passedUses = new HashMap<>();
@@ -565,6 +542,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         initializedClasses = new ArrayList<>();
         classesWithStaticReads = new HashSet<>();
         classesWithStaticWrites = new HashSet<>();
+        staticFieldReads = new HashMap<>();
+        staticFieldWrites = new HashMap<>();
     }
 
     /**
@@ -591,13 +570,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
          * null && stack.peek().method_name.equals("")) { logger.info(
          * "Copying main method"); copy.finished_calls.add(stack.peek()); }
          */
-        copy.trueDistances.putAll(trueDistances);
-        copy.falseDistances.putAll(falseDistances);
+        copy.trueDistances = trueDistances.copy();
+        copy.falseDistances = falseDistances.copy();
+        copy.trueDistancesSum = trueDistancesSum.copy();
+        copy.falseDistancesSum = falseDistancesSum.copy();
         copy.coveredMethods.putAll(coveredMethods);
         copy.coveredBranchlessMethods.putAll(coveredBranchlessMethods);
-        copy.coveredPredicates.putAll(coveredPredicates);
-        copy.coveredTrue.putAll(coveredTrue);
-        copy.coveredFalse.putAll(coveredFalse);
+        copy.coveredPredicates = coveredPredicates.copy();
+        copy.coveredTrue = coveredTrue.copy();
+        copy.coveredFalse = coveredFalse.copy();
         copy.coveredDefs.putAll(coveredDefs);
         copy.touchedMutants.addAll(touchedMutants);
         copy.mutantDistances.putAll(mutantDistances);
@@ -614,6 +595,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         copy.initializedClasses.addAll(initializedClasses);
         copy.classesWithStaticReads.addAll(classesWithStaticReads);
         copy.classesWithStaticWrites.addAll(classesWithStaticWrites);
+        staticFieldReads.forEach((k, v) -> copy.staticFieldReads.put(k, new HashSet<>(v)));
+        staticFieldWrites.forEach((k, v) -> copy.staticFieldWrites.put(k, new HashSet<>(v)));
 
         copy.methodId = methodId;
         copy.duCounter = duCounter;
@@ -1857,9 +1840,16 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     private HashSet<String> classesWithStaticWrites = new HashSet<>();
 
+    /**
+     * The static fields written (i.e. PUTSTATIC) during test execution, by
+     * class.
+     */
+    private HashMap<String, Set<String>> staticFieldWrites = new HashMap<>();
+
     @Override
     public void putStaticPassed(String classNameWithDots, String fieldName) {
         classesWithStaticWrites.add(classNameWithDots);
+        staticFieldWrites.computeIfAbsent(classNameWithDots, k -> new HashSet<>()).add(fieldName);
     }
 
     /**
@@ -1868,9 +1858,16 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     private HashSet<String> classesWithStaticReads = new HashSet<>();
 
+    /**
+     * The static fields read (i.e. GETSTATIC) during test execution, by
+     * class.
+     */
+    private HashMap<String, Set<String>> staticFieldReads = new HashMap<>();
+
     @Override
     public void getStaticPassed(String classNameWithDots, String fieldName) {
         classesWithStaticReads.add(classNameWithDots);
+        staticFieldReads.computeIfAbsent(classNameWithDots, k -> new HashSet<>()).add(fieldName);
     }
 
     @Override
@@ -1902,6 +1899,16 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         return classesWithStaticReads;
     }
 
+    @Override
+    public Map<String, Set<String>> getStaticFieldWrites() {
+        return staticFieldWrites;
+    }
+
+    @Override
+    public Map<String, Set<String>> getStaticFieldReads() {
+        return staticFieldReads;
+    }
+
     @Override
     public List<String> getInitializedClasses() {
         return this.initializedClasses;
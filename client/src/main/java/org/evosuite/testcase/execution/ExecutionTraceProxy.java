@@ -861,6 +861,16 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
         return trace.getClassesWithStaticReads();
     }
 
+    @Override
+    public Map<String, Set<String>> getStaticFieldWrites() {
+        return trace.getStaticFieldWrites();
+    }
+
+    @Override
+    public Map<String, Set<String>> getStaticFieldReads() {
+        return trace.getStaticFieldReads();
+    }
+
     @Override
     public List<String> getInitializedClasses() {
         return trace.getInitializedClasses();
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Compact, immutable view of the data of an {@link ExecutionTrace} that the
+ * suite fitness functions aggregate over the tests of a suite: the execution
+ * count and the true and false distances of each executed branch, the
+ * execution count of each method, and the covered lines.
+ * <p>
+ * The summary is created in a single walk over the trace the first time it
+ * is needed (see {@link ExecutionResult#getTraceSummary()}), and then shared
+ * by all the fitness functions and by the clones of the result. As the trace
+ * of a test only changes when the test is changed and executed again, each
+ * trace is thus analyzed once, instead of once per fitness function and per
+ * evaluation of every suite that contains the test.
+ */
+public final class ExecutionTraceSummary {
+
+    private static final int[] NO_LINES = new int[0];
+
+    private final boolean timeoutOrTestException;
+
+    /**
+     * Ids of the executed branches, in ascending order
+     */
+    private final int[] branchIds;
+
+    private final int[] predicateCounts;
+
+    /**
+     * Distances of the branches, NaN if there is none
+     */
+    private final double[] trueDistances;
+
+    private final double[] falseDistances;
+
+    private final String[] methods;
+
+    private final int[] methodCounts;
+
+    /**
+     * Only needed to compute the covered lines on demand
+     */
+    private ExecutionTrace trace;
+
+    private volatile int[] coveredLines;
+
+    /**
+     * Summarize the trace of the given result
+     *
+     * @param result an executed test
+     */
+    public ExecutionTraceSummary(ExecutionResult result) {
+        timeoutOrTestException = result.hasTimeout() || result.hasTestException();
+        trace = result.getTrace();
+        if (trace == null) {
+            branchIds = new int[0];
+            predicateCounts = new int[0];
+            trueDistances = new double[0];
+            falseDistances = new double[0];
+            methods = new String[0];
+            methodCounts = new int[0];
+            coveredLines = NO_LINES;
+            return;
+        }
+
+        Map<Integer, Integer> predicates = trace.getPredicateExecutionCount();
+        Map<Integer, Double> trueDistanceMap = trace.getTrueDistances();
+        Map<Integer, Double> falseDistanceMap = trace.getFalseDistances();
+        BitSet ids = new BitSet();
+        addKeys(ids, predicates);
+        addKeys(ids, trueDistanceMap);
+        addKeys(ids, falseDistanceMap);
+
+        int numBranches = ids.cardinality();
+        branchIds = new int[numBranches];
+        predicateCounts = new int[numBranches];
+        trueDistances = new double[numBranches];
+        falseDistances = new double[numBranches];
+        int i = 0;
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            branchIds[i] = id;
+            predicateCounts[i] = getCount(predicates, id);
+            trueDistances[i] = getDistance(trueDistanceMap, id);
+            falseDistances[i] = getDistance(falseDistanceMap, id);
+            i++;
+        }
+
+        Map<String, Integer> methodMap = trace.getMethodExecutionCount();
+        methods = new String[methodMap.size()];
+        methodCounts = new int[methodMap.size()];
+        int j = 0;
+        for (Entry<String, Integer> entry : methodMap.entrySet()) {
+            methods[j] = entry.getKey();
+            methodCounts[j] = entry.getValue();
+            j++;
+        }
+    }
+
+    private static void addKeys(BitSet ids, Map<Integer, ?> map) {
+        if (map instanceof AbstractIntKeyArrayMap) {
+            AbstractIntKeyArrayMap<?> dense = (AbstractIntKeyArrayMap<?>) map;
+            for (int id = dense.nextKey(0); id >= 0; id = dense.nextKey(id + 1)) {
+                ids.set(id);
+            }
+        } else {
+            for (Integer id : map.keySet()) {
+                ids.set(id);
+            }
+        }
+    }
+
+    private static int getCount(Map<Integer, Integer> map, int id) {
+        if (map instanceof IntIntArrayMap) {
+            return ((IntIntArrayMap) map).getInt(id, 0);
+        }
+        Integer count = map.get(id);
+        return count == null ? 0 : count;
+    }
+
+    private static double getDistance(Map<Integer, Double> map, int id) {
+        if (map instanceof IntDoubleArrayMap) {
+            return ((IntDoubleArrayMap) map).getDouble(id, Double.NaN);
+        }
+        Double distance = map.get(id);
+        return distance == null ? Double.NaN : distance;
+    }
+
+    /**
+     * @return whether the test timed out or threw a test exception, in which
+     * case the fitness functions ignore its trace
+     */
+    public boolean isTimeoutOrTestException() {
+        return timeoutOrTestException;
+    }
+
+    /**
+     * @return the number of branches with an execution count or a distance
+     */
+    public int getNumBranches() {
+        return branchIds.length;
+    }
+
+    /**
+     * @param i an index in [0, {@link #getNumBranches()})
+     * @return the id of the i-th branch
+     */
+    public int getBranchId(int i) {
+        return branchIds[i];
+    }
+
+    /**
+     * @param branchId a branch id
+     * @return the index of the branch in this summary, or a negative value
+     */
+    public int indexOf(int branchId) {
+        return Arrays.binarySearch(branchIds, branchId);
+    }
+
+    /**
+     * @param i an index in [0, {@link #getNumBranches()})
+     * @return how often the predicate of the i-th branch was executed
+     */
+    public int getPredicateCount(int i) {
+        return predicateCounts[i];
+    }
+
+    /**
+     * @param i an index in [0, {@link #getNumBranches()})
+     * @return the true distance of the i-th branch, or NaN if there is none
+     */
+    public double getTrueDistance(int i) {
+        return trueDistances[i];
+    }
+
+    /**
+     * @param i an index in [0, {@link #getNumBranches()})
+     * @return the false distance of the i-th branch, or NaN if there is none
+     */
+    public double getFalseDistance(int i) {
+        return falseDistances[i];
+    }
+
+    /**
+     * @return the number of executed methods
+     */
+    public int getNumMethods() {
+        return methods.length;
+    }
+
+    /**
+     * @param i an index in [0, {@link #getNumMethods()})
+     * @return the name (class name and descriptor) of the i-th method
+     */
+    public String getMethod(int i) {
+        return methods[i];
+    }
+
+    /**
+     * @param i an index in [0, {@link #getNumMethods()})
+     * @return how often the i-th method was executed
+     */
+    public int getMethodCount(int i) {
+        return methodCounts[i];
+    }
+
+    /**
+     * @param method the name of a method
+     * @return whether the method was executed
+     */
+    public boolean hasExecuted(String method) {
+        for (String m : methods) {
+            if (method.equals(m)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The lines of the target class (and its inner classes) that were
+     * covered, in ascending order. They are only computed when first
+     * requested, as only some criteria need them.
+     *
+     * @return an array that must not be modified
+     */
+    public int[] getCoveredLines() {
+        int[] lines = coveredLines;
+        if (lines == null) {
+            synchronized (this) {
+                lines = coveredLines;
+                if (lines == null) {
+                    Set<Integer> lineSet = trace.getCoveredLines();
+                    lines = new int[lineSet.size()];
+                    int i = 0;
+                    for (Integer line : lineSet) {
+                        lines[i++] = line;
+                    }
+                    Arrays.sort(lines);
+                    coveredLines = lines;
+                    trace = null;
+                }
+            }
+        }
+        return lines;
+    }
+}
@@ -55,6 +55,24 @@ public class ExecutionTracer {
 
     private int num_statements = 0;
 
+    /**
+     * Number of class initializers (of instrumented classes) that are
+     * currently on the stack of the test execution thread. While this is
+     * positive, the kill switch must not abort the execution, as that would
+     * leave the class in an erroneous state.
+     */
+    private int classInitDepth = 0;
+
+    /**
+     * Whether the test execution thread is in the initializer of a class that
+     * is not instrumented, and thus not counted by {@link #classInitDepth}.
+     * This requires walking the stack, so it is only determined the first
+     * time the kill switch is checked outside of instrumented initializers,
+     * and cached until the kill switch or the thread is set again. It is
+     * <code>null</code> while not determined.
+     */
+    private Boolean inUninstrumentedClassInit = null;
+
     private ExecutionTrace trace;
 
 
@@ -75,6 +93,9 @@ public class ExecutionTracer {
      */
     public static void setThread(Thread thread) {
         currentThread = thread;
+        ExecutionTracer tracer = getExecutionTracer();
+        tracer.classInitDepth = 0;
+        tracer.inUninstrumentedClassInit = null;
     }
 
     /**
@@ -119,6 +140,7 @@ public class ExecutionTracer {
     public static void setKillSwitch(boolean value) {
         ExecutionTracer tracer = ExecutionTracer.getExecutionTracer();
         tracer.killSwitch = value;
+        tracer.inUninstrumentedClassInit = null;
     }
 
     /**
@@ -132,6 +154,13 @@ public class ExecutionTracer {
         ExecutionTracer.checkCallerThread = checkCallerThread;
     }
 
+    /**
+     * @return whether the trace is only written by the test execution thread
+     */
+    public static boolean isCheckCallerThread() {
+        return checkCallerThread;
+    }
+
     /**
      * <p>
      * enable context instrumentation
@@ -370,12 +399,27 @@ public class ExecutionTracer {
 
         if (tracer.killSwitch) {
             // logger.info("Raising TimeoutException as kill switch is active - passedLine");
-            if (!isInStaticInit())
+            if (!isInStaticInit(tracer))
                 throw new TestCaseExecutor.TimeoutExceeded();
         }
     }
 
-    private static boolean isInStaticInit() {
+    private static boolean isInStaticInit(ExecutionTracer tracer) {
+        if (Thread.currentThread() == currentThread) {
+            if (tracer.classInitDepth > 0) {
+                return true;
+            }
+            // e.g., a JDK or library initializer calling instrumented code
+            if (tracer.inUninstrumentedClassInit == null) {
+                tracer.inUninstrumentedClassInit = isClassInitOnStack();
+            }
+            return tracer.inUninstrumentedClassInit;
+        }
+        // Initializers are only counted on the test execution thread
+        return isClassInitOnStack();
+    }
+
+    private static boolean isClassInitOnStack() {
         for (StackTraceElement elem : Thread.currentThread().getStackTrace()) {
             if (elem.getMethodName().equals("<clinit>"))
                 return true;
@@ -488,6 +532,18 @@ public class ExecutionTracer {
     }
 
 
+    /**
+     * This method is added in the transformed bytecode at the beginning of
+     * each class initializer
+     *
+     * @param className
+     */
+    public static void enterClassInit(String className) {
+        if (Thread.currentThread() == currentThread) {
+            getExecutionTracer().classInitDepth++;
+        }
+    }
+
     /**
      * This method is added in the transformed bytecode
      *
@@ -498,6 +554,9 @@ public class ExecutionTracer {
         final String classNameWithDots = className.replace('/', '.');
 
         ExecutionTracer tracer = getExecutionTracer();
+        if (Thread.currentThread() == currentThread && tracer.classInitDepth > 0) {
+            tracer.classInitDepth--;
+        }
 //		if (tracer.disabled)
 //			return;
 //
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+
+/**
+ * Dense map from non-negative int ids to double values, with primitive
+ * accessors that neither box nor allocate on the execution path.
+ *
+ * @see AbstractIntKeyArrayMap
+ */
+public class IntDoubleArrayMap extends AbstractIntKeyArrayMap<Double> {
+
+    private double[] values;
+
+    public IntDoubleArrayMap() {
+        super();
+        values = new double[64];
+    }
+
+    private IntDoubleArrayMap(IntDoubleArrayMap other) {
+        super(other);
+        values = other.values;
+    }
+
+    /**
+     * Create a copy of this map, which shares the data with this map until
+     * one of the two is modified
+     *
+     * @return a {@link IntDoubleArrayMap} object.
+     */
+    public synchronized IntDoubleArrayMap copy() {
+        return new IntDoubleArrayMap(this);
+    }
+
+    /**
+     * @param key          an id
+     * @param defaultValue value to return if the key is not in the map
+     * @return the value for the key, or the default value
+     */
+    public double getDouble(int key, double defaultValue) {
+        return contains(key) ? values[key] : defaultValue;
+    }
+
+    /**
+     * Store the value for the given key
+     */
+    public void putDouble(int key, double value) {
+        if (isWriteConfined()) {
+            putDoubleValue(key, value);
+        } else {
+            synchronized (this) {
+                putDoubleValue(key, value);
+            }
+        }
+    }
+
+    private void putDoubleValue(int key, double value) {
+        prepareWrite(key);
+        values[key] = value;
+    }
+
+    /**
+     * Store the value for the given key unless the map already contains a
+     * smaller value for it
+     */
+    public void putMin(int key, double value) {
+        if (isWriteConfined()) {
+            putMinValue(key, value);
+        } else {
+            synchronized (this) {
+                putMinValue(key, value);
+            }
+        }
+    }
+
+    private void putMinValue(int key, double value) {
+        if (!prepareWrite(key) || value < values[key]) {
+            values[key] = value;
+        }
+    }
+
+    /**
+     * Add the value to the one stored for the given key, which is treated
+     * as 0 if absent
+     */
+    public void addTo(int key, double value) {
+        if (isWriteConfined()) {
+            addToValue(key, value);
+        } else {
+            synchronized (this) {
+                addToValue(key, value);
+            }
+        }
+    }
+
+    private void addToValue(int key, double value) {
+        if (prepareWrite(key)) {
+            values[key] += value;
+        } else {
+            values[key] = value;
+        }
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void resizeValues(int newCapacity) {
+        values = Arrays.copyOf(values, newCapacity);
+    }
+
+    @Override
+    protected Double boxedValue(int key) {
+        return values[key];
+    }
+
+    @Override
+    protected void setBoxedValue(int key, Double value) {
+        values[key] = value;
+    }
+}
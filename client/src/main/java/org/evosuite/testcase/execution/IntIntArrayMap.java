@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+
+/**
+ * Dense map from non-negative int ids to int values (typically execution
+ * counters), with primitive accessors that neither box nor allocate on the
+ * execution path.
+ *
+ * @see AbstractIntKeyArrayMap
+ */
+public class IntIntArrayMap extends AbstractIntKeyArrayMap<Integer> {
+
+    private int[] values;
+
+    public IntIntArrayMap() {
+        super();
+        values = new int[64];
+    }
+
+    private IntIntArrayMap(IntIntArrayMap other) {
+        super(other);
+        values = other.values;
+    }
+
+    /**
+     * Create a copy of this map, which shares the data with this map until
+     * one of the two is modified
+     *
+     * @return a {@link IntIntArrayMap} object.
+     */
+    public synchronized IntIntArrayMap copy() {
+        return new IntIntArrayMap(this);
+    }
+
+    /**
+     * @param key          an id
+     * @param defaultValue value to return if the key is not in the map
+     * @return the value for the key, or the default value
+     */
+    public int getInt(int key, int defaultValue) {
+        return contains(key) ? values[key] : defaultValue;
+    }
+
+    /**
+     * Store the value for the given key
+     */
+    public void putInt(int key, int value) {
+        if (isWriteConfined()) {
+            putIntValue(key, value);
+        } else {
+            synchronized (this) {
+                putIntValue(key, value);
+            }
+        }
+    }
+
+    private void putIntValue(int key, int value) {
+        prepareWrite(key);
+        values[key] = value;
+    }
+
+    /**
+     * Increment the counter for the given key, which starts at 1 when the
+     * key is not yet in the map
+     */
+    public void increment(int key) {
+        if (isWriteConfined()) {
+            incrementValue(key);
+        } else {
+            synchronized (this) {
+                incrementValue(key);
+            }
+        }
+    }
+
+    private void incrementValue(int key) {
+        if (prepareWrite(key)) {
+            values[key]++;
+        } else {
+            values[key] = 1;
+        }
+    }
+
+    /**
+     * Add the value to the one stored for the given key, which is treated
+     * as 0 if absent
+     */
+    public void addTo(int key, int value) {
+        if (isWriteConfined()) {
+            addToValue(key, value);
+        } else {
+            synchronized (this) {
+                addToValue(key, value);
+            }
+        }
+    }
+
+    private void addToValue(int key, int value) {
+        if (prepareWrite(key)) {
+            values[key] += value;
+        } else {
+            values[key] = value;
+        }
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void resizeValues(int newCapacity) {
+        values = Arrays.copyOf(values, newCapacity);
+    }
+
+    @Override
+    protected Integer boxedValue(int key) {
+        return values[key];
+    }
+
+    @Override
+    protected void setBoxedValue(int key, Integer value) {
+        values[key] = value;
+    }
+}
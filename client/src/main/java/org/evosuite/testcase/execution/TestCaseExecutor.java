@@ -132,11 +132,27 @@ public class TestCaseExecutor implements ThreadFactory {
 
         try {
             TestCaseExecutor executor = getInstance();
+
+            boolean useCache = ExecutionResultCache.isEnabled();
+            if (useCache) {
+                ExecutionResult cachedResult = ExecutionResultCache.getInstance().getCachedResult(test);
+                if (cachedResult != null) {
+                    // a memoized execution still counts against the search budget
+                    MaxTestsStoppingCondition.testExecuted();
+                    MaxStatementsStoppingCondition.statementsExecuted(cachedResult.getExecutedStatements());
+                    return cachedResult;
+                }
+            }
+
             logger.debug("Executing test");
             result = executor.execute(test);
 
             MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
 
+            if (useCache) {
+                ExecutionResultCache.getInstance().cacheResult(test, result);
+            }
+
         } catch (Exception e) {
             logger.error("TG: Exception caught: ", e);
             throw new Error(e);
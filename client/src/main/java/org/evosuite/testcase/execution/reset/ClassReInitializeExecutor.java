@@ -27,11 +27,16 @@ import org.evosuite.runtime.LoopCounter;
 import org.evosuite.runtime.Runtime;
 import org.evosuite.runtime.classhandling.ClassResetter;
 import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.testcase.execution.ExecutionTrace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * This class implements the actual invocation to the __STATIC_RESET() method
@@ -90,7 +95,57 @@ class ClassReInitializeExecutor {
         }
     }
 
-    private void resetClass(String className) {
+    /**
+     * Restores the static fields written during a test execution from the
+     * snapshots taken after the last reset of their classes, without
+     * executing the __STATIC_RESET() methods. Classes without a snapshot, and
+     * classes which might have changed otherwise (e.g., a mutable object
+     * referenced by a static field was read), are reset as usual and a new
+     * snapshot is taken.
+     *
+     * @param classesToReset      the classes whose static state might have changed
+     * @param classesAccessedByTest the classes whose static fields were accessed by
+     *                            the statements of the test, rather than by
+     *                            instrumented code
+     * @param trace               the trace of the test execution
+     * @param loader
+     */
+    public void restoreClasses(List<String> classesToReset, Set<String> classesAccessedByTest,
+                               ExecutionTrace trace, ClassLoader loader) {
+        ClassResetter resetter = ClassResetter.getInstance();
+        resetter.setClassLoader(loader);
+
+        for (String className : classesAccessedByTest) {
+            resetter.discardSnapshot(className);
+        }
+
+        for (Map.Entry<String, Set<String>> entry : trace.getStaticFieldReads().entrySet()) {
+            resetter.fieldsRead(entry.getKey(), entry.getValue());
+        }
+
+        Set<String> done = new HashSet<>();
+        for (String className : classesToReset) {
+            if (!done.add(className)) {
+                continue;
+            }
+            Set<String> writtenFields = trace.getStaticFieldWrites().getOrDefault(className,
+                    Collections.emptySet());
+            if (resetter.restoreSnapshot(className, writtenFields)) {
+                continue;
+            }
+            if (resetClass(className)) {
+                resetter.takeSnapshot(className);
+            } else {
+                resetter.discardSnapshot(className);
+            }
+        }
+    }
+
+    /**
+     * @param className
+     * @return true if __STATIC_RESET() was executed without exception
+     */
+    private boolean resetClass(String className) {
 
         // className.__STATIC_RESET() exists
         logger.debug("Resetting class " + className);
@@ -111,11 +166,14 @@ class ClassReInitializeExecutor {
             if (resetMethod != null) {
                 LoopCounter.getInstance().setActive(false);
                 resetMethod.invoke(null, (Object[]) null);
+                return true;
             }
+            return false;
         } catch (Throwable e) {
             ClassResetter.getInstance().logWarn(className,
                     e.getClass() + " thrown during execution of method  __STATIC_RESET() for class " + className + ", "
                             + e.getCause());
+            return false;
         } finally {
             Sandbox.doneWithExecutingSUTCode();
             TestGenerationContext.getInstance().doneWithExecutingSUTCode();
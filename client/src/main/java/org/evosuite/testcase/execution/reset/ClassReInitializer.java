@@ -20,6 +20,7 @@
 package org.evosuite.testcase.execution.reset;
 
 import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
 import org.evosuite.assertion.CheapPurityAnalyzer;
 import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
@@ -36,6 +37,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This singleton class handles the re-initialization of classes after an
@@ -131,6 +133,37 @@ public class ClassReInitializer {
         return moreClassesForStaticReset;
     }
 
+    /**
+     * The classes whose static fields are read or written by the statements
+     * of the test itself, which is not traced as GETSTATIC/PUTSTATIC
+     */
+    private static Set<String> getClassesAccessedByTest(TestCase tc, ExecutionResult result) {
+        Set<String> classes = new HashSet<>();
+        for (int position = 0; position < result.getExecutedStatements(); position++) {
+            Statement statement = tc.getStatement(position);
+            for (VariableReference var : statement.getVariableReferences()) {
+                if (var.isFieldReference()) {
+                    FieldReference fieldReference = (FieldReference) var;
+                    if (fieldReference.getField().isStatic()) {
+                        classes.add(fieldReference.getField().getOwnerClass().getClassName());
+                    }
+                }
+            }
+            if (statement instanceof FieldStatement) {
+                FieldStatement fieldStatement = (FieldStatement) statement;
+                if (fieldStatement.getField().isStatic()) {
+                    classes.add(fieldStatement.getField().getOwnerClass().getClassName());
+                }
+            } else if (statement instanceof PrivateFieldStatement) {
+                PrivateFieldStatement fieldStatement = (PrivateFieldStatement) statement;
+                if (fieldStatement.isStaticField()) {
+                    classes.add(fieldStatement.getOwnerClassName());
+                }
+            }
+        }
+        return classes;
+    }
+
     /**
      * This method is invoked after a test execution has ended. The classes to
      * be resetted will depend on the value of the reset_a
@@ -175,7 +208,13 @@ public class ClassReInitializer {
                     }
                 }
                 if (loader == null) {
-                    ClassReInitializeExecutor.getInstance().resetClasses(classesToReset);
+                    loader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+                }
+                if (Properties.RESET_STATIC_FIELDS_FROM_SNAPSHOT) {
+                    Set<String> classesAccessedByTest = getClassesAccessedByTest(executedTestCase, testCaseResult);
+                    classesAccessedByTest.addAll(moreClassesForReset);
+                    ClassReInitializeExecutor.getInstance().restoreClasses(classesToReset, classesAccessedByTest,
+                            trace, loader);
                 } else {
                     ClassReInitializeExecutor.getInstance().resetClasses(classesToReset, loader);
                 }
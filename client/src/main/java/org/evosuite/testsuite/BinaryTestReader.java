@@ -0,0 +1,683 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ClassPrimitiveStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BytePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.CharPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.FloatPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.ShortPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.NullReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testcase.variable.VariableReferenceImpl;
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericArrayTypeImpl;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericClassFactory;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.evosuite.utils.generic.WildcardTypeImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the tests written by {@link BinaryTestWriter}, one at a time: a
+ * test is only decoded when {@link #next()} asks for it, so that the tests
+ * of a file do not need to be kept in memory at the same time.
+ * <p>
+ * A test referencing a class, constructor, method or field which does not
+ * exist in the current class loader is skipped, with a warning. As for
+ * {@link TestSuiteSerialization#loadTests(java.io.File)}, reading stops at
+ * the first corrupted or incomplete record.
+ */
+public class BinaryTestReader implements Iterator<TestChromosome>, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryTestReader.class);
+
+    private final DataInputStream in;
+
+    private final ClassLoader loader;
+
+    /**
+     * The types and members defined so far. A type is null if it could not
+     * be resolved with the class loader of this reader, and the reason is
+     * kept in the corresponding entry of the type errors.
+     */
+    private final List<Type> types = new ArrayList<>();
+    private final List<String> typeErrors = new ArrayList<>();
+    private final List<Member> members = new ArrayList<>();
+
+    /**
+     * The reason why the test being read cannot be resolved, if any
+     */
+    private String error = null;
+
+    private TestChromosome next = null;
+
+    private boolean finished = false;
+
+    /**
+     * A constructor, method or field together with the type it is accessed
+     * through
+     */
+    private static final class Member {
+
+        private final byte kind;
+        private final Object reflected;
+        private final Type owner;
+        private final String error;
+
+        Member(byte kind, Object reflected, Type owner, String error) {
+            this.kind = kind;
+            this.reflected = reflected;
+            this.owner = owner;
+            this.error = error;
+        }
+    }
+
+    public BinaryTestReader(InputStream in) throws IOException {
+        this(in, TestGenerationContext.getInstance().getClassLoaderForSUT());
+    }
+
+    public BinaryTestReader(InputStream in, ClassLoader loader) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.loader = loader;
+        if (this.in.readInt() != BinaryTestWriter.MAGIC) {
+            throw new IOException("Not a binary test file");
+        }
+        int version = this.in.readInt();
+        if (version != BinaryTestWriter.VERSION) {
+            throw new IOException("Unsupported version of binary test file: " + version);
+        }
+    }
+
+    /**
+     * @return true if the stream starts with the header of the binary format.
+     * The stream has to support {@link InputStream#mark(int)}.
+     */
+    public static boolean isBinaryFormat(InputStream in) throws IOException {
+        in.mark(4);
+        try {
+            return new DataInputStream(in).readInt() == BinaryTestWriter.MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && !finished) {
+            try {
+                next = readRecord();
+            } catch (EOFException e) {
+                logger.warn("Ignoring incomplete test at the end of the file");
+                finished = true;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Problems when reading a serialized test: " + e.getMessage());
+                finished = true;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public TestChromosome next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TestChromosome test = next;
+        next = null;
+        return test;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        in.close();
+    }
+
+    /**
+     * @return the test of the next record, or null if the record has to be
+     * skipped
+     */
+    private TestChromosome readRecord() throws IOException {
+        int tag = in.read();
+        if (tag == -1) {
+            finished = true;
+            return null;
+        }
+        int length = readVarInt(in);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        if (tag == BinaryTestWriter.JAVA_RECORD) {
+            try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                TestChromosome test = (TestChromosome) objectIn.readObject();
+                for (Statement statement : test.getTestCase()) {
+                    statement.changeClassLoader(loader);
+                }
+                return test;
+            } catch (ClassNotFoundException e) {
+                logger.warn("Skipping serialized test: cannot load class " + e.getMessage());
+                return null;
+            }
+        } else if (tag != BinaryTestWriter.BINARY_RECORD) {
+            throw new IOException("Corrupted binary test file");
+        }
+
+        // the record is decoded entirely even if the test cannot be
+        // resolved, as it might contain definitions used by the next tests
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+        DefaultTestCase test = new DefaultTestCase();
+        error = null;
+        test.setFailing(record.readBoolean());
+        test.setUnstable(record.readBoolean());
+        int size = readVarInt(record);
+        for (int i = 0; i < size; i++) {
+            Statement statement = readStatement(record, test);
+            String comment = record.readUTF();
+            if (error == null) {
+                statement.addComment(comment);
+                test.addStatement(statement);
+            }
+        }
+        if (error != null) {
+            logger.warn("Skipping serialized test: " + error);
+            return null;
+        }
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(test);
+        return chromosome;
+    }
+
+    /**
+     * Reads a statement. As for all the methods reading parts of a test, all
+     * the bytes of the statement are read, but nothing is created if the
+     * test cannot be resolved.
+     */
+    private Statement readStatement(DataInput in, TestCase test) throws IOException {
+        byte tag = in.readByte();
+        if (tag == BinaryTestWriter.ASSIGNMENT) {
+            VariableReference variable = readVariable(in, test);
+            VariableReference value = readVariable(in, test);
+            return error == null ? new AssignmentStatement(test, variable, value) : null;
+        }
+
+        VariableReference retval = readReturnValue(in, test);
+        Statement statement;
+        switch (tag) {
+            case BinaryTestWriter.CONSTRUCTOR: {
+                GenericAccessibleObject<?> constructor = readMember(in);
+                List<VariableReference> parameters = readVariables(in, test);
+                if (error != null) {
+                    return null;
+                }
+                statement = new ConstructorStatement(test, (GenericConstructor) constructor, parameters);
+                break;
+            }
+            case BinaryTestWriter.METHOD: {
+                GenericAccessibleObject<?> method = readMember(in);
+                VariableReference callee = readVariable(in, test);
+                List<VariableReference> parameters = readVariables(in, test);
+                if (error != null) {
+                    return null;
+                }
+                statement = new MethodStatement(test, (GenericMethod) method, callee, parameters);
+                break;
+            }
+            case BinaryTestWriter.FIELD: {
+                GenericAccessibleObject<?> field = readMember(in);
+                VariableReference source = readVariable(in, test);
+                if (error != null) {
+                    return null;
+                }
+                statement = new FieldStatement(test, (GenericField) field, source);
+                break;
+            }
+            case BinaryTestWriter.ARRAY: {
+                int[] lengths = readInts(in);
+                if (error != null) {
+                    return null;
+                }
+                // the array statement defines the array reference it is given
+                return new ArrayStatement(test, (ArrayReference) retval, lengths);
+            }
+            case BinaryTestWriter.NULL:
+                if (error != null) {
+                    return null;
+                }
+                statement = new NullStatement(test, retval.getType());
+                break;
+            case BinaryTestWriter.ENUM: {
+                Type enumClass = readType(in);
+                String name = in.readUTF();
+                if (error != null) {
+                    return null;
+                }
+                statement = createEnumStatement(test, (Class<?>) enumClass, name);
+                break;
+            }
+            case BinaryTestWriter.CLASS: {
+                Type value = readType(in);
+                if (error != null) {
+                    return null;
+                }
+                statement = new ClassPrimitiveStatement(test, (Class<?>) value);
+                break;
+            }
+            default: {
+                Object value = readValue(in, tag);
+                if (error != null) {
+                    return null;
+                }
+                statement = createPrimitiveStatement(test, tag, value);
+                break;
+            }
+        }
+        statement.setRetval(retval);
+        return statement;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Statement createEnumStatement(TestCase test, Class<?> enumClass, String name) {
+        for (Object constant : enumClass.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(name)) {
+                return new EnumPrimitiveStatement(test, (Enum) constant);
+            }
+        }
+        error = "Cannot find enum constant " + enumClass.getName() + "." + name;
+        return null;
+    }
+
+    private static Statement createPrimitiveStatement(TestCase test, byte tag, Object value) throws IOException {
+        switch (tag) {
+            case BinaryTestWriter.BOOLEAN:
+                return new BooleanPrimitiveStatement(test, (Boolean) value);
+            case BinaryTestWriter.BYTE:
+                return new BytePrimitiveStatement(test, (Byte) value);
+            case BinaryTestWriter.CHAR:
+                return new CharPrimitiveStatement(test, (Character) value);
+            case BinaryTestWriter.SHORT:
+                return new ShortPrimitiveStatement(test, (Short) value);
+            case BinaryTestWriter.INT:
+                return new IntPrimitiveStatement(test, (Integer) value);
+            case BinaryTestWriter.LONG:
+                return new LongPrimitiveStatement(test, (Long) value);
+            case BinaryTestWriter.FLOAT:
+                return new FloatPrimitiveStatement(test, (Float) value);
+            case BinaryTestWriter.DOUBLE:
+                return new DoublePrimitiveStatement(test, (Double) value);
+            case BinaryTestWriter.STRING:
+                return new StringPrimitiveStatement(test, (String) value);
+            default:
+                throw new IOException("Corrupted binary test file: unknown statement " + tag);
+        }
+    }
+
+    private static Object readValue(DataInput in, byte tag) throws IOException {
+        switch (tag) {
+            case BinaryTestWriter.VALUE_NULL:
+                return null;
+            case BinaryTestWriter.BOOLEAN:
+                return in.readBoolean();
+            case BinaryTestWriter.BYTE:
+                return in.readByte();
+            case BinaryTestWriter.CHAR:
+                return in.readChar();
+            case BinaryTestWriter.SHORT:
+                return in.readShort();
+            case BinaryTestWriter.INT:
+                return readVarInt(in);
+            case BinaryTestWriter.LONG:
+                return in.readLong();
+            case BinaryTestWriter.FLOAT:
+                return in.readFloat();
+            case BinaryTestWriter.DOUBLE:
+                return in.readDouble();
+            case BinaryTestWriter.STRING: {
+                byte[] bytes = new byte[readVarInt(in)];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            default:
+                throw new IOException("Corrupted binary test file: unknown value " + tag);
+        }
+    }
+
+    private VariableReference readReturnValue(DataInput in, TestCase test) throws IOException {
+        byte tag = in.readByte();
+        Type type = readType(in);
+        switch (tag) {
+            case BinaryTestWriter.RETVAL_PLAIN:
+                return error == null ? new VariableReferenceImpl(test, type) : null;
+            case BinaryTestWriter.RETVAL_ARRAY: {
+                int[] lengths = readInts(in);
+                return error == null ? new ArrayReference(test, GenericClassFactory.get(type), lengths) : null;
+            }
+            case BinaryTestWriter.RETVAL_NULL:
+                return error == null ? new NullReference(test, type) : null;
+            default:
+                throw new IOException("Corrupted binary test file: unknown variable " + tag);
+        }
+    }
+
+    private List<VariableReference> readVariables(DataInput in, TestCase test) throws IOException {
+        int size = readVarInt(in);
+        List<VariableReference> variables = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            variables.add(readVariable(in, test));
+        }
+        return variables;
+    }
+
+    private VariableReference readVariable(DataInput in, TestCase test) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case BinaryTestWriter.VAR_NONE:
+                return null;
+            case BinaryTestWriter.VAR_STATEMENT: {
+                int position = readVarInt(in);
+                return error == null ? getDefinedVariable(test, position) : null;
+            }
+            case BinaryTestWriter.VAR_ARRAY_INDEX: {
+                int position = readVarInt(in);
+                int[] indices = readInts(in);
+                if (error != null) {
+                    return null;
+                }
+                List<Integer> list = new ArrayList<>(indices.length);
+                for (int index : indices) {
+                    list.add(index);
+                }
+                return new ArrayIndex(test, (ArrayReference) getDefinedVariable(test, position), list);
+            }
+            case BinaryTestWriter.VAR_FIELD: {
+                GenericAccessibleObject<?> field = readMember(in);
+                Type type = readType(in);
+                VariableReference source = readVariable(in, test);
+                return error == null ? new FieldReference(test, (GenericField) field, type, source) : null;
+            }
+            case BinaryTestWriter.VAR_CONSTANT: {
+                Type type = readType(in);
+                Object value = readValue(in, in.readByte());
+                return error == null ? new ConstantValue(test, GenericClassFactory.get(type), value) : null;
+            }
+            case BinaryTestWriter.VAR_NULL: {
+                Type type = readType(in);
+                return error == null ? new NullReference(test, type) : null;
+            }
+            default:
+                throw new IOException("Corrupted binary test file: unknown variable " + tag);
+        }
+    }
+
+    private static VariableReference getDefinedVariable(TestCase test, int position) throws IOException {
+        if (position >= test.size()) {
+            throw new IOException("Corrupted binary test file: undefined variable " + position);
+        }
+        return test.getStatement(position).getReturnValue();
+    }
+
+    private static int[] readInts(DataInput in) throws IOException {
+        int[] values = new int[readVarInt(in)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readVarInt(in);
+        }
+        return values;
+    }
+
+    /**
+     * Reads a reference to a type, and its definition if it is referenced
+     * for the first time.
+     *
+     * @return the type, or null if it cannot be resolved
+     */
+    private Type readType(DataInput in) throws IOException {
+        int index = readVarInt(in);
+        if (index == types.size()) {
+            types.add(null);
+            typeErrors.add(null);
+            defineType(in, index);
+        } else if (index > types.size() || index < 0) {
+            throw new IOException("Corrupted binary test file: undefined type " + index);
+        }
+        Type type = types.get(index);
+        if (type == null && error == null) {
+            error = typeErrors.get(index);
+        }
+        return type;
+    }
+
+    private Type[] readTypes(DataInput in) throws IOException {
+        Type[] result = new Type[readVarInt(in)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = readType(in);
+        }
+        return result;
+    }
+
+    private void defineType(DataInput in, int index) throws IOException {
+        // the components of a type are read even if one of them cannot be
+        // resolved, and the first reason is kept
+        String previousError = error;
+        error = null;
+        Type type = null;
+        byte tag = in.readByte();
+        switch (tag) {
+            case BinaryTestWriter.TYPE_CLASS: {
+                String name = in.readUTF();
+                try {
+                    type = loadClass(name);
+                } catch (ClassNotFoundException | LinkageError e) {
+                    error = "Cannot load class " + name;
+                }
+                break;
+            }
+            case BinaryTestWriter.TYPE_PARAMETERIZED: {
+                Type raw = readType(in);
+                Type owner = in.readBoolean() ? readType(in) : null;
+                Type[] arguments = readTypes(in);
+                if (error == null) {
+                    type = new ParameterizedTypeImpl((Class<?>) raw, arguments, owner);
+                }
+                break;
+            }
+            case BinaryTestWriter.TYPE_GENERIC_ARRAY: {
+                Type component = readType(in);
+                if (error == null) {
+                    type = GenericArrayTypeImpl.createArrayType(component);
+                }
+                break;
+            }
+            case BinaryTestWriter.TYPE_WILDCARD: {
+                Type[] upperBounds = readTypes(in);
+                Type[] lowerBounds = readTypes(in);
+                if (error == null) {
+                    type = new WildcardTypeImpl(upperBounds, lowerBounds);
+                }
+                break;
+            }
+            default:
+                throw new IOException("Corrupted binary test file: unknown type " + tag);
+        }
+        types.set(index, type);
+        typeErrors.set(index, error);
+        error = previousError;
+    }
+
+    private Class<?> loadClass(String name) throws ClassNotFoundException {
+        switch (name) {
+            case "boolean":
+                return boolean.class;
+            case "byte":
+                return byte.class;
+            case "char":
+                return char.class;
+            case "short":
+                return short.class;
+            case "int":
+                return int.class;
+            case "long":
+                return long.class;
+            case "float":
+                return float.class;
+            case "double":
+                return double.class;
+            case "void":
+                return void.class;
+            default:
+                return Class.forName(name, false, loader);
+        }
+    }
+
+    /**
+     * Reads a reference to a member, and its definition if it is referenced
+     * for the first time, followed by the types its type parameters are
+     * instantiated with.
+     *
+     * @return a new object for the member, as statements can modify it, or
+     * null if it cannot be resolved
+     */
+    private GenericAccessibleObject<?> readMember(DataInput in) throws IOException {
+        int index = readVarInt(in);
+        if (index == members.size()) {
+            members.add(null);
+            members.set(index, defineMember(in));
+        } else if (index > members.size() || index < 0) {
+            throw new IOException("Corrupted binary test file: undefined member " + index);
+        }
+        Type[] typeParameters = readTypes(in);
+
+        Member member = members.get(index);
+        if (member.error != null && error == null) {
+            error = member.error;
+        }
+        if (error != null) {
+            return null;
+        }
+
+        GenericAccessibleObject<?> result;
+        if (member.kind == BinaryTestWriter.CONSTRUCTOR) {
+            result = new GenericConstructor((java.lang.reflect.Constructor<?>) member.reflected, member.owner);
+        } else if (member.kind == BinaryTestWriter.METHOD) {
+            result = new GenericMethod((java.lang.reflect.Method) member.reflected, member.owner);
+        } else {
+            result = new GenericField((java.lang.reflect.Field) member.reflected, member.owner);
+        }
+        if (typeParameters.length > 0) {
+            List<GenericClass<?>> instantiations = new ArrayList<>(typeParameters.length);
+            for (Type typeParameter : typeParameters) {
+                instantiations.add(GenericClassFactory.get(typeParameter));
+            }
+            result.setTypeParameters(instantiations);
+        }
+        return result;
+    }
+
+    private Member defineMember(DataInput in) throws IOException {
+        String previousError = error;
+        error = null;
+        byte kind = in.readByte();
+        Type owner = readType(in);
+        String name = kind == BinaryTestWriter.CONSTRUCTOR ? "<init>" : in.readUTF();
+        Type declaringClass = readType(in);
+        Type[] parameterTypes = kind == BinaryTestWriter.FIELD ? null : readTypes(in);
+
+        Object reflected = null;
+        if (error == null) {
+            try {
+                Class<?> clazz = (Class<?>) declaringClass;
+                if (kind == BinaryTestWriter.CONSTRUCTOR) {
+                    reflected = clazz.getDeclaredConstructor(toClasses(parameterTypes));
+                } else if (kind == BinaryTestWriter.METHOD) {
+                    reflected = clazz.getDeclaredMethod(name, toClasses(parameterTypes));
+                } else {
+                    reflected = clazz.getDeclaredField(name);
+                }
+            } catch (NoSuchMethodException | NoSuchFieldException | LinkageError e) {
+                error = "Cannot find " + name + " in " + ((Class<?>) declaringClass).getName();
+            }
+        }
+        Member member = new Member(kind, reflected, owner, error);
+        error = previousError;
+        return member;
+    }
+
+    private static Class<?>[] toClasses(Type[] types) {
+        Class<?>[] classes = new Class<?>[types.length];
+        for (int i = 0; i < types.length; i++) {
+            classes[i] = (Class<?>) types[i];
+        }
+        return classes;
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted binary test file: malformed int");
+    }
+}
@@ -0,0 +1,620 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ClassPrimitiveStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BytePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.CharPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.FloatPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.ShortPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.NullReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testcase.variable.VariableReferenceImpl;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes tests in a compact binary format, which is read back by
+ * {@link BinaryTestReader}.
+ * <p>
+ * The file starts with a header ("EVTS" and the version of the format),
+ * followed by one record per test. Statements refer to the values defined
+ * by previous statements by position, and to types, constructors, methods
+ * and fields through tables shared by all the tests of the file: the first
+ * reference to a type or member is followed by its definition (e.g., the
+ * name of a class), and later references only consist of its index in the
+ * table. Classes are thus resolved by name with the class loader of the
+ * reader, rather than deserialized.
+ * <p>
+ * Tests with statements or variables the format does not support (e.g.,
+ * functional mocks, or types with type variables) are written as records
+ * containing their Java serialization, so every test can be stored.
+ */
+public class BinaryTestWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryTestWriter.class);
+
+    /**
+     * Header of the file: "EVTS" and the version of the format
+     */
+    static final int MAGIC = 0x45565453;
+    static final int VERSION = 1;
+
+    /**
+     * Tags of the records
+     */
+    static final byte BINARY_RECORD = 1;
+    static final byte JAVA_RECORD = 2;
+
+    /**
+     * Tags of the statements
+     */
+    static final byte CONSTRUCTOR = 1;
+    static final byte METHOD = 2;
+    static final byte FIELD = 3;
+    static final byte ASSIGNMENT = 4;
+    static final byte ARRAY = 5;
+    static final byte NULL = 6;
+    static final byte BOOLEAN = 7;
+    static final byte BYTE = 8;
+    static final byte CHAR = 9;
+    static final byte SHORT = 10;
+    static final byte INT = 11;
+    static final byte LONG = 12;
+    static final byte FLOAT = 13;
+    static final byte DOUBLE = 14;
+    static final byte STRING = 15;
+    static final byte ENUM = 16;
+    static final byte CLASS = 17;
+
+    /**
+     * Tags of the variables used by statements
+     */
+    static final byte VAR_NONE = 0;
+    static final byte VAR_STATEMENT = 1;
+    static final byte VAR_ARRAY_INDEX = 2;
+    static final byte VAR_FIELD = 3;
+    static final byte VAR_CONSTANT = 4;
+    static final byte VAR_NULL = 5;
+
+    /**
+     * Tags of the variables defined by statements
+     */
+    static final byte RETVAL_PLAIN = 0;
+    static final byte RETVAL_ARRAY = 1;
+    static final byte RETVAL_NULL = 2;
+
+    /**
+     * Tags of the type definitions
+     */
+    static final byte TYPE_CLASS = 0;
+    static final byte TYPE_PARAMETERIZED = 1;
+    static final byte TYPE_GENERIC_ARRAY = 2;
+    static final byte TYPE_WILDCARD = 3;
+
+    /**
+     * Tags of the constant values, which are the boxed primitives, strings
+     * and null
+     */
+    static final byte VALUE_NULL = 0;
+
+    private final DataOutputStream out;
+
+    /**
+     * Indices of the types and members written so far, where a member is
+     * identified by its kind, owner type and reflection object
+     */
+    private final Map<Type, Integer> types = new HashMap<>();
+    private final Map<List<Object>, Integer> members = new HashMap<>();
+
+    /**
+     * Types and members first referenced by the test being written. They
+     * are only added to the tables once the test has been written in the
+     * binary format.
+     */
+    private final Map<Type, Integer> newTypes = new HashMap<>();
+    private final Map<List<Object>, Integer> newMembers = new HashMap<>();
+
+    /**
+     * Positions of the variables defined by the statements of the test being
+     * written
+     */
+    private final Map<VariableReference, Integer> positions = new IdentityHashMap<>();
+
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+
+    private int numBinaryRecords = 0;
+    private int numJavaRecords = 0;
+
+    public BinaryTestWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(VERSION);
+    }
+
+    /**
+     * Thrown when a test cannot be represented in the binary format
+     */
+    private static final class UnsupportedTestException extends Exception {
+
+        private static final long serialVersionUID = 4297281862306409211L;
+
+        UnsupportedTestException(String message) {
+            super(message);
+        }
+    }
+
+    public void write(TestChromosome test) throws IOException {
+        record.reset();
+        newTypes.clear();
+        newMembers.clear();
+        positions.clear();
+        try {
+            writeTest(test.getTestCase());
+        } catch (UnsupportedTestException e) {
+            logger.debug("Using Java serialization for test: {}", e.getMessage());
+            writeJavaRecord(test);
+            return;
+        }
+        types.putAll(newTypes);
+        members.putAll(newMembers);
+        out.writeByte(BINARY_RECORD);
+        writeVarInt(out, record.size());
+        record.writeTo(out);
+        numBinaryRecords++;
+    }
+
+    private void writeJavaRecord(TestChromosome test) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+            objectOut.writeObject(test);
+        }
+        out.writeByte(JAVA_RECORD);
+        writeVarInt(out, bytes.size());
+        bytes.writeTo(out);
+        numJavaRecords++;
+    }
+
+    public int getNumBinaryRecords() {
+        return numBinaryRecords;
+    }
+
+    public int getNumJavaRecords() {
+        return numJavaRecords;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeTest(TestCase test) throws IOException, UnsupportedTestException {
+        recordOut.writeBoolean(test.isFailing());
+        recordOut.writeBoolean(test.isUnstable());
+        writeVarInt(recordOut, test.size());
+        for (int i = 0; i < test.size(); i++) {
+            Statement statement = test.getStatement(i);
+            writeStatement(statement);
+            recordOut.writeUTF(statement.getComment());
+            if (!(statement instanceof AssignmentStatement)) {
+                positions.put(statement.getReturnValue(), i);
+            }
+        }
+    }
+
+    private void writeStatement(Statement statement) throws IOException, UnsupportedTestException {
+        Class<?> clazz = statement.getClass();
+        if (clazz == AssignmentStatement.class) {
+            // the variable defined by an assignment is the one it assigns
+            AssignmentStatement assignment = (AssignmentStatement) statement;
+            recordOut.writeByte(ASSIGNMENT);
+            writeVariable(assignment.getReturnValue());
+            writeVariable(assignment.getValue());
+            return;
+        }
+
+        if (clazz == ConstructorStatement.class) {
+            ConstructorStatement constructor = (ConstructorStatement) statement;
+            recordOut.writeByte(CONSTRUCTOR);
+            writeReturnValue(statement);
+            writeMember(CONSTRUCTOR, constructor.getConstructor());
+            writeVariables(constructor.getParameterReferences());
+        } else if (clazz == MethodStatement.class) {
+            MethodStatement method = (MethodStatement) statement;
+            recordOut.writeByte(METHOD);
+            writeReturnValue(statement);
+            writeMember(METHOD, method.getMethod());
+            writeVariable(method.getCallee());
+            writeVariables(method.getParameterReferences());
+        } else if (clazz == FieldStatement.class) {
+            FieldStatement field = (FieldStatement) statement;
+            recordOut.writeByte(FIELD);
+            writeReturnValue(statement);
+            writeMember(FIELD, field.getField());
+            writeVariable(field.getSource());
+        } else if (clazz == ArrayStatement.class) {
+            recordOut.writeByte(ARRAY);
+            writeReturnValue(statement);
+            writeLengths(((ArrayStatement) statement).getLengths());
+        } else if (clazz == NullStatement.class) {
+            recordOut.writeByte(NULL);
+            writeReturnValue(statement);
+        } else if (clazz == EnumPrimitiveStatement.class) {
+            Enum<?> value = ((EnumPrimitiveStatement<?>) statement).getValue();
+            if (value == null) {
+                throw new UnsupportedTestException("enum statement without value");
+            }
+            recordOut.writeByte(ENUM);
+            writeReturnValue(statement);
+            writeType(value.getDeclaringClass());
+            recordOut.writeUTF(value.name());
+        } else if (clazz == ClassPrimitiveStatement.class) {
+            recordOut.writeByte(CLASS);
+            writeReturnValue(statement);
+            writeType(((ClassPrimitiveStatement) statement).getValue());
+        } else {
+            byte tag = getPrimitiveTag(clazz);
+            if (tag == VAR_NONE) {
+                throw new UnsupportedTestException("unsupported statement " + clazz.getName());
+            }
+            recordOut.writeByte(tag);
+            writeReturnValue(statement);
+            writeValue(tag, ((PrimitiveStatement<?>) statement).getValue());
+        }
+    }
+
+    private static byte getPrimitiveTag(Class<?> clazz) {
+        if (clazz == BooleanPrimitiveStatement.class) {
+            return BOOLEAN;
+        } else if (clazz == BytePrimitiveStatement.class) {
+            return BYTE;
+        } else if (clazz == CharPrimitiveStatement.class) {
+            return CHAR;
+        } else if (clazz == ShortPrimitiveStatement.class) {
+            return SHORT;
+        } else if (clazz == IntPrimitiveStatement.class) {
+            return INT;
+        } else if (clazz == LongPrimitiveStatement.class) {
+            return LONG;
+        } else if (clazz == FloatPrimitiveStatement.class) {
+            return FLOAT;
+        } else if (clazz == DoublePrimitiveStatement.class) {
+            return DOUBLE;
+        } else if (clazz == StringPrimitiveStatement.class) {
+            return STRING;
+        }
+        return VAR_NONE;
+    }
+
+    private static byte getValueTag(Object value) {
+        if (value == null) {
+            return VALUE_NULL;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof Byte) {
+            return BYTE;
+        } else if (value instanceof Character) {
+            return CHAR;
+        } else if (value instanceof Short) {
+            return SHORT;
+        } else if (value instanceof Integer) {
+            return INT;
+        } else if (value instanceof Long) {
+            return LONG;
+        } else if (value instanceof Float) {
+            return FLOAT;
+        } else if (value instanceof Double) {
+            return DOUBLE;
+        } else if (value instanceof String) {
+            return STRING;
+        }
+        return -1;
+    }
+
+    private void writeValue(byte tag, Object value) throws IOException, UnsupportedTestException {
+        if (tag != getValueTag(value)) {
+            throw new UnsupportedTestException("unsupported value " + value);
+        }
+        switch (tag) {
+            case BOOLEAN:
+                recordOut.writeBoolean((Boolean) value);
+                break;
+            case BYTE:
+                recordOut.writeByte((Byte) value);
+                break;
+            case CHAR:
+                recordOut.writeChar((Character) value);
+                break;
+            case SHORT:
+                recordOut.writeShort((Short) value);
+                break;
+            case INT:
+                writeVarInt(recordOut, (Integer) value);
+                break;
+            case LONG:
+                recordOut.writeLong((Long) value);
+                break;
+            case FLOAT:
+                recordOut.writeFloat((Float) value);
+                break;
+            case DOUBLE:
+                recordOut.writeDouble((Double) value);
+                break;
+            case STRING:
+                writeString((String) value);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Strings are not limited to the 64K bytes of {@link DataOutput#writeUTF}
+     */
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(recordOut, bytes.length);
+        recordOut.write(bytes);
+    }
+
+    private void writeReturnValue(Statement statement) throws IOException, UnsupportedTestException {
+        VariableReference retval = statement.getReturnValue();
+        Class<?> clazz = retval.getClass();
+        if (clazz == VariableReferenceImpl.class) {
+            recordOut.writeByte(RETVAL_PLAIN);
+            writeType(retval.getType());
+        } else if (clazz == ArrayReference.class) {
+            recordOut.writeByte(RETVAL_ARRAY);
+            writeType(retval.getType());
+            writeLengths(((ArrayReference) retval).getLengths());
+        } else if (clazz == NullReference.class) {
+            recordOut.writeByte(RETVAL_NULL);
+            writeType(retval.getType());
+        } else {
+            throw new UnsupportedTestException("unsupported variable " + clazz.getName());
+        }
+    }
+
+    private void writeLengths(List<Integer> lengths) throws IOException {
+        writeVarInt(recordOut, lengths.size());
+        for (int length : lengths) {
+            writeVarInt(recordOut, length);
+        }
+    }
+
+    private void writeVariables(List<VariableReference> variables) throws IOException, UnsupportedTestException {
+        writeVarInt(recordOut, variables.size());
+        for (VariableReference variable : variables) {
+            writeVariable(variable);
+        }
+    }
+
+    private void writeVariable(VariableReference variable) throws IOException, UnsupportedTestException {
+        if (variable == null) {
+            recordOut.writeByte(VAR_NONE);
+            return;
+        }
+        Integer position = positions.get(variable);
+        if (position != null) {
+            recordOut.writeByte(VAR_STATEMENT);
+            writeVarInt(recordOut, position);
+            return;
+        }
+
+        Class<?> clazz = variable.getClass();
+        if (clazz == ArrayIndex.class) {
+            ArrayIndex index = (ArrayIndex) variable;
+            Integer array = positions.get(index.getArray());
+            if (array == null) {
+                throw new UnsupportedTestException("array index of undefined array");
+            }
+            recordOut.writeByte(VAR_ARRAY_INDEX);
+            writeVarInt(recordOut, array);
+            writeLengths(index.getArrayIndices());
+        } else if (clazz == FieldReference.class) {
+            FieldReference field = (FieldReference) variable;
+            recordOut.writeByte(VAR_FIELD);
+            writeMember(FIELD, field.getField());
+            writeType(field.getType());
+            writeVariable(field.getSource());
+        } else if (clazz == ConstantValue.class) {
+            Object value = ((ConstantValue) variable).getValue();
+            byte tag = getValueTag(value);
+            if (tag < 0) {
+                throw new UnsupportedTestException("unsupported constant " + value);
+            }
+            recordOut.writeByte(VAR_CONSTANT);
+            writeType(variable.getType());
+            recordOut.writeByte(tag);
+            writeValue(tag, value);
+        } else if (clazz == NullReference.class) {
+            recordOut.writeByte(VAR_NULL);
+            writeType(variable.getType());
+        } else {
+            throw new UnsupportedTestException("unsupported variable " + clazz.getName());
+        }
+    }
+
+    /**
+     * Writes the index of the given type, followed by its definition if it
+     * is referenced for the first time. The index is assigned before the
+     * components of the type are written, as the reader does.
+     */
+    private void writeType(Type type) throws IOException, UnsupportedTestException {
+        Integer index = types.get(type);
+        if (index == null) {
+            index = newTypes.get(type);
+        }
+        if (index != null) {
+            writeVarInt(recordOut, index);
+            return;
+        }
+
+        index = types.size() + newTypes.size();
+        newTypes.put(type, index);
+        writeVarInt(recordOut, index);
+        if (type instanceof Class) {
+            recordOut.writeByte(TYPE_CLASS);
+            recordOut.writeUTF(((Class<?>) type).getName());
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            recordOut.writeByte(TYPE_PARAMETERIZED);
+            writeType(parameterizedType.getRawType());
+            recordOut.writeBoolean(parameterizedType.getOwnerType() != null);
+            if (parameterizedType.getOwnerType() != null) {
+                writeType(parameterizedType.getOwnerType());
+            }
+            writeTypes(parameterizedType.getActualTypeArguments());
+        } else if (type instanceof GenericArrayType) {
+            recordOut.writeByte(TYPE_GENERIC_ARRAY);
+            writeType(((GenericArrayType) type).getGenericComponentType());
+        } else if (type instanceof WildcardType) {
+            WildcardType wildcardType = (WildcardType) type;
+            recordOut.writeByte(TYPE_WILDCARD);
+            writeTypes(wildcardType.getUpperBounds());
+            writeTypes(wildcardType.getLowerBounds());
+        } else {
+            // type variables are bound to the declarations of their generic
+            // classes and methods
+            throw new UnsupportedTestException("unsupported type " + type);
+        }
+    }
+
+    private void writeTypes(Type[] types) throws IOException, UnsupportedTestException {
+        writeVarInt(recordOut, types.length);
+        for (Type type : types) {
+            writeType(type);
+        }
+    }
+
+    /**
+     * Writes the index of the given member, followed by its definition if
+     * it is referenced for the first time, and the types its type
+     * parameters are instantiated with.
+     */
+    private void writeMember(byte kind, GenericAccessibleObject<?> member)
+            throws IOException, UnsupportedTestException {
+        Object reflected;
+        if (kind == CONSTRUCTOR) {
+            reflected = ((GenericConstructor) member).getConstructor();
+        } else if (kind == METHOD) {
+            reflected = ((GenericMethod) member).getMethod();
+        } else {
+            reflected = ((GenericField) member).getField();
+        }
+        List<Object> key = Arrays.asList(kind, member.getOwnerType(), reflected);
+        Integer index = members.get(key);
+        if (index == null) {
+            index = newMembers.get(key);
+        }
+        if (index != null) {
+            writeVarInt(recordOut, index);
+        } else {
+            index = members.size() + newMembers.size();
+            newMembers.put(key, index);
+            writeVarInt(recordOut, index);
+            recordOut.writeByte(kind);
+            writeType(member.getOwnerType());
+            if (kind == CONSTRUCTOR) {
+                writeParameterTypes(((GenericConstructor) member).getConstructor().getDeclaringClass(),
+                        ((GenericConstructor) member).getConstructor().getParameterTypes());
+            } else if (kind == METHOD) {
+                Method method = ((GenericMethod) member).getMethod();
+                recordOut.writeUTF(method.getName());
+                writeParameterTypes(method.getDeclaringClass(), method.getParameterTypes());
+            } else {
+                Field field = ((GenericField) member).getField();
+                recordOut.writeUTF(field.getName());
+                writeType(field.getDeclaringClass());
+            }
+        }
+
+        List<GenericClass<?>> typeParameters = member.getInstantiatedTypeParameters();
+        writeVarInt(recordOut, typeParameters.size());
+        for (GenericClass<?> typeParameter : typeParameters) {
+            writeType(typeParameter.getType());
+        }
+    }
+
+    private void writeParameterTypes(Class<?> declaringClass, Class<?>[] parameterTypes)
+            throws IOException, UnsupportedTestException {
+        writeType(declaringClass);
+        writeTypes(parameterTypes);
+    }
+
+    /**
+     * Writes an int 7 bits at a time, so that small non-negative values
+     * (e.g., indices and sizes) take a single byte
+     */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceSummary;
+import org.evosuite.testcase.execution.IntDoubleArrayMap;
+import org.evosuite.testcase.execution.IntIntArrayMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trace data of all the tests of a suite, fused into one set of per-goal
+ * values shared by the suite fitness functions: the minimal true and false
+ * distance and the total execution count of each branch, the total execution
+ * count of each method, and how many tests cover each line. Tests that timed
+ * out or threw a test exception are left out, as they are by the fitness
+ * functions.
+ * <p>
+ * The summary of a suite is kept with the suite (and its clones), and
+ * updated incrementally when the suite is evaluated again: only the traces
+ * of the tests that were changed (and thus executed again) are added, and
+ * those of the tests they replace removed. The traces of the unchanged tests
+ * are not looked at again.
+ */
+public final class SuiteTraceSummary {
+
+    /**
+     * Summaries of the traces of all tests, in the order of the results
+     */
+    private ExecutionTraceSummary[] traces;
+
+    private final IntDoubleArrayMap trueDistances;
+
+    private final IntDoubleArrayMap falseDistances;
+
+    private final IntIntArrayMap predicateCounts;
+
+    private final Map<String, Integer> methodCounts;
+
+    /**
+     * Number of tests covering each line, only maintained once requested
+     */
+    private IntIntArrayMap lineCounts;
+
+    private int numTimeoutsOrTestExceptions;
+
+    private SuiteTraceSummary() {
+        traces = new ExecutionTraceSummary[0];
+        trueDistances = new IntDoubleArrayMap();
+        falseDistances = new IntDoubleArrayMap();
+        predicateCounts = new IntIntArrayMap();
+        methodCounts = new LinkedHashMap<>();
+    }
+
+    private SuiteTraceSummary(SuiteTraceSummary other) {
+        traces = other.traces;
+        trueDistances = other.trueDistances.copy();
+        falseDistances = other.falseDistances.copy();
+        predicateCounts = other.predicateCounts.copy();
+        methodCounts = new LinkedHashMap<>(other.methodCounts);
+        lineCounts = other.lineCounts == null ? null : other.lineCounts.copy();
+        numTimeoutsOrTestExceptions = other.numTimeoutsOrTestExceptions;
+    }
+
+    /**
+     * @return a copy of this summary, for a clone of the suite
+     */
+    SuiteTraceSummary copy() {
+        return new SuiteTraceSummary(this);
+    }
+
+    /**
+     * Return the summary of the given results of the tests of the suite,
+     * updating the one of the previous evaluation of the suite if there is
+     * one.
+     *
+     * @param suite   the evaluated suite
+     * @param results the results of its tests, as returned by
+     *                {@link TestSuiteFitnessFunction#runTestSuite(TestSuiteChromosome)}
+     * @return a {@link SuiteTraceSummary} object.
+     */
+    public static SuiteTraceSummary of(TestSuiteChromosome suite, List<ExecutionResult> results) {
+        ExecutionTraceSummary[] current = new ExecutionTraceSummary[results.size()];
+        for (int i = 0; i < current.length; i++) {
+            current[i] = results.get(i).getTraceSummary();
+        }
+
+        SuiteTraceSummary summary = suite.getTraceSummary();
+        if (summary == null) {
+            summary = new SuiteTraceSummary();
+            suite.setTraceSummary(summary);
+        }
+        summary.update(current);
+        return summary;
+    }
+
+    private void update(ExecutionTraceSummary[] current) {
+        if (isSame(current)) {
+            return;
+        }
+
+        // Match the traces by identity, as they are shared by the clones
+        Map<ExecutionTraceSummary, Integer> previous = new IdentityHashMap<>();
+        for (ExecutionTraceSummary trace : traces) {
+            previous.merge(trace, 1, Integer::sum);
+        }
+        List<ExecutionTraceSummary> added = new ArrayList<>();
+        for (ExecutionTraceSummary trace : current) {
+            Integer count = previous.get(trace);
+            if (count == null) {
+                added.add(trace);
+            } else if (count == 1) {
+                previous.remove(trace);
+            } else {
+                previous.put(trace, count - 1);
+            }
+        }
+
+        int numRemoved = 0;
+        for (int count : previous.values()) {
+            numRemoved += count;
+        }
+        traces = current;
+        if (numRemoved + added.size() >= current.length) {
+            // Cheaper to start from scratch
+            clear();
+            for (ExecutionTraceSummary trace : current) {
+                add(trace);
+            }
+            return;
+        }
+
+        IntIntArrayMap staleTrue = new IntIntArrayMap();
+        IntIntArrayMap staleFalse = new IntIntArrayMap();
+        for (Map.Entry<ExecutionTraceSummary, Integer> entry : previous.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                remove(entry.getKey(), staleTrue, staleFalse);
+            }
+        }
+        for (ExecutionTraceSummary trace : added) {
+            add(trace);
+        }
+        recomputeMinima(staleTrue, staleFalse);
+    }
+
+    private boolean isSame(ExecutionTraceSummary[] current) {
+        if (current.length != traces.length) {
+            return false;
+        }
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != traces[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void clear() {
+        trueDistances.clear();
+        falseDistances.clear();
+        predicateCounts.clear();
+        methodCounts.clear();
+        if (lineCounts != null) {
+            lineCounts.clear();
+        }
+        numTimeoutsOrTestExceptions = 0;
+    }
+
+    private void add(ExecutionTraceSummary trace) {
+        if (trace.isTimeoutOrTestException()) {
+            numTimeoutsOrTestExceptions++;
+            return;
+        }
+        for (int i = 0; i < trace.getNumBranches(); i++) {
+            int branchId = trace.getBranchId(i);
+            if (trace.getPredicateCount(i) > 0) {
+                predicateCounts.addTo(branchId, trace.getPredicateCount(i));
+            }
+            double trueDistance = trace.getTrueDistance(i);
+            if (!Double.isNaN(trueDistance)) {
+                trueDistances.putMin(branchId, trueDistance);
+            }
+            double falseDistance = trace.getFalseDistance(i);
+            if (!Double.isNaN(falseDistance)) {
+                falseDistances.putMin(branchId, falseDistance);
+            }
+        }
+        for (int i = 0; i < trace.getNumMethods(); i++) {
+            methodCounts.merge(trace.getMethod(i), trace.getMethodCount(i), Integer::sum);
+        }
+        if (lineCounts != null) {
+            for (int line : trace.getCoveredLines()) {
+                lineCounts.increment(line);
+            }
+        }
+    }
+
+    /**
+     * Remove the counts of the trace, and collect the branches whose minimal
+     * distance might have been the one of this trace
+     */
+    private void remove(ExecutionTraceSummary trace, IntIntArrayMap staleTrue, IntIntArrayMap staleFalse) {
+        if (trace.isTimeoutOrTestException()) {
+            numTimeoutsOrTestExceptions--;
+            return;
+        }
+        for (int i = 0; i < trace.getNumBranches(); i++) {
+            int branchId = trace.getBranchId(i);
+            int count = trace.getPredicateCount(i);
+            if (count > 0) {
+                if (predicateCounts.getInt(branchId, 0) == count) {
+                    predicateCounts.remove(branchId);
+                } else {
+                    predicateCounts.addTo(branchId, -count);
+                }
+            }
+            if (trace.getTrueDistance(i) <= trueDistances.getDouble(branchId, Double.NaN)) {
+                staleTrue.putInt(branchId, 1);
+            }
+            if (trace.getFalseDistance(i) <= falseDistances.getDouble(branchId, Double.NaN)) {
+                staleFalse.putInt(branchId, 1);
+            }
+        }
+        for (int i = 0; i < trace.getNumMethods(); i++) {
+            String method = trace.getMethod(i);
+            int count = methodCounts.get(method) - trace.getMethodCount(i);
+            if (count == 0) {
+                methodCounts.remove(method);
+            } else {
+                methodCounts.put(method, count);
+            }
+        }
+        if (lineCounts != null) {
+            for (int line : trace.getCoveredLines()) {
+                if (lineCounts.getInt(line, 0) == 1) {
+                    lineCounts.remove(line);
+                } else {
+                    lineCounts.addTo(line, -1);
+                }
+            }
+        }
+    }
+
+    private void recomputeMinima(IntIntArrayMap staleTrue, IntIntArrayMap staleFalse) {
+        for (int branchId = staleTrue.nextKey(0); branchId >= 0; branchId = staleTrue.nextKey(branchId + 1)) {
+            recomputeMinimum(branchId, true);
+        }
+        for (int branchId = staleFalse.nextKey(0); branchId >= 0; branchId = staleFalse.nextKey(branchId + 1)) {
+            recomputeMinimum(branchId, false);
+        }
+    }
+
+    private void recomputeMinimum(int branchId, boolean trueDistance) {
+        IntDoubleArrayMap distances = trueDistance ? trueDistances : falseDistances;
+        distances.remove(branchId);
+        for (ExecutionTraceSummary trace : traces) {
+            if (trace.isTimeoutOrTestException()) {
+                continue;
+            }
+            int i = trace.indexOf(branchId);
+            if (i < 0) {
+                continue;
+            }
+            double distance = trueDistance ? trace.getTrueDistance(i) : trace.getFalseDistance(i);
+            if (!Double.isNaN(distance)) {
+                distances.putMin(branchId, distance);
+            }
+        }
+    }
+
+    /**
+     * @return whether any test timed out or threw a test exception
+     */
+    public boolean hasTimeoutOrTestException() {
+        return numTimeoutsOrTestExceptions > 0;
+    }
+
+    /**
+     * @return the minimal true distance of each branch, which must not be
+     * modified
+     */
+    public IntDoubleArrayMap getTrueDistances() {
+        return trueDistances;
+    }
+
+    /**
+     * @return the minimal false distance of each branch, which must not be
+     * modified
+     */
+    public IntDoubleArrayMap getFalseDistances() {
+        return falseDistances;
+    }
+
+    /**
+     * @return how often the predicate of each branch was executed, which must
+     * not be modified
+     */
+    public IntIntArrayMap getPredicateExecutionCount() {
+        return predicateCounts;
+    }
+
+    /**
+     * @return how often each method was executed
+     */
+    public Map<String, Integer> getMethodExecutionCount() {
+        return Collections.unmodifiableMap(methodCounts);
+    }
+
+    /**
+     * @return how many tests cover each line of the target class, which must
+     * not be modified
+     */
+    public IntIntArrayMap getCoveredLines() {
+        if (lineCounts == null) {
+            lineCounts = new IntIntArrayMap();
+            for (ExecutionTraceSummary trace : traces) {
+                if (!trace.isTimeoutOrTestException()) {
+                    for (int line : trace.getCoveredLines()) {
+                        lineCounts.increment(line);
+                    }
+                }
+            }
+        }
+        return lineCounts;
+    }
+}
@@ -52,6 +52,11 @@ public final class TestSuiteChromosome
     private static int secondaryObjIndex = 0;
     private static final long serialVersionUID = 88380759969800800L;
 
+    /**
+     * Trace data of the last evaluation, see {@link SuiteTraceSummary}
+     */
+    private transient SuiteTraceSummary traceSummary;
+
     /**
      * Add an additional secondary objective to the end of the list of
      * objectives
@@ -132,6 +137,17 @@ public final class TestSuiteChromosome
      */
     protected TestSuiteChromosome(TestSuiteChromosome source) {
         super(source);
+        if (source.traceSummary != null) {
+            traceSummary = source.traceSummary.copy();
+        }
+    }
+
+    SuiteTraceSummary getTraceSummary() {
+        return traceSummary;
+    }
+
+    void setTraceSummary(SuiteTraceSummary traceSummary) {
+        this.traceSummary = traceSummary;
     }
 
     /**
@@ -24,13 +24,17 @@ import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceSummary;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * <p>
@@ -48,6 +52,12 @@ public abstract class TestSuiteFitnessFunction extends FitnessFunction<TestSuite
      */
     protected static final Logger logger = LoggerFactory.getLogger(TestSuiteFitnessFunction.class);
 
+    /**
+     * Traces this fitness function has already analyzed. As they are shared
+     * by the clones of a result, they identify unchanged tests across suites.
+     */
+    private transient Set<ExecutionTraceSummary> analyzedTraces;
+
 
     /**
      * Execute a test case
@@ -111,6 +121,23 @@ public abstract class TestSuiteFitnessFunction extends FitnessFunction<TestSuite
 
 
 
+    /**
+     * Check whether the trace of the result is analyzed for the first time by
+     * this fitness function, and remember it. The per-test work (marking the
+     * covered goals of the test, updating the archive) only has to be done
+     * once per trace, as it has the same outcome for all the copies of an
+     * unchanged test.
+     *
+     * @param result the result of a test
+     * @return true if this fitness function has not seen the trace yet
+     */
+    protected boolean isNewTrace(ExecutionResult result) {
+        if (analyzedTraces == null) {
+            analyzedTraces = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+        }
+        return analyzedTraces.add(result.getTraceSummary());
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.ga.FitnessFunction#isMaximizationFunction()
      */
@@ -65,6 +65,12 @@ public class TestSuiteMinimizer {
      */
     protected static long startTime = 0L;
 
+    /**
+     * Number of test executions and executed statements needed to minimize the tests
+     */
+    private int minimizationExecutions = 0;
+    private long minimizationStatements = 0L;
+
     /**
      * <p>
      * Constructor for TestSuiteMinimizer.
@@ -90,6 +96,8 @@ public class TestSuiteMinimizer {
      */
     public void minimize(TestSuiteChromosome suite, boolean minimizePerTest) {
         startTime = System.currentTimeMillis();
+        minimizationExecutions = 0;
+        minimizationStatements = 0;
 
         SecondaryObjective strategy = Properties.SECONDARY_OBJECTIVE[0];
 
@@ -110,6 +118,12 @@ public class TestSuiteMinimizer {
                 suite.size());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Minimized_Length,
                 suite.totalLengthOfTestCases());
+        if (minimizePerTest) {
+            ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Minimization_Test_Executions,
+                    minimizationExecutions);
+            ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Minimization_Executed_Statements,
+                    minimizationStatements);
+        }
     }
 
     private void updateClientStatus(int progress) {
@@ -217,6 +231,8 @@ public class TestSuiteMinimizer {
                         goal);
                 TestChromosome copy = test.clone();
                 minimizer.minimize(copy);
+                minimizationExecutions += minimizer.getNumExecutions();
+                minimizationStatements += minimizer.getNumExecutedStatements();
                 if (isTimeoutReached()) {
                     logger.warn("Minimization timeout. Roll back to original test suite");
                     return;
@@ -23,7 +23,6 @@ import org.evosuite.TestGenerationContext;
 import org.evosuite.runtime.util.Inputs;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.statements.Statement;
-import org.evosuite.utils.DebuggingObjectOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,21 +46,11 @@ public class TestSuiteSerialization {
             parent.mkdirs();
         }
 
-        try (ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target))) {
-            for (TestSuiteChromosome ts : list) {
-                for (TestChromosome tc : ts.getTestChromosomes()) {
-                    out.writeObject(tc);
-                }
-            }
-
-            out.flush();
-            out.close();
-        } catch (IOException e) {
-            logger.error("Failed to open/handle " + target.getAbsolutePath() + " for writing: " + e.getMessage());
-            return false;
+        List<TestChromosome> tests = new ArrayList<>();
+        for (TestSuiteChromosome ts : list) {
+            tests.addAll(ts.getTestChromosomes());
         }
-
-        return true;
+        return writeTests(tests, target);
     }
 
     public static boolean saveTests(TestSuiteChromosome ts, File target) throws IllegalArgumentException {
@@ -70,13 +59,19 @@ public class TestSuiteSerialization {
             parent.mkdirs();
         }
 
-        try (ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target))) {
-            for (TestChromosome tc : ts.getTestChromosomes()) {
-                out.writeObject(tc);
-            }
+        return writeTests(ts.getTestChromosomes(), target);
+    }
 
-            out.flush();
-            out.close();
+    /**
+     * Writes the tests with {@link BinaryTestWriter}
+     */
+    private static boolean writeTests(List<TestChromosome> tests, File target) {
+        try (BinaryTestWriter out = new BinaryTestWriter(new FileOutputStream(target))) {
+            for (TestChromosome tc : tests) {
+                out.write(tc);
+            }
+            logger.debug("Saved " + out.getNumBinaryRecords() + " tests in binary format and "
+                    + out.getNumJavaRecords() + " with Java serialization to " + target.getAbsolutePath());
         } catch (IOException e) {
             logger.error("Failed to open/handle " + target.getAbsolutePath() + " for writing: " + e.getMessage());
             return false;
@@ -107,12 +102,38 @@ public class TestSuiteSerialization {
         return loadTests(new File(target));
     }
 
+    /**
+     * Loads the tests saved by {@link #saveTests}, either in the binary
+     * format of {@link BinaryTestWriter}, or with Java serialization as done
+     * by previous versions of EvoSuite.
+     * To load the tests of a binary file one at a time, use
+     * {@link BinaryTestReader}.
+     */
     public static List<TestChromosome> loadTests(File target) throws IllegalArgumentException {
         Inputs.checkNull(target);
 
         List<TestChromosome> list = new ArrayList<>();
 
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(target))) {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(target))) {
+            if (BinaryTestReader.isBinaryFormat(in)) {
+                try (BinaryTestReader reader = new BinaryTestReader(in)) {
+                    reader.forEachRemaining(list::add);
+                }
+            } else {
+                loadJavaSerializedTests(in, target, list);
+            }
+        } catch (FileNotFoundException e) {
+            logger.warn("Cannot load tests because file does not exist: " + target.getAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to open/handle " + target.getAbsolutePath() + " for reading: " + e.getMessage());
+        }
+
+        return list;
+    }
+
+    private static void loadJavaSerializedTests(InputStream stream, File target, List<TestChromosome> list)
+            throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(stream)) {
 
             try {
                 Object obj = in.readObject();
@@ -133,14 +154,6 @@ public class TestSuiteSerialization {
             } catch (Exception e) {
                 logger.warn("Problems when reading a serialized test from " + target.getAbsolutePath() + " : " + e.getMessage());
             }
-
-            in.close();
-        } catch (FileNotFoundException e) {
-            logger.warn("Cannot load tests because file does not exist: " + target.getAbsolutePath());
-        } catch (IOException e) {
-            logger.error("Failed to open/handle " + target.getAbsolutePath() + " for reading: " + e.getMessage());
         }
-
-        return list;
     }
 }
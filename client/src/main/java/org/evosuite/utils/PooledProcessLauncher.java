@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import org.apache.commons.exec.CommandLine;
+import org.evosuite.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches external processes (e.g., SMT solvers) that read their whole
+ * input from stdin, for commands that are launched many times.
+ * <p>
+ * Unlike {@link ProcessLauncher}, which sets up a new executor, watchdog
+ * and stream pumps for each launch, the threads writing the input and
+ * reading the output of the processes are pooled. Moreover, up to
+ * {@link Properties#PRESPAWNED_PROCESSES} processes are started in advance
+ * for each command that was launched, such that the next launch does not
+ * wait for the process to start. The input is written to the process
+ * directly from the array of the caller, without intermediate buffers.
+ * <p>
+ * Pre-spawned processes are killed when the singleton is reset, i.e., for
+ * each class under test.
+ */
+public class PooledProcessLauncher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledProcessLauncher.class);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static PooledProcessLauncher instance = null;
+
+    private static boolean shutdownHookAdded = false;
+
+    private final ExecutorService pumpThreads = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "PooledProcessLauncher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Processes started in advance, by command line
+     */
+    private final Map<String, Deque<Process>> prespawnedProcesses = new HashMap<>();
+
+    /**
+     * Number of processes being started in advance, by command line
+     */
+    private final Map<String, Integer> pendingProcesses = new HashMap<>();
+
+    private boolean shutdown = false;
+
+    private long launches = 0;
+    private long prespawnedLaunches = 0;
+    private long totalLaunchLatencyNanos = 0;
+    private long maxLaunchLatencyNanos = 0;
+
+    public static synchronized PooledProcessLauncher getInstance() {
+        if (instance == null) {
+            instance = new PooledProcessLauncher();
+            // the singleton is reset for each class under test, but the
+            // hook resets whichever instance is current at exit
+            if (!shutdownHookAdded) {
+                Runtime.getRuntime().addShutdownHook(new Thread(PooledProcessLauncher::resetSingleton));
+                shutdownHookAdded = true;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Kills all the pre-spawned processes, and stops the pooled threads once
+     * the running launches are done.
+     */
+    public static synchronized void resetSingleton() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    private PooledProcessLauncher() {
+        /* empty constructor */
+    }
+
+    /**
+     * Launches the command, writes the input to its stdin, and waits for it
+     * to terminate.
+     *
+     * @param command       the command line
+     * @param input         the whole input of the process
+     * @param outAndErr     where stdout and stderr of the process are written
+     * @param timeoutMillis maximum time to wait for the process, once it was started
+     * @return the exit value of the process
+     * @throws IOException             if the process cannot be started
+     * @throws ProcessTimeoutException if the process was killed after the timeout
+     */
+    public int launch(String command, byte[] input, OutputStream outAndErr, long timeoutMillis)
+            throws IOException, ProcessTimeoutException {
+
+        long start = System.nanoTime();
+        Process process = takePrespawnedProcess(command);
+        boolean prespawned = process != null;
+        if (!prespawned) {
+            logger.debug("About to execute command " + command);
+            process = startProcess(command);
+        }
+        recordLaunch(System.nanoTime() - start, prespawned);
+        prespawn(command);
+
+        final Process launched = process;
+        try {
+            Future<?> output = pumpThreads.submit(() -> {
+                copy(launched.getInputStream(), outAndErr);
+                return null;
+            });
+            Future<?> stdin = pumpThreads.submit(() -> {
+                try (OutputStream out = launched.getOutputStream()) {
+                    out.write(input);
+                } catch (IOException e) {
+                    // the process terminated without reading all of its input
+                    logger.debug("Could not write the whole input of command " + command);
+                }
+            });
+
+            if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.debug("A timeout occured while executing a process");
+                logger.debug("The command is " + command);
+                throw new ProcessTimeoutException("A timeout occurred while executing command " + command);
+            }
+            stdin.get();
+            output.get();
+            return process.exitValue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while executing command " + command);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to read the output of command " + command, e.getCause());
+        } catch (RejectedExecutionException e) {
+            throw new IOException("The launcher was reset while executing command " + command);
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static Process startProcess(String command) throws IOException {
+        CommandLine cmdLine = CommandLine.parse(command);
+        return new ProcessBuilder(cmdLine.toStrings()).redirectErrorStream(true).start();
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        out.flush();
+    }
+
+    private synchronized Process takePrespawnedProcess(String command) {
+        Deque<Process> processes = prespawnedProcesses.get(command);
+        while (processes != null && !processes.isEmpty()) {
+            Process process = processes.poll();
+            if (process.isAlive()) {
+                return process;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts processes for the command in the background, until there are
+     * enough waiting for the next launches
+     */
+    private synchronized void prespawn(String command) {
+        int pending = pendingProcesses.getOrDefault(command, 0);
+        Deque<Process> processes = prespawnedProcesses.computeIfAbsent(command, c -> new ArrayDeque<>());
+        for (int i = processes.size() + pending; i < Properties.PRESPAWNED_PROCESSES && !shutdown; i++) {
+            pendingProcesses.merge(command, 1, Integer::sum);
+            pumpThreads.execute(() -> {
+                Process process = null;
+                try {
+                    process = startProcess(command);
+                } catch (IOException e) {
+                    logger.debug("Failed to start command " + command + " in advance: " + e.getMessage());
+                }
+                addPrespawnedProcess(command, process);
+            });
+        }
+    }
+
+    private synchronized void addPrespawnedProcess(String command, Process process) {
+        pendingProcesses.merge(command, -1, Integer::sum);
+        if (process == null) {
+            return;
+        }
+        if (shutdown) {
+            process.destroyForcibly();
+        } else {
+            prespawnedProcesses.computeIfAbsent(command, c -> new ArrayDeque<>()).add(process);
+        }
+    }
+
+    private synchronized void recordLaunch(long latencyNanos, boolean prespawned) {
+        launches++;
+        if (prespawned) {
+            prespawnedLaunches++;
+        }
+        totalLaunchLatencyNanos += latencyNanos;
+        maxLaunchLatencyNanos = Math.max(maxLaunchLatencyNanos, latencyNanos);
+    }
+
+    private synchronized void shutdown() {
+        shutdown = true;
+        for (Deque<Process> processes : prespawnedProcesses.values()) {
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+        }
+        prespawnedProcesses.clear();
+        pumpThreads.shutdown();
+        if (launches > 0) {
+            logger.debug("Launched {} processes ({} pre-spawned), average launch latency {}ms, maximum {}ms",
+                    launches, prespawnedLaunches, getAverageLaunchLatency(), getMaxLaunchLatency());
+        }
+    }
+
+    /**
+     * @return the number of processes launched
+     */
+    public synchronized long getNumberOfLaunches() {
+        return launches;
+    }
+
+    /**
+     * @return the number of launches that used a process started in advance
+     */
+    public synchronized long getNumberOfPrespawnedLaunches() {
+        return prespawnedLaunches;
+    }
+
+    /**
+     * @return the average time in milliseconds until a launched process was
+     * ready to receive its input
+     */
+    public synchronized double getAverageLaunchLatency() {
+        return launches == 0 ? 0.0 : totalLaunchLatencyNanos / 1_000_000.0 / launches;
+    }
+
+    /**
+     * @return the maximum time in milliseconds until a launched process was
+     * ready to receive its input
+     */
+    public synchronized double getMaxLaunchLatency() {
+        return maxLaunchLatencyNanos / 1_000_000.0;
+    }
+}
@@ -225,6 +225,27 @@ public class Randomness implements Serializable {
         return seed;
     }
 
+    /**
+     * Derive the seed of one of several clients that search in parallel on
+     * the same class. Client 0 keeps the given seed, such that a run with a
+     * single client is not affected, whereas every other client gets a
+     * distinct but reproducible seed.
+     *
+     * @param seed        the seed the search was started with
+     * @param clientIndex the index of the client, starting from 0
+     * @return the seed to use for the given client
+     */
+    public static long getSeedForClient(long seed, int clientIndex) {
+        if (clientIndex <= 0) {
+            return seed;
+        }
+        // SplitMix64 finalizer, so that neighbouring clients get unrelated streams
+        long z = seed + clientIndex * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
     /**
      * <p>
      * choice
@@ -451,6 +451,14 @@ public abstract class GenericAccessibleObject<T extends GenericAccessibleObject<
             typeVariables.add(GenericClassFactory.get(parameter));
     }
 
+    /**
+     * @return the types the type parameters of this object are instantiated
+     * with, as set by {@link #setTypeParameters(List)}
+     */
+    public List<GenericClass<?>> getInstantiatedTypeParameters() {
+        return Collections.unmodifiableList(typeVariables);
+    }
+
     @Override
     public abstract String toString();
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.assertion;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.mutation.Mutation;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.testcase.execution.ExecutionTrace;
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.tree.InsnList;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class SimpleMutationAssertionGeneratorTest {
+
+    private final Map<Integer, Mutation> mutants = new LinkedHashMap<>();
+
+    @Before
+    public void setUp() {
+        for (int id = 0; id < 4; id++) {
+            mutants.put(id, new Mutation("Foo", "bar()V", "Mutant" + id, id,
+                    mock(BytecodeInstruction.class), new InsnList(), new InsnList()));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static ExecutionTrace getTrace() {
+        ExecutionTrace trace = new ExecutionTraceImpl();
+        // touched but never infected
+        trace.mutationPassed(0, 2.0);
+        trace.mutationPassed(0, 1.0);
+        // infected once
+        trace.mutationPassed(1, 3.0);
+        trace.mutationPassed(1, 0.0);
+        trace.mutationPassed(2, -0.0);
+        // not a known mutant
+        trace.mutationPassed(7, 0.0);
+        return trace;
+    }
+
+    private List<Mutation> getMutantsToExecute() {
+        List<Mutation> executed = SimpleMutationAssertionGenerator.getMutantsToExecute(getTrace(), mutants);
+        executed.sort(Comparator.comparingInt(Mutation::getId));
+        return executed;
+    }
+
+    @Test
+    public void testUninfectedMutantsAreNotExecuted() {
+        Properties.SKIP_UNINFECTED_MUTANTS = true;
+        assertEquals(Arrays.asList(mutants.get(1), mutants.get(2)), getMutantsToExecute());
+    }
+
+    @Test
+    public void testAllTouchedMutantsAreExecutedWithoutSkipping() {
+        Properties.SKIP_UNINFECTED_MUTANTS = false;
+        assertEquals(Arrays.asList(mutants.get(0), mutants.get(1), mutants.get(2)), getMutantsToExecute());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.classpath;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ClassPathIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initClass() {
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+    }
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+        ClassPathIndex.resetSingleton();
+        ResourceList.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).resetCache();
+    }
+
+    private static void writeJar(File jar, String... entries) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()))) {
+            for (String entry : entries) {
+                out.putNextEntry(new JarEntry(entry));
+                out.closeEntry();
+            }
+        }
+    }
+
+    @Test
+    public void testClassesAreReadFromIndex() throws IOException {
+        File first = folder.newFile("first.jar");
+        File second = folder.newFile("second.jar");
+        writeJar(first, "foo/A.class", "foo/A$1.class", "META-INF/foo.txt");
+        writeJar(second, "bar/B.class");
+        File file = new File(folder.getRoot(), "index");
+
+        ClassPathIndex index = new ClassPathIndex(file);
+        assertEquals(Arrays.asList("foo/A.class", "foo/A$1.class"), index.getClassEntries(first.getAbsolutePath()));
+        assertEquals(Arrays.asList("bar/B.class"), index.getClassEntries(second.getAbsolutePath()));
+        assertEquals(2, index.getNumberOfMisses());
+        index.save();
+        assertTrue(file.exists());
+
+        ClassPathIndex warmIndex = new ClassPathIndex(file);
+        assertEquals(Arrays.asList("foo/A.class", "foo/A$1.class"), warmIndex.getClassEntries(first.getAbsolutePath()));
+        assertEquals(Arrays.asList("bar/B.class"), warmIndex.getClassEntries(second.getAbsolutePath()));
+        assertEquals(2, warmIndex.getNumberOfHits());
+        assertEquals(0, warmIndex.getNumberOfMisses());
+    }
+
+    @Test
+    public void testChangedJarsAreScannedAgain() throws IOException {
+        File first = folder.newFile("first.jar");
+        File second = folder.newFile("second.jar");
+        writeJar(first, "foo/A.class");
+        writeJar(second, "bar/B.class");
+        File file = new File(folder.getRoot(), "index");
+
+        ClassPathIndex index = new ClassPathIndex(file);
+        index.getClassEntries(first.getAbsolutePath());
+        index.getClassEntries(second.getAbsolutePath());
+        index.save();
+
+        writeJar(first, "foo/A.class", "foo/C.class");
+        assertTrue(first.setLastModified(first.lastModified() + 2000));
+        ClassPathIndex warmIndex = new ClassPathIndex(file);
+        assertEquals(Arrays.asList("foo/A.class", "foo/C.class"), warmIndex.getClassEntries(first.getAbsolutePath()));
+        assertEquals(1, warmIndex.getNumberOfMisses());
+        warmIndex.save();
+
+        // the unchanged jar is kept in the rewritten index
+        ClassPathIndex lastIndex = new ClassPathIndex(file);
+        assertEquals(Arrays.asList("foo/A.class", "foo/C.class"), lastIndex.getClassEntries(first.getAbsolutePath()));
+        assertEquals(Arrays.asList("bar/B.class"), lastIndex.getClassEntries(second.getAbsolutePath()));
+        assertEquals(2, lastIndex.getNumberOfHits());
+    }
+
+    @Test
+    public void testCorruptedIndexIsIgnored() throws IOException {
+        File jar = folder.newFile("first.jar");
+        writeJar(jar, "foo/A.class");
+        File file = folder.newFile("index");
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+
+        ClassPathIndex index = new ClassPathIndex(file);
+        assertEquals(Arrays.asList("foo/A.class"), index.getClassEntries(jar.getAbsolutePath()));
+        assertEquals(1, index.getNumberOfMisses());
+    }
+
+    @Test
+    public void testStreamFromIndexedJar() throws Exception {
+        File localJar = new File("local_test_data" + File.separator + "water-simulator.jar");
+        assertTrue(localJar.exists());
+        ClassPathHandler.getInstance().addElementToTargetProjectClassPath(localJar.getAbsolutePath());
+        Properties.CLASSPATH_INDEX_FILE = new File(folder.getRoot(), "index").getAbsolutePath();
+
+        ResourceList resources = ResourceList.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT());
+        resources.resetCache();
+        try (InputStream stream = resources.getClassAsStream("simulator.DAWN")) {
+            assertNotNull(stream);
+        }
+        assertTrue(new File(Properties.CLASSPATH_INDEX_FILE).exists());
+
+        ClassPathIndex.resetSingleton();
+        resources.resetCache();
+        try (InputStream stream = resources.getClassAsStream("simulator.DAWN")) {
+            assertNotNull(stream);
+        }
+        assertEquals(0, ClassPathIndex.getInstance().getNumberOfMisses());
+        assertTrue(ClassPathIndex.getInstance().getNumberOfHits() > 0);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ObjectiveMapTest {
+
+    private static class Goal extends FitnessFunction<DummyChromosome> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        Goal(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public double getFitness(DummyChromosome individual) {
+            return id;
+        }
+
+        @Override
+        public boolean isMaximizationFunction() {
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Goal && ((Goal) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        ObjectiveRegistry.resetSingleton();
+    }
+
+    @Test
+    public void testBehavesLikeLinkedHashMap() {
+        ObjectiveMap<DummyChromosome, Double> map = ObjectiveMap.ofDoubles();
+        Map<FitnessFunction<DummyChromosome>, Double> expected = new LinkedHashMap<>();
+        for (int id : new int[]{5, 1, 3, 2, 4}) {
+            map.put(new Goal(id), id * 0.5);
+            expected.put(new Goal(id), id * 0.5);
+        }
+        assertEquals(expected, map);
+        assertEquals(Arrays.asList(expected.keySet().toArray()), Arrays.asList(map.keySet().toArray()));
+
+        assertEquals(Double.valueOf(0.5), map.remove(new Goal(1)));
+        expected.remove(new Goal(1));
+        map.keySet().removeIf(ff -> ff.equals(new Goal(3)));
+        expected.keySet().removeIf(ff -> ff.equals(new Goal(3)));
+        assertEquals(Arrays.asList(expected.keySet().toArray()), Arrays.asList(map.keySet().toArray()));
+        assertEquals(5.5, map.sum(), 0.0);
+        assertNull(map.get(new Goal(1)));
+        assertFalse(map.containsKey(new Goal(42)));
+
+        map.put(new Goal(1), 7.0);
+        Iterator<FitnessFunction<DummyChromosome>> keys = map.keySet().iterator();
+        keys.next();
+        keys.next();
+        keys.next();
+        assertEquals(new Goal(1), keys.next());
+    }
+
+    @Test
+    public void testCopy() {
+        ObjectiveMap<DummyChromosome, Integer> map = ObjectiveMap.ofIntegers();
+        map.put(new Goal(2), 2);
+        map.put(new Goal(1), 1);
+        ObjectiveMap<DummyChromosome, Integer> copy = ObjectiveMap.ofIntegers();
+        copy.putAll(map);
+        map.put(new Goal(3), 3);
+        assertEquals(2, copy.size());
+        assertEquals(Integer.valueOf(1), copy.get(new Goal(1)));
+        assertEquals(Arrays.asList(new Goal(2), new Goal(1)), Arrays.asList(copy.keySet().toArray()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSerializationUsesCurrentRegistry() throws IOException, ClassNotFoundException {
+        ObjectiveMap<DummyChromosome, Double> map = ObjectiveMap.ofDoubles();
+        map.put(new Goal(1), 1.0);
+        map.put(new Goal(2), 2.0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+        ObjectiveRegistry.resetSingleton();
+        ObjectiveRegistry.getInstance().register(new Goal(2));
+
+        ObjectiveMap<DummyChromosome, Double> copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (ObjectiveMap<DummyChromosome, Double>) in.readObject();
+        }
+        assertEquals(map, copy);
+        assertEquals(0, copy.indexOf(new Goal(2)));
+        assertEquals(2.0, copy.getValue(0), 0.0);
+    }
+
+    @Test
+    public void testFitnessVector() {
+        DummyChromosome c = new DummyChromosome();
+        c.setFitness(new Goal(1), 0.5);
+        c.setFitness(new Goal(2), 0.0);
+        c.setFitness(new Goal(2), 0.25);
+        assertTrue(c.hasFitnessChanged());
+        assertEquals(0.75, c.getFitness(), 0.0);
+
+        Objectives<DummyChromosome> objectives = new Objectives<>(Arrays.asList(new Goal(2), new Goal(3), new Goal(1)));
+        double[] vector = c.getFitnessVector(objectives);
+        // the fitness for goal 3 is computed, as it is not cached
+        assertEquals(Arrays.toString(new double[]{0.25, 3.0, 0.5}), Arrays.toString(vector));
+
+        // chromosomes created before a reset keep working
+        ObjectiveRegistry.resetSingleton();
+        Objectives<DummyChromosome> other = new Objectives<>(Arrays.asList(new Goal(1), new Goal(2)));
+        assertEquals(Arrays.toString(new double[]{0.5, 0.25}), Arrays.toString(c.getFitnessVector(other)));
+    }
+}
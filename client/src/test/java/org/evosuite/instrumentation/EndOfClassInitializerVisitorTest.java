@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class EndOfClassInitializerVisitorTest {
+
+    private static byte[] createClass(boolean withClassInit) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "com/example/Foo", null, "java/lang/Object", null);
+        writer.visitField(Opcodes.ACC_STATIC, "counter", "I", null, null).visitEnd();
+        if (withClassInit) {
+            MethodVisitor mv = writer.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+            mv.visitCode();
+            mv.visitInsn(Opcodes.ICONST_1);
+            mv.visitFieldInsn(Opcodes.PUTSTATIC, "com/example/Foo", "counter", "I");
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static ClassNode instrument(byte[] bytes, boolean createClassInit) {
+        ClassNode node = new ClassNode();
+        new ClassReader(bytes).accept(new EndOfClassInitializerVisitor(node, "com/example/Foo", createClassInit), 0);
+        return node;
+    }
+
+    private static MethodNode getClassInit(ClassNode node) {
+        for (MethodNode method : node.methods) {
+            if (method.name.equals("<clinit>")) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> getCalls(MethodNode method) {
+        List<String> calls = new ArrayList<>();
+        for (AbstractInsnNode insn : method.instructions) {
+            if (insn instanceof MethodInsnNode) {
+                calls.add(((MethodInsnNode) insn).name);
+            }
+        }
+        return calls;
+    }
+
+    @Test
+    public void testClassInitIsOnlyCreatedIfRequested() {
+        byte[] bytes = createClass(false);
+        assertNull(getClassInit(instrument(bytes, false)));
+
+        MethodNode created = getClassInit(instrument(bytes, true));
+        assertNotNull(created);
+        assertEquals("[enterClassInit, exitClassInit]", getCalls(created).toString());
+    }
+
+    @Test
+    public void testExistingClassInitIsInstrumented() {
+        MethodNode clinit = getClassInit(instrument(createClass(true), false));
+        assertNotNull(clinit);
+        // enter at the start, exit on return and on exceptional exit
+        assertEquals("[enterClassInit, exitClassInit, exitClassInit]", getCalls(clinit).toString());
+    }
+}
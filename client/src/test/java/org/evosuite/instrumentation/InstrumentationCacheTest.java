@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import com.examples.with.different.packagename.ArrayStack;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.util.ComputeClassWriter;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.util.TraceClassVisitor;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentationCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initClass() {
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+    }
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+        InstrumentationCache.resetSingleton();
+    }
+
+    private static ClassReader readClass(Class<?> clazz) throws IOException {
+        String resource = clazz.getName().replace('.', '/') + ".class";
+        try (InputStream in = clazz.getClassLoader().getResourceAsStream(resource)) {
+            return new ClassReader(in);
+        }
+    }
+
+    private static String print(byte[] bytes) {
+        StringWriter text = new StringWriter();
+        new ClassReader(bytes).accept(new TraceClassVisitor(new PrintWriter(text)), 0);
+        return text.toString();
+    }
+
+    private static byte[] withoutFrames(ClassReader reader) {
+        ClassWriter writer = new ClassWriter(0);
+        reader.accept(writer, ClassReader.SKIP_FRAMES);
+        return writer.toByteArray();
+    }
+
+    @Test
+    public void testComputedFramesAreReused() throws IOException {
+        byte[] bytes = withoutFrames(readClass(ArrayStack.class));
+        ClassWriter expected = new ComputeClassWriter(ClassWriter.COMPUTE_FRAMES);
+        readClass(ArrayStack.class).accept(expected, ClassReader.SKIP_FRAMES);
+
+        InstrumentationCache cache = new InstrumentationCache(folder.getRoot(), "env");
+        assertEquals(print(expected.toByteArray()), print(cache.computeFrames(bytes)));
+        assertEquals(0, cache.getNumberOfHits());
+
+        InstrumentationCache warmCache = new InstrumentationCache(folder.getRoot(), "env");
+        assertEquals(print(expected.toByteArray()), print(warmCache.computeFrames(bytes)));
+        assertEquals(1, warmCache.getNumberOfHits());
+        assertEquals(0, warmCache.getNumberOfMisses());
+
+        InstrumentationCache otherCache = new InstrumentationCache(folder.getRoot(), "other env");
+        otherCache.computeFrames(bytes);
+        assertEquals(1, otherCache.getNumberOfMisses());
+    }
+
+    @Test
+    public void testInstrumentationWithCache() throws IOException {
+        Properties.MAX_LOOP_ITERATIONS = -1;
+        BytecodeInstrumentation instrumentation = new BytecodeInstrumentation();
+        ClassLoader loader = new InstrumentingClassLoader(instrumentation);
+        String className = ArrayStack.class.getName().replace('.', '/');
+
+        byte[] expected = instrumentation.transformBytes(loader, className, readClass(ArrayStack.class));
+
+        Properties.INSTRUMENTATION_CACHE_DIR = folder.getRoot().getAbsolutePath();
+        byte[] cold = instrumentation.transformBytes(loader, className, readClass(ArrayStack.class));
+        byte[] warm = instrumentation.transformBytes(loader, className, readClass(ArrayStack.class));
+
+        assertEquals(print(expected), print(cold));
+        assertEquals(print(expected), print(warm));
+        assertEquals(1, InstrumentationCache.getInstance().getNumberOfHits());
+        assertNotEquals(0, folder.getRoot().list().length);
+    }
+
+    private static byte[] createClass(String name) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        MethodVisitor mv = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "abs", "(I)I", null, null);
+        mv.visitCode();
+        Label positive = new Label();
+        mv.visitVarInsn(Opcodes.ILOAD, 0);
+        mv.visitJumpInsn(Opcodes.IFGE, positive);
+        mv.visitVarInsn(Opcodes.ILOAD, 0);
+        mv.visitInsn(Opcodes.INEG);
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitLabel(positive);
+        mv.visitVarInsn(Opcodes.ILOAD, 0);
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private int countEntries() {
+        int entries = 0;
+        for (File subdirectory : folder.getRoot().listFiles(File::isDirectory)) {
+            entries += subdirectory.list().length;
+        }
+        return entries;
+    }
+
+    @Test
+    public void testLeastRecentlyUsedClassesAreEvicted() throws IOException, InterruptedException {
+        Properties.INSTRUMENTATION_CACHE_SIZE = 4;
+        InstrumentationCache cache = new InstrumentationCache(folder.getRoot(), "env");
+        byte[] first = createClass("com/example/Foo0");
+        cache.computeFrames(first);
+        for (int i = 1; i < 6; i++) {
+            // the entries are ordered by their modification time
+            Thread.sleep(5);
+            cache.computeFrames(createClass("com/example/Foo" + i));
+            Thread.sleep(5);
+            // keep the first class recently used
+            cache.computeFrames(first);
+        }
+        assertTrue(countEntries() <= 4);
+
+        InstrumentationCache warmCache = new InstrumentationCache(folder.getRoot(), "env");
+        warmCache.computeFrames(first);
+        assertEquals(1, warmCache.getNumberOfHits());
+        warmCache.computeFrames(createClass("com/example/Foo1"));
+        assertEquals(1, warmCache.getNumberOfMisses());
+    }
+
+    private static byte[] createType(String name, String superName) {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, superName, null);
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * A class whose frames merge the types A and B
+     */
+    private static byte[] createChooser() {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "com/example/Chooser", null, "java/lang/Object", null);
+        MethodVisitor mv = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "choose",
+                "(ZLcom/example/A;Lcom/example/B;)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        Label second = new Label();
+        Label end = new Label();
+        mv.visitVarInsn(Opcodes.ILOAD, 0);
+        mv.visitJumpInsn(Opcodes.IFEQ, second);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitJumpInsn(Opcodes.GOTO, end);
+        mv.visitLabel(second);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitLabel(end);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Serves the given classes to the {@link ComputeClassWriter}
+     */
+    private static class TypesLoader extends ClassLoader {
+        private final Map<String, byte[]> types = new HashMap<>();
+
+        TypesLoader(String bSuperName) {
+            super(TypesLoader.class.getClassLoader());
+            types.put("com/example/Base.class", createType("com/example/Base", "java/lang/Object"));
+            types.put("com/example/A.class", createType("com/example/A", "com/example/Base"));
+            types.put("com/example/B.class", createType("com/example/B", bSuperName));
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            byte[] bytes = types.get(name);
+            return bytes == null ? super.getResourceAsStream(name) : new ByteArrayInputStream(bytes);
+        }
+    }
+
+    private static byte[] computeFrames(InstrumentationCache cache, ClassLoader loader, byte[] bytes) {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            return cache.computeFrames(bytes);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Test
+    public void testChangedSupertypeInvalidatesEntry() {
+        byte[] chooser = createChooser();
+        InstrumentationCache cache = new InstrumentationCache(folder.getRoot(), "env");
+        byte[] withBase = computeFrames(cache, new TypesLoader("com/example/Base"), chooser);
+        assertTrue(print(withBase).contains("com/example/Base"));
+
+        InstrumentationCache warmCache = new InstrumentationCache(folder.getRoot(), "env");
+        byte[] cached = computeFrames(warmCache, new TypesLoader("com/example/Base"), chooser);
+        assertEquals(print(withBase), print(cached));
+        assertEquals(1, warmCache.getNumberOfHits());
+
+        // B no longer extends Base, so A and B only have Object in common
+        InstrumentationCache changedCache = new InstrumentationCache(folder.getRoot(), "env");
+        byte[] withoutBase = computeFrames(changedCache, new TypesLoader("java/lang/Object"), chooser);
+        assertFalse(print(withoutBase).contains("com/example/Base"));
+        assertEquals(1, changedCache.getNumberOfMisses());
+    }
+}
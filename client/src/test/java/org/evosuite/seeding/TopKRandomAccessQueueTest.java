@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TopKRandomAccessQueueTest {
+
+    private static Set<String> sample(TopKRandomAccessQueue<String> queue) {
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(queue.getRandomValue());
+        }
+        return values;
+    }
+
+    @Test
+    public void testFrequentValuesAreKept() {
+        TopKRandomAccessQueue<String> queue = new TopKRandomAccessQueue<>(3, false);
+        for (int i = 0; i < 10; i++) {
+            queue.restrictedAdd("Foo");
+            queue.restrictedAdd("Bar");
+        }
+        for (int i = 0; i < 5; i++) {
+            queue.restrictedAdd("Value" + i);
+        }
+        assertEquals(3, queue.size());
+        Set<String> values = sample(queue);
+        assertTrue(values.contains("Foo"));
+        assertTrue(values.contains("Bar"));
+        assertTrue(values.contains("Value4"));
+        assertEquals(3, values.size());
+    }
+
+    @Test
+    public void testValuesNoLongerObservedAreReplaced() {
+        TopKRandomAccessQueue<String> queue = new TopKRandomAccessQueue<>(2, false);
+        for (int i = 0; i < 1000; i++) {
+            queue.restrictedAdd("Foo");
+        }
+        for (int i = 0; i < 1000; i++) {
+            queue.restrictedAdd("Bar");
+            queue.restrictedAdd("Baz");
+        }
+        Set<String> values = sample(queue);
+        assertFalse(values.contains("Foo"));
+        assertEquals(2, values.size());
+    }
+
+    @Test
+    public void testWeightedSampling() {
+        TopKRandomAccessQueue<String> queue = new TopKRandomAccessQueue<>(10, true);
+        for (int i = 0; i < 9; i++) {
+            queue.restrictedAdd("Foo");
+        }
+        queue.restrictedAdd("Bar");
+        int count = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (queue.getRandomValue().equals("Foo"))
+                count++;
+        }
+        assertTrue(count > 800);
+    }
+
+    @Test
+    public void testConcurrentAdditions() throws InterruptedException {
+        TopKRandomAccessQueue<Integer> queue = new TopKRandomAccessQueue<>(50, true);
+        queue.restrictedAdd(0);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t * 100000;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    queue.restrictedAdd(offset + i % 1000);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(queue.getRandomValue() != null);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(50, queue.size());
+    }
+}
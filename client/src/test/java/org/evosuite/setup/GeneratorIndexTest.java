@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import com.googlecode.gentyref.TypeToken;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericClassFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GeneratorIndexTest {
+
+    private static final GenericClass<?> STRING = GenericClassFactory.get(String.class);
+    private static final GenericClass<?> INT = GenericClassFactory.get(int.class);
+    private static final GenericClass<?> ARRAY_LIST = GenericClassFactory.get(ArrayList.class);
+    private static final GenericClass<?> STRING_LIST = GenericClassFactory.get(new TypeToken<List<String>>() {
+    }.getType());
+
+    @Test
+    public void testCandidateTypesAreAssignable() {
+        GeneratorIndex index = new GeneratorIndex();
+        List<GenericClass<?>> generatorTypes = Arrays.asList(STRING, INT, ARRAY_LIST, STRING_LIST);
+
+        assertEquals(Arrays.asList(STRING),
+                new ArrayList<>(index.getCandidateTypes(GenericClassFactory.get(CharSequence.class), generatorTypes)));
+        assertEquals(Arrays.asList(ARRAY_LIST, STRING_LIST),
+                new ArrayList<>(index.getCandidateTypes(GenericClassFactory.get(Collection.class), generatorTypes)));
+        // boxing and primitive widening
+        assertEquals(Arrays.asList(INT),
+                new ArrayList<>(index.getCandidateTypes(GenericClassFactory.get(Integer.class), generatorTypes)));
+        assertEquals(Arrays.asList(INT),
+                new ArrayList<>(index.getCandidateTypes(GenericClassFactory.get(long.class), generatorTypes)));
+        assertEquals(generatorTypes,
+                new ArrayList<>(index.getCandidateTypes(GenericClassFactory.get(Object.class), generatorTypes)));
+    }
+
+    @Test
+    public void testCandidateTypesAreSharedByRawClass() {
+        GeneratorIndex index = new GeneratorIndex();
+        List<GenericClass<?>> generatorTypes = Arrays.asList(STRING, ARRAY_LIST);
+
+        Collection<GenericClass<?>> raw = index.getCandidateTypes(GenericClassFactory.get(List.class), generatorTypes);
+        assertSame(raw, index.getCandidateTypes(STRING_LIST, generatorTypes));
+
+        index.generatorTypesChanged();
+        List<GenericClass<?>> newGeneratorTypes = Arrays.asList(STRING, ARRAY_LIST, STRING_LIST);
+        assertEquals(Arrays.asList(ARRAY_LIST, STRING_LIST),
+                new ArrayList<>(index.getCandidateTypes(STRING_LIST, newGeneratorTypes)));
+    }
+
+    @Test
+    public void testPlainAndGenericTypesAreCachedSeparately() {
+        GeneratorIndex index = new GeneratorIndex();
+        Set<GenericAccessibleObject<?>> rawGenerators = new LinkedHashSet<>();
+        Set<GenericAccessibleObject<?>> genericGenerators = new LinkedHashSet<>();
+
+        index.put(GenericClassFactory.get(List.class), rawGenerators);
+        index.put(STRING_LIST, genericGenerators);
+
+        assertSame(rawGenerators, index.get(GenericClassFactory.get(List.class)));
+        assertSame(genericGenerators, index.get(STRING_LIST));
+        assertFalse(index.containsKey(STRING));
+
+        index.removeIf(STRING_LIST::equals);
+        assertTrue(index.containsKey(GenericClassFactory.get(List.class)));
+        assertNull(index.get(STRING_LIST));
+
+        index.clear();
+        assertFalse(index.containsKey(GenericClassFactory.get(List.class)));
+    }
+
+    private static GenericClass<?> get(TypeToken<?> token) {
+        return GenericClassFactory.get(token.getType());
+    }
+
+    @Test
+    public void testCandidateTypesIncludeAllInstantiableGenerators() {
+        List<GenericClass<?>> generatorTypes = Arrays.asList(STRING, INT, ARRAY_LIST, STRING_LIST,
+                GenericClassFactory.get(long.class),
+                GenericClassFactory.get(Integer.class),
+                GenericClassFactory.get(Object.class),
+                GenericClassFactory.get(Integer[].class),
+                GenericClassFactory.get(HashMap.class),
+                get(new TypeToken<ArrayList<Integer>>() {
+                }),
+                get(new TypeToken<LinkedList<?>>() {
+                }),
+                get(new TypeToken<Map<String, Integer>>() {
+                }),
+                get(new TypeToken<Comparable<String>>() {
+                }));
+        List<GenericClass<?>> targets = Arrays.asList(STRING, INT, STRING_LIST,
+                GenericClassFactory.get(long.class),
+                GenericClassFactory.get(Number.class),
+                GenericClassFactory.get(Object[].class),
+                GenericClassFactory.get(List.class),
+                get(new TypeToken<List<? extends Number>>() {
+                }),
+                get(new TypeToken<Collection<?>>() {
+                }),
+                get(new TypeToken<Iterable<String>>() {
+                }),
+                get(new TypeToken<Map<?, ?>>() {
+                }),
+                get(new TypeToken<Map<String, ? super Integer>>() {
+                }),
+                get(new TypeToken<Comparable<?>>() {
+                }),
+                get(new TypeToken<Comparable<Integer>>() {
+                }));
+
+        // the raw class prefilter must never reject a generator type that can be used
+        GeneratorIndex index = new GeneratorIndex();
+        int instantiable = 0;
+        for (GenericClass<?> target : targets) {
+            Collection<GenericClass<?>> candidates = index.getCandidateTypes(target, generatorTypes);
+            for (GenericClass<?> generatorType : generatorTypes) {
+                if (generatorType.canBeInstantiatedTo(target)) {
+                    assertTrue(generatorType + " for " + target, candidates.contains(generatorType));
+                    instantiable++;
+                }
+            }
+        }
+        // the check is not vacuous
+        assertTrue(instantiable > targets.size());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-in for an incremental SMT solver, reading one command per line.
+ * <p>
+ * Queries are UNSAT if any asserted command contains <code>false</code>, and
+ * SAT otherwise. The model assigns 7 to every integer constant declared in the
+ * current scopes, so that tests can observe the effect of push and pop.
+ */
+public class FakeIncrementalSolver {
+
+    public static void main(String[] args) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        List<List<String>> scopes = new ArrayList<>();
+        scopes.add(new ArrayList<>());
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("(set-")) {
+                continue;
+            }
+            if (line.equals("(push 1)")) {
+                scopes.add(new ArrayList<>());
+            } else if (line.startsWith("(pop ")) {
+                int n = Integer.parseInt(line.substring(5, line.length() - 1).trim());
+                for (int i = 0; i < n; i++) {
+                    scopes.remove(scopes.size() - 1);
+                }
+            } else if (line.equals("(check-sat)")) {
+                boolean unsat = false;
+                for (List<String> scope : scopes) {
+                    for (String command : scope) {
+                        unsat |= command.startsWith("(assert") && command.contains("false");
+                    }
+                }
+                System.out.println(unsat ? "unsat" : "sat");
+            } else if (line.equals("(get-model)")) {
+                System.out.println("(model ");
+                for (List<String> scope : scopes) {
+                    for (String command : scope) {
+                        if (command.startsWith("(declare-const ")) {
+                            String name = command.split(" ")[1];
+                            System.out.println("  (define-fun " + name + " () Int 7)");
+                        }
+                    }
+                }
+                System.out.println(")");
+            } else if (line.startsWith("(echo ")) {
+                System.out.println(line.substring(7, line.length() - 2));
+            } else if (line.equals("(exit)")) {
+                return;
+            } else {
+                scopes.get(scopes.size() - 1).add(line);
+            }
+            System.out.flush();
+        }
+    }
+}
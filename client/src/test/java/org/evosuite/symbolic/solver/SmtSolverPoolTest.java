@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.z3.Z3Solver;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SmtSolverPoolTest {
+
+    private String fakeSolverCmd;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties.DSE_SOLVER_POOL_SIZE = 1;
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classes = new File(FakeIncrementalSolver.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .getAbsolutePath();
+        fakeSolverCmd = java + " -cp " + classes + " " + FakeIncrementalSolver.class.getName();
+    }
+
+    @After
+    public void tearDown() {
+        SmtSolverPool.resetSingleton();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static SmtQuery query(String... variables) {
+        SmtQuery query = new SmtQuery();
+        query.addOption(":produce-models", "true");
+        for (String variable : variables) {
+            query.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration(variable));
+            query.addAssertion(new SmtAssertion(
+                    SmtExprBuilder.mkGt(SmtExprBuilder.mkIntVariable(variable), SmtExprBuilder.ZERO_INT)));
+        }
+        return query;
+    }
+
+    private String solve(SmtQuery query) throws Exception {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        SmtSolverPool.getInstance().solve(fakeSolverCmd, query, 10000, stdout);
+        return stdout.toString("UTF-8");
+    }
+
+    @Test
+    public void testDeclarationsPrecedeFirstUse() {
+        List<String> commands = SmtSolverPool.buildCommands(query("x", "y"));
+        assertEquals(4, commands.size());
+        assertTrue(commands.get(0).startsWith("(declare-const x"));
+        assertTrue(commands.get(1).startsWith("(assert"));
+        assertTrue(commands.get(2).startsWith("(declare-const y"));
+        assertTrue(commands.get(3).startsWith("(assert"));
+    }
+
+    @Test
+    public void testSiblingQueriesShareAssertedPrefix() throws Exception {
+        String first = solve(query("x", "y"));
+        assertTrue(first.startsWith("sat"));
+        assertTrue(first.contains("define-fun y"));
+
+        String second = solve(query("x", "z"));
+        assertTrue(second.startsWith("sat"));
+        assertTrue(second.contains("define-fun x"));
+        assertTrue(second.contains("define-fun z"));
+        // y was popped
+        assertFalse(second.contains("define-fun y"));
+
+        SmtSolverPool pool = SmtSolverPool.getInstance();
+        assertEquals(1, pool.getNumberOfLaunchedProcesses());
+        assertEquals(2, pool.getNumberOfReusedCommands());
+        assertEquals(6, pool.getNumberOfSentCommands());
+    }
+
+    @Test
+    public void testUnsatQueryDoesNotRequestModel() throws Exception {
+        SmtQuery unsat = query("x");
+        unsat.addAssertion(new SmtAssertion(SmtExprBuilder.FALSE));
+        assertEquals("unsat\n", solve(unsat));
+
+        String sat = solve(query("x"));
+        assertTrue(sat.startsWith("sat"));
+        assertEquals(1, SmtSolverPool.getInstance().getNumberOfLaunchedProcesses());
+    }
+
+    @Test
+    public void testTimedOutProcessIsReplaced() throws Exception {
+        Assume.assumeTrue(new File("/bin/cat").exists());
+
+        // cat never prints the end-of-response marker on its own line
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        try {
+            SmtSolverPool.getInstance().solve("/bin/cat", query("x"), 500, stdout);
+            fail("Expected timeout");
+        } catch (SolverTimeoutException e) {
+            // expected
+        }
+
+        assertTrue(solve(query("x")).startsWith("sat"));
+        assertEquals(2, SmtSolverPool.getInstance().getNumberOfLaunchedProcesses());
+    }
+
+    @Test
+    public void testFailedLaunchReleasesItsSlot() throws Exception {
+        // the slot is reserved before the process is launched outside the lock
+        try {
+            SmtSolverPool.getInstance().solve("/nonexistent/solver", query("x"), 500, new ByteArrayOutputStream());
+            fail("Expected launch failure");
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertTrue(solve(query("x")).startsWith("sat"));
+        assertEquals(2, SmtSolverPool.getInstance().getNumberOfLaunchedProcesses());
+    }
+
+    @Test
+    public void testZ3SolverOnPooledProcess() throws Exception {
+        Properties.Z3_PATH = fakeSolverCmd;
+
+        IntegerVariable x = new IntegerVariable("x", 0, Long.MIN_VALUE, Long.MAX_VALUE);
+        Collection<Constraint<?>> constraints = new ArrayList<>();
+        constraints.add(ConstraintFactory.gte(x, new IntegerConstant(5)));
+
+        SolverResult result = new Z3Solver().executeSolver(constraints);
+        assertTrue(result.isSAT());
+        assertEquals(7L, result.getValue("x"));
+    }
+
+    @Test
+    public void testConcurrentQueriesOnSharedVariables() throws Exception {
+        Properties.Z3_PATH = fakeSolverCmd;
+        Properties.DSE_SOLVER_POOL_SIZE = 2;
+
+        // sibling queries share their variables
+        IntegerVariable x = new IntegerVariable("x", 0, Long.MIN_VALUE, Long.MAX_VALUE);
+        Z3Solver solver = new Z3Solver();
+        assertTrue(solver.isThreadSafe());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SolverResult>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                Collection<Constraint<?>> constraints = new ArrayList<>();
+                constraints.add(ConstraintFactory.gte(x, new IntegerConstant(i)));
+                results.add(executor.submit(() -> solver.executeSolver(constraints)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                SolverResult result = results.get(i).get();
+                // the stand-in always answers 7, which is only a model of x >= i for i <= 7
+                assertEquals(i <= 7, result.isSAT());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0L, (long) x.getConcreteValue());
+        assertTrue(SmtSolverPool.getInstance().getNumberOfLaunchedProcesses() <= 2);
+    }
+}
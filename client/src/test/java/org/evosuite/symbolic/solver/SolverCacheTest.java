@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
+import org.evosuite.symbolic.expr.constraint.StringConstraint;
+import org.evosuite.symbolic.expr.str.StringConstant;
+import org.evosuite.symbolic.expr.str.StringValue;
+import org.evosuite.symbolic.expr.str.StringVariable;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SolverCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static IntegerVariable var(String name, long value) {
+        return new IntegerVariable(name, value, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private static List<Constraint<?>> query(Constraint<?>... constraints) {
+        return new ArrayList<>(Arrays.asList(constraints));
+    }
+
+    private static Map<String, Object> model(String name, long value) {
+        Map<String, Object> model = new HashMap<>();
+        model.put(name, value);
+        return model;
+    }
+
+    @Test
+    public void testCanonicalKeyIgnoresNamesValuesAndOrder() {
+        IntegerVariable x = var("x", 0);
+        IntegerVariable y = var("y", 3);
+        IntegerVariable a = var("a", 7);
+        IntegerVariable b = var("b", -1);
+
+        CanonicalQuery first = CanonicalQuery.of(query(
+                ConstraintFactory.gte(x, new IntegerConstant(10)),
+                ConstraintFactory.lt(y, x)));
+        CanonicalQuery second = CanonicalQuery.of(query(
+                ConstraintFactory.lt(b, a),
+                ConstraintFactory.gte(a, new IntegerConstant(10))));
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(first.getKey(), second.getKey());
+
+        Map<String, Object> canonicalModel = first.toCanonicalModel(model("x", 10));
+        assertEquals(10L, second.fromCanonicalModel(canonicalModel).get("a"));
+    }
+
+    @Test
+    public void testCanonicalKeyDistinguishesConstants() {
+        IntegerVariable x = var("x", 0);
+        CanonicalQuery first = CanonicalQuery.of(query(ConstraintFactory.gte(x, new IntegerConstant(10))));
+        CanonicalQuery second = CanonicalQuery.of(query(ConstraintFactory.gte(x, new IntegerConstant(11))));
+        assertNotEquals(first.getKey(), second.getKey());
+    }
+
+    private static Constraint<?> stringEquals(StringValue left, StringValue right) {
+        StringBinaryComparison equals = new StringBinaryComparison(left, Operator.EQUALS, right, 0L);
+        return new StringConstraint(equals, Comparator.NE, new IntegerConstant(0));
+    }
+
+    @Test
+    public void testCanonicalKeyDistinguishesStringConstantsFromVariables() {
+        StringVariable s = new StringVariable("s", "");
+        StringVariable t = new StringVariable("t", "");
+
+        CanonicalQuery withVariable = CanonicalQuery.of(query(stringEquals(s, t)));
+        CanonicalQuery withConstant = CanonicalQuery.of(query(stringEquals(s, new StringConstant("_v1"))));
+        CanonicalQuery withQuote = CanonicalQuery.of(query(stringEquals(s, new StringConstant("\"_v1\""))));
+
+        assertNotNull(withVariable);
+        assertNotNull(withConstant);
+        assertNotNull(withQuote);
+        assertNotEquals(withVariable.getKey(), withConstant.getKey());
+        assertNotEquals(withConstant.getKey(), withQuote.getKey());
+    }
+
+    @Test
+    public void testGroundConjunctsAreFolded() {
+        IntegerVariable x = var("x", 0);
+        Constraint<?> constraint = ConstraintFactory.gte(x, new IntegerConstant(10));
+        Constraint<?> groundTrue = ConstraintFactory.lt(new IntegerConstant(1), new IntegerConstant(2));
+        Constraint<?> groundFalse = ConstraintFactory.lt(new IntegerConstant(2), new IntegerConstant(1));
+
+        CanonicalQuery plain = CanonicalQuery.of(query(constraint));
+        CanonicalQuery withTrue = CanonicalQuery.of(query(constraint, groundTrue));
+        CanonicalQuery withFalse = CanonicalQuery.of(query(constraint, groundFalse));
+
+        assertEquals(plain.getKey(), withTrue.getKey());
+        assertFalse(withTrue.isTriviallyUnsat());
+        assertTrue(withFalse.isTriviallyUnsat());
+    }
+
+    @Test
+    public void testAlphaRenamedHit() {
+        SolverCache cache = new SolverCache();
+        IntegerVariable x = var("x", 0);
+        IntegerVariable y = var("y", 0);
+
+        cache.saveSolverResult(query(ConstraintFactory.gte(x, new IntegerConstant(10))),
+                SolverResult.newSAT(model("x", 10)));
+
+        assertTrue(cache.hasCachedResult(query(ConstraintFactory.gte(y, new IntegerConstant(10)))));
+        SolverResult result = cache.getCachedResult();
+        assertTrue(result.isSAT());
+        assertEquals(10L, result.getValue("y"));
+        assertEquals(0L, (long) y.getConcreteValue());
+    }
+
+    @Test
+    public void testUnsatSubsumption() {
+        SolverCache cache = new SolverCache();
+        IntegerVariable x = var("x", 0);
+        IntegerVariable z = var("z", 0);
+        Constraint<?> unsat = ConstraintFactory.neq(x, x);
+
+        cache.saveSolverResult(query(unsat), SolverResult.newUNSAT());
+
+        assertTrue(cache.hasCachedResult(query(ConstraintFactory.gte(z, new IntegerConstant(3)), unsat)));
+        assertTrue(cache.getCachedResult().isUNSAT());
+    }
+
+    @Test
+    public void testSatSubsumption() {
+        SolverCache cache = new SolverCache();
+        IntegerVariable x = var("x", 0);
+        IntegerVariable y = var("y", 0);
+
+        cache.saveSolverResult(query(ConstraintFactory.gte(x, new IntegerConstant(10))),
+                SolverResult.newSAT(model("x", 10)));
+
+        // a weaker system is satisfied by the same model
+        assertTrue(cache.hasCachedResult(query(
+                ConstraintFactory.gte(x, new IntegerConstant(5)),
+                ConstraintFactory.lte(y, new IntegerConstant(0)))));
+        SolverResult result = cache.getCachedResult();
+        assertEquals(10L, result.getValue("x"));
+        assertEquals(0L, result.getValue("y"));
+
+        // a stronger system is not
+        assertFalse(cache.hasCachedResult(query(ConstraintFactory.gte(x, new IntegerConstant(20)))));
+    }
+
+    @Test
+    public void testPersistentStore() {
+        Properties.DSE_SOLVER_CACHE_DIR = folder.getRoot().getAbsolutePath();
+        Properties.TARGET_CLASS = "com.example.Foo";
+
+        IntegerVariable x = var("x", 0);
+        new SolverCache().saveSolverResult(query(ConstraintFactory.gte(x, new IntegerConstant(42))),
+                SolverResult.newSAT(model("x", 42)));
+        new SolverCache().saveSolverResult(query(ConstraintFactory.neq(x, x)), SolverResult.newUNSAT());
+
+        IntegerVariable w = var("w", 0);
+        SolverCache cache = new SolverCache();
+        assertTrue(cache.hasCachedResult(query(ConstraintFactory.gte(w, new IntegerConstant(42)))));
+        assertEquals(42L, cache.getCachedResult().getValue("w"));
+        assertTrue(cache.hasCachedResult(query(ConstraintFactory.neq(w, w))));
+        assertTrue(cache.getCachedResult().isUNSAT());
+
+        // results are not shared across classes under test
+        Properties.TARGET_CLASS = "com.example.Bar";
+        assertFalse(new SolverCache().hasCachedResult(query(ConstraintFactory.neq(w, w))));
+    }
+
+    @Test
+    public void testStoreIgnoresTruncatedRecords() throws Exception {
+        File file = folder.newFile("truncated.solvercache");
+        SolverCacheStore store = new SolverCacheStore(file);
+        store.put("_v0 >= 1", SolverResult.newUNSAT());
+        store.put("_v0 >= 2", SolverResult.newUNSAT());
+
+        Files.write(file.toPath(), new byte[]{0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+        SolverCacheStore reloaded = new SolverCacheStore(file);
+        assertEquals(2, reloaded.size());
+        assertTrue(reloaded.get("_v0 >= 2").isUNSAT());
+        assertNull(reloaded.get("_v0 >= 3"));
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import org.evosuite.testcarver.capture.CaptureLogColumns.BooleanColumn;
+import org.evosuite.testcarver.capture.CaptureLogColumns.IntMap;
+import org.evosuite.testcarver.capture.CaptureLogColumns.ParamsColumn;
+import org.evosuite.testcarver.capture.CaptureLogColumns.ReturnValueColumn;
+import org.evosuite.testcarver.capture.CaptureLogColumns.StringColumn;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CaptureLogColumnsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String longString(char c) {
+        char[] chars = new char[ParamsColumn.MIN_SPILLED_LENGTH];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void testStringsAreInterned() {
+        StringColumn column = new StringColumn();
+        column.add("foo");
+        column.add("bar");
+        column.add(new String("foo"));
+        assertEquals(Arrays.asList("foo", "bar", "foo"), column);
+        assertEquals(column.getStringIndex(0), column.getStringIndex(2));
+        column.set(1, "foo");
+        assertEquals(column.getStringIndex(0), column.getStringIndex(1));
+    }
+
+    @Test
+    public void testBooleans() {
+        BooleanColumn column = new BooleanColumn();
+        for (int i = 0; i < 200; i++) {
+            column.add(i % 3 == 0);
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 3 == 0, column.getBoolean(i));
+        }
+        column.set(1, true);
+        assertTrue(column.get(1));
+    }
+
+    @Test
+    public void testReturnValues() {
+        ReturnValueColumn column = new ReturnValueColumn();
+        column.add(CaptureLog.RETURN_TYPE_VOID);
+        column.add(CaptureLog.RETURN_TYPE_VOID);
+        column.set(1, -42);
+        assertSame(CaptureLog.RETURN_TYPE_VOID, column.get(0));
+        assertEquals(-42, column.get(1));
+    }
+
+    @Test
+    public void testIntMap() {
+        IntMap map = new IntMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 7919, i);
+        }
+        map.put(Integer.MIN_VALUE, 3);
+        assertEquals(1001, map.size());
+        assertEquals(500, map.get(500 * 7919));
+        assertEquals(3, map.get(Integer.MIN_VALUE));
+        assertFalse(map.containsKey(1));
+        assertEquals(-1, map.get(1));
+    }
+
+    @Test
+    public void testParamsWithSpilledStrings() {
+        File directory = folder.getRoot();
+        ParamsColumn column = new ParamsColumn(directory);
+        Object[] first = {1, null, longString('a'), String.class};
+        Object[] second = {"short", longString('b')};
+        column.add(first);
+        column.add(CaptureLog.NO_ARGS);
+        column.add(second);
+
+        assertArrayEquals(first, column.get(0));
+        assertEquals(0, column.getNumParams(1));
+        assertArrayEquals(second, column.get(2));
+
+        column.set(0, new Object[]{2, 3, null, longString('c')});
+        assertArrayEquals(new Object[]{2, 3, null, longString('c')}, column.get(0));
+        assertArrayEquals(second, column.get(2));
+
+        column.clear();
+        assertEquals(0, column.size());
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testLogWithSpilledValues() {
+        CaptureLog log = new CaptureLog(folder.getRoot());
+        StringBuilder receiver = new StringBuilder(longString('x'));
+        log.log(1, receiver, CaptureLog.OBSERVED_INIT, "()V");
+        log.logEnd(1, receiver, CaptureLog.RETURN_TYPE_VOID);
+        log.log(2, receiver, "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", longString('y'));
+        log.logEnd(2, receiver, receiver);
+
+        CaptureLog copy = log.clone();
+        assertEquals(log.toString(), copy.toString());
+        log.clear();
+        assertEquals(0, log.objectIds.size());
+        assertEquals(copy.objectIds.size(), copy.params.size());
+        // the copy still reads the spill file it shares with the log
+        assertTrue(copy.toString().contains(longString('y')));
+        copy.clear();
+        assertEquals(0, copy.params.size());
+    }
+
+    @Test
+    public void testCopiesKeepSpilling() {
+        File directory = folder.getRoot();
+        ParamsColumn column = new ParamsColumn(directory);
+        column.add(new Object[]{longString('a')});
+        ParamsColumn copy = new ParamsColumn(directory);
+        copy.copyFrom(column);
+
+        copy.add(new Object[]{longString('b')});
+        column.add(new Object[]{longString('c')});
+        copy.set(0, new Object[]{longString('d')});
+        assertArrayEquals(new Object[]{longString('a')}, column.get(0));
+        assertArrayEquals(new Object[]{longString('c')}, column.get(1));
+        assertArrayEquals(new Object[]{longString('d')}, copy.get(0));
+        assertArrayEquals(new Object[]{longString('b')}, copy.get(1));
+
+        copy.clear();
+        assertArrayEquals(new Object[]{longString('c')}, column.get(1));
+        column.clear();
+        assertEquals(0, directory.list().length);
+    }
+}
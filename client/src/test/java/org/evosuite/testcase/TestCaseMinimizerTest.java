@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceProxy;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestCaseMinimizerTest {
+
+    /**
+     * Covered by tests containing all the given values, without executing them
+     */
+    private static class ValuesFitness extends TestFitnessFunction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Integer> values;
+
+        ValuesFitness(Integer... values) {
+            this.values = Arrays.asList(values);
+        }
+
+        @Override
+        public ExecutionResult runTest(TestCase test) {
+            ExecutionResult result = new ExecutionResult(test);
+            result.setTrace(new ExecutionTraceProxy());
+            return result;
+        }
+
+        @Override
+        public double getFitness(TestChromosome individual, ExecutionResult result) {
+            List<Object> found = new ArrayList<>();
+            for (Statement statement : individual.getTestCase()) {
+                found.add(((PrimitiveStatement<?>) statement).getValue());
+            }
+            return found.containsAll(values) ? 0.0 : 1.0;
+        }
+
+        @Override
+        public int compareTo(TestFitnessFunction other) {
+            return 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return values.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ValuesFitness && ((ValuesFitness) other).values.equals(values);
+        }
+
+        @Override
+        public String getTargetClass() {
+            return "";
+        }
+
+        @Override
+        public String getTargetMethod() {
+            return "";
+        }
+    }
+
+    private static TestChromosome createTest(int size) {
+        TestCase test = new DefaultTestCase();
+        for (int i = 0; i < size; i++) {
+            test.addStatement(new IntPrimitiveStatement(test, i));
+        }
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(test);
+        return chromosome;
+    }
+
+    private static List<Object> getValues(TestChromosome chromosome) {
+        List<Object> values = new ArrayList<>();
+        for (Statement statement : chromosome.getTestCase()) {
+            values.add(((PrimitiveStatement<?>) statement).getValue());
+        }
+        return values;
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    @Test
+    public void testRemoveChunks() {
+        TestChromosome test = createTest(64);
+        TestCaseMinimizer minimizer = new TestCaseMinimizer(new ValuesFitness(3, 40));
+        minimizer.minimize(test);
+
+        assertEquals(Arrays.asList(3, 40), getValues(test));
+        assertTrue(minimizer.getNumExecutions() > 0);
+        assertTrue(minimizer.getNumExecutedStatements() >= minimizer.getNumExecutions());
+    }
+
+    @Test
+    public void testChunksNeedFewerExecutions() {
+        TestCaseMinimizer ddmin = new TestCaseMinimizer(new ValuesFitness(3, 40));
+        TestChromosome test = createTest(64);
+        ddmin.minimize(test);
+        assertEquals(Arrays.asList(3, 40), getValues(test));
+
+        Properties.MINIMIZE_DDMIN = false;
+        TestCaseMinimizer single = new TestCaseMinimizer(new ValuesFitness(3, 40));
+        test = createTest(64);
+        single.minimize(test);
+        assertEquals(Arrays.asList(3, 40), getValues(test));
+
+        assertTrue(ddmin.getNumExecutedStatements() < single.getNumExecutedStatements());
+    }
+}
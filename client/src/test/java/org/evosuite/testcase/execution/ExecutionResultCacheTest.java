@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ExecutionResultCacheTest {
+
+    private static TestCase createTest(int... values) {
+        TestCase test = new DefaultTestCase();
+        for (int value : values) {
+            test.addStatement(new IntPrimitiveStatement(test, value));
+        }
+        return test;
+    }
+
+    private static ExecutionResult createResult(TestCase test, Integer exceptionPosition) {
+        ExecutionResult result = new ExecutionResult(test, null);
+        result.setTrace(new ExecutionTraceProxy());
+        if (exceptionPosition == null) {
+            result.setExecutedStatements(test.size());
+        } else {
+            result.setThrownExceptions(Collections.singletonMap(exceptionPosition, new IllegalStateException()));
+            result.setExecutedStatements(exceptionPosition);
+        }
+        return result;
+    }
+
+    @Test
+    public void testHitOnSameTest() {
+        ExecutionResultCache cache = new ExecutionResultCache(10);
+        TestCase test = createTest(1, 2, 3);
+        cache.cacheResult(test, createResult(test, null));
+
+        TestCase other = createTest(1, 2, 3);
+        ExecutionResult result = cache.getCachedResult(other);
+        assertNotNull(result);
+        assertSame(other, result.test);
+        assertEquals(3, result.getExecutedStatements());
+        assertEquals(1, cache.getNumberOfHits());
+    }
+
+    @Test
+    public void testMissOnDifferentTail() {
+        ExecutionResultCache cache = new ExecutionResultCache(10);
+        TestCase test = createTest(1, 2, 3);
+        cache.cacheResult(test, createResult(test, null));
+
+        assertNull(cache.getCachedResult(createTest(1, 2, 4)));
+        assertNull(cache.getCachedResult(createTest(1, 2, 3, 4)));
+        assertEquals(2, cache.getNumberOfMisses());
+    }
+
+    @Test
+    public void testHitOnPrefixStoppedByException() {
+        ExecutionResultCache cache = new ExecutionResultCache(10);
+        TestCase test = createTest(1, 2, 3, 4);
+        cache.cacheResult(test, createResult(test, 1));
+
+        // the statements after the exception are never executed
+        TestCase other = createTest(1, 2, 7, 8, 9);
+        ExecutionResult result = cache.getCachedResult(other);
+        assertNotNull(result);
+        assertEquals(Integer.valueOf(1), result.getFirstPositionOfThrownException());
+        assertEquals(1, result.getExecutedStatements());
+
+        assertNull(cache.getCachedResult(createTest(1, 5, 3, 4)));
+    }
+
+    @Test
+    public void testCachedTestIsNotAffectedByLaterChanges() {
+        ExecutionResultCache cache = new ExecutionResultCache(10);
+        TestCase test = createTest(1, 2, 3);
+        cache.cacheResult(test, createResult(test, null));
+
+        test.addStatement(new IntPrimitiveStatement(test, 4));
+        assertNull(cache.getCachedResult(test));
+        assertNotNull(cache.getCachedResult(createTest(1, 2, 3)));
+    }
+
+    @Test
+    public void testCapacity() {
+        ExecutionResultCache cache = new ExecutionResultCache(2);
+        for (int i = 0; i < 5; i++) {
+            TestCase test = createTest(i);
+            cache.cacheResult(test, createResult(test, null));
+        }
+        assertEquals(2, cache.size());
+        assertNull(cache.getCachedResult(createTest(0)));
+        assertNotNull(cache.getCachedResult(createTest(4)));
+    }
+
+    @Test
+    public void testHitsCountAgainstSearchBudget() {
+        Properties.EXECUTION_RESULT_CACHE_SIZE = 10;
+        ExecutionResultCache.resetSingleton();
+        TestCaseExecutor.getInstance().newObservers();
+        long tests = MaxTestsStoppingCondition.getNumExecutedTests();
+        long statements = MaxStatementsStoppingCondition.getNumExecutedStatements();
+        try {
+            TestCaseExecutor.runTest(createTest(1, 2, 3));
+            TestCaseExecutor.runTest(createTest(1, 2, 3));
+
+            assertEquals(1, ExecutionResultCache.getInstance().getNumberOfHits());
+            assertEquals(tests + 2, MaxTestsStoppingCondition.getNumExecutedTests());
+            assertEquals(statements + 6, MaxStatementsStoppingCondition.getNumExecutedStatements());
+        } finally {
+            Properties.getInstance().resetToDefaults();
+            ExecutionResultCache.resetSingleton();
+        }
+    }
+}
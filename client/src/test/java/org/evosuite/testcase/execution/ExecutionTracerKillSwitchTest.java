@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutionTracerKillSwitchTest {
+
+    private static final String CLASS_NAME = "com.example.Foo";
+
+    @Before
+    public void setUp() {
+        ExecutionTracer.setThread(Thread.currentThread());
+        ExecutionTracer.enable();
+        ExecutionTracer.getExecutionTracer().clear();
+    }
+
+    @After
+    public void tearDown() {
+        ExecutionTracer.setKillSwitch(false);
+        ExecutionTracer.disable();
+        ExecutionTracer.getExecutionTracer().clear();
+    }
+
+    @Test(expected = TestCaseExecutor.TimeoutExceeded.class)
+    public void testKillSwitchOutsideClassInit() {
+        ExecutionTracer.setKillSwitch(true);
+        ExecutionTracer.checkTimeout();
+    }
+
+    @Test
+    public void testKillSwitchInsideNestedClassInit() {
+        ExecutionTracer.enterClassInit(CLASS_NAME);
+        ExecutionTracer.enterClassInit(CLASS_NAME + "$Inner");
+        ExecutionTracer.setKillSwitch(true);
+        ExecutionTracer.checkTimeout();
+
+        ExecutionTracer.exitClassInit(CLASS_NAME + "$Inner");
+        ExecutionTracer.checkTimeout();
+    }
+
+    @Test(expected = TestCaseExecutor.TimeoutExceeded.class)
+    public void testKillSwitchAfterClassInit() {
+        ExecutionTracer.enterClassInit(CLASS_NAME);
+        ExecutionTracer.exitClassInit(CLASS_NAME);
+        ExecutionTracer.setKillSwitch(true);
+        ExecutionTracer.checkTimeout();
+    }
+
+    /**
+     * Not instrumented, so their initializers are only found on the stack
+     */
+    private static class UninstrumentedClassInit {
+        static {
+            ExecutionTracer.checkTimeout();
+        }
+
+        static void touch() {
+        }
+    }
+
+    private static class OtherUninstrumentedClassInit {
+        static {
+            ExecutionTracer.checkTimeout();
+        }
+
+        static void touch() {
+        }
+    }
+
+    @Test
+    public void testKillSwitchInsideUninstrumentedClassInit() {
+        ExecutionTracer.setKillSwitch(true);
+        UninstrumentedClassInit.touch();
+    }
+
+    @Test(expected = TestCaseExecutor.TimeoutExceeded.class)
+    public void testKillSwitchAfterUninstrumentedClassInit() {
+        ExecutionTracer.setKillSwitch(true);
+        OtherUninstrumentedClassInit.touch();
+        // setting the kill switch again discards the cached stack check
+        ExecutionTracer.setKillSwitch(true);
+        ExecutionTracer.checkTimeout();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class IntKeyArrayMapTest {
+
+    @Test
+    public void testPutMinAndAddTo() {
+        IntDoubleArrayMap map = new IntDoubleArrayMap();
+        map.putMin(3, 5.0);
+        map.putMin(3, 7.0);
+        map.putMin(3, 2.0);
+        assertEquals(2.0, map.getDouble(3, -1.0), 0.0);
+        assertEquals(-1.0, map.getDouble(4, -1.0), 0.0);
+
+        map.addTo(200, 1.5);
+        map.addTo(200, 1.5);
+        assertEquals(3.0, map.get(200), 0.0);
+        assertEquals(2, map.size());
+        assertNull(map.get(1000));
+        assertFalse(map.containsKey("3"));
+    }
+
+    @Test
+    public void testIncrement() {
+        IntIntArrayMap map = new IntIntArrayMap();
+        map.increment(1);
+        map.increment(1);
+        map.increment(70);
+        assertEquals(2, map.getInt(1, 0));
+        assertEquals(Integer.valueOf(1), map.get(70));
+        assertEquals(0, map.getInt(2, 0));
+    }
+
+    @Test
+    public void testBehavesLikeHashMap() {
+        IntIntArrayMap map = new IntIntArrayMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int key : new int[]{5, 0, 130, 64, 63, 5}) {
+            map.put(key, key * 2);
+            expected.put(key, key * 2);
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(Arrays.asList(0, 5, 63, 64, 130), new ArrayList<>(map.keySet()));
+
+        assertEquals(Integer.valueOf(128), map.remove(64));
+        assertNull(map.remove(64));
+        expected.remove(64);
+        assertEquals(expected, map);
+
+        Iterator<Integer> iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() < 10) {
+                iterator.remove();
+            }
+        }
+        assertEquals(Arrays.asList(63, 130), new ArrayList<>(map.keySet()));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.keySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testCopyOnWrite() {
+        IntDoubleArrayMap original = new IntDoubleArrayMap();
+        original.putDouble(1, 1.0);
+        original.putDouble(2, 2.0);
+
+        IntDoubleArrayMap copy = original.copy();
+        copy.putDouble(1, 10.0);
+        copy.putDouble(500, 5.0);
+        original.remove(2);
+
+        assertEquals(1.0, original.getDouble(1, 0.0), 0.0);
+        assertFalse(original.containsKey(500));
+        assertFalse(original.containsKey(2));
+        assertEquals(10.0, copy.getDouble(1, 0.0), 0.0);
+        assertEquals(2.0, copy.getDouble(2, 0.0), 0.0);
+        assertEquals(3, copy.size());
+        assertEquals(1, original.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeKey() {
+        new IntIntArrayMap().increment(-1);
+    }
+
+    @Test
+    public void testTraceCloneIsIndependent() {
+        ExecutionTraceImpl trace = new ExecutionTraceImpl();
+        trace.trueDistances.putMin(7, 3.0);
+        trace.coveredPredicates.increment(7);
+
+        ExecutionTraceImpl copy = trace.clone();
+        trace.trueDistances.putMin(7, 0.0);
+        trace.coveredPredicates.increment(7);
+
+        assertEquals(3.0, copy.getTrueDistances().get(7), 0.0);
+        assertEquals(Integer.valueOf(1), copy.getPredicateExecutionCount().get(7));
+        assertEquals(0.0, trace.getTrueDistances().get(7), 0.0);
+        List<Integer> keys = new ArrayList<>(copy.getPredicateExecutionCount().keySet());
+        assertEquals(Arrays.asList(7), keys);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullValuesAreRejected() {
+        new IntIntArrayMap().put(1, null);
+    }
+
+    @Test
+    public void testConcurrentWrites() throws InterruptedException {
+        // SUT threads write the trace concurrently if the caller thread is not checked
+        IntIntArrayMap map = new IntIntArrayMap();
+        ExecutionTracer.setCheckCallerThread(false);
+        try {
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        map.increment(i % 1000);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            ExecutionTracer.setCheckCallerThread(true);
+        }
+        assertEquals(1000, map.size());
+        for (int key = 0; key < 1000; key++) {
+            assertEquals(40, map.getInt(key, 0));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import com.examples.with.different.packagename.ClassWithPublicField;
+import org.evosuite.runtime.testdata.EvoSuiteFile;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ClassPrimitiveStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.environment.FileNamePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.evosuite.utils.generic.GenericClassFactory;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryTestReaderTest {
+
+    private static TestChromosome toChromosome(TestCase test) {
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(test);
+        return chromosome;
+    }
+
+    private static TestCase getTestWithAllStatements() throws ReflectiveOperationException {
+        DefaultTestCase test = new DefaultTestCase();
+        GenericConstructor constructor = new GenericConstructor(ClassWithPublicField.class.getConstructor(),
+                ClassWithPublicField.class);
+        VariableReference object = test.addStatement(new ConstructorStatement(test, constructor,
+                Collections.emptyList()));
+        VariableReference string = test.addStatement(new StringPrimitiveStatement(test, "Bar"));
+        GenericField field = new GenericField(ClassWithPublicField.class.getField("y"), ClassWithPublicField.class);
+        test.addStatement(new AssignmentStatement(test, new FieldReference(test, field, object), string));
+
+        addListStatements(test, string);
+
+        ArrayReference array = new ArrayReference(test, GenericClassFactory.get(int[].class), new int[]{2});
+        test.addStatement(new ArrayStatement(test, array, new int[]{2}));
+        VariableReference value = test.addStatement(new IntPrimitiveStatement(test, -7));
+        test.addStatement(new AssignmentStatement(test, new ArrayIndex(test, array, 1), value));
+
+        test.addStatement(new EnumPrimitiveStatement<>(test, Thread.State.NEW));
+        test.addStatement(new NullStatement(test, String.class));
+        test.addStatement(new ClassPrimitiveStatement(test, String.class));
+        test.addStatement(new FieldStatement(test,
+                new GenericField(Integer.class.getField("MAX_VALUE"), Integer.class), null));
+        return test;
+    }
+
+    private static void addListStatements(TestCase test, VariableReference string) throws ReflectiveOperationException {
+        Type listType = new ParameterizedTypeImpl(ArrayList.class, new Type[]{String.class}, null);
+        VariableReference list = test.addStatement(new ConstructorStatement(test,
+                new GenericConstructor(ArrayList.class.getConstructor(), listType), Collections.emptyList()));
+        GenericMethod add = new GenericMethod(ArrayList.class.getMethod("add", Object.class), listType);
+        test.addStatement(new MethodStatement(test, add, list, Collections.singletonList(string)));
+    }
+
+    private static byte[] write(TestCase... tests) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryTestWriter writer = new BinaryTestWriter(bytes)) {
+            for (TestCase test : tests) {
+                writer.write(toChromosome(test));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<TestChromosome> read(byte[] bytes, ClassLoader loader) throws IOException {
+        List<TestChromosome> tests = new ArrayList<>();
+        try (BinaryTestReader reader = new BinaryTestReader(new ByteArrayInputStream(bytes), loader)) {
+            reader.forEachRemaining(tests::add);
+        }
+        return tests;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        TestCase test = getTestWithAllStatements();
+        TestCase copy = test.clone();
+        copy.addStatement(new StringPrimitiveStatement(copy, "Foo"), 1);
+
+        List<TestChromosome> tests = read(write(test, copy), getClass().getClassLoader());
+        assertEquals(2, tests.size());
+        assertEquals(test.toCode(), tests.get(0).getTestCase().toCode());
+        assertEquals(copy.toCode(), tests.get(1).getTestCase().toCode());
+        assertTrue(test.isValid());
+        assertTrue(tests.get(1).getTestCase().isValid());
+    }
+
+    @Test
+    public void testUnsupportedStatementsUseJavaSerialization() throws Exception {
+        DefaultTestCase test = new DefaultTestCase();
+        test.addStatement(new FileNamePrimitiveStatement(test, new EvoSuiteFile("foo.txt")));
+        test.addStatement(new IntPrimitiveStatement(test, 42));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryTestWriter writer = new BinaryTestWriter(bytes)) {
+            writer.write(toChromosome(test));
+            writer.write(toChromosome(getTestWithAllStatements()));
+            assertEquals(1, writer.getNumJavaRecords());
+            assertEquals(1, writer.getNumBinaryRecords());
+        }
+
+        List<TestChromosome> tests = read(bytes.toByteArray(), getClass().getClassLoader());
+        assertEquals(2, tests.size());
+        assertEquals(test.toCode(), tests.get(0).getTestCase().toCode());
+        assertEquals(getTestWithAllStatements().toCode(), tests.get(1).getTestCase().toCode());
+    }
+
+    @Test
+    public void testUnresolvedTestsAreSkipped() throws Exception {
+        DefaultTestCase test = new DefaultTestCase();
+        VariableReference string = test.addStatement(new StringPrimitiveStatement(test, "Bar"));
+        addListStatements(test, string);
+
+        // the list statements are defined by the first test, which cannot
+        // be loaded without the classes of EvoSuite's tests
+        byte[] bytes = write(getTestWithAllStatements(), test);
+        ClassLoader bootstrapOnly = new URLClassLoader(new URL[0], null);
+        List<TestChromosome> tests = read(bytes, bootstrapOnly);
+        assertEquals(1, tests.size());
+        assertEquals(test.toCode(), tests.get(0).getTestCase().toCode());
+    }
+
+    @Test
+    public void testTestsAreReadLazily() throws Exception {
+        byte[] bytes = write(getTestWithAllStatements(), getTestWithAllStatements());
+        // the second record is truncated
+        byte[] truncated = new byte[bytes.length - 5];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+        try (BinaryTestReader reader = new BinaryTestReader(new ByteArrayInputStream(truncated),
+                getClass().getClassLoader())) {
+            assertTrue(reader.hasNext());
+            assertEquals(getTestWithAllStatements().toCode(), reader.next().getTestCase().toCode());
+            assertFalse(reader.hasNext());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SuiteTraceSummaryTest {
+
+    /**
+     * Create a result whose trace executed the given branches, with
+     * {branchId, trueDistance, falseDistance} triples
+     */
+    private static ExecutionResult getResult(String method, double[]... branches) {
+        ExecutionTraceImpl trace = new ExecutionTraceImpl();
+        for (double[] branch : branches) {
+            int branchId = (int) branch[0];
+            trace.coveredPredicates.increment(branchId);
+            trace.trueDistances.putDouble(branchId, branch[1]);
+            trace.falseDistances.putDouble(branchId, branch[2]);
+        }
+        trace.coveredMethods.put(method, 1);
+        ExecutionResult result = new ExecutionResult(new DefaultTestCase());
+        result.setTrace(trace);
+        return result;
+    }
+
+    private static void assertSameSummary(SuiteTraceSummary expected, SuiteTraceSummary actual) {
+        assertEquals(expected.getPredicateExecutionCount(), actual.getPredicateExecutionCount());
+        assertEquals(expected.getTrueDistances(), actual.getTrueDistances());
+        assertEquals(expected.getFalseDistances(), actual.getFalseDistances());
+        assertEquals(expected.getMethodExecutionCount(), actual.getMethodExecutionCount());
+        assertEquals(expected.hasTimeoutOrTestException(), actual.hasTimeoutOrTestException());
+    }
+
+    @Test
+    public void testTracesAreFused() {
+        List<ExecutionResult> results = Arrays.asList(
+                getResult("Foo.foo()V", new double[]{0, 1.0, 0.0}, new double[]{1, 3.0, 0.0}),
+                getResult("Foo.foo()V", new double[]{1, 2.0, 0.0}, new double[]{70, 0.0, 5.0}));
+
+        SuiteTraceSummary summary = SuiteTraceSummary.of(new TestSuiteChromosome(), results);
+        assertEquals(3, summary.getPredicateExecutionCount().size());
+        assertEquals(2, summary.getPredicateExecutionCount().getInt(1, 0));
+        assertEquals(2.0, summary.getTrueDistances().getDouble(1, -1.0), 0.0);
+        assertEquals(0.0, summary.getTrueDistances().getDouble(70, -1.0), 0.0);
+        assertEquals(5.0, summary.getFalseDistances().getDouble(70, -1.0), 0.0);
+        assertEquals(Integer.valueOf(2), summary.getMethodExecutionCount().get("Foo.foo()V"));
+        assertFalse(summary.hasTimeoutOrTestException());
+    }
+
+    @Test
+    public void testSummaryIsUpdatedIncrementally() {
+        List<ExecutionResult> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(getResult("Foo.m" + (i % 2) + "()V", new double[]{i % 3, i, 10 - i}, new double[]{3, 1.0, 1.0}));
+        }
+        TestSuiteChromosome suite = new TestSuiteChromosome();
+        SuiteTraceSummary summary = SuiteTraceSummary.of(suite, results);
+
+        // the clone of the suite starts with a copy of the summary
+        TestSuiteChromosome clone = suite.clone();
+        List<ExecutionResult> cloneResults = new ArrayList<>();
+        for (ExecutionResult result : results) {
+            cloneResults.add(result.clone());
+        }
+        // replace the results holding the minimal distances of branch 0, and remove one result
+        cloneResults.set(0, getResult("Foo.m2()V", new double[]{0, 4.0, 4.0}));
+        cloneResults.set(9, getResult("Foo.m0()V", new double[]{5, 1.0, 0.0}));
+        cloneResults.remove(4);
+
+        SuiteTraceSummary incremental = SuiteTraceSummary.of(clone, cloneResults);
+        assertNotSame(summary, incremental);
+        SuiteTraceSummary expected = SuiteTraceSummary.of(new TestSuiteChromosome(), cloneResults);
+        assertSameSummary(expected, incremental);
+        assertEquals(3.0, incremental.getTrueDistances().getDouble(0, -1.0), 0.0);
+        assertEquals(4.0, incremental.getFalseDistances().getDouble(0, -1.0), 0.0);
+        assertEquals(Integer.valueOf(4), incremental.getMethodExecutionCount().get("Foo.m1()V"));
+
+        // the summary of the original suite is unchanged
+        assertSameSummary(SuiteTraceSummary.of(new TestSuiteChromosome(), results), SuiteTraceSummary.of(suite, results));
+        assertEquals(0.0, summary.getTrueDistances().getDouble(0, -1.0), 0.0);
+    }
+}
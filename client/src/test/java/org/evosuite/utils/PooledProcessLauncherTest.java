@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PooledProcessLauncherTest {
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(new File("/bin/cat").exists() && new File("/bin/sh").exists());
+    }
+
+    @After
+    public void tearDown() {
+        PooledProcessLauncher.resetSingleton();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    @Test
+    public void testPrespawnedProcessIsUsed() throws Exception {
+        PooledProcessLauncher launcher = PooledProcessLauncher.getInstance();
+        for (String input : Arrays.asList("foo", "bar")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(0, launcher.launch("/bin/cat", input.getBytes(StandardCharsets.UTF_8), out, 10000));
+            assertEquals(input, out.toString("UTF-8"));
+        }
+        assertEquals(2, launcher.getNumberOfLaunches());
+        // the second process might still be starting
+        Thread.sleep(500);
+        launcher.launch("/bin/cat", new byte[0], new ByteArrayOutputStream(), 10000);
+        assertEquals(3, launcher.getNumberOfLaunches());
+        assertTrue(launcher.getNumberOfPrespawnedLaunches() >= 1);
+    }
+
+    @Test
+    public void testNoPrespawnedProcesses() throws Exception {
+        Properties.PRESPAWNED_PROCESSES = 0;
+        PooledProcessLauncher launcher = PooledProcessLauncher.getInstance();
+        for (int i = 0; i < 3; i++) {
+            launcher.launch("/bin/cat", new byte[0], new ByteArrayOutputStream(), 10000);
+        }
+        assertEquals(0, launcher.getNumberOfPrespawnedLaunches());
+    }
+
+    @Test
+    public void testLargeInput() throws Exception {
+        byte[] input = new byte[4 * 1024 * 1024];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (byte) ('a' + i % 26);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, PooledProcessLauncher.getInstance().launch("/bin/cat", input, out, 10000));
+        assertArrayEquals(input, out.toByteArray());
+    }
+
+    @Test
+    public void testExitValueAndStderr() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int exitValue = PooledProcessLauncher.getInstance().launch("/bin/sh",
+                "echo error >&2; exit 3".getBytes(StandardCharsets.UTF_8), out, 10000);
+        assertEquals(3, exitValue);
+        assertEquals("error\n", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void testResetStopsThePooledThreads() throws Exception {
+        PooledProcessLauncher launcher = PooledProcessLauncher.getInstance();
+        launcher.launch("/bin/cat", new byte[0], new ByteArrayOutputStream(), 10000);
+        PooledProcessLauncher.resetSingleton();
+        try {
+            launcher.launch("/bin/cat", new byte[0], new ByteArrayOutputStream(), 10000);
+            fail("Expected the reset launcher to be shut down");
+        } catch (IOException e) {
+            // expected
+        }
+        assertNotSame(launcher, PooledProcessLauncher.getInstance());
+        assertEquals(0, PooledProcessLauncher.getInstance().launch("/bin/cat", new byte[0],
+                new ByteArrayOutputStream(), 10000));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        try {
+            PooledProcessLauncher.getInstance().launch("/bin/sh", "sleep 10".getBytes(StandardCharsets.UTF_8),
+                    new ByteArrayOutputStream(), 200);
+            fail("Expected timeout");
+        } catch (ProcessTimeoutException e) {
+            // expected
+        }
+    }
+}
@@ -21,6 +21,10 @@ package org.evosuite.utils;
 
 import org.junit.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -40,4 +44,17 @@ public class RandomnessTest {
                     (Double.compare(r, min) >= 0) && (Double.compare(r, max) <= 0));
         }
     }
+
+    @Test
+    public void testSeedForClient() {
+        long seed = 42L;
+        assertEquals(seed, Randomness.getSeedForClient(seed, 0));
+
+        Set<Long> seeds = new HashSet<>();
+        for (int i = 0; i < 64; i++) {
+            long clientSeed = Randomness.getSeedForClient(seed, i);
+            assertEquals(clientSeed, Randomness.getSeedForClient(seed, i));
+            assertTrue("duplicate seed for client " + i, seeds.add(clientSeed));
+        }
+    }
 }
@@ -44,6 +44,8 @@ public class StatisticsBackendFactory {
                 return new HTMLStatisticsBackend();
             case DEBUG:
                 return new DebugStatisticsBackend();
+            case STREAMING:
+                return new StreamingStatisticsBackend();
             case NONE:
             default:
                 // If no backend is specified, there is no output
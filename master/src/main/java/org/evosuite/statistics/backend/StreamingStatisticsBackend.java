@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.OutputVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Statistics backend for long runs over many classes (e.g., continuous
+ * test generation).
+ * <p>
+ * The scalar output variables are appended to <code>statistics.csv</code>
+ * as in {@link CSVStatisticsBackend}. The timeline variables (i.e.,
+ * <code>CoverageTimeline_T1</code>, <code>CoverageTimeline_T2</code>, ...)
+ * are not spread over columns of the CSV file, but appended to
+ * <code>timelines.bin</code> in a compact binary form, one record with one
+ * column of values per timeline and result. {@link TimelineCSVExporter}
+ * converts this file back to CSV.
+ * <p>
+ * Both files are kept open for the whole run. The rows of a result are
+ * collected in a buffer, which is written to the file once the result is
+ * complete, so that no row is lost if the process is killed. The files are
+ * forced to disk every {@link Properties#STATISTICS_SYNC_INTERVAL}
+ * milliseconds by a background thread, and on shutdown. Nothing else is
+ * retained between results, so the memory used does not depend on the
+ * number of classes.
+ */
+public class StreamingStatisticsBackend implements StatisticsBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingStatisticsBackend.class);
+
+    public static final String STATISTICS_FILE = "statistics.csv";
+
+    public static final String TIMELINES_FILE = "timelines.bin";
+
+    /**
+     * Header of the timelines file: "EVTL" and the version of the format
+     */
+    static final int MAGIC = 0x4556544C;
+    static final int VERSION = 1;
+
+    /**
+     * Tag preceding each record of the timelines file
+     */
+    static final byte RECORD = 1;
+
+    static final byte LONG_VALUES = 0;
+    static final byte DOUBLE_VALUES = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern TIMELINE_VARIABLE = Pattern.compile("(.+)_T(\\d+)");
+
+    /**
+     * Writers are shared by all the backends of this process, as there is
+     * one backend per client
+     */
+    private static final Map<File, ChannelWriter> writers = new HashMap<>();
+
+    private static boolean shutdownHookAdded = false;
+
+    /**
+     * Periodically forces the written rows to disk, while files are open
+     */
+    private static ScheduledExecutorService syncExecutor = null;
+
+    @Override
+    public void writeData(Chromosome<?> result, Map<String, OutputVariable<?>> data) {
+        Map<String, Object> scalars = new LinkedHashMap<>();
+        Map<String, List<Object>> timelines = new LinkedHashMap<>();
+        for (OutputVariable<?> variable : data.values()) {
+            Matcher matcher = TIMELINE_VARIABLE.matcher(variable.getName());
+            if (matcher.matches()) {
+                List<Object> values = timelines.computeIfAbsent(matcher.group(1), k -> new ArrayList<>());
+                int index = Integer.parseInt(matcher.group(2)) - 1;
+                while (values.size() <= index) {
+                    values.add(null);
+                }
+                values.set(index, variable.getValue());
+            } else {
+                scalars.put(variable.getName(), variable.getValue());
+            }
+        }
+
+        try {
+            File outputDir = CSVStatisticsBackend.getReportDir();
+            ChannelWriter statistics = getWriter(new File(outputDir, STATISTICS_FILE));
+            synchronized (statistics) {
+                if (statistics.isEmpty()) {
+                    statistics.write(toCSVLine(scalars.keySet()));
+                }
+                statistics.write(toCSVLine(scalars.values()));
+                statistics.flush();
+            }
+
+            if (!timelines.isEmpty()) {
+                Object key = scalars.get("TARGET_CLASS");
+                byte[] record = toRecord(key == null ? "" : key.toString(), timelines);
+                ChannelWriter timelineWriter = getWriter(new File(outputDir, TIMELINES_FILE));
+                synchronized (timelineWriter) {
+                    if (timelineWriter.isEmpty()) {
+                        timelineWriter.write(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).array());
+                    }
+                    timelineWriter.write(record);
+                    timelineWriter.flush();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Error while writing statistics: " + e.getMessage());
+        }
+    }
+
+    private static byte[] toCSVLine(Iterable<?> values) {
+        StringBuilder r = new StringBuilder();
+        Iterator<?> it = values.iterator();
+        while (it.hasNext()) {
+            r.append(it.next());
+            if (it.hasNext())
+                r.append(",");
+        }
+        r.append("\n");
+        return r.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toRecord(String key, Map<String, List<Object>> timelines) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(RECORD);
+        out.writeUTF(key);
+        out.writeInt(timelines.size());
+        for (Entry<String, List<Object>> timeline : timelines.entrySet()) {
+            List<Object> values = timeline.getValue();
+            boolean integral = values.stream().allMatch(v -> v instanceof Long || v instanceof Integer
+                    || v instanceof Short || v instanceof Byte);
+            out.writeUTF(timeline.getKey());
+            out.writeByte(integral ? LONG_VALUES : DOUBLE_VALUES);
+            out.writeInt(values.size());
+            for (Object value : values) {
+                if (integral) {
+                    out.writeLong(((Number) value).longValue());
+                } else {
+                    out.writeDouble(value instanceof Number ? ((Number) value).doubleValue() : Double.NaN);
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static synchronized ChannelWriter getWriter(File file) throws IOException {
+        File key = file.getAbsoluteFile();
+        ChannelWriter writer = writers.get(key);
+        if (writer == null) {
+            writer = new ChannelWriter(key);
+            writers.put(key, writer);
+            if (!shutdownHookAdded) {
+                Runtime.getRuntime().addShutdownHook(new Thread(StreamingStatisticsBackend::closeAll));
+                shutdownHookAdded = true;
+            }
+            if (syncExecutor == null) {
+                syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "StatisticsSync");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                long interval = Math.max(1L, Properties.STATISTICS_SYNC_INTERVAL);
+                syncExecutor.scheduleWithFixedDelay(StreamingStatisticsBackend::syncAll, interval, interval,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Forces all the written rows to disk
+     */
+    static synchronized void syncAll() {
+        for (ChannelWriter writer : writers.values()) {
+            synchronized (writer) {
+                try {
+                    writer.sync();
+                } catch (IOException e) {
+                    logger.warn("Error while writing statistics: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all buffered rows, forces them to disk and closes the files.
+     * Further results are appended to the same files.
+     */
+    public static synchronized void closeAll() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+            syncExecutor = null;
+        }
+        for (ChannelWriter writer : writers.values()) {
+            synchronized (writer) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    logger.warn("Error while writing statistics: " + e.getMessage());
+                }
+            }
+        }
+        writers.clear();
+    }
+
+    /**
+     * Appends to a file through a buffer, which is written to the channel
+     * when full or flushed
+     */
+    private static final class ChannelWriter {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private boolean empty;
+
+        ChannelWriter(File file) throws IOException {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            empty = channel.size() == 0L;
+        }
+
+        boolean isEmpty() {
+            return empty;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            empty = false;
+            if (bytes.length > buffer.remaining()) {
+                flush();
+            }
+            if (bytes.length > buffer.capacity()) {
+                ByteBuffer direct = ByteBuffer.wrap(bytes);
+                while (direct.hasRemaining()) {
+                    channel.write(direct);
+                }
+            } else {
+                buffer.put(bytes);
+            }
+        }
+
+        void sync() throws IOException {
+            flush();
+            channel.force(false);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void close() throws IOException {
+            try {
+                sync();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Converts the timelines written by {@link StreamingStatisticsBackend} to
+ * CSV, with one row per record and one column per timeline value, named as
+ * by {@link CSVStatisticsBackend} (e.g., <code>CoverageTimeline_T1</code>).
+ * As for the CSV backend, the header is taken from the first record.
+ * <p>
+ * Records are converted one at a time, so that files of any size can be
+ * exported.
+ */
+public class TimelineCSVExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineCSVExporter.class);
+
+    /**
+     * @param timelines the binary file written by the streaming backend
+     * @param csv       the CSV file to create
+     * @return the number of exported records
+     * @throws IOException if the timelines cannot be read, or the CSV cannot be written
+     */
+    public static int export(File timelines, File csv) throws IOException {
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(timelines)));
+             Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(csv.toPath()),
+                     StandardCharsets.UTF_8))) {
+            if (in.readInt() != StreamingStatisticsBackend.MAGIC) {
+                throw new IOException("Not a timelines file: " + timelines);
+            }
+            int version = in.readInt();
+            if (version != StreamingStatisticsBackend.VERSION) {
+                throw new IOException("Unsupported version of timelines file: " + version);
+            }
+
+            StringBuilder header = new StringBuilder("TARGET_CLASS");
+            StringBuilder row = new StringBuilder();
+            int tag;
+            while ((tag = in.read()) != -1) {
+                if (tag != StreamingStatisticsBackend.RECORD) {
+                    throw new IOException("Corrupted timelines file: " + timelines);
+                }
+                row.setLength(0);
+                try {
+                    readRecord(in, records == 0 ? header : null, row);
+                } catch (EOFException e) {
+                    // the last record might be incomplete if the process was killed
+                    logger.warn("Ignoring incomplete record at the end of " + timelines);
+                    break;
+                }
+                if (records == 0) {
+                    out.write(header.append('\n').toString());
+                }
+                out.write(row.append('\n').toString());
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private static void readRecord(DataInputStream in, StringBuilder header, StringBuilder row) throws IOException {
+        row.append(in.readUTF());
+        int numTimelines = in.readInt();
+        for (int i = 0; i < numTimelines; i++) {
+            String name = in.readUTF();
+            byte type = in.readByte();
+            int numValues = in.readInt();
+            for (int j = 0; j < numValues; j++) {
+                if (header != null) {
+                    header.append(',').append(name).append("_T").append(j + 1);
+                }
+                row.append(',');
+                if (type == StreamingStatisticsBackend.LONG_VALUES) {
+                    row.append(in.readLong());
+                } else {
+                    row.append(in.readDouble());
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: " + TimelineCSVExporter.class.getName() + " <timelines.bin> <timelines.csv>");
+            return;
+        }
+        int records = export(new File(args[0]), new File(args[1]));
+        System.out.println("Exported " + records + " records to " + args[1]);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.ranking;
+
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
+import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
+import org.evosuite.ga.operators.ranking.RankingFunction;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EfficientNonDominatedSortingTest {
+
+    private static Set<FitnessFunction<TestChromosome>> createGoals(int numGoals) {
+        Set<FitnessFunction<TestChromosome>> goals = new LinkedHashSet<>();
+        for (int i = 0; i < numGoals; i++) {
+            goals.add(Mockito.mock(TestFitnessFunction.class));
+        }
+        return goals;
+    }
+
+    private static List<TestChromosome> createSolutions(Set<FitnessFunction<TestChromosome>> goals, int size,
+                                                        Random random) {
+        List<TestChromosome> solutions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            TestChromosome solution = new TestChromosome();
+            for (FitnessFunction<TestChromosome> ff : goals) {
+                // few distinct values, such that there are ties
+                solution.setFitness(ff, random.nextInt(5));
+            }
+            solutions.add(solution);
+        }
+        return solutions;
+    }
+
+    /**
+     * Chromosomes are compared by identity, as all the tests are empty
+     */
+    private static Set<TestChromosome> toSet(List<TestChromosome> front) {
+        Set<TestChromosome> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(front);
+        return set;
+    }
+
+    private static int indexOf(List<TestChromosome> solutions, TestChromosome solution) {
+        for (int i = 0; i < solutions.size(); i++) {
+            if (solutions.get(i) == solution) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void assertSameFronts(RankingFunction<TestChromosome> expected,
+                                         RankingFunction<TestChromosome> actual) {
+        assertEquals(expected.getNumberOfSubfronts(), actual.getNumberOfSubfronts());
+        for (int i = 0; i < expected.getNumberOfSubfronts(); i++) {
+            assertEquals(expected.getSubfront(i).size(), actual.getSubfront(i).size());
+            assertEquals(toSet(expected.getSubfront(i)), toSet(actual.getSubfront(i)));
+        }
+    }
+
+    @Test
+    public void testSameFrontsAsFastNonDominatedSorting() {
+        Random random = new Random(42);
+        for (int numGoals : new int[]{1, 2, 5}) {
+            Set<FitnessFunction<TestChromosome>> goals = createGoals(numGoals);
+            List<TestChromosome> solutions = createSolutions(goals, 100, random);
+
+            FastNonDominatedSorting<TestChromosome> fnds = new FastNonDominatedSorting<>();
+            fnds.computeRankingAssignment(solutions, goals);
+            EfficientNonDominatedSorting<TestChromosome> ens = new EfficientNonDominatedSorting<>(false);
+            ens.computeRankingAssignment(solutions, goals);
+
+            assertSameFronts(fnds, ens);
+            // solutions keep their order within the fronts
+            List<TestChromosome> front = ens.getSubfront(0);
+            for (int i = 1; i < front.size(); i++) {
+                assertTrue(indexOf(solutions, front.get(i - 1)) < indexOf(solutions, front.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalRanking() {
+        Random random = new Random(42);
+        Set<FitnessFunction<TestChromosome>> goals = createGoals(4);
+        EfficientNonDominatedSorting<TestChromosome> incremental = new EfficientNonDominatedSorting<>(true);
+        List<TestChromosome> population = createSolutions(goals, 50, random);
+
+        for (int generation = 0; generation < 10; generation++) {
+            List<TestChromosome> union = new ArrayList<>(population);
+            union.addAll(createSolutions(goals, 50, random));
+
+            incremental.computeRankingAssignment(union, goals);
+            FastNonDominatedSorting<TestChromosome> fnds = new FastNonDominatedSorting<>();
+            fnds.computeRankingAssignment(union, goals);
+            assertSameFronts(fnds, incremental);
+
+            // elitist selection of the next population from the first fronts
+            population = new ArrayList<>();
+            for (int i = 0; population.size() < 50; i++) {
+                List<TestChromosome> front = incremental.getSubfront(i);
+                population.addAll(front.subList(0, Math.min(front.size(), 50 - population.size())));
+            }
+        }
+
+        // the previous ranking cannot be reused with other goals, or other solutions
+        goals.add(Mockito.mock(TestFitnessFunction.class));
+        List<TestChromosome> union = new ArrayList<>(population.subList(25, 50));
+        union.addAll(createSolutions(goals, 50, random));
+        incremental.computeRankingAssignment(union, goals);
+        FastNonDominatedSorting<TestChromosome> fnds = new FastNonDominatedSorting<>();
+        fnds.computeRankingAssignment(union, goals);
+        assertSameFronts(fnds, incremental);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import org.evosuite.Properties;
+import org.evosuite.statistics.OutputVariable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingStatisticsBackendTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        Properties.REPORT_DIR = folder.getRoot().getAbsolutePath();
+        Properties.STATISTICS_SYNC_INTERVAL = Long.MAX_VALUE;
+    }
+
+    @After
+    public void tearDown() {
+        StreamingStatisticsBackend.closeAll();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static Map<String, OutputVariable<?>> getData(String targetClass, Object... timeline) {
+        Map<String, OutputVariable<?>> data = new LinkedHashMap<>();
+        data.put("TARGET_CLASS", new OutputVariable<>("TARGET_CLASS", targetClass));
+        data.put("Coverage", new OutputVariable<>("Coverage", 0.5));
+        for (int i = 0; i < timeline.length; i++) {
+            String name = "CoverageTimeline_T" + (i + 1);
+            data.put(name, new OutputVariable<>(name, timeline[i]));
+        }
+        for (int i = 0; i < timeline.length; i++) {
+            String name = "SizeTimeline_T" + (i + 1);
+            data.put(name, new OutputVariable<>(name, i));
+        }
+        return data;
+    }
+
+    @Test
+    public void testRowsReachTheFileBeforeClosing() throws IOException {
+        StreamingStatisticsBackend backend = new StreamingStatisticsBackend();
+        backend.writeData(null, getData("Foo", 0.25, 0.75));
+        File statistics = new File(folder.getRoot(), StreamingStatisticsBackend.STATISTICS_FILE);
+        // a killed process must not lose the results written so far
+        assertEquals(Arrays.asList("TARGET_CLASS,Coverage", "Foo,0.5"), Files.readAllLines(statistics.toPath()));
+
+        new StreamingStatisticsBackend().writeData(null, getData("Bar", 1.0, 1.0));
+        assertEquals(Arrays.asList("TARGET_CLASS,Coverage", "Foo,0.5", "Bar,0.5"),
+                Files.readAllLines(statistics.toPath()));
+        File timelines = new File(folder.getRoot(), StreamingStatisticsBackend.TIMELINES_FILE);
+        long timelinesLength = timelines.length();
+        assertTrue(timelinesLength > 0);
+
+        StreamingStatisticsBackend.closeAll();
+        assertEquals(Arrays.asList("TARGET_CLASS,Coverage", "Foo,0.5", "Bar,0.5"),
+                Files.readAllLines(statistics.toPath()));
+        assertEquals(timelinesLength, timelines.length());
+    }
+
+    @Test
+    public void testTimelinesAreExportedToCSV() throws IOException {
+        StreamingStatisticsBackend backend = new StreamingStatisticsBackend();
+        backend.writeData(null, getData("Foo", 0.25, 0.75));
+        backend.writeData(null, getData("Bar", 1.0, 1.0));
+        StreamingStatisticsBackend.closeAll();
+        // later results are appended to the same files
+        backend.writeData(null, getData("Baz", 0.0, 0.5));
+        StreamingStatisticsBackend.closeAll();
+
+        File csv = new File(folder.getRoot(), "timelines.csv");
+        int records = TimelineCSVExporter.export(
+                new File(folder.getRoot(), StreamingStatisticsBackend.TIMELINES_FILE), csv);
+        assertEquals(3, records);
+        assertEquals(Arrays.asList(
+                "TARGET_CLASS,CoverageTimeline_T1,CoverageTimeline_T2,SizeTimeline_T1,SizeTimeline_T2",
+                "Foo,0.25,0.75,0,1",
+                "Bar,1.0,1.0,0,1",
+                "Baz,0.0,0.5,0,1"), Files.readAllLines(csv.toPath()));
+    }
+
+    @Test
+    public void testNoTimelinesFileWithoutTimelines() {
+        new StreamingStatisticsBackend().writeData(null, getData("Foo"));
+        StreamingStatisticsBackend.closeAll();
+        assertFalse(new File(folder.getRoot(), StreamingStatisticsBackend.TIMELINES_FILE).exists());
+    }
+}
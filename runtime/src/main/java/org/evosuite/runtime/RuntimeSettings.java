@@ -92,6 +92,12 @@ public class RuntimeSettings {
      */
     public static long maxNumberOfIterationsPerLoop = 10_000;
 
+    /**
+     * Beyond which size (in bytes) the data of the files in the virtual file
+     * system is stored outside of the heap. A negative value means never.
+     */
+    public static int vfsOffHeapThreshold = 1024 * 1024;
+
     /**
      * Should tests be executed in a separate instrumenting class loader
      * or with the standard classloader and instrumentation via an agent?
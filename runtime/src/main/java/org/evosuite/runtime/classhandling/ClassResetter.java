@@ -31,6 +31,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -58,8 +59,11 @@ public class ClassResetter {
 
     private final Map<ClassLoader, Map<String, Method>> resetMethodCache;
 
+    private final Map<ClassLoader, Map<String, StaticFieldSnapshot>> snapshotCache;
+
     private ClassResetter() {
         resetMethodCache = new HashMap<>();
+        snapshotCache = new HashMap<>();
     }
 
     /**
@@ -78,6 +82,14 @@ public class ClassResetter {
         this.loader = loader;
     }
 
+    /**
+     * @return the class loader of the classes to reset, or <code>null</code>
+     * if it was not set yet
+     */
+    ClassLoader getClassLoader() {
+        return loader;
+    }
+
 
     /**
      * Only log once for a class
@@ -124,6 +136,82 @@ public class ClassResetter {
         return resetMethodCache.get(loader).get(classNameWithDots);
     }
 
+    /**
+     * Fields added by coverage tools, which are neither reset nor restored
+     *
+     * @param fieldName
+     * @return
+     */
+    public static boolean isCoverageToolField(String fieldName) {
+        return fieldName.startsWith("__cobertura") || fieldName.startsWith("$jacoco")
+                || fieldName.startsWith("$VRc") // Old Emma
+                || fieldName.startsWith("$gzoltar");
+    }
+
+    private Map<String, StaticFieldSnapshot> getSnapshots() {
+        return snapshotCache.computeIfAbsent(loader, l -> new HashMap<>());
+    }
+
+    /**
+     * Keeps the current values of the static fields of a class, which has
+     * just been reset, replacing any previous snapshot
+     *
+     * @param classNameWithDots
+     */
+    public void takeSnapshot(String classNameWithDots) {
+        try {
+            Class<?> clazz = loader.loadClass(classNameWithDots);
+            getSnapshots().put(classNameWithDots, new StaticFieldSnapshot(clazz));
+        } catch (Exception | Error e) {
+            getSnapshots().remove(classNameWithDots);
+            logWarn(classNameWithDots, e.getClass() + " thrown while taking snapshot of static fields of class "
+                    + classNameWithDots);
+        }
+    }
+
+    public void discardSnapshot(String classNameWithDots) {
+        getSnapshots().remove(classNameWithDots);
+    }
+
+    /**
+     * Notifies that static fields of a class were read, so that any mutable
+     * object they reference might have been changed
+     *
+     * @param classNameWithDots
+     * @param fieldNames
+     */
+    public void fieldsRead(String classNameWithDots, Collection<String> fieldNames) {
+        StaticFieldSnapshot snapshot = getSnapshots().get(classNameWithDots);
+        if (snapshot != null) {
+            snapshot.fieldsRead(fieldNames);
+        }
+    }
+
+    /**
+     * Restores the given static fields of a class from its snapshot, as an
+     * alternative to {@link #reset(String)} which does not execute any code
+     * of the class
+     *
+     * @param classNameWithDots
+     * @param fieldNames        the fields written since the snapshot
+     * @return false if there is no usable snapshot, and the class has to be reset
+     */
+    public boolean restoreSnapshot(String classNameWithDots, Collection<String> fieldNames) {
+        StaticFieldSnapshot snapshot = getSnapshots().get(classNameWithDots);
+        if (snapshot == null || !snapshot.canRestore(fieldNames)) {
+            return false;
+        }
+        try {
+            snapshot.restore(fieldNames);
+            return true;
+        } catch (Exception | Error e) {
+            getSnapshots().remove(classNameWithDots);
+            logWarn(classNameWithDots, e.getClass() + " thrown while restoring static fields of class "
+                    + classNameWithDots);
+            return false;
+        }
+    }
+
     /**
      * Invoke the duplicated version of class initializar <clinit>
      *
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.classhandling;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The values of the static fields of a class, taken right after its class
+ * initializer (or __STATIC_RESET) was executed, such that the fields can
+ * be restored without executing it again.
+ * <p>
+ * Only the references are kept: a field referencing a mutable object can
+ * only be restored as long as that object was not accessed, i.e., the
+ * field was not read.
+ */
+class StaticFieldSnapshot {
+
+    private static final Set<Class<?>> IMMUTABLE_CLASSES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, Class.class));
+
+    private final Map<String, Field> fields = new HashMap<>();
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    /**
+     * Fields referencing a mutable object which was read since the snapshot
+     */
+    private final Set<String> staleFields = new HashSet<>();
+
+    /**
+     * Reads the static fields of the class which are restored by
+     * __STATIC_RESET, i.e. all but final and coverage tool fields
+     *
+     * @param clazz an initialized class
+     * @throws IllegalAccessException if a field cannot be read
+     */
+    StaticFieldSnapshot(Class<?> clazz) throws IllegalAccessException {
+        for (Field field : clazz.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)
+                    || ClassResetter.isCoverageToolField(field.getName())) {
+                continue;
+            }
+            field.setAccessible(true);
+            fields.put(field.getName(), field);
+            values.put(field.getName(), field.get(null));
+        }
+    }
+
+    /**
+     * Marks the fields which were read, and reference a mutable object
+     *
+     * @param fieldNames the fields read since the snapshot
+     */
+    void fieldsRead(Collection<String> fieldNames) {
+        for (String fieldName : fieldNames) {
+            Field field = fields.get(fieldName);
+            if (field != null && !isImmutable(field, values.get(fieldName))) {
+                staleFields.add(fieldName);
+            }
+        }
+    }
+
+    /**
+     * The fields can only be restored if they all belong to this snapshot,
+     * and no mutable object referenced by the class was read
+     *
+     * @param fieldNames the fields written since the snapshot
+     * @return true if the state of the class can be restored
+     */
+    boolean canRestore(Collection<String> fieldNames) {
+        return staleFields.isEmpty() && fields.keySet().containsAll(fieldNames);
+    }
+
+    /**
+     * @param fieldNames the fields written since the snapshot
+     * @throws IllegalAccessException if a field cannot be written
+     */
+    void restore(Collection<String> fieldNames) throws IllegalAccessException {
+        for (String fieldName : fieldNames) {
+            fields.get(fieldName).set(null, values.get(fieldName));
+        }
+    }
+
+    private static boolean isImmutable(Field field, Object value) {
+        return field.getType().isPrimitive() || value == null || value instanceof Enum
+                || IMMUTABLE_CLASSES.contains(value.getClass());
+    }
+}
@@ -355,11 +355,7 @@ public class CreateClassResetClassAdapter extends ClassVisitor {
         mv.visitCode();
         for (StaticField staticField : static_fields) {
 
-            if (!finalFields.contains(staticField.name) && !staticField.name.startsWith("__cobertura")
-                    && !staticField.name.startsWith("$jacoco") && !staticField.name.startsWith("$VRc") // Old
-                    // Emma
-                    && !staticField.name.startsWith("$gzoltar")
-            ) {
+            if (!finalFields.contains(staticField.name) && !ClassResetter.isCoverageToolField(staticField.name)) {
 
                 logger.info("Adding bytecode for initializing field " + staticField.name);
 
@@ -19,6 +19,7 @@
  */
 package org.evosuite.runtime.instrumentation;
 
+import org.evosuite.runtime.classhandling.ClassResetter;
 import org.evosuite.runtime.instrumentation.CreateClassResetClassAdapter.StaticField;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
@@ -47,12 +48,7 @@ public class CreateClassResetMethodAdapter extends MethodVisitor {
         super.visitCode();
         for (StaticField staticField : staticFields) {
 
-            if (!finalFields.contains(staticField.name)
-                    && !staticField.name.startsWith("__cobertura")
-                    && !staticField.name.startsWith("$jacoco")
-                    && !staticField.name.startsWith("$VRc") // Old Emma
-                    && !staticField.name.startsWith("$gzoltar")
-            ) {
+            if (!finalFields.contains(staticField.name) && !ClassResetter.isCoverageToolField(staticField.name)) {
 
                 if (staticField.value != null) {
                     mv.visitLdcInsn(staticField.value);
@@ -60,6 +60,26 @@ public class NativeMockedIO {
 		return b; 
 	}
 
+
+	public static int read(String path, AtomicInteger position, byte[] b, int off, int len) throws IOException{
+		VFile vf = NativeMockedIO.getFileForReading(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+
+		VirtualFileSystem.getInstance().throwSimuledIOExceptionIfNeeded(path);
+
+		int read = vf.readBytes(position.get(), b, off, len);
+		if(read < len){
+			// as when reading byte per byte, hitting the end of the file moves the position one past it
+			position.addAndGet(Math.max(read, 0) + 1);
+		} else {
+			position.addAndGet(read);
+		}
+
+		return read;
+	}
+
 	
 	public static VFile getFileForWriting(String path){
 		FSObject target = VirtualFileSystem.getInstance().findFSObject(path);
@@ -70,7 +70,12 @@ public class SocketOut extends OutputStream{
 
 	@Override
 	public void write(byte[] b, int off, int len) throws IOException {
-		super.write(b, off, len);
+		checkClosed();
+		if(isLocal){
+			tcp.writeToRemote(b, off, len);
+		} else {
+			tcp.writeToSUT(b, off, len);
+		}
 	}
 
 
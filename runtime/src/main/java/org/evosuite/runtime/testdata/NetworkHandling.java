@@ -90,9 +90,7 @@ public class NetworkHandling {
          */
 
         if (data != null) {
-            for (byte b : data) {
-                connection.writeToSUT(b);
-            }
+            connection.writeToSUT(data, 0, data.length);
         }
         //TODO close connection? or should rather be in another helper function?
 
@@ -19,56 +19,81 @@
  */
 package org.evosuite.runtime.vfs;
 
+import org.evosuite.runtime.LeakingResource;
+import org.evosuite.runtime.RuntimeSettings;
+
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Representation of a virtual file
  *
+ * <p>
+ * The data is stored in chunks of {@link #CHUNK_SIZE} bytes, apart from small
+ * files which use a single, growing chunk. Chunks starting beyond
+ * {@link RuntimeSettings#vfsOffHeapThreshold} are allocated outside of the
+ * heap, so that the SUT writing large files does not fill the heap of the
+ * tests. Such files are released as leaking resources of the VFS.
+ *
  * @author arcuri
  */
 public class VFile extends FSObject {
 
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
     /**
-     * the actual data contained in file as a list of bytes
+     * the actual data contained in file, of which only the first {@code size} bytes are used
      */
-    private final List<Byte> data;
+    private final List<ByteBuffer> chunks;
+
+    private int size;
+
+    private boolean registeredAsLeaking;
 
     public VFile(String path, VFolder parent) {
         super(path, parent);
 
         //TODO might need a better type of data structure supporting multi-threading
-        data = new ArrayList<>(1024);
+        chunks = new ArrayList<>();
+        size = 0;
     }
 
-    public void eraseData() {
-        data.clear();
+    public synchronized void eraseData() {
+        chunks.clear();
+        size = 0;
     }
 
     public synchronized int getDataSize() {
-        return data.size();
+        return size;
     }
 
 
     public synchronized void setLength(int newLength) {
 
-        /*
-         * Note: this implementation is not particularly efficient...
-         * but setLength is rarely called
-         */
-
-        while (newLength > data.size()) {
-            data.add((byte) 0);
+        if (newLength > size) {
+            ensureCapacity(newLength);
+            size = newLength;
+            return;
         }
 
         if (newLength == 0) {
-            data.clear();
+            eraseData();
             return;
         }
 
-        while (data.size() > newLength) {
-            data.remove(data.size() - 1);
+        // data beyond the new length has to read as 0 if the file grows again
+        int usedChunks = (newLength + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        while (chunks.size() > usedChunks) {
+            chunks.remove(chunks.size() - 1);
         }
+        ByteBuffer last = chunks.get(usedChunks - 1);
+        for (int i = newLength - (usedChunks - 1) * CHUNK_SIZE; i < last.capacity(); i++) {
+            last.put(i, (byte) 0);
+        }
+        size = newLength;
     }
 
     /**
@@ -80,15 +105,42 @@ public class VFile extends FSObject {
             throw new IllegalArgumentException("Position in the file cannot be negative");
         }
 
-        if (position >= data.size()) {
+        if (position >= size) {
             return -1; //this represent the end of the stream
         }
 
-        return data.get(position) & 0xFF;
+        return chunks.get(position / CHUNK_SIZE).get(position % CHUNK_SIZE) & 0xFF;
+    }
+
+    /**
+     * Copy up to {@code len} bytes starting at {@code position} into {@code b}
+     *
+     * @return the number of bytes read, or -1 if {@code position} is at or beyond the end of the file
+     */
+    public synchronized int readBytes(int position, byte[] b, int off, int len) throws IllegalArgumentException {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position in the file cannot be negative");
+        }
+
+        if (position >= size) {
+            return len == 0 ? 0 : -1;
+        }
+
+        int toRead = Math.min(len, size - position);
+        int read = 0;
+        while (read < toRead) {
+            ByteBuffer chunk = chunks.get(position / CHUNK_SIZE).duplicate();
+            chunk.position(position % CHUNK_SIZE);
+            int n = Math.min(toRead - read, chunk.remaining());
+            chunk.get(b, off + read, n);
+            position += n;
+            read += n;
+        }
+        return read;
     }
 
     public synchronized int writeBytes(byte[] b, int off, int len) {
-        return writeBytes(data.size(), b, off, len);
+        return writeBytes(size, b, off, len);
     }
 
 
@@ -102,19 +154,20 @@ public class VFile extends FSObject {
             return 0;
         }
 
-        if (position >= data.size()) {
-            setLength(position);
+        int toWrite = Math.max(0, Math.min(len, b.length - off));
+        ensureCapacity(position + toWrite);
+        if (position + toWrite > size) {
+            size = position + toWrite;
         }
 
         int written = 0;
-        for (int i = off; i < b.length & (i - off) < len; i++) {
-            if (position < data.size()) {
-                data.set(position, (b[i]));
-            } else {
-                data.add(b[i]);
-            }
-            position++;
-            written++;
+        while (written < toWrite) {
+            ByteBuffer chunk = chunks.get(position / CHUNK_SIZE).duplicate();
+            chunk.position(position % CHUNK_SIZE);
+            int n = Math.min(toWrite - written, chunk.remaining());
+            chunk.put(b, off + written, n);
+            position += n;
+            written += n;
         }
 
         setLastModified(getCurrentTimeMillis());
@@ -122,6 +175,59 @@ public class VFile extends FSObject {
         return written;
     }
 
+    private void ensureCapacity(int capacity) {
+        if (capacity <= getCapacity()) {
+            return;
+        }
+
+        if (chunks.size() <= 1) {
+            // small files only use a single chunk, which grows up to CHUNK_SIZE
+            int current = chunks.isEmpty() ? 0 : chunks.get(0).capacity();
+            if (current < CHUNK_SIZE) {
+                int newCapacity = Math.min(CHUNK_SIZE, Math.max(capacity, Math.max(INITIAL_CAPACITY, current * 2)));
+                ByteBuffer grown = ByteBuffer.allocate(newCapacity);
+                if (current > 0) {
+                    ByteBuffer old = chunks.get(0).duplicate();
+                    old.clear();
+                    grown.put(old);
+                    grown.clear();
+                    chunks.set(0, grown);
+                } else {
+                    chunks.add(grown);
+                }
+            }
+        }
+
+        while (getCapacity() < capacity) {
+            chunks.add(allocateChunk((long) chunks.size() * CHUNK_SIZE));
+        }
+    }
+
+    private int getCapacity() {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        return (chunks.size() - 1) * CHUNK_SIZE + chunks.get(chunks.size() - 1).capacity();
+    }
+
+    private ByteBuffer allocateChunk(long start) {
+        int threshold = RuntimeSettings.vfsOffHeapThreshold;
+        if (threshold < 0 || start < threshold) {
+            return ByteBuffer.allocate(CHUNK_SIZE);
+        }
+        if (!registeredAsLeaking) {
+            // make sure the off-heap memory is not retained by tests keeping a reference to this file
+            VirtualFileSystem.getInstance().addLeakingResource(new LeakingResource() {
+                @Override
+                public void release() {
+                    eraseData();
+                }
+            });
+            registeredAsLeaking = true;
+        }
+        return ByteBuffer.allocateDirect(CHUNK_SIZE);
+    }
+
 
     @Override
     public synchronized boolean delete() {
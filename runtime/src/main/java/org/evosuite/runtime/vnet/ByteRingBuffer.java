@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vnet;
+
+/**
+ * Unbounded byte buffer for a single producer and a single consumer, which
+ * can write and read concurrently without locks.
+ * <p>
+ * The bytes are stored in a ring, so that the buffer does not allocate as
+ * long as the consumer keeps up with the producer. When the ring is full,
+ * the producer continues in a new ring of twice the size, which the
+ * consumer moves to once it has read all the bytes of the current one.
+ * <p>
+ * Data written by the producer is published by a volatile write of the
+ * index of the ring, and read by the consumer after a volatile read of that
+ * index (and vice versa for the free space). Each of the methods that write
+ * must only be called by one thread at a time, and so must the methods that
+ * read.
+ */
+final class ByteRingBuffer {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final class Ring {
+
+        private final byte[] data;
+
+        private final int mask;
+
+        /**
+         * Total number of bytes written to this ring, only updated by the producer
+         */
+        private volatile long writeIndex;
+
+        /**
+         * Total number of bytes read from this ring, only updated by the consumer
+         */
+        private volatile long readIndex;
+
+        /**
+         * Ring where the producer continued once this one was full
+         */
+        private volatile Ring next;
+
+        private Ring(int capacity) {
+            data = new byte[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private volatile Ring producerRing;
+
+    private volatile Ring consumerRing;
+
+    /**
+     * Total number of bytes written and read, to compute the size without
+     * walking the rings
+     */
+    private volatile long written;
+
+    private volatile long read;
+
+    ByteRingBuffer() {
+        producerRing = consumerRing = new Ring(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return the number of bytes written and not read yet
+     */
+    int size() {
+        long r = read;
+        return (int) Math.min(Integer.MAX_VALUE, written - r);
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Write a single byte. Only to be called by the producer
+     */
+    void write(byte b) {
+        Ring ring = writableRing(1);
+        long w = ring.writeIndex;
+        ring.data[(int) w & ring.mask] = b;
+        ring.writeIndex = w + 1;
+        written = written + 1;
+    }
+
+    /**
+     * Write <code>len</code> bytes of the array, starting at <code>off</code>.
+     * Only to be called by the producer
+     */
+    void write(byte[] b, int off, int len) {
+        checkBounds(b, off, len);
+        while (len > 0) {
+            Ring ring = writableRing(len);
+            long w = ring.writeIndex;
+            int n = Math.min(len, ring.data.length - (int) (w - ring.readIndex));
+            int start = (int) w & ring.mask;
+            int first = Math.min(n, ring.data.length - start);
+            System.arraycopy(b, off, ring.data, start, first);
+            System.arraycopy(b, off + first, ring.data, 0, n - first);
+            ring.writeIndex = w + n;
+            written = written + n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Return the ring of the producer, or a new one if that is full
+     *
+     * @param len the number of bytes still to write
+     */
+    private Ring writableRing(int len) {
+        Ring ring = producerRing;
+        if (ring.writeIndex - ring.readIndex < ring.data.length) {
+            return ring;
+        }
+        int capacity = ring.data.length << 1;
+        while (capacity < len && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        Ring next = new Ring(capacity);
+        producerRing = next;
+        // from now on the producer does not write to the old ring anymore
+        ring.next = next;
+        return next;
+    }
+
+    /**
+     * Read a single byte. Only to be called by the consumer
+     *
+     * @return a value between 0 and 255, or -1 if the buffer is empty
+     */
+    int read() {
+        Ring ring = readableRing();
+        if (ring == null) {
+            return -1;
+        }
+        long r = ring.readIndex;
+        int b = ring.data[(int) r & ring.mask] & 0xFF;
+        ring.readIndex = r + 1;
+        read = read + 1;
+        return b;
+    }
+
+    /**
+     * Read up to <code>len</code> bytes into the array, starting at
+     * <code>off</code>. Only to be called by the consumer
+     *
+     * @return the number of bytes read, which is 0 if the buffer is empty
+     */
+    int read(byte[] b, int off, int len) {
+        checkBounds(b, off, len);
+        int total = 0;
+        while (len > 0) {
+            Ring ring = readableRing();
+            if (ring == null) {
+                break;
+            }
+            long r = ring.readIndex;
+            int n = Math.min(len, (int) (ring.writeIndex - r));
+            int start = (int) r & ring.mask;
+            int first = Math.min(n, ring.data.length - start);
+            System.arraycopy(ring.data, start, b, off, first);
+            System.arraycopy(ring.data, 0, b, off + first, n - first);
+            ring.readIndex = r + n;
+            read = read + n;
+            off += n;
+            len -= n;
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Return the ring of the consumer, moving to the next one if it has
+     * been read completely, or null if there is nothing to read
+     */
+    private Ring readableRing() {
+        Ring ring = consumerRing;
+        while (ring.readIndex == ring.writeIndex) {
+            Ring next = ring.next;
+            // the producer stopped writing to the ring before linking the next one,
+            // so if it is still empty now it is done
+            if (next == null || ring.readIndex != ring.writeIndex) {
+                return next == null ? null : ring;
+            }
+            consumerRing = ring = next;
+        }
+        return ring;
+    }
+
+    private static void checkBounds(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException("Offset " + off + " and length " + len
+                    + " for array of length " + b.length);
+        }
+    }
+}
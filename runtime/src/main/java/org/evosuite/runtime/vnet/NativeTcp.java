@@ -19,16 +19,16 @@
  */
 package org.evosuite.runtime.vnet;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
-
 /**
  * Class used to simulate a bi-directional TCP socket connection between two hosts.
  * This class only handle the exchange of data between SUT and EvoSuite tests, and not
  * whether the connections are actually in place
  *
  * <p>
- * This class is thread-safe
+ * Each direction of the connection is a lock-free single-producer/single-consumer
+ * buffer: the SUT can write (read) while the test reads (writes) without any
+ * synchronization, but each side must not be used by several threads at the
+ * same time
  *
  * @author arcuri
  */
@@ -42,12 +42,12 @@ public class NativeTcp {
     /**
      * The TCP buffer used locally by the SUT
      */
-    private final Queue<Byte> localBuffer;
+    private final ByteRingBuffer localBuffer;
 
     /**
      * The TCP buffer used by the EvoSuite tests to simulate a remote connection
      */
-    private final Queue<Byte> remoteBuffer;
+    private final ByteRingBuffer remoteBuffer;
 
     /**
      * Info on local (SUT) address/port
@@ -67,8 +67,8 @@ public class NativeTcp {
 
         this.localEndPoint = localEndPoint; //this can be null
         this.remoteEndPoint = remoteEndPoint;
-        localBuffer = new ArrayDeque<>();
-        remoteBuffer = new ArrayDeque<>();
+        localBuffer = new ByteRingBuffer();
+        remoteBuffer = new ByteRingBuffer();
     }
 
     public boolean isBound() {
@@ -86,9 +86,17 @@ public class NativeTcp {
     /**
      * Used by SUT to simulate sending of data to remote host
      */
-    public synchronized void writeToRemote(byte b) {
+    public void writeToRemote(byte b) {
         //the data is directly added to remote buffer
-        remoteBuffer.add(b);
+        remoteBuffer.write(b);
+    }
+
+    /**
+     * Used by SUT to simulate sending of <code>len</code> bytes of the array,
+     * starting at <code>off</code>, to remote host
+     */
+    public void writeToRemote(byte[] b, int off, int len) {
+        remoteBuffer.write(b, off, len);
     }
 
     /**
@@ -98,15 +106,20 @@ public class NativeTcp {
      * Note: in Java bytes are signed in -128,127, whereas here we need to return a unsigned
      * int representation
      */
-    public synchronized int readInSUTfromRemote() {
-        if (localBuffer.isEmpty()) {
-            /*
-             * Note: in  TCP, a read operation on a empty buffer would be blocking
-             */
-            return -1;
-        }
+    public int readInSUTfromRemote() {
+        /*
+         * Note: in  TCP, a read operation on a empty buffer would be blocking
+         */
+        return localBuffer.read();
+    }
 
-        return localBuffer.poll() & 0xFF;
+    /**
+     * Read up to <code>len</code> bytes from stream into the array, starting at <code>off</code>
+     *
+     * @return the number of bytes read, or -1 if stream is empty and <code>len</code> is positive
+     */
+    public int readInSUTfromRemote(byte[] b, int off, int len) {
+        return read(localBuffer, b, off, len);
     }
 
     /**
@@ -114,8 +127,16 @@ public class NativeTcp {
      *
      * @param b
      */
-    public synchronized void writeToSUT(byte b) {
-        localBuffer.add(b);
+    public void writeToSUT(byte b) {
+        localBuffer.write(b);
+    }
+
+    /**
+     * Used by tests to simulate sending of <code>len</code> bytes of the array,
+     * starting at <code>off</code>, to the SUT
+     */
+    public void writeToSUT(byte[] b, int off, int len) {
+        localBuffer.write(b, off, len);
     }
 
     /**
@@ -125,25 +146,36 @@ public class NativeTcp {
      *
      * @return
      */
-    public synchronized int readInTestFromSUT() {
-        if (remoteBuffer.isEmpty()) {
-            return -1;
-        }
-        return remoteBuffer.poll() & 0xFF;
+    public int readInTestFromSUT() {
+        return remoteBuffer.read();
+    }
+
+    /**
+     * Read up to <code>len</code> bytes sent by the SUT into the array, starting at <code>off</code>
+     *
+     * @return the number of bytes read, or -1 if there is no data and <code>len</code> is positive
+     */
+    public int readInTestFromSUT(byte[] b, int off, int len) {
+        return read(remoteBuffer, b, off, len);
+    }
+
+    private static int read(ByteRingBuffer buffer, byte[] b, int off, int len) {
+        int n = buffer.read(b, off, len);
+        return n == 0 && len > 0 ? -1 : n;
     }
 
     /**
      * @return the amount of data sent by the remote host and that
      * has not been read yet by the local SUT
      */
-    public synchronized int getAmountOfDataInLocalBuffer() {
+    public int getAmountOfDataInLocalBuffer() {
         return localBuffer.size();
     }
 
     /**
      * @return the amount of data sent by the SUT to the remote host
      */
-    public synchronized int getAmountOfDataInRemoteBuffer() {
+    public int getAmountOfDataInRemoteBuffer() {
         return remoteBuffer.size();
     }
 
@@ -20,6 +20,8 @@
 package org.evosuite.runtime.classhandling;
 
 import com.examples.with.different.packagename.classhandling.MutableEnum;
+import com.examples.with.different.packagename.classhandling.StaticCounter;
+import org.evosuite.runtime.PrivateAccess;
 import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.instrumentation.EvoClassLoader;
 import org.junit.Assert;
@@ -27,6 +29,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 
 
 public class ClassResetterTest {
@@ -87,4 +90,46 @@ public class ClassResetterTest {
         Assert.assertEquals("a", getter.invoke(enums[0]));
         Assert.assertEquals("b", getter.invoke(enums[1]));
     }
+
+    @Test
+    public void testRestoreSnapshot() throws Exception {
+
+        ClassLoader loader = new EvoClassLoader();
+        boolean resetValue = RuntimeSettings.resetStaticState;
+        ClassLoader previousLoader = ClassResetter.getInstance().getClassLoader();
+        RuntimeSettings.resetStaticState = true;
+        ClassResetter.getInstance().setClassLoader(loader);
+        try {
+            String cut = StaticCounter.class.getCanonicalName();
+            Class<?> klass = loader.loadClass(cut);
+            Method increment = klass.getDeclaredMethod("increment");
+            Method getCounter = klass.getDeclaredMethod("getCounter");
+            Method getHistorySize = klass.getDeclaredMethod("getHistorySize");
+
+            Assert.assertFalse(ClassResetter.getInstance().restoreSnapshot(cut, Collections.singleton("counter")));
+            ClassResetter.getInstance().reset(cut);
+            ClassResetter.getInstance().takeSnapshot(cut);
+
+            increment.invoke(null);
+            Assert.assertEquals(43, getCounter.invoke(null));
+            Assert.assertTrue(ClassResetter.getInstance().restoreSnapshot(cut, Collections.singleton("counter")));
+            Assert.assertEquals(42, getCounter.invoke(null));
+
+            // fields which are not part of the snapshot
+            Assert.assertFalse(ClassResetter.getInstance().restoreSnapshot(cut, Collections.singleton("unknown")));
+
+            // the list might have been changed once it was read
+            ClassResetter.getInstance().fieldsRead(cut, Collections.singleton("history"));
+            Assert.assertFalse(ClassResetter.getInstance().restoreSnapshot(cut, Collections.singleton("counter")));
+
+            ClassResetter.getInstance().reset(cut);
+            ClassResetter.getInstance().takeSnapshot(cut);
+            Assert.assertEquals(0, getHistorySize.invoke(null));
+            Assert.assertTrue(ClassResetter.getInstance().restoreSnapshot(cut, Collections.singleton("counter")));
+        } finally {
+            RuntimeSettings.resetStaticState = resetValue;
+            // setClassLoader does not accept null, which is the initial value
+            PrivateAccess.setVariable(ClassResetter.class, ClassResetter.getInstance(), "loader", previousLoader);
+        }
+    }
 }
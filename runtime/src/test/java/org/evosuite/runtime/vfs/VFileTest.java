@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vfs;
+
+import org.evosuite.runtime.RuntimeSettings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class VFileTest {
+
+    private final int defaultThreshold = RuntimeSettings.vfsOffHeapThreshold;
+
+    private VFile file;
+
+    @Before
+    public void init() {
+        VirtualFileSystem.getInstance().resetSingleton();
+        VirtualFileSystem.getInstance().init();
+        file = new VFile("foo", null);
+    }
+
+    @After
+    public void tearDown() {
+        RuntimeSettings.vfsOffHeapThreshold = defaultThreshold;
+        VirtualFileSystem.getInstance().resetSingleton();
+    }
+
+    private static byte[] getData(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+
+    private byte[] readAll() {
+        byte[] data = new byte[file.getDataSize()];
+        Assert.assertEquals(data.length, Math.max(0, file.readBytes(0, data, 0, data.length)));
+        return data;
+    }
+
+    @Test
+    public void testWriteAndReadAcrossChunks() {
+        byte[] data = getData(3 * VFile.CHUNK_SIZE + 17);
+        // many small writes, as done by buffered streams
+        for (int i = 0; i < data.length; i += 1000) {
+            file.writeBytes(data, i, Math.min(1000, data.length - i));
+        }
+        Assert.assertEquals(data.length, file.getDataSize());
+        Assert.assertArrayEquals(data, readAll());
+        Assert.assertEquals(data[VFile.CHUNK_SIZE] & 0xFF, file.read(VFile.CHUNK_SIZE));
+        Assert.assertEquals(-1, file.read(data.length));
+
+        byte[] part = new byte[10];
+        Assert.assertEquals(7, file.readBytes(data.length - 7, part, 0, 10));
+        Assert.assertEquals(-1, file.readBytes(data.length, part, 0, 10));
+    }
+
+    @Test
+    public void testOverwriteBeyondEnd() {
+        file.writeBytes(new byte[]{1, 2, 3}, 0, 3);
+        file.writeBytes(5, new byte[]{4, 5}, 0, 2);
+        Assert.assertArrayEquals(new byte[]{1, 2, 3, 0, 0, 4, 5}, readAll());
+
+        file.writeBytes(1, new byte[]{9, 9, 9}, 1, 10);
+        Assert.assertArrayEquals(new byte[]{1, 9, 9, 0, 0, 4, 5}, readAll());
+    }
+
+    @Test
+    public void testSetLength() {
+        byte[] data = getData(VFile.CHUNK_SIZE + 100);
+        file.writeBytes(data, 0, data.length);
+
+        file.setLength(10);
+        Assert.assertArrayEquals(Arrays.copyOf(data, 10), readAll());
+
+        // data that was cut must not reappear
+        file.setLength(20);
+        Assert.assertArrayEquals(Arrays.copyOf(data, 10), Arrays.copyOf(readAll(), 10));
+        Assert.assertArrayEquals(new byte[10], Arrays.copyOfRange(readAll(), 10, 20));
+
+        file.setLength(0);
+        Assert.assertEquals(0, file.getDataSize());
+        Assert.assertEquals(-1, file.read(0));
+    }
+
+    @Test
+    public void testOffHeapDataIsReleased() {
+        RuntimeSettings.vfsOffHeapThreshold = VFile.CHUNK_SIZE;
+        byte[] data = getData(4 * VFile.CHUNK_SIZE);
+        file.writeBytes(data, 0, data.length);
+        Assert.assertArrayEquals(data, readAll());
+
+        VirtualFileSystem.getInstance().resetSingleton();
+        Assert.assertEquals(0, file.getDataSize());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vnet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class ByteRingBufferTest {
+
+    private static byte[] sequence(int start, int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (start + i);
+        }
+        return data;
+    }
+
+    @Test
+    public void testWrapAroundAndGrow() {
+        ByteRingBuffer buffer = new ByteRingBuffer();
+        Assert.assertEquals(-1, buffer.read());
+
+        // move the indices close to the end of the ring
+        buffer.write(sequence(0, 1000), 0, 1000);
+        Assert.assertEquals(1000, buffer.read(new byte[1000], 0, 1000));
+
+        // wraps around, then continues in a larger ring
+        byte[] data = sequence(7, 5000);
+        buffer.write(data, 0, 100);
+        buffer.write((byte) 107);
+        buffer.write(data, 101, 4899);
+        Assert.assertEquals(5000, buffer.size());
+
+        byte[] read = new byte[6000];
+        Assert.assertEquals(7, buffer.read());
+        Assert.assertEquals(4999, buffer.read(read, 1, 5999));
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 1, 5000), Arrays.copyOfRange(read, 1, 5000));
+        Assert.assertTrue(buffer.isEmpty());
+        Assert.assertEquals(0, buffer.read(read, 0, 10));
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentProducerAndConsumer() throws InterruptedException {
+        ByteRingBuffer buffer = new ByteRingBuffer();
+        int total = 1 << 20;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i += 300) {
+                int length = Math.min(300, total - i);
+                buffer.write(sequence(i, length), 0, length);
+            }
+        });
+        producer.start();
+
+        byte[] chunk = new byte[777];
+        int received = 0;
+        while (received < total) {
+            int n = buffer.read(chunk, 0, chunk.length);
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals((byte) (received + i), chunk[i]);
+            }
+            received += n;
+        }
+        producer.join();
+        Assert.assertEquals(-1, buffer.read());
+    }
+
+    @Test
+    public void testBulkReadOfNativeTcp() {
+        NativeTcp tcp = new NativeTcp(null, new EndPointInfo("127.0.0.1", 42, VirtualNetwork.ConnectionType.TCP));
+        tcp.writeToSUT(sequence(0, 10), 0, 10);
+        tcp.writeToRemote((byte) 3);
+        Assert.assertEquals(10, tcp.getAmountOfDataInLocalBuffer());
+
+        byte[] read = new byte[20];
+        Assert.assertEquals(0, tcp.readInSUTfromRemote(read, 0, 0));
+        Assert.assertEquals(10, tcp.readInSUTfromRemote(read, 0, 20));
+        Assert.assertEquals(-1, tcp.readInSUTfromRemote(read, 0, 20));
+        Assert.assertEquals(1, tcp.readInTestFromSUT(read, 0, 20));
+        Assert.assertEquals(3, read[0]);
+    }
+}